@@ -1,7 +1,7 @@
 package duration;
 
 /**
- * Durations represented compactly, with a range of 0 to 263-1
+ * Durations represented compactly, with a range of 0 to 2<sup>63</sup>-1
  * seconds.
  */
 public final class CompactDuration implements Duration {
@@ -35,6 +35,76 @@ public final class CompactDuration implements Duration {
     if ((hours < 0) || (minutes < 0) || (seconds < 0)) {
       throw new IllegalArgumentException("Negative durations are not supported");
     }
-    this.inSeconds = 3600 * hours + 60 * minutes + seconds;
+    this.inSeconds = 3600L * hours + 60L * minutes + seconds;
   }
-}
\ No newline at end of file
+
+  @Override
+  public long inSeconds() {
+    return inSeconds;
+  }
+
+  @Override
+  public String asHms() {
+    return HmsFormat.format(inSeconds);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws ArithmeticException if the sum exceeds the range of a compact duration
+   */
+  @Override
+  public Duration plus(Duration other) {
+    return new CompactDuration(Math.addExact(inSeconds, Durations.inSeconds(other)));
+  }
+
+  @Override
+  public Duration minus(Duration other) {
+    long difference = inSeconds - Durations.inSeconds(other);
+    if (difference < 0) {
+      throw new ArithmeticException("Negative durations are not supported");
+    }
+    return new CompactDuration(difference);
+  }
+
+  @Override
+  public Duration multipliedBy(long factor) {
+    if (factor < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    return new CompactDuration(Math.multiplyExact(inSeconds, factor));
+  }
+
+  @Override
+  public Duration dividedBy(long divisor) {
+    if (divisor < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    return new CompactDuration(inSeconds / divisor);
+  }
+
+  @Override
+  public int compareTo(Duration that) {
+    return Long.compare(this.inSeconds, Durations.inSeconds(that));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (!(o instanceof Duration)) {
+      return false;
+    }
+
+    Duration that = (Duration) o;
+
+    return this.inSeconds == Durations.inSeconds(that);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(inSeconds);
+  }
+}
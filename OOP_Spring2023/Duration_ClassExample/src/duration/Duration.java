@@ -36,4 +36,49 @@ public interface Duration extends Comparable<Duration> {
    * @return the sum of the durations
    */
   Duration plus(Duration other);
+
+  /**
+   * Returns the difference of two durations.
+   *
+   * @param other the duration to subtract from {@code this}
+   * @return the difference of the durations
+   * @throws ArithmeticException if {@code other} is longer than {@code this}
+   */
+  default Duration minus(Duration other) {
+    long difference = Durations.inSeconds(this) - Durations.inSeconds(other);
+    if (difference < 0) {
+      throw new ArithmeticException("Negative durations are not supported");
+    }
+    return Durations.ofSeconds(difference);
+  }
+
+  /**
+   * Returns this duration multiplied by a factor.
+   *
+   * @param factor the non-negative factor
+   * @return the product
+   * @throws IllegalArgumentException if {@code factor} is negative
+   * @throws ArithmeticException if the product overflows
+   */
+  default Duration multipliedBy(long factor) {
+    if (factor < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    return Durations.ofSeconds(Math.multiplyExact(Durations.inSeconds(this), factor));
+  }
+
+  /**
+   * Returns this duration divided by a divisor, rounded down to the second.
+   *
+   * @param divisor the positive divisor
+   * @return the quotient
+   * @throws IllegalArgumentException if {@code divisor} is negative
+   * @throws ArithmeticException if {@code divisor} is zero
+   */
+  default Duration dividedBy(long divisor) {
+    if (divisor < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    return Durations.ofSeconds(Durations.inSeconds(this) / divisor);
+  }
 }
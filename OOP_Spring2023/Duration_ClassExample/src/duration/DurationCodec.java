@@ -0,0 +1,167 @@
+package duration;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of durations. A duration is written as its length in seconds in the unsigned
+ * variable-length format also known as LEB128: seven bits per byte, least significant first,
+ * with the high bit set on every byte but the last. Durations under two minutes take one byte
+ * and no duration takes more than nine.
+ *
+ * <p>Arrays of durations are written as a version byte, the number of durations as a varint,
+ * then each duration. All methods read and write at the position of the buffer and advance it.
+ */
+public final class DurationCodec {
+  /** The version written in front of arrays of durations. */
+  public static final byte VERSION = 1;
+  /** The most bytes a single duration takes. */
+  public static final int MAX_BYTES = 9;
+
+  private DurationCodec() {
+  }
+
+  /**
+   * Gets the number of bytes a duration takes.
+   *
+   * @param seconds the length of the duration in seconds (non-negative)
+   * @return the length of its encoding
+   */
+  public static int encodedLength(long seconds) {
+    int bits = 64 - Long.numberOfLeadingZeros(seconds | 1);
+    return (bits + 6) / 7;
+  }
+
+  /**
+   * Writes a duration.
+   *
+   * @param duration the duration to write
+   * @param out the destination
+   * @throws BufferOverflowException if the encoding does not fit
+   */
+  public static void encode(Duration duration, ByteBuffer out) {
+    encodeSeconds(Durations.inSeconds(duration), out);
+  }
+
+  /**
+   * Writes a length of time in seconds.
+   *
+   * @param seconds the number of seconds (non-negative)
+   * @param out the destination
+   * @throws IllegalArgumentException if {@code seconds} is negative
+   * @throws BufferOverflowException if the encoding does not fit
+   */
+  public static void encodeSeconds(long seconds, ByteBuffer out) {
+    if (seconds < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    if (out.remaining() < encodedLength(seconds)) {
+      throw new BufferOverflowException();
+    }
+    while ((seconds & ~0x7FL) != 0) {
+      out.put((byte) ((seconds & 0x7F) | 0x80));
+      seconds >>>= 7;
+    }
+    out.put((byte) seconds);
+  }
+
+  /**
+   * Reads a duration.
+   *
+   * @param in the source
+   * @return the duration
+   * @throws BufferUnderflowException if the encoding is cut short
+   * @throws IllegalArgumentException if the bytes are not a valid encoding
+   * @throws ArithmeticException if the duration is too long for {@link HmsDuration}
+   */
+  public static Duration decode(ByteBuffer in) {
+    return Durations.ofSeconds(decodeSeconds(in));
+  }
+
+  /**
+   * Reads a length of time in seconds.
+   *
+   * @param in the source
+   * @return the number of seconds
+   * @throws BufferUnderflowException if the encoding is cut short
+   * @throws IllegalArgumentException if the bytes are not a valid encoding
+   */
+  public static long decodeSeconds(ByteBuffer in) {
+    long seconds = 0;
+    for (int shift = 0; shift < 7 * MAX_BYTES; shift += 7) {
+      byte b = in.get();
+      seconds |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return seconds;
+      }
+    }
+    throw new IllegalArgumentException("Encoded duration is longer than " + MAX_BYTES + " bytes");
+  }
+
+  /**
+   * Writes an array of durations with its version and length. Nothing is written unless the
+   * whole array fits.
+   *
+   * @param durations the durations to write
+   * @param out the destination
+   * @throws BufferOverflowException if the encoding does not fit
+   */
+  public static void encodeAll(Duration[] durations, ByteBuffer out) {
+    long length = 1 + encodedLength(durations.length);
+    for (Duration duration : durations) {
+      length += encodedLength(Durations.inSeconds(duration));
+    }
+    if (out.remaining() < length) {
+      throw new BufferOverflowException();
+    }
+    out.put(VERSION);
+    encodeSeconds(durations.length, out);
+    for (Duration duration : durations) {
+      encodeSeconds(Durations.inSeconds(duration), out);
+    }
+  }
+
+  /**
+   * Reads an array of durations written by {@link #encodeAll(Duration[], ByteBuffer)}.
+   *
+   * @param in the source
+   * @return the durations
+   * @throws BufferUnderflowException if the encoding is cut short
+   * @throws IllegalArgumentException if the version is unknown or the bytes are not valid
+   */
+  public static Duration[] decodeAll(ByteBuffer in) {
+    long[] seconds = decodeAllSeconds(in);
+    Duration[] durations = new Duration[seconds.length];
+    for (int i = 0; i < seconds.length; i++) {
+      durations[i] = Durations.ofSeconds(seconds[i]);
+    }
+    return durations;
+  }
+
+  /**
+   * Reads an array of durations written by {@link #encodeAll(Duration[], ByteBuffer)} as
+   * lengths in seconds, without creating duration objects.
+   *
+   * @param in the source
+   * @return the number of seconds of each duration
+   * @throws BufferUnderflowException if the encoding is cut short
+   * @throws IllegalArgumentException if the version is unknown or the bytes are not valid
+   */
+  public static long[] decodeAllSeconds(ByteBuffer in) {
+    byte version = in.get();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported version of durations: " + version);
+    }
+    long count = decodeSeconds(in);
+    // Every duration takes at least one byte, which bounds a corrupt count.
+    if (count > in.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    long[] seconds = new long[(int) count];
+    for (int i = 0; i < seconds.length; i++) {
+      seconds[i] = decodeSeconds(in);
+    }
+    return seconds;
+  }
+}
@@ -0,0 +1,240 @@
+package duration;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Reads durations from text in three forms:
+ *
+ * <ul>
+ * <li>{@code H:MM:SS}, the form {@link Duration#asHms()} writes: any number of hours, and
+ * exactly two digits each of minutes and seconds, both less than 60;
+ * <li>ISO-8601 {@code PnDTnHnMnS}, such as {@code PT1H30M}, with whole numbers only and at
+ * least one part; letters may be lower case;
+ * <li>a plain number of seconds.
+ * </ul>
+ *
+ * <p>The text is read in place from a {@link CharSequence} or from ASCII bytes in a
+ * {@link ByteBuffer}, with no substrings and no regular expressions. Signs, spaces and other
+ * characters are rejected with an {@link IllegalArgumentException}, like the negative
+ * arguments of the constructors; lengths past the range of a {@code long} number of seconds
+ * throw an {@link ArithmeticException}.
+ */
+public final class DurationParser {
+  private DurationParser() {
+  }
+
+  /**
+   * Gets a character of a {@link CharSequence} or an ASCII byte of a {@link ByteBuffer}, so both
+   * sources share one parser without wrapping the buffer.
+   */
+  private static char charAt(Object text, int index) {
+    if (text instanceof ByteBuffer) {
+      return (char) (((ByteBuffer) text).get(index) & 0xFF);
+    }
+    return ((CharSequence) text).charAt(index);
+  }
+
+  /**
+   * Reads a duration in any of the three forms.
+   *
+   * @param text the text
+   * @return the duration
+   * @throws IllegalArgumentException if the text is not a duration
+   * @throws ArithmeticException if the duration is too long
+   */
+  public static Duration parse(CharSequence text) {
+    return Durations.ofSeconds(parseSeconds(text, 0, text.length()));
+  }
+
+  /**
+   * Reads a length in seconds in any of the three forms.
+   *
+   * @param text the text
+   * @return the number of seconds
+   * @throws IllegalArgumentException if the text is not a duration
+   * @throws ArithmeticException if the duration is too long
+   */
+  public static long parseSeconds(CharSequence text) {
+    return parseSeconds(text, 0, text.length());
+  }
+
+  /**
+   * Reads a length in seconds in any of the three forms from part of a text.
+   *
+   * @param text the text
+   * @param start the index of the first character
+   * @param end the index after the last character
+   * @return the number of seconds
+   * @throws IndexOutOfBoundsException if the range is not within the text
+   * @throws IllegalArgumentException if the range is not a duration
+   * @throws ArithmeticException if the duration is too long
+   */
+  public static long parseSeconds(CharSequence text, int start, int end) {
+    Objects.checkFromToIndex(start, end, text.length());
+    return parse(text, start, end);
+  }
+
+  private static long parse(Object text, int start, int end) {
+    if (start == end) {
+      throw invalid(text, start, end);
+    }
+    char first = charAt(text, start);
+    if (first == 'P' || first == 'p') {
+      return iso(text, start, end);
+    }
+    for (int i = start; i < end; i++) {
+      if (charAt(text, i) == ':') {
+        return hms(text, start, end);
+      }
+    }
+    return number(text, start, end, start, end);
+  }
+
+  /**
+   * Reads a duration in any of the three forms from the remaining ASCII bytes of a buffer. The
+   * position moves to the limit if the bytes are a duration and does not move otherwise.
+   *
+   * @param in the source
+   * @return the duration
+   * @throws IllegalArgumentException if the bytes are not a duration
+   * @throws ArithmeticException if the duration is too long
+   */
+  public static Duration parse(ByteBuffer in) {
+    return Durations.ofSeconds(parseSeconds(in));
+  }
+
+  /**
+   * Reads a length in seconds in any of the three forms from the remaining ASCII bytes of a
+   * buffer. The position moves to the limit if the bytes are a duration and does not move
+   * otherwise.
+   *
+   * @param in the source
+   * @return the number of seconds
+   * @throws IllegalArgumentException if the bytes are not a duration
+   * @throws ArithmeticException if the duration is too long
+   */
+  public static long parseSeconds(ByteBuffer in) {
+    long seconds = parse(in, in.position(), in.limit());
+    in.position(in.limit());
+    return seconds;
+  }
+
+  /**
+   * Reads a duration in the {@code H:MM:SS} form only.
+   *
+   * @param text the text
+   * @return the duration
+   * @throws IllegalArgumentException if the text is not in that form
+   * @throws ArithmeticException if the duration is too long
+   */
+  public static Duration parseHms(CharSequence text) {
+    return Durations.ofSeconds(hms(text, 0, text.length()));
+  }
+
+  /**
+   * Reads a duration in the ISO-8601 {@code PnDTnHnMnS} form only.
+   *
+   * @param text the text
+   * @return the duration
+   * @throws IllegalArgumentException if the text is not in that form
+   * @throws ArithmeticException if the duration is too long
+   */
+  public static Duration parseIso(CharSequence text) {
+    return Durations.ofSeconds(iso(text, 0, text.length()));
+  }
+
+  private static long hms(Object text, int start, int end) {
+    int secondsColon = end - 3;
+    int minutesColon = end - 6;
+    if (minutesColon <= start
+        || charAt(text, minutesColon) != ':' || charAt(text, secondsColon) != ':') {
+      throw invalid(text, start, end);
+    }
+    long hours = number(text, start, minutesColon, start, end);
+    long minutes = number(text, minutesColon + 1, secondsColon, start, end);
+    long seconds = number(text, secondsColon + 1, end, start, end);
+    if (minutes >= 60 || seconds >= 60) {
+      throw invalid(text, start, end);
+    }
+    return Math.addExact(Math.multiplyExact(hours, 3600), minutes * 60 + seconds);
+  }
+
+  private static long iso(Object text, int start, int end) {
+    int i = start + 1;
+    long total = 0;
+    boolean time = false;
+    boolean any = false;
+    // The units in the order they may appear; each part must come after the previous one.
+    String units = "DHMS";
+    int unit = 0;
+    while (i < end) {
+      char c = Character.toUpperCase(charAt(text, i));
+      if (c == 'T' && !time) {
+        time = true;
+        unit = 1;
+        i++;
+        if (i == end) {
+          throw invalid(text, start, end);
+        }
+        continue;
+      }
+      int digits = i;
+      while (i < end && isDigit(charAt(text, i))) {
+        i++;
+      }
+      if (i == end) {
+        throw invalid(text, start, end);
+      }
+      int found = units.indexOf(Character.toUpperCase(charAt(text, i)), unit);
+      if (found < 0 || (found == 0) == time) {
+        throw invalid(text, start, end);
+      }
+      long value = number(text, digits, i, start, end);
+      long multiplier = found == 0 ? 86_400 : found == 1 ? 3600 : found == 2 ? 60 : 1;
+      total = Math.addExact(total, Math.multiplyExact(value, multiplier));
+      unit = found + 1;
+      any = true;
+      i++;
+    }
+    if (!any) {
+      throw invalid(text, start, end);
+    }
+    return total;
+  }
+
+  /**
+   * Reads the digits from {@code from} to {@code to}; {@code start} and {@code end} are the
+   * whole duration, for the message of the exception.
+   */
+  private static long number(Object text, int from, int to, int start, int end) {
+    if (from == to) {
+      throw invalid(text, start, end);
+    }
+    long value = 0;
+    for (int i = from; i < to; i++) {
+      char c = charAt(text, i);
+      if (!isDigit(c)) {
+        throw invalid(text, start, end);
+      }
+      value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+    }
+    return value;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static IllegalArgumentException invalid(Object text, int start, int end) {
+    StringBuilder range = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      char c = charAt(text, i);
+      if (c == '-') {
+        return new IllegalArgumentException("Negative durations are not supported");
+      }
+      range.append(c);
+    }
+    return new IllegalArgumentException("Not a duration: \"" + range + "\"");
+  }
+}
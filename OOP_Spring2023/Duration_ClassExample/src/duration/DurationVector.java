@@ -0,0 +1,217 @@
+package duration;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of durations kept as a {@code long[]} of seconds, for work over many
+ * durations at once: totals, prefix sums, sorting and percentiles run over primitives, with no
+ * duration objects and no interface calls.
+ *
+ * <p>A vector holds any non-negative length in seconds, including lengths too long for the
+ * durations of {@link Durations}; those are only refused when asked for as a {@link Duration}.
+ * A vector is not thread-safe.
+ */
+public final class DurationVector {
+  private long[] seconds;
+  private int size;
+  private boolean sorted = true;
+
+  /**
+   * Constructs an empty vector.
+   */
+  public DurationVector() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty vector with room for the given number of durations.
+   *
+   * @param capacity the initial capacity
+   * @throws IllegalArgumentException if {@code capacity} is negative
+   */
+  public DurationVector(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+    }
+    this.seconds = new long[capacity];
+  }
+
+  /**
+   * Creates a vector of the lengths of durations.
+   *
+   * @param durations the durations
+   * @return the vector
+   */
+  public static DurationVector of(Duration... durations) {
+    DurationVector vector = new DurationVector(durations.length);
+    for (Duration duration : durations) {
+      vector.add(Durations.inSeconds(duration));
+    }
+    return vector;
+  }
+
+  /**
+   * Creates a vector of lengths in seconds.
+   *
+   * @param seconds the lengths (non-negative)
+   * @return the vector
+   * @throws IllegalArgumentException if a length is negative
+   */
+  public static DurationVector ofSeconds(long... seconds) {
+    DurationVector vector = new DurationVector(seconds.length);
+    for (long length : seconds) {
+      vector.add(length);
+    }
+    return vector;
+  }
+
+  /**
+   * Adds a duration at the end.
+   *
+   * @param duration the duration
+   */
+  public void add(Duration duration) {
+    add(Durations.inSeconds(duration));
+  }
+
+  /**
+   * Adds a length at the end.
+   *
+   * @param inSeconds the length in seconds (non-negative)
+   * @throws IllegalArgumentException if {@code inSeconds} is negative
+   */
+  public void add(long inSeconds) {
+    if (inSeconds < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    if (size == seconds.length) {
+      seconds = Arrays.copyOf(seconds, Math.max(16, size + (size >> 1)));
+    }
+    if (size > 0 && inSeconds < seconds[size - 1]) {
+      sorted = false;
+    }
+    seconds[size++] = inSeconds;
+  }
+
+  /**
+   * Gets the number of durations.
+   *
+   * @return the size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the length of a duration.
+   *
+   * @param index the index of the duration
+   * @return its length in seconds
+   * @throws IndexOutOfBoundsException if the index is not less than the size
+   */
+  public long seconds(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size);
+    }
+    return seconds[index];
+  }
+
+  /**
+   * Gets a duration.
+   *
+   * @param index the index of the duration
+   * @return the duration
+   * @throws IndexOutOfBoundsException if the index is not less than the size
+   * @throws ArithmeticException if the length is too long for {@link Durations#ofSeconds}
+   */
+  public Duration get(int index) {
+    return Durations.ofSeconds(seconds(index));
+  }
+
+  /**
+   * Gets the sum of the lengths.
+   *
+   * @return the total length in seconds
+   * @throws ArithmeticException if the sum overflows
+   */
+  public long totalSeconds() {
+    long total = 0;
+    for (int i = 0; i < size; i++) {
+      total = Math.addExact(total, seconds[i]);
+    }
+    return total;
+  }
+
+  /**
+   * Gets the sum of the durations.
+   *
+   * @return the total duration
+   * @throws ArithmeticException if the sum overflows or is too long for
+   *     {@link Durations#ofSeconds}
+   */
+  public Duration total() {
+    return Durations.ofSeconds(totalSeconds());
+  }
+
+  /**
+   * Gets the running totals: element {@code i} is the sum of the lengths up to and including
+   * index {@code i}.
+   *
+   * @return a new array of the running totals in seconds
+   * @throws ArithmeticException if a sum overflows
+   */
+  public long[] prefixSums() {
+    long[] sums = new long[size];
+    long total = 0;
+    for (int i = 0; i < size; i++) {
+      total = Math.addExact(total, seconds[i]);
+      sums[i] = total;
+    }
+    return sums;
+  }
+
+  /**
+   * Sorts the durations from shortest to longest.
+   */
+  public void sort() {
+    if (!sorted) {
+      Arrays.sort(seconds, 0, size);
+      sorted = true;
+    }
+  }
+
+  /**
+   * Gets a percentile of the lengths by the nearest-rank method: the shortest length that at
+   * least {@code percent} percent of the durations are no longer than. The durations are not
+   * reordered; if they are not sorted, a sorted copy is made.
+   *
+   * @param percent the percentile, from 0 to 100
+   * @return the length in seconds
+   * @throws IllegalArgumentException if {@code percent} is outside 0 to 100
+   * @throws IllegalStateException if the vector is empty
+   */
+  public long percentile(double percent) {
+    if (!(percent >= 0 && percent <= 100)) {
+      throw new IllegalArgumentException("Percentile must be from 0 to 100: " + percent);
+    }
+    if (size == 0) {
+      throw new IllegalStateException("No percentile of an empty vector");
+    }
+    long[] ordered = seconds;
+    if (!sorted) {
+      ordered = Arrays.copyOf(seconds, size);
+      Arrays.sort(ordered);
+    }
+    int rank = (int) Math.ceil(percent / 100 * size);
+    return ordered[Math.max(rank, 1) - 1];
+  }
+
+  /**
+   * Gets the lengths as an array.
+   *
+   * @return a new array of the lengths in seconds
+   */
+  public long[] toArray() {
+    return Arrays.copyOf(seconds, size);
+  }
+}
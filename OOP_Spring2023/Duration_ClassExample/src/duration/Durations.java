@@ -0,0 +1,177 @@
+package duration;
+
+import java.util.Comparator;
+
+/**
+ * Static factories for durations that share one instance per value for common lengths, the
+ * way {@link Integer#valueOf(int)} does. Durations are immutable, so sharing is safe, and
+ * schedules create the same few values over and over.
+ *
+ * <p>The cache holds every length up to an hour, every whole minute up to a day and every whole
+ * hour up to a week, about five thousand small objects built when the class is loaded. Other
+ * lengths get a new {@link HmsDuration}. Shared instances follow the contract of
+ * {@link Duration}, so they are equal to, and hash like, any other duration of the same length.
+ */
+public final class Durations {
+  private static final int SECONDS_CACHED = 3600;
+  private static final int MINUTES_CACHED = 24 * 60;
+  private static final int HOURS_CACHED = 7 * 24;
+
+  private static final HmsDuration[] SECONDS = new HmsDuration[SECONDS_CACHED + 1];
+  private static final HmsDuration[] MINUTES = new HmsDuration[MINUTES_CACHED + 1];
+  private static final HmsDuration[] HOURS = new HmsDuration[HOURS_CACHED + 1];
+
+  static {
+    // Lengths in more than one range share the instance of the finer range.
+    for (int s = 0; s <= SECONDS_CACHED; s++) {
+      SECONDS[s] = new HmsDuration(s);
+    }
+    for (int m = 0; m <= MINUTES_CACHED; m++) {
+      MINUTES[m] = m * 60 <= SECONDS_CACHED ? SECONDS[m * 60] : new HmsDuration(m * 60L);
+    }
+    for (int h = 0; h <= HOURS_CACHED; h++) {
+      HOURS[h] = h * 60 <= MINUTES_CACHED ? MINUTES[h * 60] : new HmsDuration(h * 3600L);
+    }
+  }
+
+  /**
+   * Orders durations from shortest to longest, the same order as
+   * {@link Duration#compareTo(Duration)}, but without calling {@code compareTo}. Sorting a list
+   * that mixes implementations with this comparator avoids the slow calls of a megamorphic
+   * {@code compareTo} call site.
+   */
+  public static final Comparator<Duration> BY_LENGTH =
+      (a, b) -> Long.compare(inSeconds(a), inSeconds(b));
+
+  private Durations() {
+  }
+
+  /**
+   * Gets the length of a duration. For the implementations of this package the length is read
+   * after a type check on the final class, which the JIT turns into a direct, inlined call; only
+   * other implementations need the interface call. Where the call site sees many
+   * implementations, this is much cheaper than calling {@link Duration#inSeconds()} directly.
+   *
+   * @param duration a duration of any implementation
+   * @return the number of seconds
+   */
+  public static long inSeconds(Duration duration) {
+    if (duration instanceof CompactDuration) {
+      return ((CompactDuration) duration).inSeconds();
+    }
+    if (duration instanceof HmsDuration) {
+      return ((HmsDuration) duration).inSeconds();
+    }
+    return duration.inSeconds();
+  }
+
+  /**
+   * Gets the hash code any duration of this length has, without calling
+   * {@link Duration#hashCode()}.
+   *
+   * @param duration a duration of any implementation
+   * @return the hash code
+   */
+  public static int hash(Duration duration) {
+    return Long.hashCode(inSeconds(duration));
+  }
+
+  /**
+   * Tells whether two durations are equal, without calling {@link Duration#equals(Object)}.
+   *
+   * @param a a duration of any implementation
+   * @param b a duration of any implementation
+   * @return whether the durations have the same length
+   */
+  public static boolean equal(Duration a, Duration b) {
+    return inSeconds(a) == inSeconds(b);
+  }
+
+  /**
+   * Gets the shared instance of a length, if there is one.
+   *
+   * @return the shared instance, or null if the length is not cached
+   */
+  private static HmsDuration cached(long inSeconds) {
+    if (inSeconds >= 0 && inSeconds <= SECONDS_CACHED) {
+      return SECONDS[(int) inSeconds];
+    }
+    if (inSeconds % 60 == 0 && inSeconds > 0 && inSeconds / 60 <= MINUTES_CACHED) {
+      return MINUTES[(int) (inSeconds / 60)];
+    }
+    if (inSeconds % 3600 == 0 && inSeconds > 0 && inSeconds / 3600 <= HOURS_CACHED) {
+      return HOURS[(int) (inSeconds / 3600)];
+    }
+    return null;
+  }
+
+  /**
+   * Gets a duration of the given length, shared if the length is cached.
+   *
+   * @param inSeconds the number of seconds (non-negative)
+   * @return the duration
+   * @throws IllegalArgumentException {@code inSeconds} is negative
+   * @throws ArithmeticException {@code inSeconds} exceeds maximum duration allowed
+   */
+  public static Duration ofSeconds(long inSeconds) {
+    HmsDuration duration = cached(inSeconds);
+    return duration != null ? duration : new HmsDuration(inSeconds);
+  }
+
+  /**
+   * Gets a duration of the given length in hours, minutes, and seconds, shared if the length
+   * is cached.
+   *
+   * @param hours   the number of hours
+   * @param minutes the number of minutes
+   * @param seconds the number of seconds
+   * @return the duration
+   * @throws IllegalArgumentException if any argument is negative
+   */
+  public static Duration of(int hours, int minutes, int seconds) {
+    if ((hours < 0) || (minutes < 0) || (seconds < 0)) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    return ofSeconds(3600L * hours + 60L * minutes + seconds);
+  }
+
+  /**
+   * Gets the shared instance of the length of a duration, so that long-lived collections of
+   * durations do not keep many copies of the same value.
+   *
+   * @param duration a duration of any implementation
+   * @return the shared instance of its length, or the duration itself if its length is not
+   *     cached
+   */
+  public static Duration canonical(Duration duration) {
+    HmsDuration cached = cached(inSeconds(duration));
+    return cached != null ? cached : duration;
+  }
+
+  /**
+   * Returns the sum of any number of durations, adding their lengths as primitives rather
+   * than creating a duration for each partial sum.
+   *
+   * @param durations the durations to add
+   * @return the sum of the durations, zero if there are none
+   * @throws ArithmeticException if the sum overflows
+   */
+  public static Duration sum(Duration... durations) {
+    return ofSeconds(sumSeconds(durations));
+  }
+
+  /**
+   * Returns the sum of the lengths of any number of durations.
+   *
+   * @param durations the durations to add
+   * @return the total length in seconds
+   * @throws ArithmeticException if the sum overflows
+   */
+  public static long sumSeconds(Duration... durations) {
+    long total = 0;
+    for (Duration duration : durations) {
+      total = Math.addExact(total, inSeconds(duration));
+    }
+    return total;
+  }
+}
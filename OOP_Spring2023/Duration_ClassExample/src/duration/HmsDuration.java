@@ -62,20 +62,20 @@ public final class HmsDuration implements Duration {
   
   @Override
   public String asHms() {
-    return String.format("%d:%02d:%02d", this.hours, this.minutes, this.seconds);
+    return HmsFormat.format(inSeconds());
   }
   
   @Override
   public Duration plus(Duration other) {
     long thisSeconds = this.inSeconds();
-    long otherSeconds = other.inSeconds();
-    long total = thisSeconds + otherSeconds;
-    return new HmsDuration(total);
+    long otherSeconds = Durations.inSeconds(other);
+    long total = Math.addExact(thisSeconds, otherSeconds);
+    return Durations.ofSeconds(total);
   }
   
   @Override
   public int compareTo(Duration that) {
-    return Long.compare(this.inSeconds(), that.inSeconds());
+    return Long.compare(this.inSeconds(), Durations.inSeconds(that));
   }
 
   @Override
@@ -93,7 +93,7 @@ public final class HmsDuration implements Duration {
     // The successful instanceof check means our cast will succeed:
     Duration that = (Duration) o;
 
-    return this.inSeconds() == that.inSeconds();
+    return this.inSeconds() == Durations.inSeconds(that);
   }
 
   @Override
@@ -0,0 +1,213 @@
+package duration;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Formats durations in the {@code H:MM:SS} form of {@link Duration#asHms()} straight into a
+ * caller's {@link StringBuilder}, {@code char[]} or {@link ByteBuffer}, without the format
+ * string parsing and temporary objects of {@link String#format}. Writers that format many
+ * durations can reuse one buffer and allocate nothing per duration.
+ *
+ * <p>The bulk methods format an array of durations with a separator after each one, for
+ * example a newline or a comma.
+ */
+public final class HmsFormat {
+  private HmsFormat() {
+  }
+
+  /**
+   * Gets the number of characters in the formatted form of a length.
+   *
+   * @param seconds the length in seconds (non-negative)
+   * @return the number of characters
+   * @throws IllegalArgumentException if {@code seconds} is negative
+   */
+  public static int length(long seconds) {
+    return digits(hours(seconds)) + 6;
+  }
+
+  private static long hours(long seconds) {
+    if (seconds < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    return seconds / 3600;
+  }
+
+  private static int digits(long value) {
+    int digits = 1;
+    while (value >= 10) {
+      value /= 10;
+      digits++;
+    }
+    return digits;
+  }
+
+  /**
+   * Formats a length into a new string.
+   *
+   * @param seconds the length in seconds (non-negative)
+   * @return the length as {@code H:MM:SS}
+   * @throws IllegalArgumentException if {@code seconds} is negative
+   */
+  public static String format(long seconds) {
+    char[] chars = new char[length(seconds)];
+    format(seconds, chars, 0);
+    return new String(chars);
+  }
+
+  /**
+   * Writes a length into a char array.
+   *
+   * @param seconds the length in seconds (non-negative)
+   * @param dest the array to write into
+   * @param offset where to write the first character
+   * @return the offset after the last character written
+   * @throws IllegalArgumentException if {@code seconds} is negative
+   * @throws IndexOutOfBoundsException if the formatted length does not fit; nothing is
+   *     written
+   */
+  public static int format(long seconds, char[] dest, int offset) {
+    int end = offset + length(seconds);
+    Objects.checkFromToIndex(offset, end, dest.length);
+
+    int minutes = (int) (seconds / 60 % 60);
+    int secs = (int) (seconds % 60);
+    dest[end - 1] = (char) ('0' + secs % 10);
+    dest[end - 2] = (char) ('0' + secs / 10);
+    dest[end - 3] = ':';
+    dest[end - 4] = (char) ('0' + minutes % 10);
+    dest[end - 5] = (char) ('0' + minutes / 10);
+    dest[end - 6] = ':';
+    long hours = seconds / 3600;
+    int i = end - 7;
+    do {
+      dest[i--] = (char) ('0' + hours % 10);
+      hours /= 10;
+    } while (hours > 0);
+    return end;
+  }
+
+  /**
+   * Appends a duration to a string builder.
+   *
+   * @param duration the duration
+   * @param sb the builder
+   * @return the builder
+   */
+  public static StringBuilder appendTo(Duration duration, StringBuilder sb) {
+    return appendTo(Durations.inSeconds(duration), sb);
+  }
+
+  /**
+   * Appends a length to a string builder.
+   *
+   * @param seconds the length in seconds (non-negative)
+   * @param sb the builder
+   * @return the builder
+   * @throws IllegalArgumentException if {@code seconds} is negative
+   */
+  public static StringBuilder appendTo(long seconds, StringBuilder sb) {
+    long hours = hours(seconds);
+    int minutes = (int) (seconds / 60 % 60);
+    int secs = (int) (seconds % 60);
+    return sb.append(hours)
+        .append(':').append((char) ('0' + minutes / 10)).append((char) ('0' + minutes % 10))
+        .append(':').append((char) ('0' + secs / 10)).append((char) ('0' + secs % 10));
+  }
+
+  /**
+   * Writes a length as ASCII bytes into a buffer.
+   *
+   * @param seconds the length in seconds (non-negative)
+   * @param out the destination
+   * @throws IllegalArgumentException if {@code seconds} is negative
+   * @throws BufferOverflowException if the formatted length does not fit; nothing is written
+   */
+  public static void format(long seconds, ByteBuffer out) {
+    int length = length(seconds);
+    if (out.remaining() < length) {
+      throw new BufferOverflowException();
+    }
+    int end = out.position() + length;
+    int minutes = (int) (seconds / 60 % 60);
+    int secs = (int) (seconds % 60);
+    out.put(end - 1, (byte) ('0' + secs % 10));
+    out.put(end - 2, (byte) ('0' + secs / 10));
+    out.put(end - 3, (byte) ':');
+    out.put(end - 4, (byte) ('0' + minutes % 10));
+    out.put(end - 5, (byte) ('0' + minutes / 10));
+    out.put(end - 6, (byte) ':');
+    long hours = seconds / 3600;
+    int i = end - 7;
+    do {
+      out.put(i--, (byte) ('0' + hours % 10));
+      hours /= 10;
+    } while (hours > 0);
+    out.position(end);
+  }
+
+  /**
+   * Appends durations to a string builder, each followed by the separator.
+   *
+   * @param durations the durations
+   * @param separator the character after each duration
+   * @param sb the builder
+   * @return the builder
+   */
+  public static StringBuilder appendAll(Duration[] durations, char separator, StringBuilder sb) {
+    long length = 0;
+    for (Duration duration : durations) {
+      length += length(Durations.inSeconds(duration)) + 1;
+    }
+    sb.ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8, sb.length() + length));
+    for (Duration duration : durations) {
+      appendTo(Durations.inSeconds(duration), sb).append(separator);
+    }
+    return sb;
+  }
+
+  /**
+   * Writes durations into a char array, each followed by the separator.
+   *
+   * @param durations the durations
+   * @param separator the character after each duration
+   * @param dest the array to write into
+   * @param offset where to write the first character
+   * @return the offset after the last character written
+   * @throws IndexOutOfBoundsException if the durations do not fit; what fits may have been
+   *     written
+   */
+  public static int formatAll(Duration[] durations, char separator, char[] dest, int offset) {
+    for (Duration duration : durations) {
+      offset = format(Durations.inSeconds(duration), dest, offset);
+      Objects.checkIndex(offset, dest.length);
+      dest[offset++] = separator;
+    }
+    return offset;
+  }
+
+  /**
+   * Writes durations as ASCII bytes into a buffer, each followed by the separator. Nothing is
+   * written unless all of them fit.
+   *
+   * @param durations the durations
+   * @param separator the ASCII character after each duration
+   * @param out the destination
+   * @throws BufferOverflowException if the durations do not fit
+   */
+  public static void formatAll(Duration[] durations, char separator, ByteBuffer out) {
+    long length = 0;
+    for (Duration duration : durations) {
+      length += length(Durations.inSeconds(duration)) + 1;
+    }
+    if (out.remaining() < length) {
+      throw new BufferOverflowException();
+    }
+    for (Duration duration : durations) {
+      format(Durations.inSeconds(duration), out);
+      out.put((byte) separator);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package duration.stats;
+
+/**
+ * The bucket layout shared by the histograms: log-linear buckets in the style of
+ * HdrHistogram. Lengths below {@code 2^SUB_BITS} seconds get a bucket each; above that, each
+ * power of two is split into {@code 2^SUB_BITS} equal buckets, so a bucket is never wider than
+ * {@code 2^-SUB_BITS} of the lengths in it. With seven bits that is under 1%, and every
+ * non-negative {@code long} fits in under 7,500 buckets.
+ */
+final class Buckets {
+  static final int SUB_BITS = 7;
+  static final int SUB_COUNT = 1 << SUB_BITS;
+  static final int COUNT = index(Long.MAX_VALUE) + 1;
+
+  private Buckets() {
+  }
+
+  /**
+   * Gets the bucket of a length.
+   */
+  static int index(long seconds) {
+    if (seconds < SUB_COUNT) {
+      return (int) seconds;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(seconds) - SUB_BITS;
+    return (shift << SUB_BITS) + (int) (seconds >>> shift);
+  }
+
+  /**
+   * Gets the shortest length in a bucket.
+   */
+  static long lowest(int index) {
+    if (index < SUB_COUNT) {
+      return index;
+    }
+    int shift = (index >>> SUB_BITS) - 1;
+    long mantissa = index - ((long) shift << SUB_BITS);
+    return mantissa << shift;
+  }
+
+  /**
+   * Gets the longest length in a bucket.
+   */
+  static long highest(int index) {
+    if (index == COUNT - 1) {
+      return Long.MAX_VALUE;
+    }
+    return lowest(index + 1) - 1;
+  }
+}
@@ -0,0 +1,104 @@
+package duration.stats;
+
+import duration.Duration;
+import duration.Durations;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A histogram of durations that many threads record into at once. The counts are striped the
+ * way {@link java.util.concurrent.atomic.LongAdder} stripes a sum: each thread counts in one of
+ * several arrays of atomic cells, chosen by its id, so threads on different stripes never
+ * contend for a cache line. Reading sums the stripes into a {@link DurationHistogram}.
+ *
+ * <p>Memory is fixed: one array of buckets per stripe, however many samples are recorded.
+ */
+public final class ConcurrentDurationHistogram {
+  private final AtomicLongArray[] stripes;
+  private final int mask;
+  private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+  private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+  /**
+   * Constructs an empty histogram with a stripe per available processor.
+   */
+  public ConcurrentDurationHistogram() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs an empty histogram.
+   *
+   * @param stripes the number of stripes, rounded up to a power of two
+   * @throws IllegalArgumentException if {@code stripes} is not positive
+   */
+  public ConcurrentDurationHistogram(int stripes) {
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("Stripes must be positive: " + stripes);
+    }
+    int size = Integer.highestOneBit(stripes);
+    if (size < stripes) {
+      size <<= 1;
+    }
+    this.stripes = new AtomicLongArray[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new AtomicLongArray(Buckets.COUNT);
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Records a duration.
+   *
+   * @param duration the duration
+   */
+  public void record(Duration duration) {
+    recordSeconds(Durations.inSeconds(duration));
+  }
+
+  /**
+   * Records a length.
+   *
+   * @param seconds the length in seconds (non-negative)
+   * @throws IllegalArgumentException if {@code seconds} is negative
+   */
+  public void recordSeconds(long seconds) {
+    if (seconds < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    // The extremes are updated before the count, so a snapshot that sees the count also
+    // sees the extremes.
+    min.accumulate(seconds);
+    max.accumulate(seconds);
+    int stripe = (int) Thread.currentThread().getId() & mask;
+    stripes[stripe].getAndIncrement(Buckets.index(seconds));
+  }
+
+  /**
+   * Adds the samples recorded so far to a histogram. Samples recorded while this runs may or
+   * may not be included.
+   *
+   * @param histogram the histogram to add to
+   * @return the histogram
+   */
+  public DurationHistogram addTo(DurationHistogram histogram) {
+    long[] counts = new long[Buckets.COUNT];
+    for (AtomicLongArray stripe : stripes) {
+      for (int i = 0; i < Buckets.COUNT; i++) {
+        counts[i] += stripe.get(i);
+      }
+    }
+    histogram.add(counts, min.get(), max.get());
+    return histogram;
+  }
+
+  /**
+   * Gets the samples recorded so far. Samples recorded while this runs may or may not be
+   * included.
+   *
+   * @return a new histogram of the samples
+   */
+  public DurationHistogram snapshot() {
+    return addTo(new DurationHistogram());
+  }
+}
@@ -0,0 +1,304 @@
+package duration.stats;
+
+import duration.CompactDuration;
+import duration.Duration;
+import duration.DurationCodec;
+import duration.Durations;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A histogram of durations for percentiles over any number of samples in bounded memory. The
+ * lengths are counted in log-linear buckets, each at most 1% wide, held in one {@code long[]};
+ * no duration is kept. Percentiles are therefore within 1% of the exact ones, and never
+ * shorter.
+ *
+ * <p>Histograms merge, so each thread or node can record its own and the results can be
+ * combined; {@link #encode} and {@link #decode} carry them between nodes. For several threads
+ * recording into one histogram, see {@link ConcurrentDurationHistogram}.
+ *
+ * <p>A histogram is not thread-safe.
+ */
+public final class DurationHistogram {
+  /** The version written first by {@link #encode}. */
+  public static final byte VERSION = 1;
+
+  private final long[] counts;
+  private long count;
+  private long min = Long.MAX_VALUE;
+  private long max = Long.MIN_VALUE;
+
+  /**
+   * Constructs an empty histogram.
+   */
+  public DurationHistogram() {
+    this.counts = new long[Buckets.COUNT];
+  }
+
+  /**
+   * Records a duration.
+   *
+   * @param duration the duration
+   */
+  public void record(Duration duration) {
+    recordSeconds(Durations.inSeconds(duration), 1);
+  }
+
+  /**
+   * Records a length.
+   *
+   * @param seconds the length in seconds (non-negative)
+   * @throws IllegalArgumentException if {@code seconds} is negative
+   */
+  public void recordSeconds(long seconds) {
+    recordSeconds(seconds, 1);
+  }
+
+  /**
+   * Records a length several times.
+   *
+   * @param seconds the length in seconds (non-negative)
+   * @param times how many times to record it (non-negative)
+   * @throws IllegalArgumentException if {@code seconds} or {@code times} is negative
+   */
+  public void recordSeconds(long seconds, long times) {
+    if (seconds < 0) {
+      throw new IllegalArgumentException("Negative durations are not supported");
+    }
+    if (times < 0) {
+      throw new IllegalArgumentException("Negative count: " + times);
+    }
+    if (times == 0) {
+      return;
+    }
+    counts[Buckets.index(seconds)] += times;
+    count += times;
+    min = Math.min(min, seconds);
+    max = Math.max(max, seconds);
+  }
+
+  /**
+   * Adds the samples of another histogram to this one.
+   *
+   * @param other the histogram to merge; it is not changed
+   * @return this histogram
+   */
+  public DurationHistogram merge(DurationHistogram other) {
+    for (int i = 0; i < Buckets.COUNT; i++) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    return this;
+  }
+
+  /**
+   * Adds counts in the bucket layout, as kept by {@link ConcurrentDurationHistogram}.
+   */
+  void add(long[] bucketCounts, long minSeconds, long maxSeconds) {
+    long added = 0;
+    for (int i = 0; i < Buckets.COUNT; i++) {
+      counts[i] += bucketCounts[i];
+      added += bucketCounts[i];
+    }
+    if (added > 0) {
+      count += added;
+      min = Math.min(min, minSeconds);
+      max = Math.max(max, maxSeconds);
+    }
+  }
+
+  /**
+   * Removes every sample.
+   */
+  public void clear() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    min = Long.MAX_VALUE;
+    max = Long.MIN_VALUE;
+  }
+
+  /**
+   * Gets the number of samples recorded.
+   *
+   * @return the number of samples
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Gets the shortest duration recorded, exactly.
+   *
+   * @return the shortest duration
+   * @throws IllegalStateException if the histogram is empty
+   */
+  public Duration min() {
+    checkNotEmpty();
+    return new CompactDuration(min);
+  }
+
+  /**
+   * Gets the longest duration recorded, exactly.
+   *
+   * @return the longest duration
+   * @throws IllegalStateException if the histogram is empty
+   */
+  public Duration max() {
+    checkNotEmpty();
+    return new CompactDuration(max);
+  }
+
+  private void checkNotEmpty() {
+    if (count == 0) {
+      throw new IllegalStateException("No samples recorded");
+    }
+  }
+
+  /**
+   * Gets a percentile of the durations by the nearest-rank method, rounded up to the end of its
+   * bucket but no further than the longest duration recorded.
+   *
+   * @param percent the percentile, from 0 to 100, such as 99.9
+   * @return the duration
+   * @throws IllegalArgumentException if {@code percent} is outside 0 to 100
+   * @throws IllegalStateException if the histogram is empty
+   */
+  public Duration percentile(double percent) {
+    return new CompactDuration(percentileSeconds(percent));
+  }
+
+  /**
+   * Gets a percentile of the lengths, as {@link #percentile(double)} does.
+   *
+   * @param percent the percentile, from 0 to 100
+   * @return the length in seconds
+   * @throws IllegalArgumentException if {@code percent} is outside 0 to 100
+   * @throws IllegalStateException if the histogram is empty
+   */
+  public long percentileSeconds(double percent) {
+    if (!(percent >= 0 && percent <= 100)) {
+      throw new IllegalArgumentException("Percentile must be from 0 to 100: " + percent);
+    }
+    checkNotEmpty();
+    long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < Buckets.COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.max(min, Math.min(max, Buckets.highest(i)));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Gets the number of bytes {@link #encode} writes.
+   *
+   * @return the encoded length
+   */
+  public int encodedLength() {
+    int length = 1 + DurationCodec.encodedLength(count);
+    if (count == 0) {
+      return length;
+    }
+    length += DurationCodec.encodedLength(min) + DurationCodec.encodedLength(max);
+    int buckets = 0;
+    int previous = 0;
+    for (int i = 0; i < Buckets.COUNT; i++) {
+      if (counts[i] != 0) {
+        buckets++;
+        length += DurationCodec.encodedLength(i - previous)
+            + DurationCodec.encodedLength(counts[i]);
+        previous = i;
+      }
+    }
+    return length + DurationCodec.encodedLength(buckets);
+  }
+
+  /**
+   * Writes the histogram with its version. Only the buckets that have samples are written,
+   * each as the distance from the previous one and its count, in the variable-length encoding
+   * of {@link DurationCodec}. Nothing is written unless the whole histogram fits.
+   *
+   * @param out the destination
+   * @throws BufferOverflowException if the encoding does not fit
+   */
+  public void encode(ByteBuffer out) {
+    if (out.remaining() < encodedLength()) {
+      throw new BufferOverflowException();
+    }
+    out.put(VERSION);
+    DurationCodec.encodeSeconds(count, out);
+    if (count == 0) {
+      return;
+    }
+    DurationCodec.encodeSeconds(min, out);
+    DurationCodec.encodeSeconds(max, out);
+    int buckets = 0;
+    for (long bucket : counts) {
+      if (bucket != 0) {
+        buckets++;
+      }
+    }
+    DurationCodec.encodeSeconds(buckets, out);
+    int previous = 0;
+    for (int i = 0; i < Buckets.COUNT; i++) {
+      if (counts[i] != 0) {
+        DurationCodec.encodeSeconds(i - previous, out);
+        DurationCodec.encodeSeconds(counts[i], out);
+        previous = i;
+      }
+    }
+  }
+
+  /**
+   * Reads a histogram written by {@link #encode}.
+   *
+   * @param in the source
+   * @return the histogram
+   * @throws BufferUnderflowException if the encoding is cut short
+   * @throws IllegalArgumentException if the version is unknown or the bytes are not valid
+   */
+  public static DurationHistogram decode(ByteBuffer in) {
+    byte version = in.get();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unknown histogram version " + version);
+    }
+    DurationHistogram histogram = new DurationHistogram();
+    long count = DurationCodec.decodeSeconds(in);
+    if (count == 0) {
+      return histogram;
+    }
+    long min = DurationCodec.decodeSeconds(in);
+    long max = DurationCodec.decodeSeconds(in);
+    long buckets = DurationCodec.decodeSeconds(in);
+    long index = 0;
+    long total = 0;
+    for (long b = 0; b < buckets; b++) {
+      long distance = DurationCodec.decodeSeconds(in);
+      long times = DurationCodec.decodeSeconds(in);
+      // Checked before adding, so that a huge distance cannot wrap the index around.
+      if (distance > Buckets.COUNT - 1 - index || times <= 0 || (b > 0 && distance == 0)) {
+        throw new IllegalArgumentException("Invalid histogram bucket " + b);
+      }
+      index += distance;
+      histogram.counts[(int) index] = times;
+      try {
+        total = Math.addExact(total, times);
+      } catch (ArithmeticException e) {
+        throw new IllegalArgumentException("Histogram counts do not add up", e);
+      }
+    }
+    if (total != count || min > max || buckets == 0) {
+      throw new IllegalArgumentException("Histogram counts do not add up");
+    }
+    histogram.count = count;
+    histogram.min = min;
+    histogram.max = max;
+    return histogram;
+  }
+}
@@ -0,0 +1,27 @@
+package duration.timer;
+
+/**
+ * A task scheduled on a {@link TimerWheel}, which can be cancelled until it expires.
+ */
+public interface Timeout {
+  /**
+   * Cancels the task if it has not expired yet.
+   *
+   * @return true if this call cancelled it, false if it had already expired or been cancelled
+   */
+  boolean cancel();
+
+  /**
+   * Tells whether the task was cancelled.
+   *
+   * @return whether the task was cancelled
+   */
+  boolean isCancelled();
+
+  /**
+   * Tells whether the task expired and was handed to the dispatcher.
+   *
+   * @return whether the task expired
+   */
+  boolean isExpired();
+}
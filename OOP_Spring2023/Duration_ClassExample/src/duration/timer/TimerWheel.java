@@ -0,0 +1,353 @@
+package duration.timer;
+
+import duration.Duration;
+import duration.Durations;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs tasks after a {@link Duration}, for very many pending tasks at once. Tasks are kept in a
+ * hierarchical hashed timer wheel: 256 buckets of one tick each, then levels of 64 buckets,
+ * each bucket of a level as long as the whole level below. Scheduling and cancelling take
+ * constant time, however many tasks are pending; a task only moves down a level when its
+ * bucket comes due.
+ *
+ * <p>A single thread owns the wheel and advances it one tick at a time. Other threads never
+ * touch the wheel: they push new and cancelled tasks on lock-free stacks, which the wheel's
+ * thread drains on each tick. Expired tasks are handed to the dispatcher, so slow tasks do not
+ * hold up the clock; {@link #defaultDispatcher()} uses virtual threads where the JDK has them.
+ *
+ * <p>A task runs no earlier than its delay, and at most about a tick later when the dispatcher
+ * keeps up.
+ */
+public final class TimerWheel implements AutoCloseable {
+  private static final int WHEEL_BITS = 8;
+  private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+  private static final int LEVEL_BITS = 6;
+  private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+  // Enough levels above the wheel that any delay up to 2^62 ticks has a bucket.
+  private static final int LEVELS = (62 - WHEEL_BITS + LEVEL_BITS - 1) / LEVEL_BITS;
+  // Longer delays, about 146 years, are cut to this.
+  private static final long MAX_DELAY_NANOS = Long.MAX_VALUE / 2;
+
+  private static final int PENDING = 0;
+  private static final int CANCELLED = 1;
+  private static final int EXPIRED = 2;
+
+  /**
+   * A scheduled task and its links. The bucket links are only used by the wheel's thread.
+   */
+  private static final class Task implements Timeout {
+    static final AtomicIntegerFieldUpdater<Task> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(Task.class, "state");
+
+    final TimerWheel owner;
+    final Runnable runnable;
+    final long deadline;
+    volatile int state = PENDING;
+
+    Task submittedNext;
+    Task cancelledNext;
+    Bucket bucket;
+    Task previous;
+    Task next;
+
+    Task(TimerWheel owner, Runnable runnable, long deadline) {
+      this.owner = owner;
+      this.runnable = runnable;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+        return false;
+      }
+      owner.pending.decrement();
+      push(owner.cancelled, this, true);
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return state == CANCELLED;
+    }
+
+    @Override
+    public boolean isExpired() {
+      return state == EXPIRED;
+    }
+  }
+
+  /**
+   * A doubly linked list of tasks.
+   */
+  private static final class Bucket {
+    Task head;
+
+    void add(Task task) {
+      task.bucket = this;
+      task.previous = null;
+      task.next = head;
+      if (head != null) {
+        head.previous = task;
+      }
+      head = task;
+    }
+
+    void remove(Task task) {
+      if (task.previous != null) {
+        task.previous.next = task.next;
+      } else {
+        head = task.next;
+      }
+      if (task.next != null) {
+        task.next.previous = task.previous;
+      }
+      task.bucket = null;
+      task.previous = null;
+      task.next = null;
+    }
+
+    Task detach() {
+      Task first = head;
+      head = null;
+      return first;
+    }
+  }
+
+  private final long tickNanos;
+  private final Executor dispatcher;
+  private final long startNanos;
+  private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+  private final Bucket[][] levels = new Bucket[LEVELS][LEVEL_SIZE];
+  private final AtomicReference<Task> submitted = new AtomicReference<>();
+  private final AtomicReference<Task> cancelled = new AtomicReference<>();
+  private final LongAdder pending = new LongAdder();
+  private final Thread thread;
+  private volatile boolean running = true;
+
+  // The next tick to process; only the wheel's thread uses it.
+  private long now;
+
+  /**
+   * Constructs a wheel and starts its thread.
+   *
+   * @param tickMillis the length of a tick in milliseconds, the resolution of the wheel
+   * @param dispatcher runs the expired tasks; what it throws, including what a task it runs in
+   *     place throws, goes to the uncaught-exception handler of the wheel's thread
+   * @throws IllegalArgumentException if {@code tickMillis} is not positive
+   */
+  public TimerWheel(long tickMillis, Executor dispatcher) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+    }
+    this.tickNanos = tickMillis * 1_000_000;
+    this.dispatcher = dispatcher;
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      wheel[i] = new Bucket();
+    }
+    for (Bucket[] level : levels) {
+      for (int i = 0; i < LEVEL_SIZE; i++) {
+        level[i] = new Bucket();
+      }
+    }
+    this.startNanos = System.nanoTime();
+    this.thread = new Thread(this::run, "timer-wheel");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Gets an executor that runs each task in a new virtual thread where the JDK has them
+   * (Java 21 and later), and in the common fork-join pool otherwise.
+   *
+   * @return the executor
+   */
+  public static Executor defaultDispatcher() {
+    try {
+      return (Executor) java.util.concurrent.Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return ForkJoinPool.commonPool();
+    }
+  }
+
+  /**
+   * Schedules a task to run after a delay. Safe to call from any thread.
+   *
+   * @param task the task
+   * @param delay how long to wait before running it
+   * @return the handle to cancel the task
+   * @throws IllegalStateException if the wheel was closed
+   */
+  public Timeout schedule(Runnable task, Duration delay) {
+    if (!running) {
+      throw new IllegalStateException("Timer wheel is closed");
+    }
+    long seconds = Durations.inSeconds(delay);
+    long delayNanos = seconds > MAX_DELAY_NANOS / 1_000_000_000L
+        ? MAX_DELAY_NANOS : seconds * 1_000_000_000L;
+    long elapsed = System.nanoTime() - startNanos;
+    // The first tick that starts no earlier than the deadline.
+    long deadline = (elapsed + delayNanos + tickNanos - 1) / tickNanos;
+    Task timeout = new Task(this, task, deadline);
+    pending.increment();
+    push(submitted, timeout, false);
+    return timeout;
+  }
+
+  private static void push(AtomicReference<Task> stack, Task task, boolean cancel) {
+    Task head;
+    do {
+      head = stack.get();
+      if (cancel) {
+        task.cancelledNext = head;
+      } else {
+        task.submittedNext = head;
+      }
+    } while (!stack.compareAndSet(head, task));
+  }
+
+  /**
+   * Gets the number of tasks that have neither expired nor been cancelled.
+   *
+   * @return the number of pending tasks
+   */
+  public long pending() {
+    return pending.sum();
+  }
+
+  /**
+   * Stops the wheel's thread. Pending tasks never run.
+   *
+   * @throws InterruptedException if interrupted while waiting for the thread to stop
+   */
+  @Override
+  public void close() throws InterruptedException {
+    running = false;
+    LockSupport.unpark(thread);
+    thread.join();
+  }
+
+  private void run() {
+    while (running) {
+      long due = (System.nanoTime() - startNanos) / tickNanos;
+      while (now <= due && running) {
+        tick();
+      }
+      long wait = startNanos + now * tickNanos - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(this, wait);
+      }
+    }
+  }
+
+  /**
+   * Processes tick {@code now}: takes in new and cancelled tasks, moves the tasks of the levels
+   * that come due down the wheel, and expires the bucket of the tick.
+   */
+  private void tick() {
+    drainSubmitted();
+    drainCancelled();
+
+    int index = (int) (now & (WHEEL_SIZE - 1));
+    if (index == 0) {
+      cascade();
+    }
+    for (Task task = wheel[index].detach(); task != null; ) {
+      Task next = task.next;
+      task.bucket = null;
+      task.next = null;
+      task.previous = null;
+      if (Task.STATE.compareAndSet(task, PENDING, EXPIRED)) {
+        pending.decrement();
+        dispatch(task.runnable);
+      }
+      task = next;
+    }
+    now++;
+  }
+
+  /**
+   * Hands a task to the dispatcher. A task that throws, when the dispatcher runs it in place,
+   * or a dispatcher that rejects it must not stop the clock for every other task, so the error
+   * goes to the uncaught-exception handler of the wheel's thread and the wheel keeps ticking.
+   */
+  private void dispatch(Runnable runnable) {
+    try {
+      dispatcher.execute(runnable);
+    } catch (Throwable e) {
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+  }
+
+  private void cascade() {
+    int shift = WHEEL_BITS;
+    for (Bucket[] level : levels) {
+      int index = (int) ((now >>> shift) & (LEVEL_SIZE - 1));
+      for (Task task = level[index].detach(); task != null; ) {
+        Task next = task.next;
+        if (task.state == PENDING) {
+          place(task);
+        } else {
+          task.bucket = null;
+        }
+        task = next;
+      }
+      if (index != 0) {
+        return;
+      }
+      shift += LEVEL_BITS;
+    }
+  }
+
+  private void place(Task task) {
+    long delta = task.deadline - now;
+    if (delta < WHEEL_SIZE) {
+      wheel[(int) (Math.max(task.deadline, now) & (WHEEL_SIZE - 1))].add(task);
+      return;
+    }
+    int shift = WHEEL_BITS;
+    for (Bucket[] level : levels) {
+      if (delta < 1L << (shift + LEVEL_BITS) || level == levels[LEVELS - 1]) {
+        level[(int) ((task.deadline >>> shift) & (LEVEL_SIZE - 1))].add(task);
+        return;
+      }
+      shift += LEVEL_BITS;
+    }
+  }
+
+  private void drainSubmitted() {
+    Task reversed = null;
+    for (Task task = submitted.getAndSet(null); task != null; ) {
+      Task next = task.submittedNext;
+      task.submittedNext = reversed;
+      reversed = task;
+      task = next;
+    }
+    for (Task task = reversed; task != null; ) {
+      Task next = task.submittedNext;
+      task.submittedNext = null;
+      if (task.state == PENDING) {
+        place(task);
+      }
+      task = next;
+    }
+  }
+
+  private void drainCancelled() {
+    for (Task task = cancelled.getAndSet(null); task != null; ) {
+      Task next = task.cancelledNext;
+      task.cancelledNext = null;
+      if (task.bucket != null) {
+        task.bucket.remove(task);
+      }
+      task = next;
+    }
+  }
+}
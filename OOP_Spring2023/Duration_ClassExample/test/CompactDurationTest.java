@@ -0,0 +1,63 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import duration.CompactDuration;
+import duration.Duration;
+import duration.HmsDuration;
+import org.junit.Test;
+
+/**
+ * Runs the duration tests against {@link CompactDuration}, and checks what only the compact
+ * range allows.
+ */
+public class CompactDurationTest extends DurationTest {
+
+  @Override
+  protected Duration hms(int hours, int minutes, int seconds) {
+    return new CompactDuration(hours, minutes, seconds);
+  }
+
+  @Test
+  public void testMixedImplementations() {
+    Duration compact = new CompactDuration(5025);
+    Duration hms = new HmsDuration(1, 23, 45);
+    assertEquals(compact, hms);
+    assertEquals(hms, compact);
+    assertEquals(hms.hashCode(), compact.hashCode());
+    assertEquals(0, compact.compareTo(hms));
+    assertEquals(new CompactDuration(10_050), compact.plus(hms));
+    assertTrue(compact.plus(hms) instanceof CompactDuration);
+  }
+
+  @Test
+  public void testBeyondHmsRange() {
+    long seconds = 3600L * Integer.MAX_VALUE + 3600;
+    Duration large = new CompactDuration(seconds);
+    assertEquals(seconds, large.inSeconds());
+    assertEquals("2147483648:00:00", large.asHms());
+    assertEquals(new CompactDuration(2 * seconds), large.multipliedBy(2));
+    assertEquals(new CompactDuration(seconds / 2), large.dividedBy(2));
+  }
+
+  @Test
+  public void testLargeHmsConstructor() {
+    assertEquals(3600L * Integer.MAX_VALUE, new CompactDuration(Integer.MAX_VALUE, 0, 0)
+        .inSeconds());
+  }
+
+  @Test
+  public void testPlusAtLimit() {
+    Duration max = new CompactDuration(Long.MAX_VALUE - 1);
+    assertEquals(Long.MAX_VALUE, max.plus(new CompactDuration(1)).inSeconds());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testPlusOverflow() {
+    new CompactDuration(Long.MAX_VALUE).plus(new CompactDuration(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeSeconds() {
+    new CompactDuration(-1);
+  }
+}
@@ -0,0 +1,108 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import duration.Duration;
+import duration.DurationCodec;
+import duration.HmsDuration;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Class for testing the binary encoding of durations.
+ */
+public class DurationCodecTest {
+
+  private static long roundTrip(long seconds) {
+    ByteBuffer buffer = ByteBuffer.allocate(DurationCodec.MAX_BYTES);
+    DurationCodec.encodeSeconds(seconds, buffer);
+    assertEquals("length of " + seconds, DurationCodec.encodedLength(seconds), buffer.position());
+    buffer.flip();
+    long decoded = DurationCodec.decodeSeconds(buffer);
+    assertEquals("whole encoding read", 0, buffer.remaining());
+    return decoded;
+  }
+
+  @Test
+  public void testRoundTripSeconds() {
+    long[] values = {0, 1, 59, 60, 127, 128, 3599, 3600, 16383, 16384, 86400,
+        Integer.MAX_VALUE, Long.MAX_VALUE / 2, Long.MAX_VALUE};
+    for (long value : values) {
+      assertEquals(value, roundTrip(value));
+    }
+    Random random = new Random(5);
+    for (int i = 0; i < 10_000; i++) {
+      long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+      assertEquals(value, roundTrip(value));
+    }
+  }
+
+  @Test
+  public void testEncodedLength() {
+    assertEquals(1, DurationCodec.encodedLength(0));
+    assertEquals(1, DurationCodec.encodedLength(127));
+    assertEquals(2, DurationCodec.encodedLength(128));
+    assertEquals(3, DurationCodec.encodedLength(86400));
+    assertEquals(9, DurationCodec.encodedLength(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testRoundTripDuration() {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    DurationCodec.encode(new HmsDuration(10, 29, 58), buffer);
+    buffer.flip();
+    assertEquals(new HmsDuration(10, 29, 58), DurationCodec.decode(buffer));
+  }
+
+  @Test
+  public void testRoundTripArray() {
+    Duration[] durations = {
+        new HmsDuration(0), new HmsDuration(1, 23, 45), new HmsDuration(457, 0, 3)};
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    DurationCodec.encodeAll(durations, buffer);
+    assertEquals(1 + 1 + 1 + 2 + 3, buffer.position());
+    buffer.flip();
+    assertArrayEquals(durations, DurationCodec.decodeAll(buffer));
+
+    buffer.rewind();
+    assertArrayEquals(new long[] {0, 5025, 1645203}, DurationCodec.decodeAllSeconds(buffer));
+  }
+
+  @Test
+  public void testArrayDoesNotFit() {
+    ByteBuffer buffer = ByteBuffer.allocate(4);
+    try {
+      DurationCodec.encodeAll(new Duration[] {new HmsDuration(1000), new HmsDuration(1000)},
+          buffer);
+    } catch (BufferOverflowException e) {
+      assertEquals("nothing written", 0, buffer.position());
+      return;
+    }
+    throw new AssertionError("expected BufferOverflowException");
+  }
+
+  @Test(expected = BufferUnderflowException.class)
+  public void testTruncated() {
+    DurationCodec.decodeSeconds(ByteBuffer.wrap(new byte[] {(byte) 0x80, (byte) 0x80}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooLong() {
+    byte[] bytes = new byte[10];
+    Arrays.fill(bytes, (byte) 0x80);
+    DurationCodec.decodeSeconds(ByteBuffer.wrap(bytes));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownVersion() {
+    DurationCodec.decodeAll(ByteBuffer.wrap(new byte[] {2, 0}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegative() {
+    DurationCodec.encodeSeconds(-1, ByteBuffer.allocate(16));
+  }
+}
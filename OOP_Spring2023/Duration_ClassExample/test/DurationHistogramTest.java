@@ -0,0 +1,205 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import duration.CompactDuration;
+import duration.DurationCodec;
+import duration.DurationVector;
+import duration.HmsDuration;
+import duration.stats.ConcurrentDurationHistogram;
+import duration.stats.DurationHistogram;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks the histogram percentiles against exact percentiles, and merging, encoding and
+ * concurrent recording.
+ */
+public class DurationHistogramTest {
+
+  private static final double[] PERCENTS = {0, 1, 25, 50, 90, 99, 99.9, 100};
+
+  private static long[] samples(int count) {
+    Random random = new Random(42);
+    long[] samples = new long[count];
+    for (int i = 0; i < count; i++) {
+      // Mostly short runs with a long tail, over many powers of two.
+      samples[i] = (long) Math.exp(random.nextGaussian() * 3 + 5);
+    }
+    samples[0] = Long.MAX_VALUE;
+    return samples;
+  }
+
+  private static void assertClose(DurationVector exact, DurationHistogram histogram) {
+    for (double percent : PERCENTS) {
+      long expected = exact.percentile(percent);
+      long actual = histogram.percentileSeconds(percent);
+      assertTrue(percent + ": " + actual + " < " + expected, actual >= expected);
+      assertTrue(percent + ": " + actual + " vs " + expected,
+          actual - expected <= expected / 100);
+    }
+  }
+
+  @Test
+  public void testPercentilesWithinOnePercent() {
+    long[] samples = samples(100_000);
+    DurationHistogram histogram = new DurationHistogram();
+    for (long sample : samples) {
+      histogram.recordSeconds(sample);
+    }
+    assertEquals(samples.length, histogram.count());
+    assertClose(DurationVector.ofSeconds(samples), histogram);
+    assertEquals(new CompactDuration(Long.MAX_VALUE), histogram.max());
+  }
+
+  @Test
+  public void testSmallLengthsExact() {
+    DurationHistogram histogram = new DurationHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(new HmsDuration(i));
+    }
+    assertEquals(new HmsDuration(50), histogram.percentile(50));
+    assertEquals(new HmsDuration(99), histogram.percentile(99));
+    assertEquals(new HmsDuration(1), histogram.min());
+    assertEquals(new HmsDuration(1), histogram.percentile(0));
+  }
+
+  @Test
+  public void testRecordTimes() {
+    DurationHistogram histogram = new DurationHistogram();
+    histogram.recordSeconds(10, 99);
+    histogram.recordSeconds(1000, 1);
+    assertEquals(100, histogram.count());
+    assertEquals(10, histogram.percentileSeconds(99));
+    assertEquals(1000, histogram.percentileSeconds(99.5));
+  }
+
+  @Test
+  public void testMerge() {
+    long[] samples = samples(10_000);
+    DurationHistogram all = new DurationHistogram();
+    DurationHistogram even = new DurationHistogram();
+    DurationHistogram odd = new DurationHistogram();
+    for (int i = 0; i < samples.length; i++) {
+      all.recordSeconds(samples[i]);
+      (i % 2 == 0 ? even : odd).recordSeconds(samples[i]);
+    }
+    even.merge(odd);
+    assertEquals(all.count(), even.count());
+    for (double percent : PERCENTS) {
+      assertEquals(all.percentileSeconds(percent), even.percentileSeconds(percent));
+    }
+  }
+
+  @Test
+  public void testEncodeRoundTrip() {
+    DurationHistogram histogram = new DurationHistogram();
+    for (long sample : samples(10_000)) {
+      histogram.recordSeconds(sample);
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(histogram.encodedLength());
+    histogram.encode(buffer);
+    assertEquals(buffer.capacity(), buffer.position());
+    buffer.flip();
+    DurationHistogram decoded = DurationHistogram.decode(buffer);
+    assertEquals(histogram.count(), decoded.count());
+    assertEquals(histogram.min(), decoded.min());
+    assertEquals(histogram.max(), decoded.max());
+    for (double percent : PERCENTS) {
+      assertEquals(histogram.percentile(percent), decoded.percentile(percent));
+    }
+  }
+
+  @Test
+  public void testEncodeEmpty() {
+    DurationHistogram empty = new DurationHistogram();
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    empty.encode(buffer);
+    buffer.flip();
+    assertEquals(0, DurationHistogram.decode(buffer).count());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeBadVersion() {
+    DurationHistogram.decode(ByteBuffer.wrap(new byte[] {9, 0}));
+  }
+
+  /**
+   * Encodes a histogram header and buckets as given, without checking them.
+   */
+  private static ByteBuffer encoded(long count, long... bucketPairs) {
+    ByteBuffer buffer = ByteBuffer.allocate(128);
+    buffer.put(DurationHistogram.VERSION);
+    DurationCodec.encodeSeconds(count, buffer);
+    DurationCodec.encodeSeconds(1, buffer);
+    DurationCodec.encodeSeconds(1, buffer);
+    DurationCodec.encodeSeconds(bucketPairs.length / 2, buffer);
+    for (long value : bucketPairs) {
+      DurationCodec.encodeSeconds(value, buffer);
+    }
+    return buffer.flip();
+  }
+
+  @Test
+  public void testDecodeMalformed() {
+    List<ByteBuffer> malformed = List.of(
+        // A distance that would wrap the bucket index around.
+        encoded(2, 100, 1, Long.MAX_VALUE, 1),
+        // A distance past the last bucket.
+        encoded(2, 100, 1, Integer.MAX_VALUE, 1),
+        // Counts whose sum overflows.
+        encoded(Long.MAX_VALUE, 0, Long.MAX_VALUE, 1, Long.MAX_VALUE));
+    for (ByteBuffer buffer : malformed) {
+      try {
+        DurationHistogram.decode(buffer);
+        fail("Decoded a malformed histogram");
+      } catch (IllegalArgumentException expected) {
+        // Rejected.
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    ConcurrentDurationHistogram concurrent = new ConcurrentDurationHistogram(3);
+    long[] samples = samples(40_000);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int first = t;
+      Thread thread = new Thread(() -> {
+        for (int i = first; i < samples.length; i += 4) {
+          concurrent.recordSeconds(samples[i]);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    DurationHistogram expected = new DurationHistogram();
+    for (long sample : samples) {
+      expected.recordSeconds(sample);
+    }
+    DurationHistogram snapshot = concurrent.snapshot();
+    assertEquals(expected.count(), snapshot.count());
+    assertEquals(expected.min(), snapshot.min());
+    for (double percent : PERCENTS) {
+      assertEquals(expected.percentileSeconds(percent), snapshot.percentileSeconds(percent));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPercentileOfEmpty() {
+    new DurationHistogram().percentile(50);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegative() {
+    new DurationHistogram().recordSeconds(-1);
+  }
+}
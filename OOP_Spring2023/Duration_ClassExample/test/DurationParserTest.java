@@ -0,0 +1,127 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import duration.DurationParser;
+import duration.HmsDuration;
+import duration.HmsFormat;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks the parser on each form and on each source, and that malformed text is rejected.
+ */
+public class DurationParserTest {
+
+  private static void assertRejected(String text) {
+    try {
+      DurationParser.parseSeconds(text);
+      fail("accepted \"" + text + "\"");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testHmsInverseOfAsHms() {
+    Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      long seconds = (random.nextLong() >>> 1) >>> random.nextInt(63);
+      assertEquals(seconds, DurationParser.parseSeconds(HmsFormat.format(seconds)));
+    }
+    assertEquals(new HmsDuration(10, 29, 58), DurationParser.parseHms("10:29:58"));
+    assertEquals(new HmsDuration(0), DurationParser.parse("0:00:00"));
+  }
+
+  @Test
+  public void testIso() {
+    assertEquals(5400, DurationParser.parseSeconds("PT1H30M"));
+    assertEquals(90 * 60, DurationParser.parseSeconds("PT90M"));
+    assertEquals(45, DurationParser.parseSeconds("PT45S"));
+    assertEquals(2 * 86_400 + 3, DurationParser.parseSeconds("P2DT3S"));
+    assertEquals(86_400, DurationParser.parseSeconds("P1D"));
+    assertEquals(3723, DurationParser.parseSeconds("pt1h2m3s"));
+    assertEquals(new HmsDuration(1, 2, 3), DurationParser.parseIso("PT1H2M3S"));
+  }
+
+  @Test
+  public void testIsoMatchesJavaTime() {
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      String text = "P" + random.nextInt(100) + "DT" + random.nextInt(100) + "H"
+          + random.nextInt(100) + "M" + random.nextInt(100) + "S";
+      assertEquals(text, java.time.Duration.parse(text).getSeconds(),
+          DurationParser.parseSeconds(text));
+    }
+  }
+
+  @Test
+  public void testPlainSeconds() {
+    assertEquals(0, DurationParser.parseSeconds("0"));
+    assertEquals(86_400, DurationParser.parseSeconds("86400"));
+    assertEquals(Long.MAX_VALUE, DurationParser.parseSeconds(Long.toString(Long.MAX_VALUE)));
+  }
+
+  @Test
+  public void testRange() {
+    String line = "job=build took=1:02:03 ok";
+    assertEquals(3723, DurationParser.parseSeconds(line, 15, 22));
+  }
+
+  @Test
+  public void testByteBuffer() {
+    ByteBuffer in = ByteBuffer.wrap("xxPT2M".getBytes(StandardCharsets.US_ASCII));
+    in.position(2);
+    assertEquals(new HmsDuration(120), DurationParser.parse(in));
+    assertEquals(in.limit(), in.position());
+
+    ByteBuffer bad = ByteBuffer.wrap("1:2:3".getBytes(StandardCharsets.US_ASCII));
+    try {
+      DurationParser.parse(bad);
+      fail("accepted 1:2:3");
+    } catch (IllegalArgumentException expected) {
+      assertEquals(0, bad.position());
+    }
+  }
+
+  @Test
+  public void testMalformedRejected() {
+    String[] malformed = {
+      "", " 1:00:00", "1:00:00 ", "1:2:3", "1:60:00", "1:00:60", "1:0:00", ":00:00",
+      "1::00", "1:00", "1:00:00:00", "P", "PT", "P1DT", "PT1D", "P1H", "PT1S2M", "PT1H1H",
+      "PT1.5S", "PTS", "+5", "5s", "1e3", "P1W", "12a"
+    };
+    for (String text : malformed) {
+      assertRejected(text);
+    }
+  }
+
+  @Test
+  public void testNegativeMessage() {
+    String[] negative = {"-5", "-1:00:00", "PT-5M", "-PT5M"};
+    for (String text : negative) {
+      try {
+        DurationParser.parseSeconds(text);
+        fail("accepted " + text);
+      } catch (IllegalArgumentException e) {
+        assertEquals("Negative durations are not supported", e.getMessage());
+      }
+    }
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testOverflow() {
+    DurationParser.parseSeconds("9223372036854775808");
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testHoursOverflow() {
+    DurationParser.parseSeconds("9223372036854775:00:00");
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testBadRange() {
+    DurationParser.parseSeconds("1:00:00", 2, 10);
+  }
+}
@@ -93,4 +93,43 @@ public class DurationTest {
     assertEquals("carries minutes", hms(4, 19, 48), hms(1, 23, 3).plus(hms(2, 56, 45)));
     assertEquals("carries both", hms(4, 20, 18), hms(1, 23, 33).plus(hms(2, 56, 45)));
   }
+
+  @Test
+  public void testMinus() {
+    assertEquals("small values", hms(1, 23, 45), hms(2, 43, 55).minus(hms(1, 20, 10)));
+    assertEquals("borrows", hms(1, 59, 59), hms(3, 0, 0).minus(hms(1, 0, 1)));
+    assertEquals("to zero", hms(0, 0, 0), hms(1, 2, 3).minus(hms(1, 2, 3)));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testMinusNegative() {
+    hms(1, 0, 0).minus(hms(1, 0, 1));
+  }
+
+  @Test
+  public void testMultipliedBy() {
+    assertEquals(hms(3, 0, 0), hms(1, 0, 0).multipliedBy(3));
+    assertEquals(hms(0, 0, 0), hms(1, 2, 3).multipliedBy(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMultipliedByNegative() {
+    hms(1, 0, 0).multipliedBy(-1);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testMultipliedByOverflow() {
+    hms(1, 0, 0).multipliedBy(Long.MAX_VALUE / 1000);
+  }
+
+  @Test
+  public void testDividedBy() {
+    assertEquals(hms(0, 20, 0), hms(1, 0, 0).dividedBy(3));
+    assertEquals("rounds down", hms(0, 0, 3), hms(0, 0, 7).dividedBy(2));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testDividedByZero() {
+    hms(1, 0, 0).dividedBy(0);
+  }
 }
@@ -0,0 +1,115 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import duration.Duration;
+import duration.DurationVector;
+import duration.Durations;
+import duration.HmsDuration;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks the bulk operations of {@link DurationVector} against the same operations on
+ * duration objects.
+ */
+public class DurationVectorTest {
+
+  private static Duration[] randomDurations(int count) {
+    Random random = new Random(42);
+    Duration[] durations = new Duration[count];
+    for (int i = 0; i < count; i++) {
+      durations[i] = new HmsDuration(random.nextInt(100_000));
+    }
+    return durations;
+  }
+
+  @Test
+  public void testTotal() {
+    Duration[] durations = randomDurations(10_000);
+    Duration expected = new HmsDuration(0);
+    for (Duration duration : durations) {
+      expected = expected.plus(duration);
+    }
+    assertEquals(expected, DurationVector.of(durations).total());
+    assertEquals(expected, Durations.sum(durations));
+    assertEquals(expected.inSeconds(), Durations.sumSeconds(durations));
+    assertEquals(new HmsDuration(0), Durations.sum());
+  }
+
+  @Test
+  public void testPrefixSums() {
+    DurationVector vector = DurationVector.ofSeconds(5, 0, 10, 3);
+    assertArrayEquals(new long[] {5, 5, 15, 18}, vector.prefixSums());
+    assertArrayEquals(new long[0], new DurationVector().prefixSums());
+  }
+
+  @Test
+  public void testSort() {
+    Duration[] durations = randomDurations(1000);
+    DurationVector vector = DurationVector.of(durations);
+    Arrays.sort(durations);
+    vector.sort();
+    for (int i = 0; i < durations.length; i++) {
+      assertEquals(durations[i], vector.get(i));
+    }
+  }
+
+  @Test
+  public void testPercentile() {
+    DurationVector vector = DurationVector.ofSeconds(50, 10, 40, 20, 30);
+    assertEquals(10, vector.percentile(0));
+    assertEquals(10, vector.percentile(20));
+    assertEquals(20, vector.percentile(21));
+    assertEquals(30, vector.percentile(50));
+    assertEquals(50, vector.percentile(100));
+    assertArrayEquals("percentile does not reorder", new long[] {50, 10, 40, 20, 30},
+        vector.toArray());
+
+    vector.sort();
+    assertEquals(40, vector.percentile(80));
+  }
+
+  @Test
+  public void testGrow() {
+    DurationVector vector = new DurationVector(0);
+    for (int i = 0; i < 100; i++) {
+      vector.add(Durations.ofSeconds(i));
+    }
+    assertEquals(100, vector.size());
+    assertEquals(99, vector.seconds(99));
+    assertEquals(4950, vector.totalSeconds());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testTotalOverflow() {
+    DurationVector.ofSeconds(Long.MAX_VALUE, 1).totalSeconds();
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testGetTooLong() {
+    DurationVector vector = DurationVector.ofSeconds(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, vector.seconds(0));
+    vector.get(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegative() {
+    new DurationVector().add(-1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPercentileOfEmpty() {
+    new DurationVector().percentile(50);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPercentileOutOfRange() {
+    DurationVector.ofSeconds(1).percentile(101);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testIndexPastSize() {
+    new DurationVector(8).seconds(0);
+  }
+}
@@ -0,0 +1,128 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import duration.CompactDuration;
+import duration.Duration;
+import duration.Durations;
+import duration.HmsDuration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Runs the duration tests against durations from the cached factories, and checks which
+ * lengths are shared.
+ */
+public class DurationsTest extends DurationTest {
+
+  @Override
+  protected Duration hms(int hours, int minutes, int seconds) {
+    return Durations.of(hours, minutes, seconds);
+  }
+
+  @Test
+  public void testCommonLengthsShared() {
+    long[] lengths = {0, 1, 59, 60, 3599, 3600, 5400, 86_400, 7 * 86_400};
+    for (long length : lengths) {
+      assertSame("length " + length, Durations.ofSeconds(length), Durations.ofSeconds(length));
+      assertEquals(length, Durations.ofSeconds(length).inSeconds());
+    }
+    assertSame(Durations.ofSeconds(60), Durations.of(0, 1, 0));
+    assertSame(Durations.ofSeconds(7200), Durations.of(1, 60, 0));
+  }
+
+  @Test
+  public void testOtherLengthsNotShared() {
+    long[] lengths = {3601, 86_401, 86_460, 7 * 86_400 + 3600, Integer.MAX_VALUE};
+    for (long length : lengths) {
+      assertNotSame("length " + length, Durations.ofSeconds(length), Durations.ofSeconds(length));
+      assertEquals(length, Durations.ofSeconds(length).inSeconds());
+    }
+  }
+
+  @Test
+  public void testSharedEqualToOthers() {
+    for (long length = 0; length <= 7 * 86_400; length += 37) {
+      Duration shared = Durations.ofSeconds(length);
+      Duration other = new HmsDuration(length);
+      assertEquals(other, shared);
+      assertEquals(shared, other);
+      assertEquals(other.hashCode(), shared.hashCode());
+      assertEquals(other.asHms(), shared.asHms());
+    }
+  }
+
+  @Test
+  public void testCanonical() {
+    Duration copy = new HmsDuration(90);
+    assertSame(Durations.ofSeconds(90), Durations.canonical(copy));
+    Duration uncached = new HmsDuration(100_000);
+    assertSame(uncached, Durations.canonical(uncached));
+  }
+
+  @Test
+  public void testPlusShares() {
+    assertSame(Durations.ofSeconds(3600), hms(0, 30, 0).plus(hms(0, 30, 0)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeSeconds() {
+    Durations.ofSeconds(-1);
+  }
+
+  /**
+   * Creates a duration of an implementation from outside the package.
+   */
+  private static Duration foreign(long seconds) {
+    return new Duration() {
+      @Override
+      public long inSeconds() {
+        return seconds;
+      }
+
+      @Override
+      public String asHms() {
+        return new HmsDuration(seconds).asHms();
+      }
+
+      @Override
+      public Duration plus(Duration other) {
+        return Durations.ofSeconds(seconds + other.inSeconds());
+      }
+
+      @Override
+      public int compareTo(Duration that) {
+        return Long.compare(seconds, that.inSeconds());
+      }
+    };
+  }
+
+  @Test
+  public void testFastPathsAgreeAcrossImplementations() {
+    Random random = new Random(42);
+    List<Duration> durations = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      long seconds = random.nextInt(10_000);
+      durations.add(i % 3 == 0 ? new HmsDuration(seconds)
+          : i % 3 == 1 ? new CompactDuration(seconds) : foreign(seconds));
+    }
+    for (int i = 1; i < durations.size(); i++) {
+      Duration a = durations.get(i - 1);
+      Duration b = durations.get(i);
+      assertEquals(a.inSeconds(), Durations.inSeconds(a));
+      assertEquals(Long.signum(a.compareTo(b)), Long.signum(Durations.BY_LENGTH.compare(a, b)));
+      assertEquals(a.inSeconds() == b.inSeconds(), Durations.equal(a, b));
+      assertEquals(Long.hashCode(a.inSeconds()), Durations.hash(a));
+    }
+
+    List<Duration> natural = new ArrayList<>(durations);
+    Collections.sort(natural);
+    durations.sort(Durations.BY_LENGTH);
+    for (int i = 0; i < durations.size(); i++) {
+      assertEquals(natural.get(i).inSeconds(), durations.get(i).inSeconds());
+    }
+  }
+}
@@ -0,0 +1,117 @@
+import static org.junit.Assert.assertEquals;
+
+import duration.Duration;
+import duration.HmsDuration;
+import duration.HmsFormat;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks the formatter against {@link String#format} on every sink.
+ */
+public class HmsFormatTest {
+
+  private static String expected(long seconds) {
+    return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+  }
+
+  private static long[] lengths() {
+    Random random = new Random(42);
+    long[] lengths = new long[10_000];
+    for (int i = 0; i < lengths.length; i++) {
+      lengths[i] = (random.nextLong() >>> 1) >>> random.nextInt(63);
+    }
+    lengths[0] = 0;
+    lengths[1] = 59;
+    lengths[2] = 3599;
+    lengths[3] = 36_000;
+    lengths[4] = Long.MAX_VALUE;
+    return lengths;
+  }
+
+  @Test
+  public void testFormat() {
+    for (long seconds : lengths()) {
+      assertEquals(expected(seconds), HmsFormat.format(seconds));
+      assertEquals(expected(seconds).length(), HmsFormat.length(seconds));
+    }
+  }
+
+  @Test
+  public void testCharArray() {
+    char[] dest = new char[40];
+    for (long seconds : lengths()) {
+      int end = HmsFormat.format(seconds, dest, 3);
+      assertEquals(expected(seconds), new String(dest, 3, end - 3));
+    }
+  }
+
+  @Test
+  public void testStringBuilder() {
+    StringBuilder sb = new StringBuilder("x");
+    for (long seconds : lengths()) {
+      sb.setLength(1);
+      assertEquals("x" + expected(seconds), HmsFormat.appendTo(seconds, sb).toString());
+    }
+  }
+
+  @Test
+  public void testByteBuffer() {
+    ByteBuffer out = ByteBuffer.allocate(40);
+    for (long seconds : lengths()) {
+      out.clear();
+      out.put((byte) 'x');
+      HmsFormat.format(seconds, out);
+      assertEquals("x" + expected(seconds),
+          new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII));
+    }
+  }
+
+  @Test
+  public void testAsHms() {
+    assertEquals("457:00:03", new HmsDuration(457, 0, 3).asHms());
+    assertEquals("0:00:00", new HmsDuration(0).asHms());
+  }
+
+  @Test
+  public void testBulk() {
+    Duration[] durations = {new HmsDuration(0), new HmsDuration(3661), new HmsDuration(360_000)};
+    String expected = "0:00:00\n1:01:01\n100:00:00\n";
+
+    assertEquals(expected, HmsFormat.appendAll(durations, '\n', new StringBuilder()).toString());
+
+    char[] dest = new char[expected.length()];
+    assertEquals(dest.length, HmsFormat.formatAll(durations, '\n', dest, 0));
+    assertEquals(expected, new String(dest));
+
+    ByteBuffer out = ByteBuffer.allocate(expected.length());
+    HmsFormat.formatAll(durations, '\n', out);
+    assertEquals(expected, new String(out.array(), StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  public void testBulkOverflowWritesNothing() {
+    Duration[] durations = {new HmsDuration(1), new HmsDuration(2)};
+    ByteBuffer out = ByteBuffer.allocate(15);
+    try {
+      HmsFormat.formatAll(durations, ',', out);
+    } catch (BufferOverflowException e) {
+      assertEquals(0, out.position());
+      return;
+    }
+    throw new AssertionError("expected BufferOverflowException");
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testCharArrayTooShort() {
+    HmsFormat.format(3600, new char[6], 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegative() {
+    HmsFormat.format(-1);
+  }
+}
@@ -0,0 +1,141 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import duration.CompactDuration;
+import duration.Durations;
+import duration.timer.Timeout;
+import duration.timer.TimerWheel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Checks that the timer wheel runs tasks on time, from many threads, and not at all once
+ * cancelled.
+ */
+public class TimerWheelTest {
+
+  private final TimerWheel wheel = new TimerWheel(5, Runnable::run);
+
+  @After
+  public void tearDown() throws InterruptedException {
+    wheel.close();
+  }
+
+  @Test
+  public void testRunsAfterDelay() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    AtomicLong ranAt = new AtomicLong();
+    long start = System.nanoTime();
+    Timeout timeout = wheel.schedule(() -> {
+      ranAt.set(System.nanoTime());
+      done.countDown();
+    }, Durations.ofSeconds(1));
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    long elapsedMillis = (ranAt.get() - start) / 1_000_000;
+    assertTrue("ran after " + elapsedMillis + " ms", elapsedMillis >= 1000);
+    assertTrue("ran after " + elapsedMillis + " ms", elapsedMillis < 1500);
+    assertTrue(timeout.isExpired());
+    assertFalse(timeout.cancel());
+    assertEquals(0, wheel.pending());
+  }
+
+  @Test
+  public void testZeroDelay() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    wheel.schedule(done::countDown, Durations.ofSeconds(0));
+    assertTrue(done.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testCancel() throws InterruptedException {
+    AtomicInteger runs = new AtomicInteger();
+    Timeout cancelled = wheel.schedule(runs::incrementAndGet, Durations.ofSeconds(1));
+    CountDownLatch later = new CountDownLatch(1);
+    wheel.schedule(later::countDown, Durations.ofSeconds(2));
+
+    assertTrue(cancelled.cancel());
+    assertFalse(cancelled.cancel());
+    assertTrue(cancelled.isCancelled());
+    assertEquals(1, wheel.pending());
+
+    assertTrue(later.await(5, TimeUnit.SECONDS));
+    assertEquals(0, runs.get());
+    assertFalse(cancelled.isExpired());
+  }
+
+  @Test
+  public void testManyThreadsManyTasks() throws InterruptedException {
+    int threads = 4;
+    int perThread = 5_000;
+    CountDownLatch done = new CountDownLatch(threads * perThread / 2);
+    AtomicInteger cancelledRuns = new AtomicInteger();
+    List<Thread> schedulers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < perThread; i++) {
+          if (i % 2 == 0) {
+            wheel.schedule(done::countDown, Durations.ofSeconds(i % 3));
+          } else {
+            wheel.schedule(cancelledRuns::incrementAndGet, Durations.ofSeconds(1)).cancel();
+          }
+        }
+      });
+      schedulers.add(thread);
+      thread.start();
+    }
+    for (Thread thread : schedulers) {
+      thread.join();
+    }
+    // A task far in the future stays pending.
+    wheel.schedule(cancelledRuns::incrementAndGet, new CompactDuration(Long.MAX_VALUE));
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(0, cancelledRuns.get());
+    assertEquals(1, wheel.pending());
+  }
+
+  @Test
+  public void testTaskThrows() throws InterruptedException {
+    List<Throwable> reported = new ArrayList<>();
+    Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+    Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+      synchronized (reported) {
+        reported.add(e);
+      }
+    });
+    try {
+      wheel.schedule(() -> {
+        throw new IllegalStateException("bad task");
+      }, Durations.ofSeconds(0));
+      CountDownLatch later = new CountDownLatch(1);
+      wheel.schedule(later::countDown, Durations.ofSeconds(1));
+
+      assertTrue(later.await(5, TimeUnit.SECONDS));
+      synchronized (reported) {
+        assertEquals(1, reported.size());
+        assertEquals("bad task", reported.get(0).getMessage());
+      }
+    } finally {
+      Thread.setDefaultUncaughtExceptionHandler(previous);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testScheduleAfterClose() throws InterruptedException {
+    wheel.close();
+    wheel.schedule(() -> { }, Durations.ofSeconds(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroTick() {
+    new TimerWheel(0, Runnable::run);
+  }
+}
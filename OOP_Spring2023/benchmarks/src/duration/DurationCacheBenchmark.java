@@ -0,0 +1,69 @@
+package duration;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares creating durations of common lengths with {@link Durations} and with the
+ * constructor. Run with {@code -prof gc} to see the allocation per duration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DurationCacheBenchmark {
+  static final int COUNT = 4096;
+
+  long[] seconds = new long[COUNT];
+
+  /**
+   * Creates lengths as schedules use them: seconds, whole minutes and whole hours.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      switch (i % 3) {
+        case 0:
+          seconds[i] = random.nextInt(3600);
+          break;
+        case 1:
+          seconds[i] = 60L * random.nextInt(24 * 60);
+          break;
+        default:
+          seconds[i] = 3600L * random.nextInt(7 * 24);
+          break;
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void constructor(Blackhole blackhole) {
+    for (int i = 0; i < COUNT; i++) {
+      blackhole.consume(new HmsDuration(seconds[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void cached(Blackhole blackhole) {
+    for (int i = 0; i < COUNT; i++) {
+      blackhole.consume(Durations.ofSeconds(seconds[i]));
+    }
+  }
+}
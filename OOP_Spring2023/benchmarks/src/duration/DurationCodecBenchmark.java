@@ -0,0 +1,68 @@
+package duration;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost per duration of the varint encoding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DurationCodecBenchmark {
+  static final int COUNT = 4096;
+
+  Duration[] durations = new Duration[COUNT];
+  ByteBuffer buffer = ByteBuffer.allocateDirect(COUNT * DurationCodec.MAX_BYTES + 16);
+  ByteBuffer encoded = ByteBuffer.allocateDirect(COUNT * DurationCodec.MAX_BYTES + 16);
+
+  /**
+   * Creates random durations of up to a day and encodes them once for the decoders.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      durations[i] = new HmsDuration(random.nextInt(86_400));
+    }
+    DurationCodec.encodeAll(durations, encoded);
+    encoded.flip();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public ByteBuffer encodeAll() {
+    buffer.clear();
+    DurationCodec.encodeAll(durations, buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public Duration[] decodeAll() {
+    encoded.rewind();
+    return DurationCodec.decodeAll(encoded);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long[] decodeAllSeconds() {
+    encoded.rewind();
+    return DurationCodec.decodeAllSeconds(encoded);
+  }
+}
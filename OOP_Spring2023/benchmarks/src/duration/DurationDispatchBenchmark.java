@@ -0,0 +1,186 @@
+package duration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sorting and hashing a {@code List<Duration>} that holds one, two or four
+ * implementations, through the {@link Duration} methods and through the fast paths of
+ * {@link Durations}. Each mix runs in its own fork, so the call sites only ever see its types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DurationDispatchBenchmark {
+  static final int COUNT = 4096;
+
+  /**
+   * A duration from outside the package, as user code would define.
+   */
+  static final class SecondsDuration implements Duration {
+    final long seconds;
+
+    SecondsDuration(long seconds) {
+      this.seconds = seconds;
+    }
+
+    @Override
+    public long inSeconds() {
+      return seconds;
+    }
+
+    @Override
+    public String asHms() {
+      return HmsFormat.format(seconds);
+    }
+
+    @Override
+    public Duration plus(Duration other) {
+      return new SecondsDuration(seconds + other.inSeconds());
+    }
+
+    @Override
+    public int compareTo(Duration that) {
+      return Long.compare(seconds, that.inSeconds());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Duration && ((Duration) o).inSeconds() == seconds;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(seconds);
+    }
+  }
+
+  /**
+   * A second outside implementation, so the four-way mix is megamorphic.
+   */
+  static final class MinutesDuration implements Duration {
+    final long minutes;
+
+    MinutesDuration(long minutes) {
+      this.minutes = minutes;
+    }
+
+    @Override
+    public long inSeconds() {
+      return minutes * 60;
+    }
+
+    @Override
+    public String asHms() {
+      return HmsFormat.format(inSeconds());
+    }
+
+    @Override
+    public Duration plus(Duration other) {
+      return new SecondsDuration(inSeconds() + other.inSeconds());
+    }
+
+    @Override
+    public int compareTo(Duration that) {
+      return Long.compare(inSeconds(), that.inSeconds());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Duration && ((Duration) o).inSeconds() == inSeconds();
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(inSeconds());
+    }
+  }
+
+  @Param({"monomorphic", "bimorphic", "megamorphic"})
+  String mix;
+
+  List<Duration> durations = new ArrayList<>();
+  List<Duration> work = new ArrayList<>();
+
+  /**
+   * Creates random durations of whole minutes, cycling through the implementations of the mix.
+   */
+  @Setup
+  public void setUp() {
+    int kinds = "monomorphic".equals(mix) ? 1 : "bimorphic".equals(mix) ? 2 : 4;
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      long minutes = random.nextInt(24 * 60);
+      switch (i % kinds) {
+        case 0:
+          durations.add(new HmsDuration(minutes * 60));
+          break;
+        case 1:
+          durations.add(new CompactDuration(minutes * 60));
+          break;
+        case 2:
+          durations.add(new SecondsDuration(minutes * 60));
+          break;
+        default:
+          durations.add(new MinutesDuration(minutes));
+          break;
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public List<Duration> sortNatural() {
+    work.clear();
+    work.addAll(durations);
+    Collections.sort(work);
+    return work;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public List<Duration> sortByLength() {
+    work.clear();
+    work.addAll(durations);
+    work.sort(Durations.BY_LENGTH);
+    return work;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int hashCodes() {
+    int hash = 0;
+    for (Duration duration : durations) {
+      hash = 31 * hash + duration.hashCode();
+    }
+    return hash;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int hashFast() {
+    int hash = 0;
+    for (Duration duration : durations) {
+      hash = 31 * hash + Durations.hash(duration);
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,87 @@
+package duration;
+
+import duration.stats.ConcurrentDurationHistogram;
+import duration.stats.DurationHistogram;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures recording job runtimes into the histograms, and reading the 99.9th percentile from
+ * a histogram against computing it exactly from every sample.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurationHistogramBenchmark {
+  static final int COUNT = 4096;
+
+  long[] samples = new long[COUNT];
+  DurationHistogram histogram = new DurationHistogram();
+  ConcurrentDurationHistogram concurrent = new ConcurrentDurationHistogram();
+  DurationVector vector = new DurationVector();
+
+  /**
+   * Creates runtimes of mostly a few minutes with a long tail.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      samples[i] = (long) Math.exp(random.nextGaussian() * 2 + 5);
+      histogram.recordSeconds(samples[i]);
+      vector.add(samples[i]);
+    }
+  }
+
+  /**
+   * A histogram per thread, as a thread-confined recorder would keep.
+   */
+  @State(Scope.Thread)
+  public static class Local {
+    DurationHistogram histogram = new DurationHistogram();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public DurationHistogram record(Local local) {
+    for (long sample : samples) {
+      local.histogram.recordSeconds(sample);
+    }
+    return local.histogram;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  @Threads(Threads.MAX)
+  public ConcurrentDurationHistogram recordConcurrent() {
+    for (long sample : samples) {
+      concurrent.recordSeconds(sample);
+    }
+    return concurrent;
+  }
+
+  @Benchmark
+  public long percentile() {
+    return histogram.percentileSeconds(99.9);
+  }
+
+  @Benchmark
+  public long exactPercentile() {
+    return vector.percentile(99.9);
+  }
+}
@@ -0,0 +1,107 @@
+package duration;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link HmsDuration} and {@link CompactDuration} on the operations of the hot path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DurationImplementationBenchmark {
+  static final int COUNT = 4096;
+
+  @Param({"hms", "compact"})
+  String implementation;
+
+  long[] seconds = new long[COUNT];
+  Duration[] durations = new Duration[COUNT];
+  Set<Duration> durationSet = new HashSet<>();
+
+  Duration create(long inSeconds) {
+    return "hms".equals(implementation)
+        ? new HmsDuration(inSeconds) : new CompactDuration(inSeconds);
+  }
+
+  /**
+   * Creates random durations of up to a day of the chosen implementation.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      seconds[i] = random.nextInt(86_400);
+      durations[i] = create(seconds[i]);
+      durationSet.add(durations[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public Duration plusChain() {
+    Duration total = create(0);
+    for (Duration duration : durations) {
+      total = total.plus(duration);
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long inSeconds() {
+    long total = 0;
+    for (Duration duration : durations) {
+      total += duration.inSeconds();
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int compare() {
+    int ordered = 0;
+    for (int i = 1; i < COUNT; i++) {
+      ordered += durations[i - 1].compareTo(durations[i]);
+    }
+    return ordered;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void asHms(Blackhole blackhole) {
+    for (Duration duration : durations) {
+      blackhole.consume(duration.asHms());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int hashSetLookup() {
+    int found = 0;
+    for (int i = 0; i < COUNT; i++) {
+      if (durationSet.contains(create(seconds[i]))) {
+        found++;
+      }
+    }
+    return found;
+  }
+}
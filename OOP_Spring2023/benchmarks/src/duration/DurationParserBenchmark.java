@@ -0,0 +1,91 @@
+package duration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link DurationParser} with {@link java.time.Duration#parse} on ISO-8601 text, and
+ * measures the {@code H:MM:SS} form and reading from bytes. Run with {@code -prof gc} to see
+ * the allocation per duration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DurationParserBenchmark {
+  static final int COUNT = 4096;
+
+  String[] iso = new String[COUNT];
+  String[] hms = new String[COUNT];
+  ByteBuffer[] bytes = new ByteBuffer[COUNT];
+
+  /**
+   * Creates random durations of up to a day as text.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      long seconds = random.nextInt(86_400);
+      iso[i] = java.time.Duration.ofSeconds(seconds).toString();
+      hms[i] = HmsFormat.format(seconds);
+      bytes[i] = ByteBuffer.wrap(hms[i].getBytes(StandardCharsets.US_ASCII));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long javaTimeIso() {
+    long total = 0;
+    for (String text : iso) {
+      total += java.time.Duration.parse(text).getSeconds();
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long parserIso() {
+    long total = 0;
+    for (String text : iso) {
+      total += DurationParser.parseSeconds(text);
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long parserHms() {
+    long total = 0;
+    for (String text : hms) {
+      total += DurationParser.parseSeconds(text);
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long parserBytes() {
+    long total = 0;
+    for (ByteBuffer in : bytes) {
+      in.rewind();
+      total += DurationParser.parseSeconds(in);
+    }
+    return total;
+  }
+}
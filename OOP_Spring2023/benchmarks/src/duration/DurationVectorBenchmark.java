@@ -0,0 +1,72 @@
+package duration;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares summing a million durations with {@link Duration#plus}, with
+ * {@link Durations#sum} and with a {@link DurationVector}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DurationVectorBenchmark {
+  static final int COUNT = 1_000_000;
+
+  Duration[] durations = new Duration[COUNT];
+  DurationVector vector = new DurationVector(COUNT);
+
+  /**
+   * Creates random durations of up to a day.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      durations[i] = new HmsDuration(random.nextInt(86_400));
+      vector.add(durations[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public Duration plusChain() {
+    Duration total = Durations.ofSeconds(0);
+    for (Duration duration : durations) {
+      total = total.plus(duration);
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long sumSeconds() {
+    return Durations.sumSeconds(durations);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long vectorTotal() {
+    return vector.totalSeconds();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long[] vectorPrefixSums() {
+    return vector.prefixSums();
+  }
+}
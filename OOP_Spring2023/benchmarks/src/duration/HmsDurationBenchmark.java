@@ -0,0 +1,93 @@
+package duration;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost per duration of adding, formatting and hashing {@link HmsDuration}s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HmsDurationBenchmark {
+  static final int COUNT = 4096;
+
+  long[] seconds = new long[COUNT];
+  Duration[] durations = new Duration[COUNT];
+  Set<Duration> durationSet;
+
+  /**
+   * Creates random durations of up to a day, with many repeated values as in real schedules.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      seconds[i] = random.nextInt(86_400);
+      durations[i] = new HmsDuration(seconds[i]);
+    }
+    durationSet = new HashSet<>();
+    for (Duration duration : durations) {
+      durationSet.add(duration);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public Duration plusChain() {
+    Duration total = new HmsDuration(0);
+    for (Duration duration : durations) {
+      total = total.plus(duration);
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void asHms(Blackhole blackhole) {
+    for (Duration duration : durations) {
+      blackhole.consume(duration.asHms());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int hashSetLookup() {
+    int found = 0;
+    for (int i = 0; i < COUNT; i++) {
+      if (durationSet.contains(new HmsDuration(seconds[i]))) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public Map<Duration, Integer> hashMapCount() {
+    Map<Duration, Integer> counts = new HashMap<>();
+    for (Duration duration : durations) {
+      counts.merge(duration, 1, Integer::sum);
+    }
+    return counts;
+  }
+}
@@ -0,0 +1,89 @@
+package duration;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares formatting durations with {@link String#format}, as {@link HmsDuration#asHms()} used
+ * to, with {@link HmsFormat} into each kind of sink. Run with {@code -prof gc} to see the
+ * allocation per duration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HmsFormatBenchmark {
+  static final int COUNT = 4096;
+
+  Duration[] durations = new Duration[COUNT];
+  StringBuilder sb = new StringBuilder();
+  char[] chars = new char[COUNT * 16];
+  ByteBuffer bytes = ByteBuffer.allocate(COUNT * 16);
+
+  /**
+   * Creates random durations of up to a few days.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      durations[i] = new HmsDuration(random.nextInt(400_000));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void stringFormat(Blackhole blackhole) {
+    for (Duration duration : durations) {
+      long s = duration.inSeconds();
+      blackhole.consume(String.format("%d:%02d:%02d", s / 3600, s / 60 % 60, s % 60));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void asHms(Blackhole blackhole) {
+    for (Duration duration : durations) {
+      blackhole.consume(duration.asHms());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int stringBuilder() {
+    sb.setLength(0);
+    for (Duration duration : durations) {
+      HmsFormat.appendTo(duration, sb).append('\n');
+    }
+    return sb.length();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int charArrayBulk() {
+    return HmsFormat.formatAll(durations, '\n', chars, 0);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int byteBufferBulk() {
+    bytes.clear();
+    HmsFormat.formatAll(durations, '\n', bytes);
+    return bytes.position();
+  }
+}
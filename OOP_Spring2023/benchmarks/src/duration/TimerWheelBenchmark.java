@@ -0,0 +1,192 @@
+package duration;
+
+import duration.timer.TimerWheel;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Compares a {@link TimerWheel} with a {@link ScheduledThreadPoolExecutor} that both already
+ * hold a million pending timers, as a service with many request timeouts does.
+ *
+ * <p>The schedule-and-cancel benchmarks measure the cost to the calling thread, with the
+ * sample-time mode showing the latency tail. For the wheel that is only pushing the task on
+ * the submit and cancel stacks; placing and unlinking it is left to the wheel's thread, off the
+ * measurement. The executor inserts and removes the task in its heap on the calling thread.
+ *
+ * <p>The expiry benchmarks schedule a batch of timers a second away and measure the time until
+ * all have run, which includes the work of the scheduler's own thread. The lateness of the
+ * timers, from their deadline to when they ran, is reported in microseconds as secondary
+ * results.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TimerWheelBenchmark {
+  static final int PENDING = 1_000_000;
+  static final Runnable NOTHING = () -> { };
+  static final int BATCH = 10_000;
+  static final long DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  TimerWheel wheel;
+  ScheduledThreadPoolExecutor executor;
+  Duration[] delays = new Duration[1024];
+  int next;
+
+  /**
+   * Fills both schedulers with timers between one and two hours away.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    wheel = new TimerWheel(10, Runnable::run);
+    executor = new ScheduledThreadPoolExecutor(1);
+    executor.setRemoveOnCancelPolicy(true);
+    Random random = new Random(42);
+    for (int i = 0; i < PENDING; i++) {
+      long seconds = 3600 + random.nextInt(3600);
+      wheel.schedule(NOTHING, Durations.ofSeconds(seconds));
+      executor.schedule(NOTHING, seconds, TimeUnit.SECONDS);
+    }
+    for (int i = 0; i < delays.length; i++) {
+      delays[i] = Durations.ofSeconds(60 + random.nextInt(3600));
+    }
+  }
+
+  /**
+   * Stops both schedulers.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    wheel.close();
+    executor.shutdownNow();
+  }
+
+  /**
+   * How late the timers of an expiry batch ran, in microseconds. JMH sums these counters over
+   * the measurement iterations, so each batch adds its share of the mean.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Lateness {
+    public double p50Micros;
+    public double p99Micros;
+    public double maxMicros;
+    int iterations;
+
+    /**
+     * Reads the number of measurement iterations.
+     */
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+      iterations = params.getMeasurement().getCount();
+    }
+
+    /**
+     * Clears the figures of the last batch; each iteration runs one batch.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+      p50Micros = 0;
+      p99Micros = 0;
+      maxMicros = 0;
+    }
+
+    void record(long[] deadlines, long[] ranAt) {
+      long[] late = new long[deadlines.length];
+      for (int i = 0; i < late.length; i++) {
+        late[i] = (ranAt[i] - deadlines[i]) / 1000;
+      }
+      Arrays.sort(late);
+      p50Micros = (double) late[late.length / 2] / iterations;
+      p99Micros = (double) late[late.length * 99 / 100] / iterations;
+      maxMicros = (double) late[late.length - 1] / iterations;
+    }
+  }
+
+  /**
+   * A batch of timers a second away, each remembering when it ran.
+   */
+  static final class Batch {
+    final long[] deadlines = new long[BATCH];
+    final long[] ranAt = new long[BATCH];
+    final CountDownLatch done = new CountDownLatch(BATCH);
+
+    Runnable task(int i) {
+      deadlines[i] = System.nanoTime() + DELAY_NANOS;
+      return () -> {
+        ranAt[i] = System.nanoTime();
+        done.countDown();
+      };
+    }
+  }
+
+  /**
+   * Schedules a task on the wheel and cancels it; see the class comment for what is measured.
+   */
+  @Benchmark
+  public boolean wheelScheduleCancel() {
+    Duration delay = delays[next++ & (delays.length - 1)];
+    return wheel.schedule(NOTHING, delay).cancel();
+  }
+
+  /**
+   * Schedules a task on the executor and cancels it.
+   */
+  @Benchmark
+  public boolean executorScheduleCancel() {
+    Duration delay = delays[next++ & (delays.length - 1)];
+    ScheduledFuture<?> future = executor.schedule(NOTHING, delay.inSeconds(), TimeUnit.SECONDS);
+    return future.cancel(false);
+  }
+
+  /**
+   * Schedules a batch of timers on the wheel and waits until all have run.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void wheelExpiry(Lateness lateness) throws InterruptedException {
+    Batch batch = new Batch();
+    Duration delay = Durations.ofSeconds(1);
+    for (int i = 0; i < BATCH; i++) {
+      wheel.schedule(batch.task(i), delay);
+    }
+    batch.done.await();
+    lateness.record(batch.deadlines, batch.ranAt);
+  }
+
+  /**
+   * Schedules a batch of timers on the executor and waits until all have run.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void executorExpiry(Lateness lateness) throws InterruptedException {
+    Batch batch = new Batch();
+    for (int i = 0; i < BATCH; i++) {
+      executor.schedule(batch.task(i), DELAY_NANOS, TimeUnit.NANOSECONDS);
+    }
+    batch.done.await();
+    lateness.record(batch.deadlines, batch.ranAt);
+  }
+}
@@ -0,0 +1,156 @@
+package person;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import person.index.BookIndex;
+
+/**
+ * Compares the queries of {@link BookIndex} with scanning every book, and measures keeping the
+ * index up to date as books are removed and added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class BookIndexBenchmark {
+  static final int QUERIES = 4096;
+
+  @Param({"10000000"})
+  int size;
+
+  List<Book> books;
+  BookIndex index;
+  Person[] authors;
+  float[] minPrices = new float[QUERIES];
+  String[] prefixes = new String[QUERIES];
+  int next;
+
+  /**
+   * Creates the books and queries with a fixed seed so every run measures the same data.
+   * About ten books share each author, and a price range holds about 0.1% of the books.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    authors = new Person[size / 10];
+    for (int i = 0; i < authors.length; i++) {
+      authors[i] = new Person("First" + i % 1000, "Last" + i / 1000, 1900 + i % 120);
+    }
+    books = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      books.add(new Book(Long.toString(random.nextLong() & Long.MAX_VALUE, 36),
+          authors[random.nextInt(authors.length)], random.nextInt(100_000) / 100f));
+    }
+    index = new BookIndex();
+    index.addAll(books);
+    for (int i = 0; i < QUERIES; i++) {
+      minPrices[i] = random.nextInt(99_900) / 100f;
+      prefixes[i] = Long.toString(random.nextLong() & Long.MAX_VALUE, 36).substring(0, 3);
+    }
+  }
+
+  private int nextQuery() {
+    next = (next + 1) & (QUERIES - 1);
+    return next;
+  }
+
+  /**
+   * Finds the books by an author with the index.
+   */
+  @Benchmark
+  public List<Book> byAuthor() {
+    return index.byAuthor(authors[nextQuery() * 997 % authors.length]);
+  }
+
+  /**
+   * Finds the books by an author by scanning.
+   */
+  @Benchmark
+  public List<Book> byAuthorScan() {
+    Person author = authors[nextQuery() * 997 % authors.length];
+    List<Book> result = new ArrayList<>();
+    for (Book book : books) {
+      Person other = book.getAuthor();
+      if (other.getYearOfBirth() == author.getYearOfBirth()
+          && other.getLastName().equals(author.getLastName())
+          && other.getFirstName().equals(author.getFirstName())) {
+        result.add(book);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds the books in a price range with the index.
+   */
+  @Benchmark
+  public List<Book> byPrice() {
+    float min = minPrices[nextQuery()];
+    return index.byPrice(min, min + 1);
+  }
+
+  /**
+   * Finds the books in a price range by scanning.
+   */
+  @Benchmark
+  public List<Book> byPriceScan() {
+    float min = minPrices[nextQuery()];
+    float max = min + 1;
+    List<Book> result = new ArrayList<>();
+    for (Book book : books) {
+      if (book.getPrice() >= min && book.getPrice() <= max) {
+        result.add(book);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds the books whose title starts with a prefix with the index.
+   */
+  @Benchmark
+  public List<Book> byTitlePrefix() {
+    return index.byTitlePrefix(prefixes[nextQuery()]);
+  }
+
+  /**
+   * Finds the books whose title starts with a prefix by scanning.
+   */
+  @Benchmark
+  public List<Book> byTitlePrefixScan() {
+    String prefix = prefixes[nextQuery()];
+    List<Book> result = new ArrayList<>();
+    for (Book book : books) {
+      if (book.getTitle().startsWith(prefix)) {
+        result.add(book);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Removes a book from every index and adds it back, including the merges this causes.
+   */
+  @Benchmark
+  public boolean removeAndAdd() {
+    Book book = books.get((int) ((long) nextQuery() * size / QUERIES) + next % 1000);
+    boolean removed = index.remove(book);
+    index.add(book);
+    return removed;
+  }
+}
@@ -0,0 +1,111 @@
+package person;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import person.catalog.Catalog;
+import person.catalog.CatalogBuilder;
+
+/**
+ * Compares scanning the prices of books held on the heap with scanning a mapped
+ * {@link Catalog}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogBenchmark {
+  static final int COUNT = 4096;
+  static final int AUTHORS = 300;
+
+  List<Book> books = new ArrayList<>();
+  Path file;
+  Catalog catalog;
+
+  /**
+   * Creates the books with a fixed seed and writes them to a temporary catalog file.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    Random random = new Random(42);
+    Person[] authors = new Person[AUTHORS];
+    for (int i = 0; i < AUTHORS; i++) {
+      authors[i] = new Person("First" + i, "Last" + i, 1900 + random.nextInt(120));
+    }
+    CatalogBuilder builder = new CatalogBuilder();
+    for (int i = 0; i < COUNT; i++) {
+      Book book = new Book("Title " + i, authors[random.nextInt(AUTHORS)],
+          random.nextInt(10_000) / 100f);
+      books.add(book);
+      builder.addBook(book);
+    }
+    file = Files.createTempFile("books", ".catalog");
+    builder.writeTo(file);
+    catalog = Catalog.open(file);
+  }
+
+  /**
+   * Removes the catalog file.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  /**
+   * Sums the prices of the books on the heap.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public double heapPrices() {
+    double sum = 0;
+    for (Book book : books) {
+      sum += book.getPrice();
+    }
+    return sum;
+  }
+
+  /**
+   * Sums the price column of the catalog.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public double catalogPrices() {
+    double sum = 0;
+    for (int i = 0; i < catalog.bookCount(); i++) {
+      sum += catalog.price(i);
+    }
+    return sum;
+  }
+
+  /**
+   * Sums the year of birth of each book's author through the catalog's views.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long catalogViews() {
+    long sum = 0;
+    for (int i = 0; i < catalog.bookCount(); i++) {
+      sum += catalog.book(i).getAuthor().getYearOfBirth();
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,174 @@
+package person;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares loading books from text rows with a new author per row and with authors interned in
+ * a {@link PersonPool}. Run with {@code -prof gc} to see the allocation per book; interning
+ * does not allocate less, since the rows are split either way. What it saves is the heap the
+ * loaded books keep, which the retain benchmarks report as bytes per book, measured after a
+ * full GC with a million loaded books still reachable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonPoolBenchmark {
+  static final int COUNT = 4096;
+  static final int AUTHORS = 200;
+
+  static final int RETAINED_COUNT = 1_000_000;
+  static final int RETAINED_AUTHORS = 20_000;
+
+  String[] rows;
+  PersonPool pool = new PersonPool();
+
+  /**
+   * Creates rows of "title,first name,last name,year,price" with a fixed seed so every run
+   * measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    rows = rows(COUNT, AUTHORS);
+  }
+
+  private static String[] rows(int count, int authors) {
+    Random random = new Random(42);
+    String[] rows = new String[count];
+    for (int i = 0; i < count; i++) {
+      int author = random.nextInt(authors);
+      rows[i] = "Title " + i + ",First" + author + ",Last" + author + "," + (1900 + author % 120)
+          + "," + random.nextInt(10_000) / 100f;
+    }
+    return rows;
+  }
+
+  /**
+   * A million rows by twenty thousand authors, for the retain benchmarks.
+   */
+  @State(Scope.Benchmark)
+  public static class ManyRows {
+    String[] rows;
+
+    /**
+     * Creates the rows.
+     */
+    @Setup
+    public void setUp() {
+      rows = rows(RETAINED_COUNT, RETAINED_AUTHORS);
+    }
+  }
+
+  /**
+   * The heap kept by the books of one load. JMH sums these counters over the measurement
+   * iterations, so the retain benchmarks run a single one.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Retained {
+    public long retainedBytesPerBook;
+    List<Book> books;
+  }
+
+  private static long usedHeapAfterGc() {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+
+  /**
+   * Loads the rows, interning authors in a pool if there is one, and records the heap the books
+   * keep.
+   */
+  private static void retain(String[] rows, PersonPool pool, Retained retained) {
+    retained.books = null;
+    long before = usedHeapAfterGc();
+    List<Book> books = new ArrayList<>(rows.length);
+    for (String row : rows) {
+      String[] fields = row.split(",");
+      int year = Integer.parseInt(fields[3]);
+      Person author = pool == null
+          ? new Person(fields[1], fields[2], year) : pool.intern(fields[1], fields[2], year);
+      books.add(new Book(fields[0], author, Float.parseFloat(fields[4])));
+    }
+    retained.books = books;
+    retained.retainedBytesPerBook = (usedHeapAfterGc() - before) / rows.length;
+  }
+
+  /**
+   * Loads the books, creating an author for every row.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public List<Book> loadFresh() {
+    List<Book> books = new ArrayList<>(COUNT);
+    for (String row : rows) {
+      String[] fields = row.split(",");
+      Person author = new Person(fields[1], fields[2], Integer.parseInt(fields[3]));
+      books.add(new Book(fields[0], author, Float.parseFloat(fields[4])));
+    }
+    return books;
+  }
+
+  /**
+   * Loads the books, interning the author of every row.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public List<Book> loadInterned() {
+    List<Book> books = new ArrayList<>(COUNT);
+    for (String row : rows) {
+      String[] fields = row.split(",");
+      Person author = pool.intern(fields[1], fields[2], Integer.parseInt(fields[3]));
+      books.add(new Book(fields[0], author, Float.parseFloat(fields[4])));
+    }
+    return books;
+  }
+
+  /**
+   * Loads a million books, creating an author for every row, and keeps them.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 1)
+  @Measurement(iterations = 1)
+  @Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+  public void retainFresh(ManyRows many, Retained retained) {
+    retain(many.rows, null, retained);
+  }
+
+  /**
+   * Loads a million books, interning the author of every row in a new pool, and keeps them.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 1)
+  @Measurement(iterations = 1)
+  @Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+  public void retainInterned(ManyRows many, Retained retained) {
+    retain(many.rows, new PersonPool(), retained);
+  }
+}
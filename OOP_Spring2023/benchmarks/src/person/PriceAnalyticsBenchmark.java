@@ -0,0 +1,113 @@
+package person;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import person.analytics.PriceAnalytics;
+
+/**
+ * Compares computing the revenue total, per-author totals and price buckets by walking the
+ * books with building {@link PriceAnalytics} from scratch, and with refreshing it after a few
+ * books were added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class PriceAnalyticsBenchmark {
+  static final int BOOKS = 1_000_000;
+  static final int AUTHORS = 10_000;
+  static final int ADDED = 4096;
+
+  List<Book> books = new ArrayList<>(BOOKS);
+  Book[] added = new Book[ADDED];
+  PriceAnalytics analytics;
+
+  /**
+   * Creates the books with a fixed seed so every run measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    Person[] authors = new Person[AUTHORS];
+    for (int i = 0; i < AUTHORS; i++) {
+      authors[i] = new Person("First" + i, "Last" + i, 1900 + i % 120);
+    }
+    for (int i = 0; i < BOOKS; i++) {
+      books.add(new Book("Title " + i, authors[random.nextInt(AUTHORS)],
+          random.nextInt(10_000) / 100f));
+    }
+    for (int i = 0; i < ADDED; i++) {
+      added[i] = new Book("Added " + i, authors[random.nextInt(AUTHORS)],
+          random.nextInt(10_000) / 100f);
+    }
+  }
+
+  /**
+   * Starts each iteration from analytics of all the books, so that refreshes do not grow it
+   * without bound.
+   */
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    analytics = new PriceAnalytics(10, 10);
+    analytics.addAll(books);
+    analytics.total();
+  }
+
+  /**
+   * Computes the results by walking the books, with plain sums.
+   */
+  @Benchmark
+  public double objectGraph() {
+    double total = 0;
+    Map<Person, double[]> byAuthor = new HashMap<>();
+    long[] bucketBooks = new long[10];
+    double[] bucketTotals = new double[10];
+    for (Book book : books) {
+      float price = book.getPrice();
+      total += price;
+      byAuthor.computeIfAbsent(book.getAuthor(), a -> new double[1])[0] += price;
+      int bucket = Math.min(9, (int) (price / 10));
+      bucketBooks[bucket]++;
+      bucketTotals[bucket] += price;
+    }
+    return total + byAuthor.size() + bucketBooks[0] + bucketTotals[0];
+  }
+
+  /**
+   * Copies the books into new analytics and computes the results.
+   */
+  @Benchmark
+  public double rebuild() {
+    PriceAnalytics rebuilt = new PriceAnalytics(10, 10);
+    rebuilt.addAll(books);
+    return rebuilt.total();
+  }
+
+  /**
+   * Adds a few books to the analytics and computes the results again.
+   */
+  @Benchmark
+  public double refresh() {
+    for (Book book : added) {
+      analytics.add(book);
+    }
+    return analytics.total();
+  }
+}
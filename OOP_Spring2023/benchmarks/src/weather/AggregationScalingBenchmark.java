@@ -0,0 +1,72 @@
+package weather;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import weather.aggregate.ReadingAggregator;
+import weather.aggregate.ReadingSummary;
+
+/**
+ * Measures how summarizing a large batch scales with the number of worker threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class AggregationScalingBenchmark {
+  static final int COUNT = 4 * 1024 * 1024;
+
+  @Param({"1", "2", "4", "8"})
+  int parallelism;
+
+  ReadingBatch batch = new ReadingBatch(COUNT);
+  ForkJoinPool pool;
+  ReadingAggregator aggregator;
+
+  /**
+   * Creates the batch with a fixed seed so every run measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      double air = -30 + random.nextDouble() * 70;
+      batch.add(air, air - random.nextDouble() * 25, random.nextDouble() * 50,
+          random.nextDouble() * 10);
+    }
+    pool = new ForkJoinPool(parallelism);
+    aggregator = new ReadingAggregator(pool);
+  }
+
+  /**
+   * Stops the worker threads.
+   */
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Summarizes the whole batch.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public ReadingSummary summarize() {
+    return aggregator.summarize(batch);
+  }
+}
@@ -0,0 +1,113 @@
+package weather;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import weather.alert.AlertEngine;
+import weather.alert.AlertRule;
+import weather.alert.Metric;
+
+/**
+ * Measures the cost per reading of matching readings of 4096 stations against threshold rules
+ * on the heat index, the wind chill and the rain, with an {@link AlertEngine} and by checking
+ * every rule against the last and the new reading of the station.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlertEngineBenchmark {
+  static final int STATIONS = 4096;
+  static final int READINGS = 64 * 1024;
+
+  @Param({"10", "1000"})
+  int rules;
+
+  List<AlertRule> ruleList;
+  AlertEngine engine;
+  StevensonReading[] readings;
+  WeatherReading[] last;
+
+  /**
+   * Makes the rules and readings that drift a little from one to the next, as real ones do.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    Metric[] metrics = {Metric.HEAT_INDEX, Metric.WIND_CHILL, Metric.TOTAL_RAIN};
+    ruleList = new ArrayList<>();
+    for (int i = 0; i < rules; i++) {
+      Metric metric = metrics[random.nextInt(metrics.length)];
+      int threshold = random.nextInt(80) - 30;
+      ruleList.add(random.nextBoolean()
+          ? AlertRule.above("rule " + i, metric, threshold)
+          : AlertRule.below("rule " + i, metric, threshold));
+    }
+    engine = new AlertEngine(ruleList);
+    last = new WeatherReading[STATIONS];
+
+    readings = new StevensonReading[READINGS];
+    double air = 10;
+    double rain = 0;
+    for (int i = 0; i < READINGS; i++) {
+      air = Math.max(-30, Math.min(45, air + random.nextGaussian()));
+      rain = Math.max(0, rain + random.nextGaussian());
+      readings[i] = new StevensonReading(air, air - random.nextDouble() * 10,
+          random.nextDouble() * 30, rain);
+      // Derive up front, so that both sides measure matching alone.
+      readings[i].getHeatIndex();
+    }
+  }
+
+  /**
+   * Matches each reading with the engine.
+   */
+  @Benchmark
+  @OperationsPerInvocation(READINGS)
+  public int engine(Blackhole blackhole) {
+    int alerts = 0;
+    for (int i = 0; i < READINGS; i++) {
+      alerts += engine.evaluate(i % STATIONS, i, readings[i], blackhole::consume);
+    }
+    return alerts;
+  }
+
+  /**
+   * Matches each reading by checking every rule against it and the last reading of the
+   * station.
+   */
+  @Benchmark
+  @OperationsPerInvocation(READINGS)
+  public int everyRule(Blackhole blackhole) {
+    int alerts = 0;
+    for (int i = 0; i < READINGS; i++) {
+      int station = i % STATIONS;
+      WeatherReading previous = last[station];
+      for (AlertRule rule : ruleList) {
+        if (rule.matches(rule.getMetric().of(readings[i]))
+            && (previous == null || !rule.matches(rule.getMetric().of(previous)))) {
+          blackhole.consume(rule);
+          alerts++;
+        }
+      }
+      last[station] = readings[i];
+    }
+    return alerts;
+  }
+}
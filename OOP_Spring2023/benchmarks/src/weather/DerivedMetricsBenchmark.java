@@ -0,0 +1,88 @@
+package weather;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures repeated reads of the derived metrics of readings shared by all benchmark threads,
+ * as a dashboard does, against computing the formulas again on every read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class DerivedMetricsBenchmark {
+  static final int COUNT = 1024;
+
+  double[] airTemp = new double[COUNT];
+  double[] dewPoint = new double[COUNT];
+  double[] windSpeed = new double[COUNT];
+  StevensonReading[] lazy = new StevensonReading[COUNT];
+  StevensonReading[] precomputed = new StevensonReading[COUNT];
+
+  /**
+   * Creates the shared readings with a fixed seed so every run measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      airTemp[i] = -30 + random.nextDouble() * 70;
+      dewPoint[i] = airTemp[i] - random.nextDouble() * 25;
+      windSpeed[i] = random.nextDouble() * 50;
+      lazy[i] = new StevensonReading(airTemp[i], dewPoint[i], windSpeed[i], 0);
+      precomputed[i] = StevensonReading.precomputed(airTemp[i], dewPoint[i], windSpeed[i], 0);
+    }
+  }
+
+  /**
+   * Reads all three metrics the way the readings did before they were memoized.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int recomputed() {
+    int sum = 0;
+    for (int i = 0; i < COUNT; i++) {
+      int humidity = (int) Math.round(StevensonReading.relativeHumidity(airTemp[i], dewPoint[i]));
+      sum += humidity;
+      sum += (int) StevensonReading.heatIndex(airTemp[i], humidity);
+      sum += (int) Math.round(StevensonReading.windChill(airTemp[i], windSpeed[i]));
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int lazy() {
+    int sum = 0;
+    for (StevensonReading reading : lazy) {
+      sum += reading.getRelativeHumidity() + reading.getHeatIndex() + reading.getWindChill();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int precomputed() {
+    int sum = 0;
+    for (StevensonReading reading : precomputed) {
+      sum += reading.getRelativeHumidity() + reading.getHeatIndex() + reading.getWindChill();
+    }
+    return sum;
+  }
+}
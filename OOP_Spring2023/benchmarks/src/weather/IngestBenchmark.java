@@ -0,0 +1,92 @@
+package weather;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import weather.ingest.IngestBatch;
+import weather.ingest.IngestFormat;
+import weather.ingest.IngestQueue;
+import weather.ingest.IngestServer;
+import weather.ingest.LoadGenerator;
+import weather.ingest.OverflowPolicy;
+
+/**
+ * Measures the cost per reading of ingesting over loopback TCP: sending from several
+ * connections at once, decoding, and handing the batches through a blocking queue to a
+ * consumer. The inverse is the sustained rate in readings per second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngestBenchmark {
+  static final int CONNECTIONS = 8;
+  static final int COUNT = 64 * 1024;
+
+  @Param({"BINARY", "CSV"})
+  IngestFormat format;
+
+  IngestQueue queue;
+  IngestServer server;
+  Thread consumer;
+  LoadGenerator generator;
+
+  /**
+   * Starts the server and a consumer that takes batches as fast as they come.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    queue = new IngestQueue(64 * 1024, OverflowPolicy.BLOCK);
+    server = IngestServer.tcp(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+        format, queue);
+    consumer = new Thread(() -> {
+      List<IngestBatch> batches = new ArrayList<>();
+      try {
+        while (queue.drainTo(batches, 1 << 16) > 0) {
+          batches.clear();
+        }
+      } catch (InterruptedException e) {
+        // Done.
+      }
+    });
+    consumer.start();
+    generator = new LoadGenerator(server.getAddress(), format, CONNECTIONS, COUNT);
+  }
+
+  /**
+   * Stops the server and the consumer.
+   */
+  @TearDown
+  public void tearDown() throws IOException, InterruptedException {
+    server.close();
+    queue.close();
+    consumer.join();
+  }
+
+  /**
+   * Sends the readings and waits until the consumer has taken them all.
+   */
+  @Benchmark
+  @OperationsPerInvocation(CONNECTIONS * COUNT)
+  public LoadGenerator.Report ingest() throws IOException, InterruptedException {
+    return generator.run(queue.stats(), 1, TimeUnit.MINUTES);
+  }
+}
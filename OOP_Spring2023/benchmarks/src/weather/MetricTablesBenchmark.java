@@ -0,0 +1,98 @@
+package weather;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares looking up the heat index and wind chill in {@link MetricTables} with evaluating
+ * the formulas, for readings in tenths of a degree and whole miles per hour.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricTablesBenchmark {
+  static final int COUNT = 4096;
+
+  double[] airTemp = new double[COUNT];
+  int[] humidity = new int[COUNT];
+  double[] windSpeed = new double[COUNT];
+
+  /**
+   * Creates the inputs with a fixed seed so every run measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      airTemp[i] = (random.nextInt(700) - 300) / 10.0;
+      humidity[i] = random.nextInt(101);
+      windSpeed[i] = random.nextInt(50);
+    }
+  }
+
+  /**
+   * Evaluates the heat index formula.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int heatIndexFormula() {
+    int sum = 0;
+    for (int i = 0; i < COUNT; i++) {
+      sum += (int) StevensonReading.heatIndex(airTemp[i], humidity[i]);
+    }
+    return sum;
+  }
+
+  /**
+   * Looks up the heat index.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int heatIndexTable() {
+    int sum = 0;
+    for (int i = 0; i < COUNT; i++) {
+      sum += MetricTables.heatIndex(airTemp[i], humidity[i]);
+    }
+    return sum;
+  }
+
+  /**
+   * Evaluates the wind chill formula.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int windChillFormula() {
+    int sum = 0;
+    for (int i = 0; i < COUNT; i++) {
+      sum += (int) Math.round(StevensonReading.windChill(airTemp[i], windSpeed[i]));
+    }
+    return sum;
+  }
+
+  /**
+   * Looks up the wind chill.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int windChillTable() {
+    int sum = 0;
+    for (int i = 0; i < COUNT; i++) {
+      sum += MetricTables.windChill(airTemp[i], windSpeed[i]);
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,96 @@
+package weather;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import weather.io.BinaryReadingFormat;
+
+/**
+ * Measures the cost per reading of the binary records, against the text of
+ * {@code toString()} that was used to ship readings before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadingCodecBenchmark {
+  static final int COUNT = 4096;
+
+  StevensonReading[] readings = new StevensonReading[COUNT];
+  ReadingBatch batch = new ReadingBatch(COUNT);
+  ByteBuffer buffer = ByteBuffer.allocateDirect(COUNT * BinaryReadingFormat.RECORD_BYTES)
+      .order(BinaryReadingFormat.ORDER);
+  ByteBuffer encoded = ByteBuffer.allocateDirect(COUNT * BinaryReadingFormat.RECORD_BYTES)
+      .order(BinaryReadingFormat.ORDER);
+
+  /**
+   * Creates random readings with a fixed seed and encodes them once for the decoders.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      double air = -30 + random.nextDouble() * 70;
+      readings[i] = new StevensonReading(
+          air, air - random.nextDouble() * 25, random.nextDouble() * 50, random.nextDouble() * 80);
+      batch.add(readings[i].getAirTempCelcius(), readings[i].getDewPointCelcius(),
+          readings[i].getWindSpeedMph(), readings[i].getTotalRainReceived());
+    }
+    BinaryReadingFormat.encode(readings, encoded);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public ByteBuffer encodeReadings() {
+    buffer.clear();
+    BinaryReadingFormat.encode(readings, buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public ByteBuffer encodeBatch() {
+    buffer.clear();
+    BinaryReadingFormat.encode(batch, buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public StevensonReading[] decodeReadings() {
+    encoded.clear();
+    return BinaryReadingFormat.decode(encoded, COUNT);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public ReadingBatch decodeBatch() {
+    encoded.clear();
+    ReadingBatch decoded = new ReadingBatch(COUNT);
+    BinaryReadingFormat.decodeInto(encoded, decoded);
+    return decoded;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int toStringText() {
+    int length = 0;
+    for (StevensonReading reading : readings) {
+      length += reading.toString().length();
+    }
+    return length;
+  }
+}
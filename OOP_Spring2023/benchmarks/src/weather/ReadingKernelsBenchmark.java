@@ -0,0 +1,91 @@
+package weather;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the scalar loop with the selected (vectorized when possible) implementation of the
+ * bulk derived metrics, per reading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class ReadingKernelsBenchmark {
+  static final int COUNT = 4096;
+
+  double[] airTemp = new double[COUNT];
+  double[] dewPoint = new double[COUNT];
+  double[] windSpeed = new double[COUNT];
+  int[] out = new int[COUNT];
+  ReadingKernels.Implementation selected;
+
+  /**
+   * Creates random columns with a fixed seed so every run measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      airTemp[i] = -30 + random.nextDouble() * 70;
+      dewPoint[i] = airTemp[i] - random.nextDouble() * 25;
+      windSpeed[i] = random.nextDouble() * 50;
+    }
+    selected = ReadingKernels.selected();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int[] heatIndexScalar() {
+    ReadingKernels.SCALAR.heatIndex(airTemp, dewPoint, 0, out, COUNT);
+    return out;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int[] heatIndexSelected() {
+    selected.heatIndex(airTemp, dewPoint, 0, out, COUNT);
+    return out;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int[] windChillScalar() {
+    ReadingKernels.SCALAR.windChill(airTemp, windSpeed, 0, out, COUNT);
+    return out;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int[] windChillSelected() {
+    selected.windChill(airTemp, windSpeed, 0, out, COUNT);
+    return out;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int[] relativeHumidityScalar() {
+    ReadingKernels.SCALAR.relativeHumidity(airTemp, dewPoint, 0, out, COUNT);
+    return out;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int[] relativeHumiditySelected() {
+    selected.relativeHumidity(airTemp, dewPoint, 0, out, COUNT);
+    return out;
+  }
+}
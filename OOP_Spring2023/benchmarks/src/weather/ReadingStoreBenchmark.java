@@ -0,0 +1,100 @@
+package weather;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import weather.store.StationSeries;
+
+/**
+ * Measures appending readings to a compressed {@link StationSeries} and scanning them back into
+ * a {@link ReadingBatch}, for a feed of one reading a minute from sensors with a resolution of
+ * a tenth or a hundredth. The size of such a feed, under 16 bytes per reading, is checked by
+ * {@code ReadingStoreTest} rather than reported here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadingStoreBenchmark {
+  static final int COUNT = 4096;
+  static final int DAYS = 30;
+  static final int PER_DAY = 24 * 60;
+
+  long[] times = new long[COUNT];
+  double[] airTemp = new double[COUNT];
+  double[] dewPoint = new double[COUNT];
+  double[] windSpeed = new double[COUNT];
+  double[] rain = new double[COUNT];
+  StationSeries month = new StationSeries();
+  long scanFrom;
+  ReadingBatch batch = new ReadingBatch(COUNT);
+
+  /**
+   * Creates a month of readings with a fixed seed so every run measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    long time = 1_672_531_200_000L;
+    double temperature = 15;
+    double dew = 8;
+    double wind = 5;
+    double total = 0;
+    for (int i = 0; i < DAYS * PER_DAY; i++) {
+      time += 60_000;
+      temperature = Math.round((temperature + (random.nextInt(5) - 2) * 0.1) * 10) / 10.0;
+      dew = Math.min(temperature, Math.round((dew + (random.nextInt(3) - 1) * 0.1) * 10) / 10.0);
+      wind = Math.max(0, Math.round((wind + (random.nextInt(9) - 4) * 0.1) * 10) / 10.0);
+      if (random.nextInt(200) == 0) {
+        total = Math.round((total + random.nextInt(50) * 0.01) * 100) / 100.0;
+      }
+      if (i % PER_DAY == 0) {
+        total = 0;
+      }
+      month.append(time, temperature, dew, wind, total);
+      if (i < COUNT) {
+        times[i] = time;
+        airTemp[i] = temperature;
+        dewPoint[i] = dew;
+        windSpeed[i] = wind;
+        rain[i] = total;
+      }
+    }
+    scanFrom = times[0] + 10L * PER_DAY * 60_000;
+  }
+
+  /**
+   * Appends readings to a new series.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public StationSeries append() {
+    StationSeries series = new StationSeries();
+    for (int i = 0; i < COUNT; i++) {
+      series.append(times[i], airTemp[i], dewPoint[i], windSpeed[i], rain[i]);
+    }
+    return series;
+  }
+
+  /**
+   * Scans readings from the middle of the month into a batch.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public long[] scan() {
+    batch.clear();
+    return month.scan(scanFrom, scanFrom + (COUNT - 1) * 60_000L, batch);
+  }
+}
@@ -0,0 +1,83 @@
+package weather;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import weather.aggregate.SlidingWindow;
+
+/**
+ * Measures keeping the mean, minimum and maximum temperature of a one-day window up to date on
+ * every reading of a one-minute feed, incrementally and by recomputing the window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlidingWindowBenchmark {
+  static final int COUNT = 4096;
+  static final long MINUTE = 60_000L;
+  // One reading a minute fills a day with this many readings.
+  static final int PER_DAY = (int) (SlidingWindow.ONE_DAY / MINUTE);
+
+  double[] temperature = new double[COUNT + PER_DAY];
+
+  /**
+   * Creates the feed with a fixed seed so every run measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < temperature.length; i++) {
+      temperature[i] = -30 + random.nextDouble() * 70;
+    }
+  }
+
+  /**
+   * Adds each reading to a full window and reads its temperature.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public double incremental() {
+    SlidingWindow window = new SlidingWindow(SlidingWindow.ONE_DAY, PER_DAY);
+    for (int i = 0; i < PER_DAY; i++) {
+      window.add(i * MINUTE, temperature[i], 50, 0);
+    }
+    double sum = 0;
+    for (int i = PER_DAY; i < PER_DAY + COUNT; i++) {
+      window.add(i * MINUTE, temperature[i], 50, 0);
+      sum += window.getTemperature().getMean() + window.getTemperature().getMax();
+    }
+    return sum;
+  }
+
+  /**
+   * Scans the whole window again after each reading.
+   */
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public double recomputed() {
+    double result = 0;
+    for (int i = PER_DAY; i < PER_DAY + COUNT; i++) {
+      double sum = 0;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int j = i - PER_DAY + 1; j <= i; j++) {
+        sum += temperature[j];
+        max = Math.max(max, temperature[j]);
+      }
+      result += sum / PER_DAY + max;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,141 @@
+package weather;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import weather.registry.LatestReading;
+import weather.registry.StationRegistry;
+
+/**
+ * Measures 64 threads pushing readings while 64 threads read the latest reading of random
+ * stations, in a {@link StationRegistry} and in a {@link ConcurrentHashMap} that keeps the
+ * latest time and reading of each station with {@code merge}, and the cost of snapshots while
+ * 64 threads push readings. Both publish a new immutable pair of time and reading per write,
+ * so the comparison is of the data structures. Run on at least as many cores as threads, or
+ * the scheduler dominates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class StationRegistryBenchmark {
+  static final int STATIONS = 4096;
+  static final WeatherReading READING = new StevensonReading(20, 10, 5, 0);
+
+  /**
+   * The latest reading of a station in the map, like {@link LatestReading}.
+   */
+  static final class Latest {
+    final int station;
+    final long timeMillis;
+    final WeatherReading reading;
+
+    Latest(int station, long timeMillis, WeatherReading reading) {
+      this.station = station;
+      this.timeMillis = timeMillis;
+      this.reading = reading;
+    }
+
+    static Latest later(Latest current, Latest update) {
+      return update.timeMillis >= current.timeMillis ? update : current;
+    }
+  }
+
+  StationRegistry registry = new StationRegistry(STATIONS);
+  ConcurrentHashMap<Integer, Latest> latest = new ConcurrentHashMap<>();
+
+  /**
+   * Gives every station a reading, so that the measured writes are all updates.
+   */
+  @Setup
+  public void setUp() {
+    for (int station = 0; station < STATIONS; station++) {
+      registry.update(station, 0, READING);
+      latest.put(station, new Latest(station, 0, READING));
+    }
+  }
+
+  private static int station() {
+    return ThreadLocalRandom.current().nextInt(STATIONS);
+  }
+
+  private static long time() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Pushes a reading to the registry.
+   */
+  @Benchmark
+  @Group("registry")
+  @GroupThreads(64)
+  public boolean registryWrite() {
+    return registry.update(station(), time(), READING);
+  }
+
+  /**
+   * Reads the latest reading of a station from the registry.
+   */
+  @Benchmark
+  @Group("registry")
+  @GroupThreads(64)
+  public LatestReading registryRead() {
+    return registry.latest(station());
+  }
+
+  /**
+   * Pushes a reading to the map, keeping the later one.
+   */
+  @Benchmark
+  @Group("map")
+  @GroupThreads(64)
+  public Latest mapWrite() {
+    int station = station();
+    return latest.merge(station, new Latest(station, time(), READING), Latest::later);
+  }
+
+  /**
+   * Reads the latest reading of a station from the map.
+   */
+  @Benchmark
+  @Group("map")
+  @GroupThreads(64)
+  public Latest mapRead() {
+    return latest.get(station());
+  }
+
+  /**
+   * Pushes a reading to the registry while snapshots are taken.
+   */
+  @Benchmark
+  @Group("snapshot")
+  @GroupThreads(64)
+  public boolean snapshotWrite() {
+    return registry.update(station(), time(), READING);
+  }
+
+  /**
+   * Takes a snapshot of all stations.
+   */
+  @Benchmark
+  @Group("snapshot")
+  @GroupThreads(1)
+  public List<LatestReading> snapshot() {
+    return registry.snapshot();
+  }
+}
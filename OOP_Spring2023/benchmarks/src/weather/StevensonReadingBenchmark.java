@@ -0,0 +1,120 @@
+package weather;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost per reading of building {@link StevensonReading}s, of their derived metrics
+ * and of using them as hash keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StevensonReadingBenchmark {
+  static final int COUNT = 4096;
+
+  double[] airTemp = new double[COUNT];
+  double[] dewPoint = new double[COUNT];
+  double[] windSpeed = new double[COUNT];
+  double[] rain = new double[COUNT];
+  StevensonReading[] readings = new StevensonReading[COUNT];
+  Set<StevensonReading> readingSet;
+
+  /**
+   * Creates random readings with a fixed seed so every run measures the same data.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      airTemp[i] = -30 + random.nextDouble() * 70;
+      dewPoint[i] = airTemp[i] - random.nextDouble() * 25;
+      windSpeed[i] = random.nextDouble() * 50;
+      rain[i] = random.nextDouble() * 80;
+      readings[i] = new StevensonReading(airTemp[i], dewPoint[i], windSpeed[i], rain[i]);
+    }
+    readingSet = new HashSet<>();
+    for (StevensonReading reading : readings) {
+      readingSet.add(reading);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void construct(Blackhole blackhole) {
+    for (int i = 0; i < COUNT; i++) {
+      blackhole.consume(new StevensonReading(airTemp[i], dewPoint[i], windSpeed[i], rain[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int relativeHumidity() {
+    int sum = 0;
+    for (StevensonReading reading : readings) {
+      sum += reading.getRelativeHumidity();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int heatIndex() {
+    int sum = 0;
+    for (StevensonReading reading : readings) {
+      sum += reading.getHeatIndex();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int windChill() {
+    int sum = 0;
+    for (StevensonReading reading : readings) {
+      sum += reading.getWindChill();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public Set<StevensonReading> hashSetInsert() {
+    Set<StevensonReading> set = new HashSet<>();
+    for (StevensonReading reading : readings) {
+      set.add(reading);
+    }
+    return set;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public int hashSetLookup() {
+    int found = 0;
+    for (int i = 0; i < COUNT; i++) {
+      // A new instance each time, so the lookup goes through hashCode and equals.
+      if (readingSet.contains(
+          new StevensonReading(airTemp[i], dewPoint[i], windSpeed[i], rain[i]))) {
+        found++;
+      }
+    }
+    return found;
+  }
+}
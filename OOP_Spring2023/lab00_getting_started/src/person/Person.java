@@ -1,5 +1,7 @@
 package person;
 
+import java.util.Objects;
+
 /**
  * This class represents a person The person has a first name, last name and an year of birth.
  */
@@ -50,5 +52,31 @@ public class Person {
   public int getYearOfBirth() {
     return this.yearOfBirth;
   }
-}
 
+  /**
+   * Two persons are equal if they have the same first name, last name and year of birth. The
+   * getters are used, so that subclasses that compute these values compare like any person.
+   *
+   * @param o the object to compare with
+   * @return true if o is a person with the same names and year of birth
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Person)) {
+      return false;
+    }
+    Person other = (Person) o;
+    return getYearOfBirth() == other.getYearOfBirth()
+        && Objects.equals(getLastName(), other.getLastName())
+        && Objects.equals(getFirstName(), other.getFirstName());
+  }
+
+  @Override
+  public int hashCode() {
+    return (31 * Objects.hashCode(getFirstName()) + Objects.hashCode(getLastName())) * 31
+        + getYearOfBirth();
+  }
+}
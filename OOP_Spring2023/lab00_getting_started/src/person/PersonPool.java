@@ -0,0 +1,92 @@
+package person;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pool of canonical {@link Person} instances, so that loaders that create a person for every
+ * row keep a single instance of each author. Persons are the same if they are
+ * {@link Person#equals equal}.
+ *
+ * <p>The pool only holds its persons weakly: once nothing else refers to a canonical person it
+ * can be collected, and its entry is dropped. A pool can be shared by many threads.
+ */
+public final class PersonPool {
+  private final ConcurrentHashMap<Person, Entry> entries = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Person> collected = new ReferenceQueue<>();
+
+  /**
+   * Gets the canonical person equal to a person. If there is none, the given person becomes
+   * canonical.
+   *
+   * @param person the person
+   * @return the canonical person, which is the given person or an equal one
+   */
+  public Person intern(Person person) {
+    expunge();
+    Entry entry = entries.get(person);
+    while (true) {
+      if (entry != null) {
+        Person canonical = entry.get();
+        if (canonical != null) {
+          return canonical;
+        }
+        // Collected but not expunged yet; replace the entry.
+        entries.remove(entry.key, entry);
+      }
+      Entry created = new Entry(person, collected);
+      entry = entries.putIfAbsent(created.key, created);
+      if (entry == null) {
+        return person;
+      }
+    }
+  }
+
+  /**
+   * Gets the canonical person with the given names and year of birth, creating it if there is
+   * none.
+   *
+   * @param firstName the first name
+   * @param lastName the last name
+   * @param yearOfBirth the year of birth
+   * @return the canonical person
+   */
+  public Person intern(String firstName, String lastName, int yearOfBirth) {
+    return intern(new Person(firstName, lastName, yearOfBirth));
+  }
+
+  /**
+   * Gets the number of canonical persons that have not been collected.
+   *
+   * @return the number of persons in the pool
+   */
+  public int size() {
+    expunge();
+    return entries.size();
+  }
+
+  /**
+   * Drops the entries of collected persons.
+   */
+  private void expunge() {
+    Entry entry;
+    while ((entry = (Entry) collected.poll()) != null) {
+      entries.remove(entry.key, entry);
+    }
+  }
+
+  /**
+   * A weak reference to a canonical person, with a key equal to it. The key is a copy, so the
+   * map does not keep the canonical person reachable; it shares the person's name strings.
+   */
+  private static final class Entry extends WeakReference<Person> {
+    final Person key;
+
+    Entry(Person person, ReferenceQueue<Person> queue) {
+      super(person, queue);
+      this.key = new Person(person.getFirstName(), person.getLastName(),
+          person.getYearOfBirth());
+    }
+  }
+}
@@ -0,0 +1,406 @@
+package person.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import person.Book;
+import person.Person;
+import person.catalog.Catalog;
+
+/**
+ * Revenue totals, per-author totals and price distributions over a growing set of books.
+ *
+ * <p>Books are copied into primitive columns when they are added: the price, and the author as
+ * an id into a table of distinct authors. Queries fold any books added since the last query
+ * into running totals, in parallel in a fork-join pool, so adding books never recomputes what
+ * was already summed. All sums are compensated (Neumaier), so totals over millions of
+ * {@code float} prices do not drift with the number of books.
+ *
+ * <p>Prices are also counted in buckets of a fixed width, and sorted for percentiles. Prices
+ * below zero are counted in the first bucket and prices above the last bucket in the last one.
+ *
+ * <p>An instance is not thread-safe.
+ */
+public final class PriceAnalytics {
+  // Ranges no longer than this are folded by a single task.
+  static final int LEAF_SIZE = 1 << 16;
+
+  private final ForkJoinPool pool;
+  private final float bucketWidth;
+  private final int buckets;
+
+  // The columns; rows from refreshed to size have not been folded yet.
+  private float[] prices = new float[1024];
+  private int[] authorIds = new int[1024];
+  private int size;
+  private int refreshed;
+  private final List<Person> authors = new ArrayList<>();
+  private final Map<Person, Integer> authorIdsByPerson = new HashMap<>();
+
+  private final Totals totals;
+  // The prices of the first sortedPrices.length rows, sorted when a percentile is asked for.
+  private float[] sortedPrices = new float[0];
+
+  /**
+   * Constructs analytics with the given price buckets that run in the common fork-join pool.
+   *
+   * @param bucketWidth the width of a price bucket
+   * @param buckets the number of buckets
+   * @throws IllegalArgumentException if the width is not positive or there are no buckets
+   */
+  public PriceAnalytics(float bucketWidth, int buckets) {
+    this(bucketWidth, buckets, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs analytics with the given price buckets that run in the given pool.
+   *
+   * @param bucketWidth the width of a price bucket
+   * @param buckets the number of buckets
+   * @param pool the pool whose threads do the work
+   * @throws IllegalArgumentException if the width is not positive or there are no buckets
+   */
+  public PriceAnalytics(float bucketWidth, int buckets, ForkJoinPool pool) {
+    if (!(bucketWidth > 0) || Float.isInfinite(bucketWidth)) {
+      throw new IllegalArgumentException("Bucket width must be positive: " + bucketWidth);
+    }
+    if (buckets < 1) {
+      throw new IllegalArgumentException("There must be at least one bucket: " + buckets);
+    }
+    this.bucketWidth = bucketWidth;
+    this.buckets = buckets;
+    this.pool = pool;
+    this.totals = new Totals(0, buckets);
+  }
+
+  /**
+   * Adds a book. It is included in the results of the next query.
+   *
+   * @param book the book; its author must not be null
+   */
+  public void add(Book book) {
+    append(book.getPrice(), authorId(book.getAuthor()));
+  }
+
+  /**
+   * Adds many books.
+   *
+   * @param books the books; their authors must not be null
+   */
+  public void addAll(Collection<? extends Book> books) {
+    ensureCapacity(size + books.size());
+    for (Book book : books) {
+      add(book);
+    }
+  }
+
+  /**
+   * Adds every book of a catalog, reading its columns directly rather than through views.
+   *
+   * @param catalog the catalog
+   */
+  public void addAll(Catalog catalog) {
+    int[] ids = new int[catalog.authorCount()];
+    for (int id = 0; id < ids.length; id++) {
+      ids[id] = authorId(catalog.author(id));
+    }
+    ensureCapacity(size + catalog.bookCount());
+    for (int i = 0; i < catalog.bookCount(); i++) {
+      append(catalog.price(i), ids[catalog.authorId(i)]);
+    }
+  }
+
+  private int authorId(Person author) {
+    Integer id = authorIdsByPerson.get(author);
+    if (id == null) {
+      id = authors.size();
+      // A copy, so that views of a catalog are not kept.
+      author = new Person(author.getFirstName(), author.getLastName(), author.getYearOfBirth());
+      authors.add(author);
+      authorIdsByPerson.put(author, id);
+    }
+    return id;
+  }
+
+  private void append(float price, int authorId) {
+    ensureCapacity(size + 1);
+    prices[size] = price;
+    authorIds[size] = authorId;
+    size++;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > prices.length) {
+      int grown = (int) Math.min(Integer.MAX_VALUE - 8,
+          Math.max(capacity, 2L * prices.length));
+      prices = Arrays.copyOf(prices, grown);
+      authorIds = Arrays.copyOf(authorIds, grown);
+    }
+  }
+
+  /**
+   * Folds the books added since the last refresh into the totals. Queries call this themselves.
+   */
+  public void refresh() {
+    if (refreshed == size) {
+      return;
+    }
+    int from = refreshed;
+    int to = size;
+    int leaf = Math.max(LEAF_SIZE, (to - from) / pool.getParallelism() + 1);
+    Totals added = pool.invoke(new FoldTask(from, to, leaf));
+    totals.merge(added);
+    refreshed = to;
+  }
+
+  /**
+   * Sorts the prices added since the last percentile and merges them into the sorted prices.
+   */
+  private void refreshSorted() {
+    if (sortedPrices.length == size) {
+      return;
+    }
+    float[] addedPrices = Arrays.copyOfRange(prices, sortedPrices.length, size);
+    Arrays.sort(addedPrices);
+    sortedPrices = mergeSorted(sortedPrices, addedPrices);
+  }
+
+  private static float[] mergeSorted(float[] a, float[] b) {
+    float[] merged = new float[a.length + b.length];
+    int i = 0;
+    int j = 0;
+    for (int out = 0; out < merged.length; out++) {
+      if (j == b.length || (i < a.length && Float.compare(a[i], b[j]) <= 0)) {
+        merged[out] = a[i++];
+      } else {
+        merged[out] = b[j++];
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Gets the number of books.
+   *
+   * @return the number of books added
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of distinct authors.
+   *
+   * @return the number of authors
+   */
+  public int authorCount() {
+    return authors.size();
+  }
+
+  /**
+   * Gets the sum of the prices of all books.
+   *
+   * @return the total revenue
+   */
+  public double total() {
+    refresh();
+    return Totals.value(totals.total, totals.totalCompensation, 0);
+  }
+
+  /**
+   * Gets the sum of the prices of the books by an author.
+   *
+   * @param author the author
+   * @return the total, zero if there are no books by the author
+   */
+  public double authorTotal(Person author) {
+    refresh();
+    Integer id = authorIdsByPerson.get(author);
+    return id == null ? 0 : Totals.value(totals.authorSums, totals.authorCompensations, id);
+  }
+
+  /**
+   * Gets the sum of the prices of the books of every author.
+   *
+   * @return the totals by author
+   */
+  public Map<Person, Double> authorTotals() {
+    refresh();
+    Map<Person, Double> result = new HashMap<>();
+    for (int id = 0; id < authors.size(); id++) {
+      result.put(authors.get(id), Totals.value(totals.authorSums, totals.authorCompensations, id));
+    }
+    return result;
+  }
+
+  /**
+   * Gets the number of buckets that prices are counted in.
+   *
+   * @return the number of buckets
+   */
+  public int bucketCount() {
+    return buckets;
+  }
+
+  /**
+   * Gets the number of books with a price in a bucket. Bucket {@code i} holds the prices from
+   * {@code i * bucketWidth} up to, not including, {@code (i + 1) * bucketWidth}.
+   *
+   * @param bucket the bucket
+   * @return the number of books
+   * @throws IndexOutOfBoundsException if there is no such bucket
+   */
+  public long bucketBooks(int bucket) {
+    refresh();
+    return totals.bucketCounts[bucket];
+  }
+
+  /**
+   * Gets the sum of the prices of the books in a bucket.
+   *
+   * @param bucket the bucket
+   * @return the total of the bucket
+   * @throws IndexOutOfBoundsException if there is no such bucket
+   */
+  public double bucketTotal(int bucket) {
+    refresh();
+    return Totals.value(totals.bucketSums, totals.bucketCompensations, bucket);
+  }
+
+  /**
+   * Gets the lowest price that at least a given share of the books do not exceed. The prices
+   * added since the last percentile are sorted and merged into the sorted prices first, which
+   * takes time in proportion to all the books.
+   *
+   * @param percentile the share of the books, from 0 to 100
+   * @return the price, NaN if there are no books
+   * @throws IllegalArgumentException if the percentile is not from 0 to 100
+   */
+  public float percentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("Percentile must be from 0 to 100: " + percentile);
+    }
+    refreshSorted();
+    if (sortedPrices.length == 0) {
+      return Float.NaN;
+    }
+    int rank = (int) Math.ceil(percentile / 100 * sortedPrices.length);
+    return sortedPrices[Math.max(rank, 1) - 1];
+  }
+
+  private int bucket(float price) {
+    if (!(price >= 0)) {
+      return 0;
+    }
+    return (int) Math.min(buckets - 1, (long) (price / bucketWidth));
+  }
+
+  /**
+   * Compensated sums of a range of books, kept in parallel arrays of sums and compensations.
+   */
+  private static final class Totals {
+    final double[] total = new double[1];
+    final double[] totalCompensation = new double[1];
+    double[] authorSums;
+    double[] authorCompensations;
+    final long[] bucketCounts;
+    final double[] bucketSums;
+    final double[] bucketCompensations;
+
+    Totals(int authors, int buckets) {
+      authorSums = new double[authors];
+      authorCompensations = new double[authors];
+      bucketCounts = new long[buckets];
+      bucketSums = new double[buckets];
+      bucketCompensations = new double[buckets];
+    }
+
+    /**
+     * Adds a value to a compensated sum (Neumaier).
+     */
+    static void add(double[] sums, double[] compensations, int i, double value) {
+      double sum = sums[i];
+      double t = sum + value;
+      if (Math.abs(sum) >= Math.abs(value)) {
+        compensations[i] += (sum - t) + value;
+      } else {
+        compensations[i] += (value - t) + sum;
+      }
+      sums[i] = t;
+    }
+
+    static double value(double[] sums, double[] compensations, int i) {
+      return sums[i] + compensations[i];
+    }
+
+    /**
+     * Adds the sums of other totals to these.
+     */
+    Totals merge(Totals other) {
+      if (other.authorSums.length > authorSums.length) {
+        authorSums = Arrays.copyOf(authorSums, other.authorSums.length);
+        authorCompensations = Arrays.copyOf(authorCompensations, other.authorSums.length);
+      }
+      add(total, totalCompensation, 0, other.total[0]);
+      totalCompensation[0] += other.totalCompensation[0];
+      for (int i = 0; i < other.authorSums.length; i++) {
+        add(authorSums, authorCompensations, i, other.authorSums[i]);
+        authorCompensations[i] += other.authorCompensations[i];
+      }
+      for (int i = 0; i < bucketCounts.length; i++) {
+        bucketCounts[i] += other.bucketCounts[i];
+        add(bucketSums, bucketCompensations, i, other.bucketSums[i]);
+        bucketCompensations[i] += other.bucketCompensations[i];
+      }
+      return this;
+    }
+  }
+
+  /**
+   * Folds one range of rows, splitting it in halves while it is larger than a leaf. Leaves are
+   * sized so that there are about as many as threads, since each has arrays for every author.
+   */
+  private final class FoldTask extends RecursiveTask<Totals> {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final int leaf;
+
+    FoldTask(int from, int to, int leaf) {
+      this.from = from;
+      this.to = to;
+      this.leaf = leaf;
+    }
+
+    @Override
+    protected Totals compute() {
+      if (to - from <= leaf) {
+        return foldLeaf();
+      }
+      int middle = (from + to) >>> 1;
+      FoldTask left = new FoldTask(from, middle, leaf);
+      left.fork();
+      Totals right = new FoldTask(middle, to, leaf).compute();
+      return left.join().merge(right);
+    }
+
+    private Totals foldLeaf() {
+      Totals leafTotals = new Totals(authors.size(), buckets);
+      for (int i = from; i < to; i++) {
+        float price = prices[i];
+        Totals.add(leafTotals.total, leafTotals.totalCompensation, 0, price);
+        Totals.add(leafTotals.authorSums, leafTotals.authorCompensations, authorIds[i], price);
+        int bucket = bucket(price);
+        leafTotals.bucketCounts[bucket]++;
+        Totals.add(leafTotals.bucketSums, leafTotals.bucketCompensations, bucket, price);
+      }
+      return leafTotals;
+    }
+  }
+}
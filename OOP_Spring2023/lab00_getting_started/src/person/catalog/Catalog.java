@@ -0,0 +1,299 @@
+package person.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import person.Book;
+import person.Person;
+import person.PersonPool;
+
+/**
+ * A read-only catalog of books and authors, mapped from a file written by
+ * {@link CatalogBuilder}. Opening maps the file and reads its header; nothing is deserialized
+ * and the records stay off the heap, in the page cache.
+ *
+ * <p>{@link #book(int)} and {@link #author(int)} return light views that are a {@link Book} and
+ * a {@link Person}, reading their fields from the file when asked. The columns can also be
+ * read directly, without a view. A catalog is safe to read from many threads.
+ */
+public final class Catalog {
+  private final ByteBuffer books;
+  private final ByteBuffer authors;
+  private final ByteBuffer strings;
+  private final int bookCount;
+  private final int authorCount;
+
+  private Catalog(ByteBuffer books, ByteBuffer authors, ByteBuffer strings) {
+    this.books = books;
+    this.authors = authors;
+    this.strings = strings;
+    this.bookCount = books.capacity() / CatalogFormat.BOOK_BYTES;
+    this.authorCount = authors.capacity() / CatalogFormat.AUTHOR_BYTES;
+  }
+
+  /**
+   * Maps a catalog file.
+   *
+   * @param path the file
+   * @return the catalog
+   * @throws IOException if the file cannot be read or is not a catalog
+   */
+  public static Catalog open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(CatalogFormat.HEADER_BYTES)
+          .order(CatalogFormat.ORDER);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          throw new IOException("Not a catalog file: " + path);
+        }
+      }
+      header.flip();
+      if (header.getInt() != CatalogFormat.MAGIC) {
+        throw new IOException("Not a catalog file: " + path);
+      }
+      int version = header.getInt();
+      if (version != CatalogFormat.VERSION) {
+        throw new IOException("Unsupported catalog version " + version + ": " + path);
+      }
+      long bookBytes = (long) header.getInt() * CatalogFormat.BOOK_BYTES;
+      long authorBytes = (long) header.getInt() * CatalogFormat.AUTHOR_BYTES;
+      long stringBytes = header.getLong();
+      long booksAt = CatalogFormat.HEADER_BYTES;
+      long authorsAt = booksAt + bookBytes;
+      long stringsAt = authorsAt + authorBytes;
+      if (bookBytes < 0 || authorBytes < 0 || stringBytes < 0
+          || stringsAt + stringBytes != channel.size()) {
+        throw new IOException("Catalog file is truncated or corrupt: " + path);
+      }
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Catalog file is larger than 2 GB: " + path);
+      }
+      // One mapping for the whole file: a mapping is only released when its buffer is
+      // collected, so the sections share it rather than holding three.
+      ByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new Catalog(
+          section(file, booksAt, bookBytes),
+          section(file, authorsAt, authorBytes),
+          section(file, stringsAt, stringBytes));
+    }
+  }
+
+  private static ByteBuffer section(ByteBuffer file, long position, long size) {
+    file.limit((int) (position + size)).position((int) position);
+    return file.slice().order(CatalogFormat.ORDER);
+  }
+
+  /**
+   * Gets the number of books.
+   *
+   * @return the number of books
+   */
+  public int bookCount() {
+    return bookCount;
+  }
+
+  /**
+   * Gets the number of distinct authors.
+   *
+   * @return the number of authors
+   */
+  public int authorCount() {
+    return authorCount;
+  }
+
+  private int bookField(int index, int field) {
+    if (index < 0 || index >= bookCount) {
+      throw new IndexOutOfBoundsException("Book " + index + " out of bounds for " + bookCount);
+    }
+    return index * CatalogFormat.BOOK_BYTES + field;
+  }
+
+  private int authorField(int id, int field) {
+    if (id < 0 || id >= authorCount) {
+      throw new IndexOutOfBoundsException("Author " + id + " out of bounds for " + authorCount);
+    }
+    return id * CatalogFormat.AUTHOR_BYTES + field;
+  }
+
+  private String string(int offset) {
+    int length = strings.getInt(offset);
+    byte[] bytes = new byte[length];
+    // Absolute bulk reads need Java 13; a duplicate keeps the shared buffer's position alone.
+    ByteBuffer view = strings.duplicate();
+    view.position(offset + 4);
+    view.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets the title of a book.
+   *
+   * @param index the index of the book
+   * @return the title
+   * @throws IndexOutOfBoundsException if there is no such book
+   */
+  public String title(int index) {
+    return string(books.getInt(bookField(index, CatalogFormat.BOOK_TITLE)));
+  }
+
+  /**
+   * Gets the price of a book.
+   *
+   * @param index the index of the book
+   * @return the price
+   * @throws IndexOutOfBoundsException if there is no such book
+   */
+  public float price(int index) {
+    return books.getFloat(bookField(index, CatalogFormat.BOOK_PRICE));
+  }
+
+  /**
+   * Gets the id of the author of a book.
+   *
+   * @param index the index of the book
+   * @return the author id
+   * @throws IndexOutOfBoundsException if there is no such book
+   */
+  public int authorId(int index) {
+    return books.getInt(bookField(index, CatalogFormat.BOOK_AUTHOR));
+  }
+
+  /**
+   * Gets the first name of an author.
+   *
+   * @param id the id of the author
+   * @return the first name
+   * @throws IndexOutOfBoundsException if there is no such author
+   */
+  public String firstName(int id) {
+    return string(authors.getInt(authorField(id, CatalogFormat.AUTHOR_FIRST)));
+  }
+
+  /**
+   * Gets the last name of an author.
+   *
+   * @param id the id of the author
+   * @return the last name
+   * @throws IndexOutOfBoundsException if there is no such author
+   */
+  public String lastName(int id) {
+    return string(authors.getInt(authorField(id, CatalogFormat.AUTHOR_LAST)));
+  }
+
+  /**
+   * Gets the year of birth of an author.
+   *
+   * @param id the id of the author
+   * @return the year of birth
+   * @throws IndexOutOfBoundsException if there is no such author
+   */
+  public int yearOfBirth(int id) {
+    return authors.getInt(authorField(id, CatalogFormat.AUTHOR_YEAR));
+  }
+
+  /**
+   * Gets a view of a book.
+   *
+   * @param index the index of the book
+   * @return the book, reading from the catalog
+   * @throws IndexOutOfBoundsException if there is no such book
+   */
+  public Book book(int index) {
+    bookField(index, 0);
+    return new BookView(index);
+  }
+
+  /**
+   * Gets a view of an author.
+   *
+   * @param id the id of the author
+   * @return the author, reading from the catalog
+   * @throws IndexOutOfBoundsException if there is no such author
+   */
+  public Person author(int id) {
+    authorField(id, 0);
+    return new AuthorView(id);
+  }
+
+  /**
+   * Copies every book of the catalog onto the heap. Each author is created once and interned,
+   * so books share their author with each other and with everything else loaded through the
+   * same pool.
+   *
+   * @param pool the pool that authors are interned in
+   * @return the books, in catalog order
+   */
+  public List<Book> toBooks(PersonPool pool) {
+    Person[] authors = new Person[authorCount];
+    List<Book> result = new ArrayList<>(bookCount);
+    for (int i = 0; i < bookCount; i++) {
+      int id = authorId(i);
+      if (authors[id] == null) {
+        authors[id] = pool.intern(firstName(id), lastName(id), yearOfBirth(id));
+      }
+      result.add(new Book(title(i), authors[id], price(i)));
+    }
+    return result;
+  }
+
+  /**
+   * A book that reads its fields from the catalog. Only the index is kept; the fields of
+   * {@link Book} stay empty.
+   */
+  private final class BookView extends Book {
+    private final int index;
+
+    BookView(int index) {
+      super(null, null, 0);
+      this.index = index;
+    }
+
+    @Override
+    public String getTitle() {
+      return title(index);
+    }
+
+    @Override
+    public float getPrice() {
+      return price(index);
+    }
+
+    @Override
+    public Person getAuthor() {
+      return new AuthorView(authorId(index));
+    }
+  }
+
+  /**
+   * An author that reads its fields from the catalog. Only the id is kept; the fields of
+   * {@link Person} stay empty.
+   */
+  private final class AuthorView extends Person {
+    private final int id;
+
+    AuthorView(int id) {
+      super(null, null, 0);
+      this.id = id;
+    }
+
+    @Override
+    public String getFirstName() {
+      return firstName(id);
+    }
+
+    @Override
+    public String getLastName() {
+      return lastName(id);
+    }
+
+    @Override
+    public int getYearOfBirth() {
+      return yearOfBirth(id);
+    }
+  }
+}
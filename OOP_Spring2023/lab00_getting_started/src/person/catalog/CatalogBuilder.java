@@ -0,0 +1,183 @@
+package person.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import person.Book;
+import person.Person;
+
+/**
+ * Collects books and authors into off-heap buffers and writes them as a catalog file that
+ * {@link Catalog#open} maps back. Each distinct author is stored once and referenced by id;
+ * author names are stored once in the string pool however many authors share them.
+ *
+ * <p>Only the maps that find duplicate authors and names live on the heap while building.
+ */
+public final class CatalogBuilder {
+  private ByteBuffer books = allocate(1024 * CatalogFormat.BOOK_BYTES);
+  private ByteBuffer authors = allocate(256 * CatalogFormat.AUTHOR_BYTES);
+  private ByteBuffer strings = allocate(16 * 1024);
+  private final Map<String, Integer> names = new HashMap<>();
+  private final Map<String, Integer> authorIds = new HashMap<>();
+
+  private static ByteBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity).order(CatalogFormat.ORDER);
+  }
+
+  /**
+   * Returns a buffer with room for {@code bytes} more bytes, copying it into a larger one if
+   * needed.
+   */
+  private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+    if (buffer.remaining() >= bytes) {
+      return buffer;
+    }
+    long needed = (long) buffer.position() + bytes;
+    if (needed > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Catalog is larger than 2 GB");
+    }
+    long capacity = Math.max(needed, Math.min(Integer.MAX_VALUE, 2L * buffer.capacity()));
+    ByteBuffer larger = allocate((int) capacity);
+    buffer.flip();
+    larger.put(buffer);
+    return larger;
+  }
+
+  /**
+   * Adds a string to the pool.
+   *
+   * @return its offset in the pool
+   */
+  private int addString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    strings = ensure(strings, 4 + bytes.length);
+    int offset = strings.position();
+    strings.putInt(bytes.length);
+    strings.put(bytes);
+    return offset;
+  }
+
+  private int addName(String name) {
+    Integer offset = names.get(name);
+    if (offset == null) {
+      offset = addString(name);
+      names.put(name, offset);
+    }
+    return offset;
+  }
+
+  /**
+   * Adds an author, unless an author with the same names and year of birth was added before.
+   *
+   * @param firstName the first name
+   * @param lastName the last name
+   * @param yearOfBirth the year of birth
+   * @return the id of the author
+   * @throws NullPointerException if a name is null
+   */
+  public int addAuthor(String firstName, String lastName, int yearOfBirth) {
+    String key = firstName + '\u0000' + lastName + '\u0000' + yearOfBirth;
+    Integer id = authorIds.get(key);
+    if (id != null) {
+      return id;
+    }
+    int first = addName(firstName);
+    int last = addName(lastName);
+    authors = ensure(authors, CatalogFormat.AUTHOR_BYTES);
+    id = authorCount();
+    authors.putInt(first).putInt(last).putInt(yearOfBirth);
+    authorIds.put(key, id);
+    return id;
+  }
+
+  /**
+   * Adds a book by an author added before.
+   *
+   * @param title the title
+   * @param authorId the id returned by {@link #addAuthor}
+   * @param price the price
+   * @return the index of the book
+   * @throws IllegalArgumentException if there is no author with that id
+   * @throws NullPointerException if the title is null
+   */
+  public int addBook(String title, int authorId, float price) {
+    if (authorId < 0 || authorId >= authorCount()) {
+      throw new IllegalArgumentException("No author with id " + authorId);
+    }
+    int titleOffset = addString(title);
+    books = ensure(books, CatalogFormat.BOOK_BYTES);
+    int index = bookCount();
+    books.putInt(titleOffset).putInt(authorId).putFloat(price);
+    return index;
+  }
+
+  /**
+   * Adds a book, and its author unless the same author was added before.
+   *
+   * @param book the book
+   * @return the index of the book
+   */
+  public int addBook(Book book) {
+    Person author = book.getAuthor();
+    int authorId = addAuthor(author.getFirstName(), author.getLastName(), author.getYearOfBirth());
+    return addBook(book.getTitle(), authorId, book.getPrice());
+  }
+
+  /**
+   * Gets the number of books added.
+   *
+   * @return the number of books
+   */
+  public int bookCount() {
+    return books.position() / CatalogFormat.BOOK_BYTES;
+  }
+
+  /**
+   * Gets the number of distinct authors added.
+   *
+   * @return the number of authors
+   */
+  public int authorCount() {
+    return authors.position() / CatalogFormat.AUTHOR_BYTES;
+  }
+
+  /**
+   * Writes the catalog to a file, replacing it if it exists. The builder can still be used.
+   *
+   * @param path the file to write
+   * @throws IOException if the file cannot be written, or would be larger than 2 GB
+   */
+  public void writeTo(Path path) throws IOException {
+    long size = (long) CatalogFormat.HEADER_BYTES + books.position() + authors.position()
+        + strings.position();
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Catalog is larger than 2 GB");
+    }
+    ByteBuffer header = ByteBuffer.allocate(CatalogFormat.HEADER_BYTES).order(CatalogFormat.ORDER);
+    header.putInt(CatalogFormat.MAGIC)
+        .putInt(CatalogFormat.VERSION)
+        .putInt(bookCount())
+        .putInt(authorCount())
+        .putLong(strings.position())
+        .putLong(0);
+    header.flip();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      writeFully(channel, header);
+      writeFully(channel, books.duplicate().flip());
+      writeFully(channel, authors.duplicate().flip());
+      writeFully(channel, strings.duplicate().flip());
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+}
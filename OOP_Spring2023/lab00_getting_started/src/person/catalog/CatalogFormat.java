@@ -0,0 +1,38 @@
+package person.catalog;
+
+import java.nio.ByteOrder;
+
+/**
+ * The layout of a catalog file, shared by {@link CatalogBuilder} and {@link Catalog}. All
+ * numbers are little-endian.
+ *
+ * <pre>
+ * header   magic (int), version (int), book count (int), author count (int),
+ *          string pool length (long), reserved (long)
+ * books    one record per book: title (int), author id (int), price (float)
+ * authors  one record per author: first name (int), last name (int), year of birth (int)
+ * strings  each string as its length in bytes (int) followed by its UTF-8 bytes
+ * </pre>
+ *
+ * <p>Strings are referenced by their offset in the string pool. The file is mapped as a whole,
+ * so it may be up to 2 GB.
+ */
+final class CatalogFormat {
+  static final int MAGIC = 0x474C5443; // "CTLG" in little-endian
+  static final int VERSION = 1;
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+  static final int HEADER_BYTES = 32;
+  static final int BOOK_BYTES = 12;
+  static final int AUTHOR_BYTES = 12;
+
+  // Field offsets within a record.
+  static final int BOOK_TITLE = 0;
+  static final int BOOK_AUTHOR = 4;
+  static final int BOOK_PRICE = 8;
+  static final int AUTHOR_FIRST = 0;
+  static final int AUTHOR_LAST = 4;
+  static final int AUTHOR_YEAR = 8;
+
+  private CatalogFormat() {
+  }
+}
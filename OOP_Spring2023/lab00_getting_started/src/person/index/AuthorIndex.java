@@ -0,0 +1,98 @@
+package person.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import person.Book;
+import person.Person;
+
+/**
+ * A hash index of books by author. Authors are compared with {@link Person#equals}, so two
+ * {@link Person} objects with the same names and year of birth are the same author.
+ *
+ * <p>Books are identified by reference: removing a book removes that object only. An index is
+ * not thread-safe.
+ */
+public final class AuthorIndex {
+  private final Map<Person, List<Book>> books = new HashMap<>();
+  private int size;
+
+  /**
+   * Adds a book.
+   *
+   * @param book the book; its author must not be null
+   */
+  public void add(Book book) {
+    books.computeIfAbsent(book.getAuthor(), key -> new ArrayList<>(2)).add(book);
+    size++;
+  }
+
+  /**
+   * Removes a book.
+   *
+   * @param book the book
+   * @return true if the book was in the index
+   */
+  public boolean remove(Book book) {
+    Person author = book.getAuthor();
+    List<Book> list = books.get(author);
+    if (list == null) {
+      return false;
+    }
+    for (int i = 0; i < list.size(); i++) {
+      if (list.get(i) == book) {
+        // Order within an author is not kept, so the last book fills the gap.
+        list.set(i, list.get(list.size() - 1));
+        list.remove(list.size() - 1);
+        if (list.isEmpty()) {
+          books.remove(author);
+        }
+        size--;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the books by an author.
+   *
+   * @param author the author
+   * @return the books, in no particular order
+   */
+  public List<Book> byAuthor(Person author) {
+    List<Book> list = books.get(author);
+    return list == null ? List.of() : List.copyOf(list);
+  }
+
+  /**
+   * Gets the books by an author.
+   *
+   * @param firstName the first name of the author
+   * @param lastName the last name of the author
+   * @param yearOfBirth the year of birth of the author
+   * @return the books, in no particular order
+   */
+  public List<Book> byAuthor(String firstName, String lastName, int yearOfBirth) {
+    return byAuthor(new Person(firstName, lastName, yearOfBirth));
+  }
+
+  /**
+   * Gets the number of books in the index.
+   *
+   * @return the number of books
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of authors with at least one book in the index.
+   *
+   * @return the number of authors
+   */
+  public int authorCount() {
+    return books.size();
+  }
+}
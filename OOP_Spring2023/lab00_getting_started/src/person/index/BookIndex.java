@@ -0,0 +1,100 @@
+package person.index;
+
+import java.util.Collection;
+import java.util.List;
+import person.Book;
+import person.Person;
+
+/**
+ * Indexes books by author, price and title, so that the books by an author, the books in a
+ * price range and the books whose title starts with a prefix are found without scanning every
+ * book. Each kind of query has its own index; this class keeps them in step.
+ *
+ * <p>Books are identified by reference, and their fields are read when they are added. An
+ * index is not thread-safe.
+ */
+public final class BookIndex {
+  private final AuthorIndex authors = new AuthorIndex();
+  private final PriceIndex prices = new PriceIndex();
+  private final TitleIndex titles = new TitleIndex();
+
+  /**
+   * Adds a book.
+   *
+   * @param book the book; its title and author must not be null
+   */
+  public void add(Book book) {
+    authors.add(book);
+    prices.add(book);
+    titles.add(book);
+  }
+
+  /**
+   * Adds many books at once. This is much faster than adding them one by one when the index is
+   * large.
+   *
+   * @param books the books; their titles and authors must not be null
+   */
+  public void addAll(Collection<? extends Book> books) {
+    for (Book book : books) {
+      authors.add(book);
+    }
+    prices.addAll(books);
+    titles.addAll(books);
+  }
+
+  /**
+   * Removes a book.
+   *
+   * @param book the book
+   * @return true if the book was in the index
+   */
+  public boolean remove(Book book) {
+    if (!authors.remove(book)) {
+      return false;
+    }
+    prices.remove(book);
+    titles.remove(book);
+    return true;
+  }
+
+  /**
+   * Gets the books by an author, identified by first name, last name and year of birth.
+   *
+   * @param author the author
+   * @return the books, in no particular order
+   */
+  public List<Book> byAuthor(Person author) {
+    return authors.byAuthor(author);
+  }
+
+  /**
+   * Gets the books priced from {@code min} to {@code max}, both included.
+   *
+   * @param min the lowest price
+   * @param max the highest price
+   * @return the books in order of price
+   */
+  public List<Book> byPrice(float min, float max) {
+    return prices.byPrice(min, max);
+  }
+
+  /**
+   * Gets the books whose title starts with a prefix.
+   *
+   * @param prefix the prefix
+   * @return the books in order of title
+   */
+  public List<Book> byTitlePrefix(String prefix) {
+    return titles.byTitlePrefix(prefix);
+  }
+
+  /**
+   * Gets the number of books in the index.
+   *
+   * @return the number of books
+   */
+  public int size() {
+    return authors.size();
+  }
+}
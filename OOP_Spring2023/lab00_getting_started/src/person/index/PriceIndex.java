@@ -0,0 +1,155 @@
+package person.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import person.Book;
+
+/**
+ * A sorted index of books by price, for range queries. Prices are kept in a primitive
+ * {@code float} array sorted in {@link Float#compare} order, next to an array of the books,
+ * in the runs described in {@link SortedBookRuns}.
+ *
+ * <p>The price of a book is read when it is added. Books are identified by reference. An index
+ * is not thread-safe.
+ */
+public final class PriceIndex {
+
+  /**
+   * Runs keyed by price.
+   */
+  private static final class Prices extends SortedBookRuns<float[]> {
+    @Override
+    float[] newKeys(int length) {
+      return new float[length];
+    }
+
+    @Override
+    void setKey(float[] keys, int i, Book book) {
+      keys[i] = book.getPrice();
+    }
+
+    @Override
+    int compare(float[] a, int i, float[] b, int j) {
+      return Float.compare(a[i], b[j]);
+    }
+  }
+
+  private final Prices runs = new Prices();
+
+  /**
+   * Adds a book.
+   *
+   * @param book the book
+   */
+  public void add(Book book) {
+    runs.add(book);
+  }
+
+  /**
+   * Adds many books at once, sorting them and merging them in one pass.
+   *
+   * @param added the books
+   */
+  public void addAll(Collection<? extends Book> added) {
+    Book[] unsorted = added.toArray(new Book[0]);
+    // Sort the prices with their positions packed into longs, so nothing is boxed.
+    long[] keys = new long[unsorted.length];
+    for (int i = 0; i < unsorted.length; i++) {
+      keys[i] = (long) sortableBits(unsorted[i].getPrice()) << 32 | i;
+    }
+    Arrays.sort(keys);
+    float[] batchPrices = new float[keys.length];
+    Book[] batchBooks = new Book[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      batchBooks[i] = unsorted[(int) keys[i]];
+      batchPrices[i] = batchBooks[i].getPrice();
+    }
+    runs.addSorted(batchPrices, batchBooks);
+  }
+
+  /**
+   * Gets bits of a price that compare as signed integers the way {@link Float#compare} compares
+   * the prices.
+   */
+  private static int sortableBits(float price) {
+    int bits = Float.floatToIntBits(price);
+    return bits < 0 ? bits ^ Integer.MAX_VALUE : bits;
+  }
+
+  /**
+   * Removes a book.
+   *
+   * @param book the book
+   * @return true if the book was in the index
+   */
+  public boolean remove(Book book) {
+    return runs.remove(book);
+  }
+
+  /**
+   * Gets the books priced from {@code min} to {@code max}, both included.
+   *
+   * @param min the lowest price
+   * @param max the highest price
+   * @return the books in order of price; empty if {@code min} is greater than {@code max}
+   */
+  public List<Book> byPrice(float min, float max) {
+    List<Book> result = new ArrayList<>();
+    if (Float.compare(min, max) > 0) {
+      return result;
+    }
+    float[] prices = runs.keys;
+    Book[] books = runs.books;
+    float[] pendingPrices = runs.pendingKeys;
+    int pending = runs.pending;
+    runs.probe[0] = min;
+    int i = runs.lowerBound(prices, 0, prices.length, runs.probe, 0);
+    int j = runs.lowerBound(pendingPrices, 0, pending, runs.probe, 0);
+    runs.probe[0] = max;
+    int end = runs.upperBound(prices, i, prices.length, runs.probe, 0);
+    int pendingEnd = runs.upperBound(pendingPrices, j, pending, runs.probe, 0);
+    while (i < end || j < pendingEnd) {
+      if (j == pendingEnd || (i < end && Float.compare(prices[i], pendingPrices[j]) <= 0)) {
+        if (books[i] != null) {
+          result.add(books[i]);
+        }
+        i++;
+      } else {
+        result.add(runs.pendingBooks[j++]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Counts the books priced from {@code min} to {@code max}, both included.
+   *
+   * @param min the lowest price
+   * @param max the highest price
+   * @return the number of books
+   */
+  public int countByPrice(float min, float max) {
+    if (Float.compare(min, max) > 0) {
+      return 0;
+    }
+    float[] prices = runs.keys;
+    runs.probe[0] = min;
+    int from = runs.lowerBound(prices, 0, prices.length, runs.probe, 0);
+    int pendingFrom = runs.lowerBound(runs.pendingKeys, 0, runs.pending, runs.probe, 0);
+    runs.probe[0] = max;
+    int to = runs.upperBound(prices, from, prices.length, runs.probe, 0);
+    int pendingTo = runs.upperBound(runs.pendingKeys, pendingFrom, runs.pending, runs.probe, 0);
+    return runs.countLive(from, to) + pendingTo - pendingFrom;
+  }
+
+  /**
+   * Gets the number of books in the index.
+   *
+   * @return the number of books
+   */
+  public int size() {
+    return runs.size();
+  }
+}
@@ -0,0 +1,247 @@
+package person.index;
+
+import person.Book;
+
+/**
+ * Books sorted by a key, the storage behind {@link PriceIndex} and {@link TitleIndex}. The keys
+ * are kept in an array of type {@code K}, such as {@code float[]}, next to an array of the
+ * books, so primitive keys are not boxed. Subclasses say how keys are made and compared.
+ *
+ * <p>Inserting into one large sorted array moves half of it on average. Instead, new books go
+ * into a small sorted pending run that is merged into the main run once it holds about four
+ * times the square root of the size of the index, and removed books are cleared in place and
+ * skipped until the next merge. Queries search both runs and merge the results.
+ *
+ * <p>The key of a book is read when it is added. Books are identified by reference. Runs are
+ * not thread-safe.
+ *
+ * @param <K> the type of an array of keys
+ */
+abstract class SortedBookRuns<K> {
+  private static final int MIN_PENDING = 256;
+
+  // The main run; removed books are null until the next merge.
+  K keys;
+  Book[] books = new Book[0];
+  int removed;
+
+  K pendingKeys;
+  Book[] pendingBooks = new Book[MIN_PENDING];
+  int pending;
+
+  /** Holds a key being looked up, so that it can be compared like the keys of the runs. */
+  final K probe;
+  // A zero or null key, to clear a slot with.
+  private final K empty;
+
+  SortedBookRuns() {
+    keys = newKeys(0);
+    pendingKeys = newKeys(MIN_PENDING);
+    probe = newKeys(1);
+    empty = newKeys(1);
+  }
+
+  /**
+   * Creates an array of keys.
+   */
+  abstract K newKeys(int length);
+
+  /**
+   * Stores the key of a book at {@code keys[i]}.
+   */
+  abstract void setKey(K keys, int i, Book book);
+
+  /**
+   * Compares {@code a[i]} with {@code b[j]}.
+   */
+  abstract int compare(K a, int i, K b, int j);
+
+  /**
+   * Adds a book to the pending run, merging when the run is full.
+   */
+  final void add(Book book) {
+    setKey(probe, 0, book);
+    int at = upperBound(pendingKeys, 0, pending, probe, 0);
+    System.arraycopy(pendingKeys, at, pendingKeys, at + 1, pending - at);
+    System.arraycopy(pendingBooks, at, pendingBooks, at + 1, pending - at);
+    System.arraycopy(probe, 0, pendingKeys, at, 1);
+    pendingBooks[at] = book;
+    pending++;
+    if (pending == pendingBooks.length) {
+      merge(newKeys(0), new Book[0]);
+    }
+  }
+
+  /**
+   * Adds books sorted by key in one merge.
+   */
+  final void addSorted(K batchKeys, Book[] batchBooks) {
+    merge(batchKeys, batchBooks);
+  }
+
+  /**
+   * Removes a book.
+   *
+   * @return true if the book was in the runs
+   */
+  final boolean remove(Book book) {
+    setKey(probe, 0, book);
+    for (int i = lowerBound(pendingKeys, 0, pending, probe, 0);
+        i < pending && compare(pendingKeys, i, probe, 0) == 0; i++) {
+      if (pendingBooks[i] == book) {
+        System.arraycopy(pendingKeys, i + 1, pendingKeys, i, pending - i - 1);
+        System.arraycopy(pendingBooks, i + 1, pendingBooks, i, pending - i - 1);
+        pending--;
+        System.arraycopy(empty, 0, pendingKeys, pending, 1);
+        pendingBooks[pending] = null;
+        return true;
+      }
+    }
+    for (int i = lowerBound(keys, 0, books.length, probe, 0);
+        i < books.length && compare(keys, i, probe, 0) == 0; i++) {
+      if (books[i] == book) {
+        books[i] = null;
+        removed++;
+        if (removed > books.length / 2) {
+          merge(newKeys(0), new Book[0]);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the number of books.
+   */
+  final int size() {
+    return books.length - removed + pending;
+  }
+
+  /**
+   * Counts the books of a range of the main run that were not removed.
+   */
+  final int countLive(int from, int to) {
+    if (removed == 0) {
+      return to - from;
+    }
+    int count = 0;
+    for (int i = from; i < to; i++) {
+      if (books[i] != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Merges the main run, the pending run and a sorted batch into a new main run, dropping
+   * removed books, and sizes the pending run for the new main run.
+   *
+   * <p>The pending run and the batch are merged first. Each of their books is then placed by a
+   * binary search in the main run, and the main run is copied in between. This keeps the
+   * comparisons down to a few per added book, which matters because comparing two entries of
+   * a large main run usually misses the cache.
+   */
+  private void merge(K batchKeys, Book[] batchBooks) {
+    int batch = batchBooks.length;
+    K addedKeys = batchKeys;
+    Book[] addedBooks = batchBooks;
+    if (pending > 0) {
+      addedKeys = newKeys(pending + batch);
+      addedBooks = new Book[pending + batch];
+      int j = 0;
+      int k = 0;
+      for (int out = 0; out < addedBooks.length; out++) {
+        // Ties go to the pending run, which was added first.
+        if (k == batch || (j < pending && compare(batchKeys, k, pendingKeys, j) >= 0)) {
+          System.arraycopy(pendingKeys, j, addedKeys, out, 1);
+          addedBooks[out] = pendingBooks[j++];
+        } else {
+          System.arraycopy(batchKeys, k, addedKeys, out, 1);
+          addedBooks[out] = batchBooks[k++];
+        }
+      }
+    }
+
+    int length = size() + addedBooks.length - pending;
+    K mergedKeys = newKeys(length);
+    Book[] mergedBooks = new Book[length];
+    int out = 0;
+    int i = 0;
+    for (int k = 0; k < addedBooks.length; k++) {
+      int at = upperBound(keys, i, books.length, addedKeys, k);
+      out = copyLive(i, at, mergedKeys, mergedBooks, out);
+      System.arraycopy(addedKeys, k, mergedKeys, out, 1);
+      mergedBooks[out++] = addedBooks[k];
+      i = at;
+    }
+    copyLive(i, books.length, mergedKeys, mergedBooks, out);
+
+    keys = mergedKeys;
+    books = mergedBooks;
+    removed = 0;
+    int capacity = Math.max(MIN_PENDING, 4 * (int) Math.sqrt(length));
+    pendingKeys = newKeys(capacity);
+    pendingBooks = new Book[capacity];
+    pending = 0;
+  }
+
+  /**
+   * Copies the books of a range of the main run that were not removed into a merged run.
+   *
+   * @return the position in the merged run after the copied books
+   */
+  private int copyLive(int from, int to, K mergedKeys, Book[] mergedBooks, int out) {
+    if (removed == 0) {
+      System.arraycopy(keys, from, mergedKeys, out, to - from);
+      System.arraycopy(books, from, mergedBooks, out, to - from);
+      return out + to - from;
+    }
+    // Copy each stretch between removed books in bulk.
+    int i = from;
+    while (i < to) {
+      while (i < to && books[i] == null) {
+        i++;
+      }
+      int start = i;
+      while (i < to && books[i] != null) {
+        i++;
+      }
+      System.arraycopy(keys, start, mergedKeys, out, i - start);
+      System.arraycopy(books, start, mergedBooks, out, i - start);
+      out += i - start;
+    }
+    return out;
+  }
+
+  /**
+   * Gets the first index in a sorted range whose key is not below {@code key[at]}.
+   */
+  final int lowerBound(K sorted, int from, int to, K key, int at) {
+    while (from < to) {
+      int middle = (from + to) >>> 1;
+      if (compare(sorted, middle, key, at) < 0) {
+        from = middle + 1;
+      } else {
+        to = middle;
+      }
+    }
+    return from;
+  }
+
+  /**
+   * Gets the first index in a sorted range whose key is above {@code key[at]}.
+   */
+  final int upperBound(K sorted, int from, int to, K key, int at) {
+    while (from < to) {
+      int middle = (from + to) >>> 1;
+      if (compare(sorted, middle, key, at) <= 0) {
+        from = middle + 1;
+      } else {
+        to = middle;
+      }
+    }
+    return from;
+  }
+}
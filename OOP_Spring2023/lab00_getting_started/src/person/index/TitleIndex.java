@@ -0,0 +1,116 @@
+package person.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import person.Book;
+
+/**
+ * A sorted index of books by title, for prefix queries. Titles are kept in a sorted array next
+ * to an array of the books, in the runs described in {@link SortedBookRuns}, so all titles
+ * with a prefix are one contiguous range of each run found by a binary search.
+ *
+ * <p>Titles are compared with {@link String#compareTo}. The title of a book is read when it is
+ * added. Books are identified by reference. An index is not thread-safe.
+ */
+public final class TitleIndex {
+
+  /**
+   * Runs keyed by title.
+   */
+  private static final class Titles extends SortedBookRuns<String[]> {
+    @Override
+    String[] newKeys(int length) {
+      return new String[length];
+    }
+
+    @Override
+    void setKey(String[] keys, int i, Book book) {
+      keys[i] = book.getTitle();
+    }
+
+    @Override
+    int compare(String[] a, int i, String[] b, int j) {
+      return a[i].compareTo(b[j]);
+    }
+  }
+
+  private final Titles runs = new Titles();
+
+  /**
+   * Adds a book.
+   *
+   * @param book the book; its title must not be null
+   */
+  public void add(Book book) {
+    runs.add(book);
+  }
+
+  /**
+   * Adds many books at once, sorting them and merging them in one pass.
+   *
+   * @param added the books; their titles must not be null
+   */
+  public void addAll(Collection<? extends Book> added) {
+    Book[] batchBooks = added.toArray(new Book[0]);
+    Arrays.sort(batchBooks, Comparator.comparing(Book::getTitle));
+    String[] batchTitles = new String[batchBooks.length];
+    for (int i = 0; i < batchBooks.length; i++) {
+      batchTitles[i] = batchBooks[i].getTitle();
+    }
+    runs.addSorted(batchTitles, batchBooks);
+  }
+
+  /**
+   * Removes a book.
+   *
+   * @param book the book
+   * @return true if the book was in the index
+   */
+  public boolean remove(Book book) {
+    return runs.remove(book);
+  }
+
+  /**
+   * Gets the books whose title starts with a prefix.
+   *
+   * @param prefix the prefix; the empty prefix matches every book
+   * @return the books in order of title
+   */
+  public List<Book> byTitlePrefix(String prefix) {
+    List<Book> result = new ArrayList<>();
+    String[] titles = runs.keys;
+    Book[] books = runs.books;
+    String[] pendingTitles = runs.pendingKeys;
+    int pending = runs.pending;
+    runs.probe[0] = prefix;
+    int i = runs.lowerBound(titles, 0, titles.length, runs.probe, 0);
+    int j = runs.lowerBound(pendingTitles, 0, pending, runs.probe, 0);
+    boolean inMain = i < titles.length && titles[i].startsWith(prefix);
+    boolean inPending = j < pending && pendingTitles[j].startsWith(prefix);
+    while (inMain || inPending) {
+      if (!inPending || (inMain && titles[i].compareTo(pendingTitles[j]) <= 0)) {
+        if (books[i] != null) {
+          result.add(books[i]);
+        }
+        i++;
+        inMain = i < titles.length && titles[i].startsWith(prefix);
+      } else {
+        result.add(runs.pendingBooks[j++]);
+        inPending = j < pending && pendingTitles[j].startsWith(prefix);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Gets the number of books in the index.
+   *
+   * @return the number of books
+   */
+  public int size() {
+    return runs.size();
+  }
+}
@@ -0,0 +1,164 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import person.Book;
+import person.Person;
+import person.index.BookIndex;
+import person.index.PriceIndex;
+
+public class BookIndexTest {
+
+  private final Random random = new Random(2023);
+  private final Person[] authors = new Person[50];
+  private final List<Book> expected = new ArrayList<>();
+  private BookIndex index;
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < authors.length; i++) {
+      authors[i] = new Person("First" + i % 7, "Last" + i % 11, 1950 + i % 3);
+    }
+    index = new BookIndex();
+  }
+
+  private Book randomBook() {
+    String title = Integer.toString(random.nextInt(5000), 36) + " " + random.nextInt(10);
+    return new Book(title, authors[random.nextInt(authors.length)], random.nextInt(2000) / 100f);
+  }
+
+  private static Set<Book> identities(List<Book> books) {
+    Set<Book> set = new HashSet<>(books);
+    assertEquals("no book twice", books.size(), set.size());
+    return set;
+  }
+
+  /**
+   * Checks every kind of query against a scan of the books that should be in the index.
+   */
+  private void assertQueriesMatchScan() {
+    assertEquals(expected.size(), index.size());
+    for (int q = 0; q < 20; q++) {
+      Person author = authors[random.nextInt(authors.length)];
+      Person same = new Person(author.getFirstName(), author.getLastName(),
+          author.getYearOfBirth());
+      assertEquals(identities(expected.stream()
+              .filter(b -> b.getAuthor().getFirstName().equals(same.getFirstName())
+                  && b.getAuthor().getLastName().equals(same.getLastName())
+                  && b.getAuthor().getYearOfBirth() == same.getYearOfBirth())
+              .collect(Collectors.toList())),
+          identities(index.byAuthor(same)));
+
+      float min = random.nextInt(2000) / 100f;
+      float max = min + random.nextInt(300) / 100f;
+      List<Book> byPrice = index.byPrice(min, max);
+      assertEquals(identities(expected.stream()
+              .filter(b -> b.getPrice() >= min && b.getPrice() <= max)
+              .collect(Collectors.toList())),
+          identities(byPrice));
+      for (int i = 1; i < byPrice.size(); i++) {
+        assertTrue(byPrice.get(i - 1).getPrice() <= byPrice.get(i).getPrice());
+      }
+
+      String prefix = Integer.toString(36 + random.nextInt(5000), 36).substring(0, 1 + q % 2);
+      List<Book> byTitle = index.byTitlePrefix(prefix);
+      assertEquals(identities(expected.stream()
+              .filter(b -> b.getTitle().startsWith(prefix))
+              .collect(Collectors.toList())),
+          identities(byTitle));
+      for (int i = 1; i < byTitle.size(); i++) {
+        assertTrue(byTitle.get(i - 1).getTitle().compareTo(byTitle.get(i).getTitle()) <= 0);
+      }
+    }
+  }
+
+  @Test
+  public void testIncremental() {
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 700; i++) {
+        Book book = randomBook();
+        expected.add(book);
+        index.add(book);
+      }
+      for (int i = 0; i < 300; i++) {
+        Book book = expected.remove(random.nextInt(expected.size()));
+        assertTrue(index.remove(book));
+      }
+      assertQueriesMatchScan();
+    }
+  }
+
+  @Test
+  public void testBulkThenIncremental() {
+    List<Book> bulk = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      bulk.add(randomBook());
+    }
+    expected.addAll(bulk);
+    index.addAll(bulk);
+    assertQueriesMatchScan();
+
+    for (int i = 0; i < 15_000; i++) {
+      if (random.nextBoolean()) {
+        Book book = randomBook();
+        expected.add(book);
+        index.add(book);
+      } else {
+        assertTrue(index.remove(expected.remove(random.nextInt(expected.size()))));
+      }
+    }
+    assertQueriesMatchScan();
+  }
+
+  @Test
+  public void testRemoveEverything() {
+    for (int i = 0; i < 3000; i++) {
+      Book book = randomBook();
+      expected.add(book);
+      index.add(book);
+    }
+    for (Book book : expected) {
+      assertTrue(index.remove(book));
+      assertFalse(index.remove(book));
+    }
+    expected.clear();
+    assertQueriesMatchScan();
+    assertTrue(index.byTitlePrefix("").isEmpty());
+  }
+
+  @Test
+  public void testEqualBooksAreDistinct() {
+    Book first = new Book("Same", authors[0], 1);
+    Book second = new Book("Same", authors[0], 1);
+    index.add(first);
+    index.add(second);
+    assertTrue(index.remove(second));
+    assertEquals(List.of(first), index.byTitlePrefix("Sa"));
+    assertEquals(List.of(first), index.byPrice(1, 1));
+    assertEquals(List.of(first), index.byAuthor(authors[0]));
+  }
+
+  @Test
+  public void testPriceOrderOfSpecialValues() {
+    PriceIndex prices = new PriceIndex();
+    List<Book> books = new ArrayList<>();
+    for (float price : new float[] {Float.NaN, 3, -0.0f, 0.0f, -1, Float.POSITIVE_INFINITY}) {
+      books.add(new Book("t", authors[0], price));
+    }
+    prices.addAll(books);
+    books.sort(Comparator.comparing(Book::getPrice));
+    assertEquals(books, prices.byPrice(Float.NEGATIVE_INFINITY, Float.NaN));
+    assertEquals(2, prices.countByPrice(-0.0f, 0.0f));
+    assertEquals(1, prices.countByPrice(0.0f, 0.0f));
+    assertEquals(0, prices.countByPrice(1, 0));
+  }
+}
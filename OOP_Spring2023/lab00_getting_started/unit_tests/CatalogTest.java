@@ -0,0 +1,133 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import person.Book;
+import person.Person;
+import person.PersonPool;
+import person.catalog.Catalog;
+import person.catalog.CatalogBuilder;
+
+public class CatalogTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private CatalogBuilder builder;
+  private Path file;
+
+  @Before
+  public void setUp() throws IOException {
+    builder = new CatalogBuilder();
+    file = folder.newFile("books.catalog").toPath();
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Person doe = new Person("John", "Doe", 1945);
+    builder.addBook(new Book("The Greatest Book", doe, 20.99f));
+    builder.addBook(new Book("Another Book", new Person("Jane", "Roe", 1970), 5.5f));
+    builder.writeTo(file);
+
+    Catalog catalog = Catalog.open(file);
+    assertEquals(2, catalog.bookCount());
+    Book book = catalog.book(0);
+    assertEquals("The Greatest Book", book.getTitle());
+    assertEquals(20.99f, book.getPrice(), 0);
+    assertEquals("John", book.getAuthor().getFirstName());
+    assertEquals("Doe", book.getAuthor().getLastName());
+    assertEquals(1945, book.getAuthor().getYearOfBirth());
+    assertEquals("Roe", catalog.book(1).getAuthor().getLastName());
+  }
+
+  @Test
+  public void testAuthorsAreShared() throws IOException {
+    Person doe = new Person("John", "Doe", 1945);
+    for (int i = 0; i < 1000; i++) {
+      builder.addBook(new Book("Volume " + i, doe, i));
+    }
+    builder.addAuthor("John", "Doe", 1946);
+    builder.writeTo(file);
+
+    Catalog catalog = Catalog.open(file);
+    assertEquals(1000, catalog.bookCount());
+    assertEquals(2, catalog.authorCount());
+    assertEquals(0, catalog.authorId(999));
+    assertEquals("Volume 999", catalog.title(999));
+    assertEquals(999f, catalog.price(999), 0);
+    assertEquals(1946, catalog.author(1).getYearOfBirth());
+  }
+
+  @Test
+  public void testToBooksSharesAuthors() throws IOException {
+    int doe = builder.addAuthor("John", "Doe", 1945);
+    builder.addBook("First", doe, 1);
+    builder.addBook("Second", builder.addAuthor("Jane", "Roe", 1970), 2);
+    builder.addBook("Third", doe, 3);
+    builder.writeTo(file);
+
+    PersonPool pool = new PersonPool();
+    Person loaded = pool.intern("John", "Doe", 1945);
+    List<Book> books = Catalog.open(file).toBooks(pool);
+    assertEquals(3, books.size());
+    assertEquals("Third", books.get(2).getTitle());
+    assertEquals(3f, books.get(2).getPrice(), 0);
+    assertSame(loaded, books.get(0).getAuthor());
+    assertSame(loaded, books.get(2).getAuthor());
+    assertEquals(new Person("Jane", "Roe", 1970), books.get(1).getAuthor());
+    assertEquals(books.get(1).getAuthor(), Catalog.open(file).author(1));
+  }
+
+  @Test
+  public void testUnicode() throws IOException {
+    int author = builder.addAuthor("Fyodor", "Достоевский", 1821);
+    builder.addBook("Преступление и наказание", author, 12);
+    builder.writeTo(file);
+
+    Catalog catalog = Catalog.open(file);
+    assertEquals("Преступление и наказание", catalog.title(0));
+    assertEquals("Достоевский", catalog.lastName(0));
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    builder.writeTo(file);
+    Catalog catalog = Catalog.open(file);
+    assertEquals(0, catalog.bookCount());
+    assertEquals(0, catalog.authorCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownAuthor() {
+    builder.addBook("Orphan", 0, 1);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testBookOutOfBounds() throws IOException {
+    builder.writeTo(file);
+    Catalog.open(file).book(0);
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotACatalog() throws IOException {
+    Files.write(file, "not a catalog file at all, just text".getBytes());
+    Catalog.open(file);
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncated() throws IOException {
+    builder.addBook(new Book("Title", new Person("A", "B", 1), 1));
+    builder.writeTo(file);
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+    Catalog.open(file);
+  }
+}
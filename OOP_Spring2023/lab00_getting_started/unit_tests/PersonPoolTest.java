@@ -0,0 +1,79 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import person.Person;
+import person.PersonPool;
+
+public class PersonPoolTest {
+
+  private final PersonPool pool = new PersonPool();
+
+  @Test
+  public void testInternReturnsFirst() {
+    Person first = new Person("John", "Doe", 1945);
+    assertSame(first, pool.intern(first));
+    assertSame(first, pool.intern(new Person("John", "Doe", 1945)));
+    assertSame(first, pool.intern("John", "Doe", 1945));
+    assertEquals(1, pool.size());
+  }
+
+  @Test
+  public void testDifferentPersons() {
+    Person john = pool.intern("John", "Doe", 1945);
+    Person jane = pool.intern("Jane", "Doe", 1945);
+    Person younger = pool.intern("John", "Doe", 1946);
+    assertNotSame(john, jane);
+    assertNotSame(john, younger);
+    assertEquals(3, pool.size());
+  }
+
+  @Test
+  public void testConcurrentIntern() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Person[]>> results = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        Callable<Person[]> task = () -> {
+          Person[] interned = new Person[1000];
+          for (int i = 0; i < interned.length; i++) {
+            interned[i] = pool.intern("First" + i % 100, "Last", 1900 + i % 10);
+          }
+          return interned;
+        };
+        results.add(executor.submit(task));
+      }
+      Person[] expected = results.get(0).get();
+      for (Future<Person[]> result : results) {
+        Person[] interned = result.get();
+        for (int i = 0; i < interned.length; i++) {
+          assertSame(expected[i], interned[i]);
+        }
+      }
+      assertEquals(100, pool.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test(timeout = 10_000)
+  public void testUnusedPersonsAreCollected() throws InterruptedException {
+    for (int i = 0; i < 1000; i++) {
+      pool.intern("First" + i, "Last" + i, 1900);
+    }
+    Person kept = pool.intern("Kept", "Person", 2000);
+    while (pool.size() > 1) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertSame(kept, pool.intern("Kept", "Person", 2000));
+    assertEquals(1, pool.size());
+  }
+}
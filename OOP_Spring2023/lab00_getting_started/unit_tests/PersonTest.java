@@ -1,4 +1,5 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -33,4 +34,21 @@ public class PersonTest {
     assertEquals(1945, john.getYearOfBirth());
   }
 
+  @Test
+  public void testEquals() {
+    Person same = new Person("John", "Doe", 1945);
+    assertEquals(john, same);
+    assertEquals(john.hashCode(), same.hashCode());
+    assertNotEquals(john, new Person("John", "Doe", 1946));
+    assertNotEquals(john, new Person("Jon", "Doe", 1945));
+    assertNotEquals(john, new Person("John", "Do", 1945));
+    assertNotEquals(john, "John Doe");
+  }
+
+  @Test
+  public void testEqualsWithoutNames() {
+    assertEquals(new Person(null, null, 1), new Person(null, null, 1));
+    assertNotEquals(john, new Person(null, "Doe", 1945));
+  }
+
 }
@@ -0,0 +1,178 @@
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import person.Book;
+import person.Person;
+import person.analytics.PriceAnalytics;
+import person.catalog.Catalog;
+import person.catalog.CatalogBuilder;
+
+public class PriceAnalyticsTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final Random random = new Random(2023);
+  private final Person[] authors = new Person[100];
+  private ForkJoinPool pool;
+  private PriceAnalytics analytics;
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < authors.length; i++) {
+      authors[i] = new Person("First" + i, "Last" + i, 1900 + i);
+    }
+    // Several threads, so that the folds are split and merged even on a small machine.
+    pool = new ForkJoinPool(4);
+    analytics = new PriceAnalytics(10, 10, pool);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  private List<Book> randomBooks(int count) {
+    List<Book> books = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      books.add(new Book("Title " + i, authors[random.nextInt(authors.length)],
+          random.nextInt(12_000) / 100f));
+    }
+    return books;
+  }
+
+  private static double exactSum(List<Book> books) {
+    BigDecimal sum = BigDecimal.ZERO;
+    for (Book book : books) {
+      sum = sum.add(new BigDecimal(book.getPrice()));
+    }
+    return sum.doubleValue();
+  }
+
+  /**
+   * Checks every result against exact sums over the books.
+   */
+  private void assertMatches(List<Book> books) {
+    assertEquals(books.size(), analytics.size());
+    assertEquals(exactSum(books), analytics.total(), 0);
+
+    Map<Person, List<Book>> byAuthor = new HashMap<>();
+    List<List<Book>> byBucket = new ArrayList<>();
+    for (int i = 0; i < analytics.bucketCount(); i++) {
+      byBucket.add(new ArrayList<>());
+    }
+    for (Book book : books) {
+      byAuthor.computeIfAbsent(book.getAuthor(), a -> new ArrayList<>()).add(book);
+      byBucket.get(Math.min(9, (int) (book.getPrice() / 10))).add(book);
+    }
+    assertEquals(byAuthor.size(), analytics.authorCount());
+    Map<Person, Double> totals = analytics.authorTotals();
+    for (Map.Entry<Person, List<Book>> entry : byAuthor.entrySet()) {
+      assertEquals(exactSum(entry.getValue()), analytics.authorTotal(entry.getKey()), 0);
+      assertEquals(exactSum(entry.getValue()), totals.get(entry.getKey()), 0);
+    }
+    for (int i = 0; i < analytics.bucketCount(); i++) {
+      assertEquals(byBucket.get(i).size(), analytics.bucketBooks(i));
+      assertEquals(exactSum(byBucket.get(i)), analytics.bucketTotal(i), 0);
+    }
+  }
+
+  @Test
+  public void testLargeFold() {
+    List<Book> books = randomBooks(300_000);
+    analytics.addAll(books);
+    assertMatches(books);
+  }
+
+  @Test
+  public void testIncrementalRefresh() {
+    List<Book> books = new ArrayList<>();
+    for (int round = 0; round < 5; round++) {
+      List<Book> added = randomBooks(1 + random.nextInt(100_000));
+      books.addAll(added);
+      if (round % 2 == 0) {
+        analytics.addAll(added);
+      } else {
+        added.forEach(analytics::add);
+      }
+      assertMatches(books);
+    }
+  }
+
+  @Test
+  public void testCompensatedTotal() {
+    // 0.1f is not exact; a float or plain double sum of it drifts.
+    Person author = authors[0];
+    int count = 1_000_000;
+    for (int i = 0; i < count; i++) {
+      analytics.add(new Book("Cheap", author, 0.1f));
+    }
+    assertEquals(count * (double) 0.1f, analytics.total(), 0);
+    assertEquals(count * (double) 0.1f, analytics.authorTotal(author), 0);
+  }
+
+  @Test
+  public void testUnknownAuthor() {
+    analytics.addAll(randomBooks(10));
+    assertEquals(0, analytics.authorTotal(new Person("No", "Body", 1)), 0);
+  }
+
+  @Test
+  public void testBucketsOfSpecialPrices() {
+    analytics.add(new Book("Negative", authors[0], -5));
+    analytics.add(new Book("Zero", authors[0], 0));
+    analytics.add(new Book("Edge", authors[0], 10));
+    analytics.add(new Book("Huge", authors[0], 1e9f));
+    assertEquals(2, analytics.bucketBooks(0));
+    assertEquals(1, analytics.bucketBooks(1));
+    assertEquals(1, analytics.bucketBooks(9));
+  }
+
+  @Test
+  public void testPercentile() {
+    assertEquals(Float.NaN, analytics.percentile(50), 0);
+    for (int price = 100; price >= 1; price--) {
+      analytics.add(new Book("Book", authors[0], price));
+    }
+    assertEquals(1, analytics.percentile(0), 0);
+    assertEquals(50, analytics.percentile(50), 0);
+    assertEquals(100, analytics.percentile(100), 0);
+    analytics.add(new Book("Book", authors[0], 0.5f));
+    assertEquals(0.5f, analytics.percentile(0), 0);
+    assertEquals(50, analytics.percentile(50), 0);
+    assertEquals(51, analytics.percentile(51), 0);
+  }
+
+  @Test
+  public void testCatalog() throws Exception {
+    List<Book> books = randomBooks(5000);
+    CatalogBuilder builder = new CatalogBuilder();
+    books.forEach(builder::addBook);
+    Path file = folder.newFile().toPath();
+    builder.writeTo(file);
+    analytics.addAll(Catalog.open(file));
+    assertMatches(books);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadBucketWidth() {
+    new PriceAnalytics(0, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadPercentile() {
+    analytics.percentile(101);
+  }
+}
@@ -0,0 +1,113 @@
+package weather;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Computes the derived metrics with the Vector API. This class needs JDK 16 or later with
+ * {@code --add-modules jdk.incubator.vector} both to compile and to run, which is why it has its
+ * own source folder and is only reached through {@link ReadingKernels}.
+ *
+ * <p>The arithmetic is done in the same order as the formulas of {@link StevensonReading}, so
+ * every lane rounds exactly like the scalar code. Two steps stay scalar on purpose:
+ * {@code Math.pow(windSpeed, 0.16)}, because the vector {@code POW} is not guaranteed to return
+ * the same bits as {@link Math#pow}, and the final {@link Math#round}/{@code (int)} conversion.
+ */
+final class VectorReadingKernels implements ReadingKernels.Implementation {
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  @Override
+  public void relativeHumidity(
+      double[] airTemp, double[] dewPoint, int from, int[] out, int length) {
+    double[] lanes = new double[SPECIES.length()];
+    int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      humidity(airTemp, dewPoint, from + i).intoArray(lanes, 0);
+      for (int lane = 0; lane < lanes.length; lane++) {
+        out[i + lane] = (int) Math.round(lanes[lane]);
+      }
+    }
+    for (; i < length; i++) {
+      out[i] = (int) Math.round(
+          StevensonReading.relativeHumidity(airTemp[from + i], dewPoint[from + i]));
+    }
+  }
+
+  @Override
+  public void heatIndex(double[] airTemp, double[] dewPoint, int from, int[] out, int length) {
+    double[] lanes = new double[SPECIES.length()];
+    int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      // The heat index formula works on the rounded humidity.
+      humidity(airTemp, dewPoint, from + i).intoArray(lanes, 0);
+      for (int lane = 0; lane < lanes.length; lane++) {
+        lanes[lane] = (int) Math.round(lanes[lane]);
+      }
+      DoubleVector r = DoubleVector.fromArray(SPECIES, lanes, 0);
+      DoubleVector t = DoubleVector.fromArray(SPECIES, airTemp, from + i);
+      DoubleVector t2 = t.mul(t);
+      DoubleVector r2 = r.mul(r);
+
+      DoubleVector heatIndex = t.mul(1.61139411).add(-8.78469475556)
+          .add(r.mul(2.33854883889))
+          .add(t.mul(-0.14611605).mul(r))
+          .add(t2.mul(-0.012308094))
+          .add(r2.mul(-0.0164248277778))
+          .add(t2.mul(0.002211732).mul(r))
+          .add(t.mul(0.00072546).mul(r2))
+          .add(t2.mul(-0.000003582).mul(r2));
+
+      heatIndex.intoArray(lanes, 0);
+      for (int lane = 0; lane < lanes.length; lane++) {
+        out[i + lane] = (int) lanes[lane];
+      }
+    }
+    for (; i < length; i++) {
+      int humidity = (int) Math.round(
+          StevensonReading.relativeHumidity(airTemp[from + i], dewPoint[from + i]));
+      out[i] = (int) StevensonReading.heatIndex(airTemp[from + i], humidity);
+    }
+  }
+
+  @Override
+  public void windChill(double[] airTemp, double[] windSpeed, int from, int[] out, int length) {
+    double[] lanes = new double[SPECIES.length()];
+    int bound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      for (int lane = 0; lane < lanes.length; lane++) {
+        lanes[lane] = Math.pow(windSpeed[from + i + lane], 0.16);
+      }
+      DoubleVector p = DoubleVector.fromArray(SPECIES, lanes, 0);
+      DoubleVector f = DoubleVector.fromArray(SPECIES, airTemp, from + i).mul(1.8).add(32);
+
+      DoubleVector windChill = f.mul(0.6215).add(35.74)
+          .sub(p.mul(35.75))
+          .add(f.mul(0.4275).mul(p))
+          .sub(32)
+          .mul(5.0 / 9.0);
+
+      windChill.intoArray(lanes, 0);
+      for (int lane = 0; lane < lanes.length; lane++) {
+        out[i + lane] = (int) Math.round(lanes[lane]);
+      }
+    }
+    for (; i < length; i++) {
+      out[i] = (int) Math.round(
+          StevensonReading.windChill(airTemp[from + i], windSpeed[from + i]));
+    }
+  }
+
+  /**
+   * Computes the unrounded relative humidity of the lanes starting at {@code offset}.
+   */
+  private static DoubleVector humidity(double[] airTemp, double[] dewPoint, int offset) {
+    DoubleVector t = DoubleVector.fromArray(SPECIES, airTemp, offset);
+    DoubleVector d = DoubleVector.fromArray(SPECIES, dewPoint, offset);
+    DoubleVector saturated = t.mul(7.5).div(t.add(237.3)).mul(6.11 * 10.00);
+    DoubleVector actual = d.mul(7.5).div(d.add(237.3)).mul(6.11 * 10.00);
+    return actual.div(saturated).mul(100);
+  }
+}
@@ -0,0 +1,107 @@
+package weather;
+
+/**
+ * Precomputed heat index and wind chill, looked up instead of evaluating the formulas of
+ * {@link StevensonReading}. The tables hold the integer results of the formulas on a grid of
+ * air temperatures in tenths of a degree from {@link #MIN_TEMPERATURE} to
+ * {@link #MAX_TEMPERATURE}, every relative humidity from 0 to 100 percent and every whole wind
+ * speed from 0 to {@link #MAX_WIND_SPEED} mph, which covers what stations report.
+ *
+ * <p>A lookup gives exactly what the reading would report. Inputs off the grid, such as a
+ * temperature with more than one decimal, are computed with the formula instead.
+ *
+ * <p>The wind chill gains the most: its formula raises the wind speed to a fractional power.
+ * The heat index is a plain polynomial, and checking that a temperature is on the grid costs
+ * about as much as evaluating it.
+ *
+ * <p>The tables take about half a megabyte and are built on first use.
+ */
+public final class MetricTables {
+  /** The lowest air temperature (in Celsius) in the tables. */
+  public static final double MIN_TEMPERATURE = -60;
+  /** The highest air temperature (in Celsius) in the tables. */
+  public static final double MAX_TEMPERATURE = 60;
+  /** The highest wind speed (in miles per hour) in the tables. */
+  public static final int MAX_WIND_SPEED = 120;
+
+  private static final int MIN_TENTHS = (int) (MIN_TEMPERATURE * 10);
+  private static final int TEMPERATURES = (int) (MAX_TEMPERATURE * 10) - MIN_TENTHS + 1;
+  private static final int HUMIDITIES = 101;
+  private static final int WIND_SPEEDS = MAX_WIND_SPEED + 1;
+
+  // Built by the first thread that loads the holder; class initialization publishes them.
+  private static final class Tables {
+    static final short[] HEAT_INDEX = new short[TEMPERATURES * HUMIDITIES];
+    static final short[] WIND_CHILL = new short[TEMPERATURES * WIND_SPEEDS];
+
+    static {
+      for (int t = 0; t < TEMPERATURES; t++) {
+        double airTemp = (t + MIN_TENTHS) / 10.0;
+        for (int rh = 0; rh < HUMIDITIES; rh++) {
+          HEAT_INDEX[t * HUMIDITIES + rh] =
+              toShort((int) StevensonReading.heatIndex(airTemp, rh));
+        }
+        for (int v = 0; v < WIND_SPEEDS; v++) {
+          WIND_CHILL[t * WIND_SPEEDS + v] =
+              toShort((int) Math.round(StevensonReading.windChill(airTemp, v)));
+        }
+      }
+    }
+
+    private static short toShort(int value) {
+      if (value != (short) value) {
+        throw new IllegalStateException("Table value out of range: " + value);
+      }
+      return (short) value;
+    }
+  }
+
+  private MetricTables() {
+  }
+
+  /**
+   * Finds the row of a temperature in the tables.
+   *
+   * @return the row, or -1 if the temperature is not a tenth of a degree in the tables
+   */
+  private static int row(double airTempCelcius) {
+    long tenths = Math.round(airTempCelcius * 10);
+    // The temperature must be the very double the table was computed from.
+    if (tenths / 10.0 != airTempCelcius) {
+      return -1;
+    }
+    long row = tenths - MIN_TENTHS;
+    return row >= 0 && row < TEMPERATURES ? (int) row : -1;
+  }
+
+  /**
+   * Gets the heat index (in Celsius) the way {@link StevensonReading#getHeatIndex()} does.
+   *
+   * @param airTempCelcius the air temperature in Celsius
+   * @param relativeHumidity the relative humidity rounded to the nearest integer
+   * @return the heat index
+   */
+  public static int heatIndex(double airTempCelcius, int relativeHumidity) {
+    int row = row(airTempCelcius);
+    if (row < 0 || relativeHumidity < 0 || relativeHumidity >= HUMIDITIES) {
+      return (int) StevensonReading.heatIndex(airTempCelcius, relativeHumidity);
+    }
+    return Tables.HEAT_INDEX[row * HUMIDITIES + relativeHumidity];
+  }
+
+  /**
+   * Gets the wind chill (in Celsius) the way {@link StevensonReading#getWindChill()} does.
+   *
+   * @param airTempCelcius the air temperature in Celsius
+   * @param windSpeedMph the wind speed in miles per hour
+   * @return the wind chill
+   */
+  public static int windChill(double airTempCelcius, double windSpeedMph) {
+    int row = row(airTempCelcius);
+    int speed = (int) windSpeedMph;
+    if (row < 0 || speed != windSpeedMph || speed < 0 || speed >= WIND_SPEEDS) {
+      return (int) Math.round(StevensonReading.windChill(airTempCelcius, windSpeedMph));
+    }
+    return Tables.WIND_CHILL[row * WIND_SPEEDS + speed];
+  }
+}
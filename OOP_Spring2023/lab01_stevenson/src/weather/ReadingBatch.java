@@ -0,0 +1,362 @@
+package weather;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A batch of weather readings stored column by column. Each reading is kept as one slot in four
+ * parallel arrays (air temperature, dew point, wind speed and rain) instead of one object per
+ * reading, so a large number of readings costs four primitive arrays rather than one object
+ * header per sample.
+ *
+ * <p>Readings are checked with the same rules as the {@link StevensonReading} constructor, and
+ * the derived metrics produced by the bulk methods are the same values the
+ * {@link WeatherReading} methods return for the same reading.
+ */
+public final class ReadingBatch {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private double[] airTemp;
+  private double[] dewPoint;
+  private double[] windSpeed;
+  private double[] rain;
+  private int size;
+
+  /**
+   * Constructs an empty batch.
+   */
+  public ReadingBatch() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty batch that can hold {@code capacity} readings before it grows.
+   *
+   * @param capacity the initial number of readings
+   * @throws IllegalArgumentException if {@code capacity} is negative
+   */
+  public ReadingBatch(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Negative capacity is not supported");
+    }
+    this.airTemp = new double[capacity];
+    this.dewPoint = new double[capacity];
+    this.windSpeed = new double[capacity];
+    this.rain = new double[capacity];
+  }
+
+  /**
+   * Constructs a batch from existing columns. The arrays are copied; every row is validated.
+   *
+   * @param airTemp the air temperatures in Celsius
+   * @param dewPoint the dew point temperatures in Celsius
+   * @param windSpeed the non-negative wind speeds in miles per hour
+   * @param rain the non-negative total rain received in the last 24 hours
+   * @throws IllegalArgumentException if the columns differ in length or a row is not a valid
+   *     reading
+   */
+  public ReadingBatch(double[] airTemp, double[] dewPoint, double[] windSpeed, double[] rain) {
+    int length = airTemp.length;
+    if (dewPoint.length != length || windSpeed.length != length || rain.length != length) {
+      throw new IllegalArgumentException("All columns must have the same length");
+    }
+    for (int i = 0; i < length; i++) {
+      StevensonReading.validate(airTemp[i], dewPoint[i], windSpeed[i], rain[i]);
+    }
+    this.airTemp = airTemp.clone();
+    this.dewPoint = dewPoint.clone();
+    this.windSpeed = windSpeed.clone();
+    this.rain = rain.clone();
+    this.size = length;
+  }
+
+  /**
+   * Appends a reading to this batch.
+   *
+   * @param airTempCelcius the air temperature in Celsius.
+   * @param dewPointCelcius the dew point temperature in Celsius.
+   * @param windSpeedMph the non-negative wind speed in miles per hour.
+   * @param totalRainReceived the non-negative total rain received in the last 24 hours
+   * @throws IllegalArgumentException if any argument is negative or greater than it should be.
+   */
+  public void add(
+      double airTempCelcius,
+      double dewPointCelcius,
+      double windSpeedMph,
+      double totalRainReceived) {
+
+    StevensonReading.validate(airTempCelcius, dewPointCelcius, windSpeedMph, totalRainReceived);
+
+    if (size == airTemp.length) {
+      grow();
+    }
+    airTemp[size] = airTempCelcius;
+    dewPoint[size] = dewPointCelcius;
+    windSpeed[size] = windSpeedMph;
+    rain[size] = totalRainReceived;
+    size++;
+  }
+
+  /**
+   * Removes every reading from this batch, keeping the allocated columns for reuse.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Gets the number of readings in this batch.
+   *
+   * @return the number of readings
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the air temperature (in Celsius) of a reading.
+   *
+   * @param index the position of the reading
+   * @return the unrounded air temperature
+   * @throws IndexOutOfBoundsException if {@code index} is not in the batch
+   */
+  public double airTemp(int index) {
+    return airTemp[Objects.checkIndex(index, size)];
+  }
+
+  /**
+   * Gets the dew point (in Celsius) of a reading.
+   *
+   * @param index the position of the reading
+   * @return the unrounded dew point
+   * @throws IndexOutOfBoundsException if {@code index} is not in the batch
+   */
+  public double dewPoint(int index) {
+    return dewPoint[Objects.checkIndex(index, size)];
+  }
+
+  /**
+   * Gets the wind speed (in miles per hour) of a reading.
+   *
+   * @param index the position of the reading
+   * @return the unrounded wind speed
+   * @throws IndexOutOfBoundsException if {@code index} is not in the batch
+   */
+  public double windSpeed(int index) {
+    return windSpeed[Objects.checkIndex(index, size)];
+  }
+
+  /**
+   * Gets the total rain (in mm) of a reading.
+   *
+   * @param index the position of the reading
+   * @return the unrounded total rain
+   * @throws IndexOutOfBoundsException if {@code index} is not in the batch
+   */
+  public double rain(int index) {
+    return rain[Objects.checkIndex(index, size)];
+  }
+
+  /**
+   * Writes the relative humidity of every reading into {@code out}, in the same order as the
+   * readings. Each value equals {@link WeatherReading#getRelativeHumidity()} for that reading.
+   *
+   * @param out the destination, at least {@link #size()} long
+   * @throws IllegalArgumentException if {@code out} is too short
+   */
+  public void relativeHumidity(int[] out) {
+    checkOutput(out);
+    ReadingKernels.relativeHumidity(airTemp, dewPoint, out, size);
+  }
+
+  /**
+   * Writes the heat index of every reading into {@code out}, in the same order as the readings.
+   * Each value equals {@link WeatherReading#getHeatIndex()} for that reading.
+   *
+   * @param out the destination, at least {@link #size()} long
+   * @throws IllegalArgumentException if {@code out} is too short
+   */
+  public void heatIndex(int[] out) {
+    checkOutput(out);
+    ReadingKernels.heatIndex(airTemp, dewPoint, out, size);
+  }
+
+  /**
+   * Writes the wind chill of every reading into {@code out}, in the same order as the readings.
+   * Each value equals {@link WeatherReading#getWindChill()} for that reading.
+   *
+   * @param out the destination, at least {@link #size()} long
+   * @throws IllegalArgumentException if {@code out} is too short
+   */
+  public void windChill(int[] out) {
+    checkOutput(out);
+    ReadingKernels.windChill(airTemp, windSpeed, out, size);
+  }
+
+  /**
+   * Writes the relative humidity of the readings from {@code from} (inclusive) to {@code to}
+   * (exclusive) into {@code out}, starting at index zero.
+   *
+   * @param from the index of the first reading
+   * @param to the index after the last reading
+   * @param out the destination, at least {@code to - from} long
+   * @throws IndexOutOfBoundsException if the range is not in the batch
+   * @throws IllegalArgumentException if {@code out} is too short
+   */
+  public void relativeHumidity(int from, int to, int[] out) {
+    Objects.checkFromToIndex(from, to, size);
+    ReadingKernels.relativeHumidity(airTemp, dewPoint, from, out, to - from);
+  }
+
+  /**
+   * Writes the heat index of the readings from {@code from} (inclusive) to {@code to}
+   * (exclusive) into {@code out}, starting at index zero.
+   *
+   * @param from the index of the first reading
+   * @param to the index after the last reading
+   * @param out the destination, at least {@code to - from} long
+   * @throws IndexOutOfBoundsException if the range is not in the batch
+   * @throws IllegalArgumentException if {@code out} is too short
+   */
+  public void heatIndex(int from, int to, int[] out) {
+    Objects.checkFromToIndex(from, to, size);
+    ReadingKernels.heatIndex(airTemp, dewPoint, from, out, to - from);
+  }
+
+  /**
+   * Writes the wind chill of the readings from {@code from} (inclusive) to {@code to}
+   * (exclusive) into {@code out}, starting at index zero.
+   *
+   * @param from the index of the first reading
+   * @param to the index after the last reading
+   * @param out the destination, at least {@code to - from} long
+   * @throws IndexOutOfBoundsException if the range is not in the batch
+   * @throws IllegalArgumentException if {@code out} is too short
+   */
+  public void windChill(int from, int to, int[] out) {
+    Objects.checkFromToIndex(from, to, size);
+    ReadingKernels.windChill(airTemp, windSpeed, from, out, to - from);
+  }
+
+  /**
+   * Gets a view of one reading of this batch. The view does not copy the reading; it reads
+   * the columns of this batch each time it is asked for a value.
+   *
+   * @param index the position of the reading
+   * @return a weather reading backed by this batch
+   * @throws IndexOutOfBoundsException if {@code index} is not in the batch
+   */
+  public WeatherReading get(int index) {
+    return new View(this, Objects.checkIndex(index, size));
+  }
+
+  /**
+   * Copies one reading of this batch into its own {@link StevensonReading}.
+   *
+   * @param index the position of the reading
+   * @return a new reading with the same values
+   * @throws IndexOutOfBoundsException if {@code index} is not in the batch
+   */
+  public StevensonReading toReading(int index) {
+    Objects.checkIndex(index, size);
+    return new StevensonReading(airTemp[index], dewPoint[index], windSpeed[index], rain[index]);
+  }
+
+  private void checkOutput(int[] out) {
+    if (out.length < size) {
+      throw new IllegalArgumentException(
+          "Output holds " + out.length + " values but the batch has " + size);
+    }
+  }
+
+  private void grow() {
+    int capacity = Math.max(DEFAULT_CAPACITY, airTemp.length * 2);
+    airTemp = Arrays.copyOf(airTemp, capacity);
+    dewPoint = Arrays.copyOf(dewPoint, capacity);
+    windSpeed = Arrays.copyOf(windSpeed, capacity);
+    rain = Arrays.copyOf(rain, capacity);
+  }
+
+  /**
+   * A weather reading that is one row of a batch.
+   */
+  private static final class View implements WeatherReading {
+    private final ReadingBatch batch;
+    private final int index;
+
+    private View(ReadingBatch batch, int index) {
+      this.batch = batch;
+      this.index = index;
+    }
+
+    @Override
+    public int getTemperature() {
+      return (int) Math.round(batch.airTemp[index]);
+    }
+
+    @Override
+    public int getDewPoint() {
+      return (int) Math.round(batch.dewPoint[index]);
+    }
+
+    @Override
+    public int getWindSpeed() {
+      return (int) Math.round(batch.windSpeed[index]);
+    }
+
+    @Override
+    public int getTotalRain() {
+      return (int) Math.round(batch.rain[index]);
+    }
+
+    @Override
+    public int getRelativeHumidity() {
+      return (int) Math.round(
+          StevensonReading.relativeHumidity(batch.airTemp[index], batch.dewPoint[index]));
+    }
+
+    @Override
+    public int getHeatIndex() {
+      return (int) StevensonReading.heatIndex(batch.airTemp[index], getRelativeHumidity());
+    }
+
+    @Override
+    public int getWindChill() {
+      return (int) Math.round(
+          StevensonReading.windChill(batch.airTemp[index], batch.windSpeed[index]));
+    }
+
+    @Override
+    public String toString() {
+      return "Reading: " + "T = " + getTemperature()
+              + ", D = " + getDewPoint()
+              + ", v = " + getWindSpeed()
+              + ", rain = " + getTotalRain();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      View that = (View) o;
+
+      return Double.compare(that.batch.airTemp[that.index], batch.airTemp[index]) == 0
+          && Double.compare(that.batch.dewPoint[that.index], batch.dewPoint[index]) == 0
+          && Double.compare(that.batch.windSpeed[that.index], batch.windSpeed[index]) == 0
+          && that.batch.rain[that.index] == batch.rain[index];
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          batch.airTemp[index],
+          batch.dewPoint[index],
+          batch.windSpeed[index],
+          batch.rain[index]);
+    }
+  }
+}
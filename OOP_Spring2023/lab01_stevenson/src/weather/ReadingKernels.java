@@ -0,0 +1,200 @@
+package weather;
+
+/**
+ * Computes the derived metrics of many readings at once from columns of raw values. Every result
+ * is the same integer the matching {@link StevensonReading} method returns for that reading.
+ *
+ * <p>When the {@code jdk.incubator.vector} module is available the work is done with SIMD
+ * instructions; otherwise, or when the system property {@code weather.kernels} is set to
+ * {@code scalar}, a plain loop over the formulas of {@link StevensonReading} is used.
+ */
+public final class ReadingKernels {
+
+  /**
+   * The plain loop used when no vector implementation can be loaded.
+   */
+  static final Implementation SCALAR = new Scalar();
+
+  private static final Implementation SELECTED = load();
+
+  private ReadingKernels() {
+  }
+
+  /**
+   * Tells whether the SIMD implementation is in use.
+   *
+   * @return true if the derived metrics are computed with the Vector API
+   */
+  public static boolean isVectorized() {
+    return SELECTED != SCALAR;
+  }
+
+  /**
+   * Computes the relative humidity of the first {@code length} readings.
+   *
+   * @param airTemp the air temperatures in Celsius
+   * @param dewPoint the dew point temperatures in Celsius
+   * @param out receives the relative humidity of each reading
+   * @param length the number of readings
+   * @throws IllegalArgumentException if an array holds fewer than {@code length} values
+   */
+  public static void relativeHumidity(double[] airTemp, double[] dewPoint, int[] out, int length) {
+    relativeHumidity(airTemp, dewPoint, 0, out, length);
+  }
+
+  /**
+   * Computes the relative humidity of {@code length} readings starting at {@code from}.
+   *
+   * @param airTemp the air temperatures in Celsius
+   * @param dewPoint the dew point temperatures in Celsius
+   * @param from the index of the first reading
+   * @param out receives the relative humidity of each reading, starting at index zero
+   * @param length the number of readings
+   * @throws IllegalArgumentException if the columns end before {@code from + length} or
+   *     {@code out} holds fewer than {@code length} values
+   */
+  public static void relativeHumidity(
+      double[] airTemp, double[] dewPoint, int from, int[] out, int length) {
+    checkRange(from, length, airTemp.length, dewPoint.length, out.length);
+    SELECTED.relativeHumidity(airTemp, dewPoint, from, out, length);
+  }
+
+  /**
+   * Computes the heat index of the first {@code length} readings.
+   *
+   * @param airTemp the air temperatures in Celsius
+   * @param dewPoint the dew point temperatures in Celsius
+   * @param out receives the heat index of each reading
+   * @param length the number of readings
+   * @throws IllegalArgumentException if an array holds fewer than {@code length} values
+   */
+  public static void heatIndex(double[] airTemp, double[] dewPoint, int[] out, int length) {
+    heatIndex(airTemp, dewPoint, 0, out, length);
+  }
+
+  /**
+   * Computes the heat index of {@code length} readings starting at {@code from}.
+   *
+   * @param airTemp the air temperatures in Celsius
+   * @param dewPoint the dew point temperatures in Celsius
+   * @param from the index of the first reading
+   * @param out receives the heat index of each reading, starting at index zero
+   * @param length the number of readings
+   * @throws IllegalArgumentException if the columns end before {@code from + length} or
+   *     {@code out} holds fewer than {@code length} values
+   */
+  public static void heatIndex(
+      double[] airTemp, double[] dewPoint, int from, int[] out, int length) {
+    checkRange(from, length, airTemp.length, dewPoint.length, out.length);
+    SELECTED.heatIndex(airTemp, dewPoint, from, out, length);
+  }
+
+  /**
+   * Computes the wind chill of the first {@code length} readings.
+   *
+   * @param airTemp the air temperatures in Celsius
+   * @param windSpeed the wind speeds in miles per hour
+   * @param out receives the wind chill of each reading
+   * @param length the number of readings
+   * @throws IllegalArgumentException if an array holds fewer than {@code length} values
+   */
+  public static void windChill(double[] airTemp, double[] windSpeed, int[] out, int length) {
+    windChill(airTemp, windSpeed, 0, out, length);
+  }
+
+  /**
+   * Computes the wind chill of {@code length} readings starting at {@code from}.
+   *
+   * @param airTemp the air temperatures in Celsius
+   * @param windSpeed the wind speeds in miles per hour
+   * @param from the index of the first reading
+   * @param out receives the wind chill of each reading, starting at index zero
+   * @param length the number of readings
+   * @throws IllegalArgumentException if the columns end before {@code from + length} or
+   *     {@code out} holds fewer than {@code length} values
+   */
+  public static void windChill(
+      double[] airTemp, double[] windSpeed, int from, int[] out, int length) {
+    checkRange(from, length, airTemp.length, windSpeed.length, out.length);
+    SELECTED.windChill(airTemp, windSpeed, from, out, length);
+  }
+
+  /**
+   * Gets the implementation chosen when this class was loaded.
+   *
+   * @return the vector implementation if it could be loaded, otherwise {@link #SCALAR}
+   */
+  static Implementation selected() {
+    return SELECTED;
+  }
+
+  /**
+   * Loads the vector implementation. It lives in its own source folder because it can only be
+   * compiled and run with the incubator module added, so it is looked up by name.
+   */
+  static Implementation load() {
+    if ("scalar".equals(System.getProperty("weather.kernels"))) {
+      return SCALAR;
+    }
+    try {
+      return (Implementation) Class.forName("weather.VectorReadingKernels")
+          .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return SCALAR;
+    }
+  }
+
+  private static void checkRange(int from, int length, int column, int otherColumn, int out) {
+    if (from < 0 || length < 0) {
+      throw new IllegalArgumentException("Negative indexes are not supported");
+    }
+    if (Math.min(column, otherColumn) - from < length || out < length) {
+      throw new IllegalArgumentException(
+          "Arrays are too short for " + length + " readings from " + from);
+    }
+  }
+
+  /**
+   * A way of computing the derived metrics over columns. Each method reads {@code length}
+   * readings starting at {@code from} and writes them to {@code out} starting at index zero.
+   * Arguments are already checked.
+   */
+  interface Implementation {
+    void relativeHumidity(double[] airTemp, double[] dewPoint, int from, int[] out, int length);
+
+    void heatIndex(double[] airTemp, double[] dewPoint, int from, int[] out, int length);
+
+    void windChill(double[] airTemp, double[] windSpeed, int from, int[] out, int length);
+  }
+
+  /**
+   * Applies the formulas of {@link StevensonReading} one reading at a time.
+   */
+  private static final class Scalar implements Implementation {
+    @Override
+    public void relativeHumidity(
+        double[] airTemp, double[] dewPoint, int from, int[] out, int length) {
+      for (int i = 0; i < length; i++) {
+        out[i] = (int) Math.round(
+            StevensonReading.relativeHumidity(airTemp[from + i], dewPoint[from + i]));
+      }
+    }
+
+    @Override
+    public void heatIndex(double[] airTemp, double[] dewPoint, int from, int[] out, int length) {
+      for (int i = 0; i < length; i++) {
+        int humidity = (int) Math.round(
+            StevensonReading.relativeHumidity(airTemp[from + i], dewPoint[from + i]));
+        out[i] = (int) StevensonReading.heatIndex(airTemp[from + i], humidity);
+      }
+    }
+
+    @Override
+    public void windChill(double[] airTemp, double[] windSpeed, int from, int[] out, int length) {
+      for (int i = 0; i < length; i++) {
+        out[i] = (int) Math.round(
+            StevensonReading.windChill(airTemp[from + i], windSpeed[from + i]));
+      }
+    }
+  }
+}
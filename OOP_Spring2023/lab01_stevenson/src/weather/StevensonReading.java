@@ -18,9 +18,14 @@ public final class StevensonReading implements WeatherReading {
   private final double dewPointCelcius;
   private final double windSpeedMph;
   private final double totalRainReceived;
-  private double relativeHumidity = 0;
-  private double headIndex = 0;
-  private double windChill = 0;
+
+  // The derived metrics are computed together on first use. The plain fields are written
+  // before the volatile flag and read after it, so a reader that sees the flag set also sees
+  // the values. Two threads racing on the first read compute and store the same values.
+  private int relativeHumidity;
+  private int headIndex;
+  private int windChill;
+  private volatile boolean derived;
 
   /**
    * Constructs a weather reading from a station.
@@ -39,14 +44,7 @@ public final class StevensonReading implements WeatherReading {
       
       throws IllegalArgumentException {
     
-    if ((windSpeedMph < 0) || (totalRainReceived < 0)) {
-      throw new IllegalArgumentException(
-          "Negative durations are not supported");
-   
-    } else if ((dewPointCelcius > airTempCelcius)) {
-      throw new IllegalArgumentException(
-          "The Dew point cannot be larger than the Air temp");
-    }
+    validate(airTempCelcius, dewPointCelcius, windSpeedMph, totalRainReceived);
     
     this.airTempCelcius = airTempCelcius;
     this.dewPointCelcius = dewPointCelcius;
@@ -55,6 +53,30 @@ public final class StevensonReading implements WeatherReading {
     
   }
   
+  /**
+   * Constructs a weather reading whose relative humidity, heat index and wind chill are
+   * computed right away instead of on first use. Worth it for readings that will be read many
+   * times, possibly from many threads.
+   *
+   * @param airTempCelcius the air temperature in Celsius.
+   * @param dewPointCelcius the dew point temperature in Celsius.
+   * @param windSpeedMph the non-negative wind speed in miles per hour.
+   * @param totalRainReceived the non-negative total rain received in the last 24 hours
+   * @return the reading with its derived metrics already computed
+   * @throws IllegalArgumentException if any argument is negative or greater than it should be.
+   */
+  public static StevensonReading precomputed(
+      double airTempCelcius, 
+      double dewPointCelcius, 
+      double windSpeedMph, 
+      double totalRainReceived) {
+    
+    StevensonReading reading = new StevensonReading(
+        airTempCelcius, dewPointCelcius, windSpeedMph, totalRainReceived);
+    reading.derive();
+    return reading;
+  }
+  
   @Override
   public int getTemperature() {
     return (int) Math.round(airTempCelcius);
@@ -75,6 +97,42 @@ public final class StevensonReading implements WeatherReading {
     return (int) Math.round(totalRainReceived);
   }
   
+  /**
+   * Get the air temperature (in Celsius) of this reading without rounding.
+   *
+   * @return the air temperature
+   */
+  public double getAirTempCelcius() {
+    return airTempCelcius;
+  }
+  
+  /**
+   * Get the dew point (in Celsius) of this reading without rounding.
+   *
+   * @return the dew point
+   */
+  public double getDewPointCelcius() {
+    return dewPointCelcius;
+  }
+  
+  /**
+   * Get the wind speed (in miles per hour) of this reading without rounding.
+   *
+   * @return the wind speed
+   */
+  public double getWindSpeedMph() {
+    return windSpeedMph;
+  }
+  
+  /**
+   * Get the total rain (in mm) of this reading without rounding.
+   *
+   * @return the total rain
+   */
+  public double getTotalRainReceived() {
+    return totalRainReceived;
+  }
+  
   /**
    * Calculate vapor pressure.
    * 
@@ -89,15 +147,11 @@ public final class StevensonReading implements WeatherReading {
   @Override
   public int getRelativeHumidity() {
     
-    double saturatedVaporPressure = 
-        6.11 * 10.00 * ((7.5 * this.airTempCelcius) / (237.3 + this.airTempCelcius));
-    double actualVaporPressure = 
-        6.11 * 10.00 * ((7.5 * this.dewPointCelcius) / (237.3 + this.dewPointCelcius));
-    
-    relativeHumidity = (actualVaporPressure / saturatedVaporPressure) * 100;
-
+    if (!derived) {
+      derive();
+    }
     
-    return (int) Math.round(relativeHumidity);
+    return relativeHumidity;
   }
   
   /**
@@ -107,18 +161,11 @@ public final class StevensonReading implements WeatherReading {
   @Override
   public int getHeatIndex() {
     
-    headIndex = 
-        -8.78469475556 + 1.61139411 * this.airTempCelcius 
-        + 2.33854883889 * getRelativeHumidity() + -0.14611605 
-        * this.airTempCelcius * getRelativeHumidity()
-        + -0.012308094 * (Math.pow(this.airTempCelcius, 
-            2)) + -0.0164248277778 * (Math.pow(getRelativeHumidity(), 2))
-        + 0.002211732 * Math.pow(this.airTempCelcius, 2) * getRelativeHumidity() 
-        + 0.00072546 * this.airTempCelcius * Math.pow(getRelativeHumidity(), 2)
-        + -0.000003582 * Math.pow(this.airTempCelcius, 2) * Math.pow(getRelativeHumidity(), 2);
-
+    if (!derived) {
+      derive();
+    }
     
-    return (int) headIndex;
+    return headIndex;
   }
   
   
@@ -130,15 +177,107 @@ public final class StevensonReading implements WeatherReading {
   @Override
   public int getWindChill() {
     
-    windChill = 
+    if (!derived) {
+      derive();
+    }
+    
+    return windChill;
+  }
+  
+  /**
+   * Computes and publishes the derived metrics.
+   */
+  private void derive() {
+    
+    int humidity = (int) Math.round(relativeHumidity(this.airTempCelcius, this.dewPointCelcius));
+    
+    this.relativeHumidity = humidity;
+    this.headIndex = (int) heatIndex(this.airTempCelcius, humidity);
+    this.windChill = (int) Math.round(windChill(this.airTempCelcius, this.windSpeedMph));
+    this.derived = true;
+  }
+  
+  /**
+   * Checks the arguments of a reading against the rules of the constructor. Shared with the
+   * other representations of readings in this package so they all reject the same input.
+   *
+   * @param airTempCelcius the air temperature in Celsius.
+   * @param dewPointCelcius the dew point temperature in Celsius.
+   * @param windSpeedMph the non-negative wind speed in miles per hour.
+   * @param totalRainReceived the non-negative total rain received in the last 24 hours
+   * @throws IllegalArgumentException if any argument is negative or greater than it should be.
+   */
+  static void validate(
+      double airTempCelcius, 
+      double dewPointCelcius, 
+      double windSpeedMph, 
+      double totalRainReceived)
+      
+      throws IllegalArgumentException {
+    
+    if ((windSpeedMph < 0) || (totalRainReceived < 0)) {
+      throw new IllegalArgumentException(
+          "Negative durations are not supported");
+   
+    } else if ((dewPointCelcius > airTempCelcius)) {
+      throw new IllegalArgumentException(
+          "The Dew point cannot be larger than the Air temp");
+    }
+  }
+  
+  /**
+   * Calculates the unrounded relative humidity (in percent).
+   *
+   * @param airTempCelcius the air temperature in Celsius
+   * @param dewPointCelcius the dew point temperature in Celsius
+   * @return the relative humidity before rounding
+   */
+  static double relativeHumidity(double airTempCelcius, double dewPointCelcius) {
+    
+    double saturatedVaporPressure = 
+        6.11 * 10.00 * ((7.5 * airTempCelcius) / (237.3 + airTempCelcius));
+    double actualVaporPressure = 
+        6.11 * 10.00 * ((7.5 * dewPointCelcius) / (237.3 + dewPointCelcius));
+    
+    return (actualVaporPressure / saturatedVaporPressure) * 100;
+  }
+  
+  /**
+   * Calculates the untruncated heat index. The formula works on the rounded relative
+   * humidity, the same value {@link #getRelativeHumidity()} reports.
+   *
+   * @param airTempCelcius the air temperature in Celsius
+   * @param relativeHumidity the relative humidity rounded to the nearest integer
+   * @return the heat index before truncation
+   */
+  static double heatIndex(double airTempCelcius, int relativeHumidity) {
+    
+    return -8.78469475556 + 1.61139411 * airTempCelcius 
+        + 2.33854883889 * relativeHumidity + -0.14611605 
+        * airTempCelcius * relativeHumidity
+        + -0.012308094 * (Math.pow(airTempCelcius, 
+            2)) + -0.0164248277778 * (Math.pow(relativeHumidity, 2))
+        + 0.002211732 * Math.pow(airTempCelcius, 2) * relativeHumidity 
+        + 0.00072546 * airTempCelcius * Math.pow(relativeHumidity, 2)
+        + -0.000003582 * Math.pow(airTempCelcius, 2) * Math.pow(relativeHumidity, 2);
+  }
+  
+  /**
+   * Calculates the unrounded wind chill in Celsius.
+   *
+   * @param airTempCelcius the air temperature in Celsius
+   * @param windSpeedMph the wind speed in miles per hour
+   * @return the wind chill before rounding
+   */
+  static double windChill(double airTempCelcius, double windSpeedMph) {
+    
+    double windChill = 
         35.74 
-        + 0.6215 * celciusToFarenheit(this.airTempCelcius) 
-        - 35.75 * Math.pow(this.windSpeedMph, 0.16)
-        + 0.4275 * celciusToFarenheit(this.airTempCelcius) * Math.pow(this.windSpeedMph, 0.16);
+        + 0.6215 * celciusToFarenheit(airTempCelcius) 
+        - 35.75 * Math.pow(windSpeedMph, 0.16)
+        + 0.4275 * celciusToFarenheit(airTempCelcius) * Math.pow(windSpeedMph, 0.16);
 
-    windChill = (windChill - 32) * (5.0 / 9.0);
-    
-    return (int) Math.round(windChill);
+    return (windChill - 32) * (5.0 / 9.0);
   }
   
   
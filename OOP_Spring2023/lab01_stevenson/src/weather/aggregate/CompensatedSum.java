@@ -0,0 +1,29 @@
+package weather.aggregate;
+
+/**
+ * A running sum of doubles with Neumaier compensation: the rounding error of each addition is
+ * kept apart and added back at the end, so the result stays accurate over very many terms.
+ */
+final class CompensatedSum {
+  private double sum;
+  private double compensation;
+
+  void add(double value) {
+    double total = sum + value;
+    if (Math.abs(sum) >= Math.abs(value)) {
+      compensation += (sum - total) + value;
+    } else {
+      compensation += (value - total) + sum;
+    }
+    sum = total;
+  }
+
+  void add(CompensatedSum other) {
+    add(other.sum);
+    compensation += other.compensation;
+  }
+
+  double value() {
+    return sum + compensation;
+  }
+}
@@ -0,0 +1,98 @@
+package weather.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * An immutable count of integer values, such as heat indexes in Celsius, with one bucket per
+ * value from {@link #MIN} to {@link #MAX}. Values outside that range are only counted as
+ * underflow or overflow.
+ */
+public final class Histogram {
+  /** The smallest value with its own bucket. */
+  public static final int MIN = -100;
+  /** The largest value with its own bucket. */
+  public static final int MAX = 100;
+
+  // One bucket per value, plus underflow at index 0 and overflow at the last index.
+  static final int BUCKETS = MAX - MIN + 3;
+
+  private final long[] counts;
+
+  Histogram(long[] counts) {
+    this.counts = counts.clone();
+  }
+
+  /**
+   * Gets the bucket of a value in a counts array.
+   */
+  static int bucket(int value) {
+    if (value < MIN) {
+      return 0;
+    }
+    if (value > MAX) {
+      return BUCKETS - 1;
+    }
+    return value - MIN + 1;
+  }
+
+  /**
+   * Gets the number of times a value was counted.
+   *
+   * @param value a value from {@link #MIN} to {@link #MAX}
+   * @return the count of the value
+   * @throws IllegalArgumentException if the value has no bucket of its own
+   */
+  public long count(int value) {
+    if (value < MIN || value > MAX) {
+      throw new IllegalArgumentException("No bucket for " + value);
+    }
+    return counts[bucket(value)];
+  }
+
+  /**
+   * Gets the number of values below {@link #MIN}.
+   *
+   * @return the underflow count
+   */
+  public long underflow() {
+    return counts[0];
+  }
+
+  /**
+   * Gets the number of values above {@link #MAX}.
+   *
+   * @return the overflow count
+   */
+  public long overflow() {
+    return counts[BUCKETS - 1];
+  }
+
+  /**
+   * Gets the number of values counted, including underflow and overflow.
+   *
+   * @return the total count
+   */
+  public long total() {
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Histogram)) {
+      return false;
+    }
+    return Arrays.equals(counts, ((Histogram) o).counts);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(counts);
+  }
+}
@@ -0,0 +1,88 @@
+package weather.aggregate;
+
+import weather.StevensonReading;
+import weather.WeatherReading;
+
+/**
+ * A mutable, mergeable running summary of readings, kept in primitive fields and arrays. Each
+ * thread fills its own accumulator; accumulators are then combined with {@link #merge}. Sums
+ * are compensated (Neumaier) so that the mean temperature and the total rain stay accurate
+ * over hundreds of millions of readings.
+ *
+ * <p>An accumulator is not thread-safe.
+ */
+public final class ReadingAccumulator {
+  private long count;
+  private double minTemperature = Double.POSITIVE_INFINITY;
+  private double maxTemperature = Double.NEGATIVE_INFINITY;
+  private final CompensatedSum temperatureSum = new CompensatedSum();
+  private final CompensatedSum rainSum = new CompensatedSum();
+  private final long[] heatIndex = new long[Histogram.BUCKETS];
+  private final long[] windChill = new long[Histogram.BUCKETS];
+
+  /**
+   * Adds one reading given by its values.
+   *
+   * @param airTemp the air temperature in Celsius
+   * @param rain the total rain in mm
+   * @param heatIndexCelsius the heat index of the reading
+   * @param windChillCelsius the wind chill of the reading
+   */
+  public void add(double airTemp, double rain, int heatIndexCelsius, int windChillCelsius) {
+    count++;
+    minTemperature = Math.min(minTemperature, airTemp);
+    maxTemperature = Math.max(maxTemperature, airTemp);
+    temperatureSum.add(airTemp);
+    rainSum.add(rain);
+
+    heatIndex[Histogram.bucket(heatIndexCelsius)]++;
+    windChill[Histogram.bucket(windChillCelsius)]++;
+  }
+
+  /**
+   * Adds one reading. The exact temperature and rain of a {@link StevensonReading} are used;
+   * for other readings only the rounded values of the interface are available.
+   *
+   * @param reading the reading to add
+   */
+  public void add(WeatherReading reading) {
+    if (reading instanceof StevensonReading) {
+      StevensonReading exact = (StevensonReading) reading;
+      add(exact.getAirTempCelcius(), exact.getTotalRainReceived(),
+          reading.getHeatIndex(), reading.getWindChill());
+    } else {
+      add(reading.getTemperature(), reading.getTotalRain(),
+          reading.getHeatIndex(), reading.getWindChill());
+    }
+  }
+
+  /**
+   * Adds the readings of another accumulator to this one.
+   *
+   * @param other the accumulator to merge; it is not changed
+   * @return this accumulator
+   */
+  public ReadingAccumulator merge(ReadingAccumulator other) {
+    count += other.count;
+    minTemperature = Math.min(minTemperature, other.minTemperature);
+    maxTemperature = Math.max(maxTemperature, other.maxTemperature);
+    temperatureSum.add(other.temperatureSum);
+    rainSum.add(other.rainSum);
+    for (int i = 0; i < Histogram.BUCKETS; i++) {
+      heatIndex[i] += other.heatIndex[i];
+      windChill[i] += other.windChill[i];
+    }
+    return this;
+  }
+
+  /**
+   * Gets the summary of the readings added so far.
+   *
+   * @return an immutable summary
+   */
+  public ReadingSummary toSummary() {
+    return new ReadingSummary(count, minTemperature, maxTemperature,
+        count == 0 ? Double.NaN : temperatureSum.value() / count,
+        rainSum.value(), new Histogram(heatIndex), new Histogram(windChill));
+  }
+}
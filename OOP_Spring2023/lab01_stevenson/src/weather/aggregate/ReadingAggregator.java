@@ -0,0 +1,117 @@
+package weather.aggregate;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collector;
+import weather.ReadingBatch;
+import weather.WeatherReading;
+
+/**
+ * Summarizes large numbers of readings in parallel. Work is split into ranges that are
+ * summarized into their own {@link ReadingAccumulator}s, which are merged on the way back up,
+ * so threads never share mutable state.
+ *
+ * <p>Summaries per station and day are obtained by grouping first, for example with
+ * {@code readings.collect(groupingBy(key, ReadingAggregator.summarizing()))}, or by keeping a
+ * {@link ReadingBatch} per station and day.
+ */
+public final class ReadingAggregator {
+  // Ranges of a batch no longer than this are summarized by a single task.
+  static final int LEAF_SIZE = 8192;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs an aggregator that runs in the common fork-join pool.
+   */
+  public ReadingAggregator() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs an aggregator that runs in the given pool.
+   *
+   * @param pool the pool whose threads do the work
+   */
+  public ReadingAggregator(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Gets a collector that summarizes a stream of readings. It can be used on parallel streams
+   * and as the downstream collector of a grouping.
+   *
+   * @return the collector
+   */
+  public static Collector<WeatherReading, ReadingAccumulator, ReadingSummary> summarizing() {
+    return Collector.of(ReadingAccumulator::new, ReadingAccumulator::add,
+        ReadingAccumulator::merge, ReadingAccumulator::toSummary);
+  }
+
+  /**
+   * Summarizes the readings of a batch. The heat index and wind chill are computed with the
+   * bulk methods of the batch.
+   *
+   * @param batch the readings; it must not change while it is summarized
+   * @return the summary
+   */
+  public ReadingSummary summarize(ReadingBatch batch) {
+    return pool.invoke(new BatchTask(batch, 0, batch.size())).toSummary();
+  }
+
+  /**
+   * Summarizes a collection of readings with a parallel stream run in this aggregator's pool.
+   *
+   * @param readings the readings
+   * @return the summary
+   */
+  public ReadingSummary summarize(Collection<? extends WeatherReading> readings) {
+    return pool.submit(() -> readings.parallelStream()
+        .map(WeatherReading.class::cast)
+        .collect(summarizing())).join();
+  }
+
+  /**
+   * Summarizes one range of a batch, splitting it in halves while it is larger than a leaf.
+   */
+  private static final class BatchTask extends RecursiveTask<ReadingAccumulator> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ReadingBatch batch;
+    private final int from;
+    private final int to;
+
+    BatchTask(ReadingBatch batch, int from, int to) {
+      this.batch = batch;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected ReadingAccumulator compute() {
+      if (to - from <= LEAF_SIZE) {
+        return summarizeLeaf();
+      }
+      int middle = (from + to) >>> 1;
+      BatchTask left = new BatchTask(batch, from, middle);
+      left.fork();
+      ReadingAccumulator right = new BatchTask(batch, middle, to).compute();
+      return left.join().merge(right);
+    }
+
+    private ReadingAccumulator summarizeLeaf() {
+      int length = to - from;
+      int[] heatIndex = new int[length];
+      int[] windChill = new int[length];
+      batch.heatIndex(from, to, heatIndex);
+      batch.windChill(from, to, windChill);
+
+      ReadingAccumulator accumulator = new ReadingAccumulator();
+      for (int i = 0; i < length; i++) {
+        accumulator.add(batch.airTemp(from + i), batch.rain(from + i), heatIndex[i], windChill[i]);
+      }
+      return accumulator;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package weather.aggregate;
+
+/**
+ * An immutable summary of a set of readings: temperature range and mean, total rain, and the
+ * distributions of heat index and wind chill.
+ */
+public final class ReadingSummary {
+  private final long count;
+  private final double minTemperature;
+  private final double maxTemperature;
+  private final double meanTemperature;
+  private final double totalRain;
+  private final Histogram heatIndex;
+  private final Histogram windChill;
+
+  ReadingSummary(long count, double minTemperature, double maxTemperature,
+      double meanTemperature, double totalRain, Histogram heatIndex, Histogram windChill) {
+    this.count = count;
+    this.minTemperature = minTemperature;
+    this.maxTemperature = maxTemperature;
+    this.meanTemperature = meanTemperature;
+    this.totalRain = totalRain;
+    this.heatIndex = heatIndex;
+    this.windChill = windChill;
+  }
+
+  /**
+   * Gets the number of readings summarized.
+   *
+   * @return the number of readings
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Get the lowest air temperature (in Celsius).
+   *
+   * @return the lowest temperature, positive infinity if there were no readings
+   */
+  public double getMinTemperature() {
+    return minTemperature;
+  }
+
+  /**
+   * Get the highest air temperature (in Celsius).
+   *
+   * @return the highest temperature, negative infinity if there were no readings
+   */
+  public double getMaxTemperature() {
+    return maxTemperature;
+  }
+
+  /**
+   * Get the mean air temperature (in Celsius).
+   *
+   * @return the mean temperature, NaN if there were no readings
+   */
+  public double getMeanTemperature() {
+    return meanTemperature;
+  }
+
+  /**
+   * Get the sum of the rain (in mm) of all readings.
+   *
+   * @return the total rain
+   */
+  public double getTotalRain() {
+    return totalRain;
+  }
+
+  /**
+   * Get the distribution of the heat index (in Celsius).
+   *
+   * @return the heat index histogram
+   */
+  public Histogram getHeatIndex() {
+    return heatIndex;
+  }
+
+  /**
+   * Get the distribution of the wind chill (in Celsius).
+   *
+   * @return the wind chill histogram
+   */
+  public Histogram getWindChill() {
+    return windChill;
+  }
+
+  @Override
+  public String toString() {
+    return "Summary: " + "n = " + count
+            + ", T = " + minTemperature + ".." + maxTemperature
+            + ", mean T = " + meanTemperature
+            + ", rain = " + totalRain;
+  }
+}
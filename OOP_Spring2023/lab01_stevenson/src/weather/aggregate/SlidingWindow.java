@@ -0,0 +1,181 @@
+package weather.aggregate;
+
+import weather.StevensonReading;
+import weather.WeatherReading;
+
+/**
+ * The temperature, relative humidity and rain of the readings of the last few minutes or hours,
+ * updated as each reading arrives rather than recomputed. Adding a reading and evicting one both
+ * take constant amortized time: sums are updated by adding and subtracting, and the minimum and
+ * maximum come from monotonic deques.
+ *
+ * <p>A window keeps at most {@code capacity} readings, so its memory is bounded whatever the
+ * rate of the feed. When a reading arrives at a full window the oldest reading is evicted early;
+ * {@link #getDropped()} counts those.
+ *
+ * <p>Readings must arrive in time order. A window is not thread-safe.
+ */
+public final class SlidingWindow {
+  /** Five minutes in milliseconds. */
+  public static final long FIVE_MINUTES = 5 * 60 * 1000L;
+  /** One hour in milliseconds. */
+  public static final long ONE_HOUR = 60 * 60 * 1000L;
+  /** One day in milliseconds. */
+  public static final long ONE_DAY = 24 * ONE_HOUR;
+
+  private final long length;
+  private final int capacity;
+  private final long[] times;
+  private final WindowColumn temperature;
+  private final WindowColumn humidity;
+  private final WindowColumn rain;
+
+  // Events are numbered in arrival order; the window holds oldest .. next - 1.
+  private long oldest;
+  private long next;
+  private long latest = Long.MIN_VALUE;
+  private long dropped;
+
+  /**
+   * Constructs an empty window.
+   *
+   * @param lengthMillis how long a reading stays in the window, in milliseconds
+   * @param capacity the most readings the window keeps
+   * @throws IllegalArgumentException if the length or the capacity is not positive
+   */
+  public SlidingWindow(long lengthMillis, int capacity) {
+    if (lengthMillis <= 0) {
+      throw new IllegalArgumentException("Window length must be positive: " + lengthMillis);
+    }
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.length = lengthMillis;
+    this.capacity = capacity;
+    this.times = new long[capacity];
+    this.temperature = new WindowColumn(capacity);
+    this.humidity = new WindowColumn(capacity);
+    this.rain = new WindowColumn(capacity);
+  }
+
+  /**
+   * Adds a reading taken at the given time. The exact temperature and rain of a
+   * {@link StevensonReading} are used; for other readings only the rounded values of the
+   * interface are available.
+   *
+   * @param timeMillis when the reading was taken, in milliseconds
+   * @param reading the reading
+   * @throws IllegalArgumentException if the reading is older than the latest one
+   */
+  public void add(long timeMillis, WeatherReading reading) {
+    if (reading instanceof StevensonReading) {
+      StevensonReading exact = (StevensonReading) reading;
+      add(timeMillis, exact.getAirTempCelcius(), reading.getRelativeHumidity(),
+          exact.getTotalRainReceived());
+    } else {
+      add(timeMillis, reading.getTemperature(), reading.getRelativeHumidity(),
+          reading.getTotalRain());
+    }
+  }
+
+  /**
+   * Adds a reading given by its values.
+   *
+   * @param timeMillis when the reading was taken, in milliseconds
+   * @param airTemp the air temperature in Celsius
+   * @param relativeHumidity the relative humidity in percent
+   * @param totalRain the total rain in mm
+   * @throws IllegalArgumentException if the reading is older than the latest one
+   */
+  public void add(long timeMillis, double airTemp, double relativeHumidity, double totalRain) {
+    advanceTo(timeMillis);
+    if (next - oldest == capacity) {
+      evictOldest();
+      dropped++;
+    }
+    times[(int) (next % capacity)] = timeMillis;
+    temperature.push(next, airTemp);
+    humidity.push(next, relativeHumidity);
+    rain.push(next, totalRain);
+    next++;
+  }
+
+  /**
+   * Moves the window forward to the given time, evicting the readings that have left it. Adding
+   * a reading does this on its own; it is only needed to query a window whose feed went quiet.
+   *
+   * @param timeMillis the current time in milliseconds
+   * @throws IllegalArgumentException if the time is before the latest reading
+   */
+  public void advanceTo(long timeMillis) {
+    if (timeMillis < latest) {
+      throw new IllegalArgumentException(
+          "Time " + timeMillis + " is before the latest reading at " + latest);
+    }
+    latest = timeMillis;
+    while (oldest < next && times[(int) (oldest % capacity)] <= timeMillis - length) {
+      evictOldest();
+    }
+  }
+
+  private void evictOldest() {
+    temperature.evict(oldest);
+    humidity.evict(oldest);
+    rain.evict(oldest);
+    oldest++;
+  }
+
+  /**
+   * Gets the length of the window.
+   *
+   * @return how long a reading stays in the window, in milliseconds
+   */
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Gets the number of readings in the window.
+   *
+   * @return the number of readings
+   */
+  public int size() {
+    return (int) (next - oldest);
+  }
+
+  /**
+   * Gets the number of readings evicted early because the window was full.
+   *
+   * @return the number of readings dropped
+   */
+  public long getDropped() {
+    return dropped;
+  }
+
+  /**
+   * Gets the air temperature (in Celsius) over the window.
+   *
+   * @return the temperature statistics
+   */
+  public WindowStatistics getTemperature() {
+    return temperature.statistics(size());
+  }
+
+  /**
+   * Gets the relative humidity (in percent) over the window.
+   *
+   * @return the humidity statistics
+   */
+  public WindowStatistics getRelativeHumidity() {
+    return humidity.statistics(size());
+  }
+
+  /**
+   * Gets the rain (in mm) over the window.
+   *
+   * @return the rain statistics
+   */
+  public WindowStatistics getRain() {
+    return rain.statistics(size());
+  }
+}
@@ -0,0 +1,110 @@
+package weather.aggregate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import weather.WeatherReading;
+
+/**
+ * Sliding windows of several lengths for each station of a live feed. Each station gets its
+ * own windows on its first reading, each with a fixed capacity, so the memory per station is
+ * bounded.
+ *
+ * <p>A {@code StationWindows} is not thread-safe; a feed is expected to be consumed by one
+ * thread, or by one thread per group of stations.
+ */
+public final class StationWindows {
+  private final long[] lengths;
+  private final int capacity;
+  private final Map<String, SlidingWindow[]> stations = new HashMap<>();
+
+  /**
+   * Constructs windows of five minutes, one hour and one day.
+   *
+   * @param capacity the most readings each window of a station keeps
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public StationWindows(int capacity) {
+    this(capacity, SlidingWindow.FIVE_MINUTES, SlidingWindow.ONE_HOUR, SlidingWindow.ONE_DAY);
+  }
+
+  /**
+   * Constructs windows of the given lengths.
+   *
+   * @param capacity the most readings each window of a station keeps
+   * @param lengthsMillis the lengths of the windows in milliseconds
+   * @throws IllegalArgumentException if the capacity or a length is not positive, or if no
+   *     length is given
+   */
+  public StationWindows(int capacity, long... lengthsMillis) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    if (lengthsMillis.length == 0) {
+      throw new IllegalArgumentException("At least one window length is needed");
+    }
+    for (long length : lengthsMillis) {
+      if (length <= 0) {
+        throw new IllegalArgumentException("Window length must be positive: " + length);
+      }
+    }
+    this.capacity = capacity;
+    this.lengths = lengthsMillis.clone();
+  }
+
+  /**
+   * Adds a reading of a station to each of its windows.
+   *
+   * @param station the id of the station
+   * @param timeMillis when the reading was taken, in milliseconds
+   * @param reading the reading
+   * @throws IllegalArgumentException if the reading is older than the latest one of the station
+   */
+  public void add(String station, long timeMillis, WeatherReading reading) {
+    for (SlidingWindow window : stations.computeIfAbsent(station, s -> newWindows())) {
+      window.add(timeMillis, reading);
+    }
+  }
+
+  private SlidingWindow[] newWindows() {
+    SlidingWindow[] windows = new SlidingWindow[lengths.length];
+    for (int i = 0; i < lengths.length; i++) {
+      windows[i] = new SlidingWindow(lengths[i], capacity);
+    }
+    return windows;
+  }
+
+  /**
+   * Gets a window of a station.
+   *
+   * @param station the id of the station
+   * @param lengthMillis the length of the window, one of the lengths given at construction
+   * @return the window, or null if the station has no readings yet
+   * @throws IllegalArgumentException if there is no window of that length
+   */
+  public SlidingWindow window(String station, long lengthMillis) {
+    int index = -1;
+    for (int i = 0; i < lengths.length; i++) {
+      if (lengths[i] == lengthMillis) {
+        index = i;
+      }
+    }
+    if (index < 0) {
+      throw new IllegalArgumentException(
+          "No window of " + lengthMillis + " ms in " + Arrays.toString(lengths));
+    }
+    SlidingWindow[] windows = stations.get(station);
+    return windows == null ? null : windows[index];
+  }
+
+  /**
+   * Gets the stations that have readings.
+   *
+   * @return an unmodifiable view of the station ids
+   */
+  public Set<String> stations() {
+    return Collections.unmodifiableSet(stations.keySet());
+  }
+}
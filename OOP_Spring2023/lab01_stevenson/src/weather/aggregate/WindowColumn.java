@@ -0,0 +1,72 @@
+package weather.aggregate;
+
+/**
+ * One value per event of a {@link SlidingWindow}, with the running sum and the deques that give
+ * the minimum and maximum in constant amortized time. Events are identified by their sequence
+ * number; the value of an event lives at {@code sequence % capacity}.
+ *
+ * <p>The minimum deque holds the events that can still become the minimum, oldest first, with
+ * increasing values: a new value removes every larger value before it, since those are evicted
+ * before it. The maximum deque is the same with decreasing values.
+ */
+final class WindowColumn {
+  private final int capacity;
+  private final double[] values;
+  private final long[] minimums;
+  private final long[] maximums;
+  private int minHead;
+  private int minSize;
+  private int maxHead;
+  private int maxSize;
+  private CompensatedSum sum = new CompensatedSum();
+
+  WindowColumn(int capacity) {
+    this.capacity = capacity;
+    this.values = new double[capacity];
+    this.minimums = new long[capacity];
+    this.maximums = new long[capacity];
+  }
+
+  private double value(long sequence) {
+    return values[(int) (sequence % capacity)];
+  }
+
+  void push(long sequence, double value) {
+    values[(int) (sequence % capacity)] = value;
+    sum.add(value);
+
+    while (minSize > 0 && value(minimums[(minHead + minSize - 1) % capacity]) >= value) {
+      minSize--;
+    }
+    minimums[(minHead + minSize++) % capacity] = sequence;
+
+    while (maxSize > 0 && value(maximums[(maxHead + maxSize - 1) % capacity]) <= value) {
+      maxSize--;
+    }
+    maximums[(maxHead + maxSize++) % capacity] = sequence;
+  }
+
+  void evict(long sequence) {
+    sum.add(-value(sequence));
+    if (minSize > 0 && minimums[minHead] == sequence) {
+      minHead = (minHead + 1) % capacity;
+      minSize--;
+    }
+    if (maxSize > 0 && maximums[maxHead] == sequence) {
+      maxHead = (maxHead + 1) % capacity;
+      maxSize--;
+    }
+    if (minSize == 0) {
+      // The window is empty: start again from an exact zero rather than the leftover error.
+      sum = new CompensatedSum();
+    }
+  }
+
+  WindowStatistics statistics(int count) {
+    if (count == 0) {
+      return WindowStatistics.EMPTY;
+    }
+    return new WindowStatistics(count, sum.value() / count,
+        value(minimums[minHead]), value(maximums[maxHead]));
+  }
+}
@@ -0,0 +1,65 @@
+package weather.aggregate;
+
+/**
+ * An immutable snapshot of one value, such as the temperature, over the events of a
+ * {@link SlidingWindow}.
+ */
+public final class WindowStatistics {
+  static final WindowStatistics EMPTY =
+      new WindowStatistics(0, Double.NaN, Double.NaN, Double.NaN);
+
+  private final int count;
+  private final double mean;
+  private final double min;
+  private final double max;
+
+  WindowStatistics(int count, double mean, double min, double max) {
+    this.count = count;
+    this.mean = mean;
+    this.min = min;
+    this.max = max;
+  }
+
+  /**
+   * Gets the number of events in the window.
+   *
+   * @return the number of events
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the mean of the value over the window.
+   *
+   * @return the mean, NaN if the window is empty
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * Gets the lowest value in the window.
+   *
+   * @return the minimum, NaN if the window is empty
+   */
+  public double getMin() {
+    return min;
+  }
+
+  /**
+   * Gets the highest value in the window.
+   *
+   * @return the maximum, NaN if the window is empty
+   */
+  public double getMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "Window: " + "n = " + count
+            + ", mean = " + mean
+            + ", range = " + min + ".." + max;
+  }
+}
@@ -0,0 +1,60 @@
+package weather.alert;
+
+/**
+ * An immutable alert: a reading of a station crossed the threshold of a rule.
+ */
+public final class Alert {
+  private final AlertRule rule;
+  private final int station;
+  private final long timeMillis;
+  private final int value;
+
+  Alert(AlertRule rule, int station, long timeMillis, int value) {
+    this.rule = rule;
+    this.station = station;
+    this.timeMillis = timeMillis;
+    this.value = value;
+  }
+
+  /**
+   * Gets the rule that fired.
+   *
+   * @return the rule
+   */
+  public AlertRule getRule() {
+    return rule;
+  }
+
+  /**
+   * Gets the station of the reading.
+   *
+   * @return the station id
+   */
+  public int getStation() {
+    return station;
+  }
+
+  /**
+   * Gets the time of the reading.
+   *
+   * @return the time in milliseconds since the epoch
+   */
+  public long getTimeMillis() {
+    return timeMillis;
+  }
+
+  /**
+   * Gets the value of the rule's metric for the reading.
+   *
+   * @return the value
+   */
+  public int getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return "Alert: " + rule + ", station = " + station + ", time = " + timeMillis
+        + ", value = " + value;
+  }
+}
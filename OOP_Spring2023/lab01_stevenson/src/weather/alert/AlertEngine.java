@@ -0,0 +1,239 @@
+package weather.alert;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import weather.ReadingBatch;
+import weather.WeatherReading;
+
+/**
+ * Matches the readings of many stations against threshold rules and raises an {@link Alert}
+ * when a station crosses into the range of a rule: when its heat index rises above a limit,
+ * its wind chill drops below one, and so on. A rule fires once per crossing, not for every
+ * reading that stays beyond the threshold.
+ *
+ * <p>Rules are compiled into an index with the thresholds of each metric sorted, and the
+ * engine remembers the last value of each watched metric for each station. The rules a reading
+ * crosses are those whose thresholds lie between the station's last value and its new one, a
+ * run of the sorted thresholds found by binary search, so a reading costs time logarithmic in
+ * the number of rules plus the number of alerts it raises. Only the metrics that some rule
+ * watches are computed, so the heat index and the wind chill cost nothing without rules on
+ * them.
+ *
+ * <p>{@link #setRules} compiles the new rules aside and swaps them in with one volatile write,
+ * so readings are evaluated throughout; each reading is matched against either the old or the
+ * new rules. A rule that was in the old rules keeps its state. A new rule fires at the next
+ * reading of every station already beyond its threshold; that first reading after a change
+ * also scans the new rules of each watched metric.
+ *
+ * <p>The engine is thread-safe. Readings of one station are evaluated one at a time, in the
+ * order they are passed in; readings of different stations are evaluated in parallel.
+ */
+public final class AlertEngine {
+  /**
+   * What the engine remembers about a station.
+   */
+  private static final class Station {
+    final int id;
+    // The last value of each metric, by ordinal, if seen; any int is a possible value.
+    final int[] last = new int[Metric.ALL.length];
+    // Whether the metric was watched at the last reading.
+    final boolean[] seen = new boolean[Metric.ALL.length];
+    // The version of the rules the last values were matched against.
+    int version;
+
+    Station(int id, int version) {
+      this.id = id;
+      this.version = version;
+    }
+  }
+
+  private final ConcurrentHashMap<Integer, Station> stations = new ConcurrentHashMap<>();
+  private volatile RuleIndex index = RuleIndex.EMPTY;
+
+  /**
+   * Constructs an engine without rules.
+   */
+  public AlertEngine() {
+  }
+
+  /**
+   * Constructs an engine with rules.
+   *
+   * @param rules the rules
+   */
+  public AlertEngine(Collection<AlertRule> rules) {
+    setRules(rules);
+  }
+
+  /**
+   * Replaces the rules. Readings being evaluated meanwhile are not held up.
+   *
+   * @param rules the new rules; duplicates are kept once
+   */
+  public synchronized void setRules(Collection<AlertRule> rules) {
+    for (AlertRule rule : rules) {
+      Objects.requireNonNull(rule, "rule");
+    }
+    index = RuleIndex.compile(rules, index);
+  }
+
+  /**
+   * Gets the rules in use.
+   *
+   * @return an unmodifiable list of the rules
+   */
+  public List<AlertRule> getRules() {
+    return index.rules;
+  }
+
+  /**
+   * Gets the metrics that some rule watches, the only ones computed for a reading.
+   *
+   * @return the metrics
+   */
+  public Metric[] getWatchedMetrics() {
+    return index.used.clone();
+  }
+
+  private Station station(int id) {
+    Station station = stations.get(id);
+    if (station == null) {
+      station = stations.computeIfAbsent(id, key -> new Station(key, index.version));
+    }
+    return station;
+  }
+
+  /**
+   * Matches a reading of a station against the rules.
+   *
+   * @param station the id of the station
+   * @param timeMillis the time of the reading, for the alerts
+   * @param reading the reading
+   * @param sink receives the alerts
+   * @return the number of alerts raised
+   */
+  public int evaluate(int station, long timeMillis, WeatherReading reading, AlertSink sink) {
+    Station state = station(station);
+    synchronized (state) {
+      // Read under the lock, so that the readings of a station see the rules in order.
+      RuleIndex rules = index;
+      int[] values = new int[Metric.ALL.length];
+      for (Metric metric : rules.used) {
+        values[metric.ordinal()] = metric.of(reading);
+      }
+      return evaluate(rules, state, timeMillis, values, sink);
+    }
+  }
+
+  /**
+   * Matches readings of one station against the rules, in order. The watched metrics are
+   * computed for the whole batch with its bulk methods.
+   *
+   * @param station the id of the station
+   * @param timesMillis the time of each reading, for the alerts
+   * @param batch the readings
+   * @param sink receives the alerts
+   * @return the number of alerts raised
+   * @throws IllegalArgumentException if there are fewer times than readings
+   */
+  public int evaluate(int station, long[] timesMillis, ReadingBatch batch, AlertSink sink) {
+    int size = batch.size();
+    if (timesMillis.length < size) {
+      throw new IllegalArgumentException(
+          "Expected " + size + " times but found " + timesMillis.length);
+    }
+    Station state = station(station);
+    synchronized (state) {
+      RuleIndex rules = index;
+      int[][] columns = new int[Metric.ALL.length][];
+      for (Metric metric : rules.used) {
+        columns[metric.ordinal()] = new int[size];
+        metric.of(batch, columns[metric.ordinal()]);
+      }
+      int[] values = new int[Metric.ALL.length];
+      int alerts = 0;
+      for (int i = 0; i < size; i++) {
+        for (Metric metric : rules.used) {
+          values[metric.ordinal()] = columns[metric.ordinal()][i];
+        }
+        alerts += evaluate(rules, state, timesMillis[i], values, sink);
+      }
+      return alerts;
+    }
+  }
+
+  /**
+   * Matches the values of the watched metrics of one reading and remembers them.
+   */
+  private static int evaluate(RuleIndex rules, Station state, long timeMillis, int[] values,
+      AlertSink sink) {
+    // The rules new to the station since its last reading do not know its last values.
+    int newSince = state.version < rules.version ? state.version : Integer.MAX_VALUE;
+    int alerts = 0;
+    for (Metric metric : rules.used) {
+      int m = metric.ordinal();
+      boolean seen = state.seen[m];
+      int last = state.last[m];
+      int value = values[m];
+
+      RuleIndex.Thresholds above = rules.above[m];
+      if (above != null) {
+        // Thresholds at or above the last value and below the new one.
+        if (!seen || value > last) {
+          int from = seen ? above.lowerBound(last) : 0;
+          int to = above.lowerBound(value);
+          alerts += fire(above, from, to, state.id, timeMillis, value, sink);
+        }
+        // New rules the last value was already beyond; the crossing was not seen.
+        if (newSince != Integer.MAX_VALUE && seen) {
+          int to = above.lowerBound(Math.min(last, value));
+          alerts += fireNew(above, 0, to, newSince, state.id, timeMillis, value, sink);
+        }
+      }
+
+      RuleIndex.Thresholds below = rules.below[m];
+      if (below != null) {
+        // Thresholds above the new value and at or below the last one.
+        if (!seen || value < last) {
+          int from = below.upperBound(value);
+          int to = seen ? below.upperBound(last) : below.size();
+          alerts += fire(below, from, to, state.id, timeMillis, value, sink);
+        }
+        if (newSince != Integer.MAX_VALUE && seen) {
+          int from = below.upperBound(Math.max(last, value));
+          alerts += fireNew(below, from, below.size(), newSince, state.id, timeMillis, value,
+              sink);
+        }
+      }
+      state.last[m] = value;
+      state.seen[m] = true;
+    }
+    for (Metric metric : rules.unused) {
+      state.seen[metric.ordinal()] = false;
+    }
+    state.version = rules.version;
+    return alerts;
+  }
+
+  private static int fire(RuleIndex.Thresholds thresholds, int from, int to, int station,
+      long timeMillis, int value, AlertSink sink) {
+    for (int i = from; i < to; i++) {
+      sink.alert(new Alert(thresholds.rules[i], station, timeMillis, value));
+    }
+    return Math.max(0, to - from);
+  }
+
+  private static int fireNew(RuleIndex.Thresholds thresholds, int from, int to, int newSince,
+      int station, long timeMillis, int value, AlertSink sink) {
+    int alerts = 0;
+    for (int i = from; i < to; i++) {
+      if (thresholds.since[i] > newSince) {
+        sink.alert(new Alert(thresholds.rules[i], station, timeMillis, value));
+        alerts++;
+      }
+    }
+    return alerts;
+  }
+}
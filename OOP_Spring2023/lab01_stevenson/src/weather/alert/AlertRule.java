@@ -0,0 +1,115 @@
+package weather.alert;
+
+import java.util.Objects;
+
+/**
+ * An immutable threshold on one metric: the value of a reading must be above it, or below it.
+ * A rule fires for a station when a reading of the station crosses its threshold into the
+ * alert range. Rules with the same name, metric, direction and threshold are equal.
+ */
+public final class AlertRule {
+  private final String name;
+  private final Metric metric;
+  private final boolean above;
+  private final int threshold;
+
+  private AlertRule(String name, Metric metric, boolean above, int threshold) {
+    this.name = Objects.requireNonNull(name, "name");
+    this.metric = Objects.requireNonNull(metric, "metric");
+    this.above = above;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Gets a rule that fires when a metric rises above a threshold.
+   *
+   * @param name the name of the rule, for the alerts
+   * @param metric the metric to watch
+   * @param threshold the highest value that does not fire
+   * @return the rule
+   */
+  public static AlertRule above(String name, Metric metric, int threshold) {
+    return new AlertRule(name, metric, true, threshold);
+  }
+
+  /**
+   * Gets a rule that fires when a metric drops below a threshold.
+   *
+   * @param name the name of the rule, for the alerts
+   * @param metric the metric to watch
+   * @param threshold the lowest value that does not fire
+   * @return the rule
+   */
+  public static AlertRule below(String name, Metric metric, int threshold) {
+    return new AlertRule(name, metric, false, threshold);
+  }
+
+  /**
+   * Gets the name of the rule.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the metric the rule watches.
+   *
+   * @return the metric
+   */
+  public Metric getMetric() {
+    return metric;
+  }
+
+  /**
+   * Tells whether the rule fires above its threshold rather than below.
+   *
+   * @return true for an upper limit
+   */
+  public boolean isAbove() {
+    return above;
+  }
+
+  /**
+   * Gets the threshold of the rule.
+   *
+   * @return the threshold
+   */
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Tells whether a value is in the alert range of this rule.
+   *
+   * @param value a value of the metric
+   * @return true if the value is beyond the threshold
+   */
+  public boolean matches(int value) {
+    return above ? value > threshold : value < threshold;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    AlertRule that = (AlertRule) o;
+    return above == that.above && threshold == that.threshold && metric == that.metric
+        && name.equals(that.name);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, metric, above, threshold);
+  }
+
+  @Override
+  public String toString() {
+    return name + ": " + metric + (above ? " > " : " < ") + threshold;
+  }
+}
@@ -0,0 +1,15 @@
+package weather.alert;
+
+/**
+ * Receives the alerts of an {@link AlertEngine}. It is called on the thread that evaluated the
+ * reading, so it should hand slow work to another thread.
+ */
+public interface AlertSink {
+
+  /**
+   * Called once for every alert.
+   *
+   * @param alert the alert
+   */
+  void alert(Alert alert);
+}
@@ -0,0 +1,135 @@
+package weather.alert;
+
+import weather.ReadingBatch;
+import weather.WeatherReading;
+
+/**
+ * A value of a reading that alert rules can watch. The values are the rounded values of the
+ * {@link WeatherReading} methods; the derived ones are computed from the measured ones each time
+ * they are asked for.
+ */
+public enum Metric {
+  /** The air temperature in Celsius. */
+  TEMPERATURE(false) {
+    @Override
+    public int of(WeatherReading reading) {
+      return reading.getTemperature();
+    }
+
+    @Override
+    void of(ReadingBatch batch, int[] out) {
+      for (int i = 0; i < batch.size(); i++) {
+        out[i] = (int) Math.round(batch.airTemp(i));
+      }
+    }
+  },
+  /** The dew point in Celsius. */
+  DEW_POINT(false) {
+    @Override
+    public int of(WeatherReading reading) {
+      return reading.getDewPoint();
+    }
+
+    @Override
+    void of(ReadingBatch batch, int[] out) {
+      for (int i = 0; i < batch.size(); i++) {
+        out[i] = (int) Math.round(batch.dewPoint(i));
+      }
+    }
+  },
+  /** The wind speed in miles per hour. */
+  WIND_SPEED(false) {
+    @Override
+    public int of(WeatherReading reading) {
+      return reading.getWindSpeed();
+    }
+
+    @Override
+    void of(ReadingBatch batch, int[] out) {
+      for (int i = 0; i < batch.size(); i++) {
+        out[i] = (int) Math.round(batch.windSpeed(i));
+      }
+    }
+  },
+  /** The rain received in the last 24 hours. */
+  TOTAL_RAIN(false) {
+    @Override
+    public int of(WeatherReading reading) {
+      return reading.getTotalRain();
+    }
+
+    @Override
+    void of(ReadingBatch batch, int[] out) {
+      for (int i = 0; i < batch.size(); i++) {
+        out[i] = (int) Math.round(batch.rain(i));
+      }
+    }
+  },
+  /** The relative humidity in percent. */
+  RELATIVE_HUMIDITY(true) {
+    @Override
+    public int of(WeatherReading reading) {
+      return reading.getRelativeHumidity();
+    }
+
+    @Override
+    void of(ReadingBatch batch, int[] out) {
+      batch.relativeHumidity(out);
+    }
+  },
+  /** The heat index in Celsius. */
+  HEAT_INDEX(true) {
+    @Override
+    public int of(WeatherReading reading) {
+      return reading.getHeatIndex();
+    }
+
+    @Override
+    void of(ReadingBatch batch, int[] out) {
+      batch.heatIndex(out);
+    }
+  },
+  /** The wind chill in Celsius. */
+  WIND_CHILL(true) {
+    @Override
+    public int of(WeatherReading reading) {
+      return reading.getWindChill();
+    }
+
+    @Override
+    void of(ReadingBatch batch, int[] out) {
+      batch.windChill(out);
+    }
+  };
+
+  static final Metric[] ALL = values();
+
+  private final boolean derived;
+
+  Metric(boolean derived) {
+    this.derived = derived;
+  }
+
+  /**
+   * Tells whether the metric is computed from the measured values of a reading.
+   *
+   * @return true for relative humidity, heat index and wind chill
+   */
+  public boolean isDerived() {
+    return derived;
+  }
+
+  /**
+   * Gets the value of this metric for a reading.
+   *
+   * @param reading the reading
+   * @return the value
+   */
+  public abstract int of(WeatherReading reading);
+
+  /**
+   * Writes the value of this metric for every reading of a batch into {@code out}, with the
+   * bulk methods of the batch for the derived metrics.
+   */
+  abstract void of(ReadingBatch batch, int[] out);
+}
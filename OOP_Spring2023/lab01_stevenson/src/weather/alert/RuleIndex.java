@@ -0,0 +1,141 @@
+package weather.alert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable set of rules compiled for matching: for each metric, the thresholds of its upper
+ * and of its lower limits in ascending order. The rules a change of value crosses are then a
+ * contiguous run of each array, found with two binary searches.
+ *
+ * <p>Each index has a version, one more than the index it replaced, and remembers for every
+ * rule the version it first appeared in, so that stations can tell which rules are new to them.
+ */
+final class RuleIndex {
+  static final RuleIndex EMPTY = compile(Collections.emptyList(), null);
+
+  /**
+   * The thresholds of one metric in one direction, in ascending order, with their rules and
+   * the versions the rules first appeared in.
+   */
+  static final class Thresholds {
+    final int[] values;
+    final AlertRule[] rules;
+    final int[] since;
+
+    Thresholds(List<AlertRule> rules, Map<AlertRule, Integer> since) {
+      rules.sort(Comparator.comparingInt(AlertRule::getThreshold));
+      int size = rules.size();
+      this.values = new int[size];
+      this.rules = rules.toArray(new AlertRule[0]);
+      this.since = new int[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = this.rules[i].getThreshold();
+        this.since[i] = since.get(this.rules[i]);
+      }
+    }
+
+    int size() {
+      return values.length;
+    }
+
+    /**
+     * Gets the index of the first threshold at or above {@code value}.
+     */
+    int lowerBound(int value) {
+      int low = 0;
+      int high = values.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (values[middle] < value) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * Gets the index of the first threshold above {@code value}.
+     */
+    int upperBound(int value) {
+      return value == Integer.MAX_VALUE ? values.length : lowerBound(value + 1);
+    }
+  }
+
+  final int version;
+  final List<AlertRule> rules;
+  /** The metrics that have rules. */
+  final Metric[] used;
+  /** The metrics without rules. */
+  final Metric[] unused;
+  /** The upper limits of each metric, by ordinal; null if it has none. */
+  final Thresholds[] above;
+  /** The lower limits of each metric, by ordinal; null if it has none. */
+  final Thresholds[] below;
+
+  private RuleIndex(int version, List<AlertRule> rules, Thresholds[] above,
+      Thresholds[] below) {
+    this.version = version;
+    this.rules = rules;
+    this.above = above;
+    this.below = below;
+    List<Metric> used = new ArrayList<>();
+    List<Metric> unused = new ArrayList<>();
+    for (Metric metric : Metric.ALL) {
+      boolean hasRules = above[metric.ordinal()] != null || below[metric.ordinal()] != null;
+      (hasRules ? used : unused).add(metric);
+    }
+    this.used = used.toArray(new Metric[0]);
+    this.unused = unused.toArray(new Metric[0]);
+  }
+
+  /**
+   * Compiles rules into a new index. Rules that were in {@code previous} keep the version they
+   * first appeared in; duplicates are kept once.
+   *
+   * @param rules the rules
+   * @param previous the index being replaced, or null for the first one
+   * @return the index
+   */
+  static RuleIndex compile(Collection<AlertRule> rules, RuleIndex previous) {
+    int version = previous == null ? 0 : previous.version + 1;
+    List<AlertRule> distinct = new ArrayList<>(new LinkedHashSet<>(rules));
+
+    Map<AlertRule, Integer> since = new HashMap<>();
+    for (AlertRule rule : distinct) {
+      since.put(rule, version);
+    }
+    if (previous != null) {
+      for (Thresholds[] thresholds : Arrays.asList(previous.above, previous.below)) {
+        for (Thresholds metric : thresholds) {
+          if (metric != null) {
+            for (int i = 0; i < metric.size(); i++) {
+              since.replace(metric.rules[i], metric.since[i]);
+            }
+          }
+        }
+      }
+    }
+
+    Map<Metric, List<AlertRule>> upper = new HashMap<>();
+    Map<Metric, List<AlertRule>> lower = new HashMap<>();
+    for (AlertRule rule : distinct) {
+      (rule.isAbove() ? upper : lower)
+          .computeIfAbsent(rule.getMetric(), metric -> new ArrayList<>()).add(rule);
+    }
+    Thresholds[] above = new Thresholds[Metric.ALL.length];
+    Thresholds[] below = new Thresholds[Metric.ALL.length];
+    upper.forEach((metric, list) -> above[metric.ordinal()] = new Thresholds(list, since));
+    lower.forEach((metric, list) -> below[metric.ordinal()] = new Thresholds(list, since));
+    return new RuleIndex(version, Collections.unmodifiableList(distinct), above, below);
+  }
+}
@@ -0,0 +1,35 @@
+package weather.ingest;
+
+import weather.ReadingBatch;
+
+/**
+ * The readings decoded from one read of a connection or from one datagram, with the time they
+ * arrived.
+ */
+public final class IngestBatch {
+  private final ReadingBatch readings;
+  private final long receivedNanos;
+
+  IngestBatch(ReadingBatch readings, long receivedNanos) {
+    this.readings = readings;
+    this.receivedNanos = receivedNanos;
+  }
+
+  /**
+   * Gets the readings. They belong to the consumer that took the batch.
+   *
+   * @return the readings
+   */
+  public ReadingBatch getReadings() {
+    return readings;
+  }
+
+  /**
+   * Gets the time the bytes of the readings were received.
+   *
+   * @return the value of {@link System#nanoTime()} when they were received
+   */
+  public long getReceivedNanos() {
+    return receivedNanos;
+  }
+}
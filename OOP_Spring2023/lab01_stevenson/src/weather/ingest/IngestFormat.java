@@ -0,0 +1,38 @@
+package weather.ingest;
+
+import weather.io.ReadingStreamDecoder;
+import weather.io.RejectSink;
+
+/**
+ * The formats an {@link IngestServer} accepts.
+ */
+public enum IngestFormat {
+  /**
+   * The records of {@link weather.io.BinaryReadingFormat}, after its header. A connection sends
+   * the header once; a datagram starts with it.
+   */
+  BINARY(32) {
+    @Override
+    ReadingStreamDecoder newDecoder(RejectSink rejects) {
+      return ReadingStreamDecoder.binary(rejects);
+    }
+  },
+  /**
+   * CSV lines of air temperature, dew point, wind speed and rain, without a header.
+   */
+  CSV(16) {
+    @Override
+    ReadingStreamDecoder newDecoder(RejectSink rejects) {
+      return ReadingStreamDecoder.csv(false, rejects);
+    }
+  };
+
+  // The fewest bytes a typical row takes, to size batches so that they rarely grow.
+  final int rowBytes;
+
+  IngestFormat(int rowBytes) {
+    this.rowBytes = rowBytes;
+  }
+
+  abstract ReadingStreamDecoder newDecoder(RejectSink rejects);
+}
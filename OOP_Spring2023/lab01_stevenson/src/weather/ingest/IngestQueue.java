@@ -0,0 +1,246 @@
+package weather.ingest;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import weather.ReadingBatch;
+
+/**
+ * A bounded queue of batches of readings between the threads that receive them and the
+ * consumers that process them. The bound is a number of readings rather than of batches, so
+ * memory stays bounded however the readings were split. When a batch does not fit, the
+ * {@link OverflowPolicy} decides whether the producer waits or readings are dropped. A batch
+ * larger than the whole queue is let in once the queue is empty.
+ *
+ * <p>Consumers take whole batches, one at a time with {@link #take()} or as many as fit in a
+ * number of readings with {@link #drainTo}, and the time each reading waited since it arrived
+ * is counted in the {@link IngestStats} of the queue.
+ *
+ * <p>The queue is guarded by a {@link ReentrantLock} rather than monitors, so a virtual thread
+ * that waits in it does not pin its carrier thread.
+ */
+public final class IngestQueue {
+  private final int capacity;
+  private final OverflowPolicy policy;
+  private final IngestStats stats = new IngestStats();
+  private final ArrayDeque<IngestBatch> batches = new ArrayDeque<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  // The number of readings in the queued batches.
+  private int queued;
+  private boolean closed;
+
+  /**
+   * Constructs an empty queue.
+   *
+   * @param capacity the largest number of readings to hold
+   * @param policy what to do with a batch that does not fit
+   * @throws IllegalArgumentException if {@code capacity} is not positive
+   */
+  public IngestQueue(int capacity, OverflowPolicy policy) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.policy = policy;
+  }
+
+  /**
+   * Gets the counters of the readings that passed through this queue.
+   *
+   * @return the counters
+   */
+  public IngestStats stats() {
+    return stats;
+  }
+
+  /**
+   * Gets the largest number of readings the queue holds.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets the number of readings queued.
+   *
+   * @return the number of readings
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return queued;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean fits(int readings) {
+    return queued == 0 || readings <= capacity - queued;
+  }
+
+  /**
+   * Hands a batch to the consumers, waiting or dropping readings as the policy says when it
+   * does not fit. Empty batches are ignored.
+   *
+   * @param readings the readings; the queue takes ownership of the batch
+   * @param receivedNanos the value of {@link System#nanoTime()} when they were received
+   * @return whether the batch was queued
+   * @throws InterruptedException if the thread was interrupted while it waited
+   */
+  public boolean offer(ReadingBatch readings, long receivedNanos) throws InterruptedException {
+    int size = readings.size();
+    if (size == 0) {
+      return false;
+    }
+    lock.lockInterruptibly();
+    try {
+      if (closed) {
+        return false;
+      }
+      stats.received(size);
+      if (!fits(size)) {
+        switch (policy) {
+          case BLOCK:
+            try {
+              while (!closed && !fits(size)) {
+                notFull.await();
+              }
+            } catch (InterruptedException e) {
+              stats.dropped(size);
+              throw e;
+            }
+            if (closed) {
+              stats.dropped(size);
+              return false;
+            }
+            break;
+          case DROP_NEWEST:
+            stats.dropped(size);
+            return false;
+          case DROP_OLDEST:
+            while (!fits(size)) {
+              int oldest = batches.poll().getReadings().size();
+              queued -= oldest;
+              stats.dropped(oldest);
+            }
+            break;
+          default:
+            throw new AssertionError(policy);
+        }
+      }
+      batches.add(new IngestBatch(readings, receivedNanos));
+      queued += size;
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private IngestBatch remove(long now) {
+    IngestBatch batch = batches.poll();
+    int size = batch.getReadings().size();
+    queued -= size;
+    stats.delivered(size, now - batch.getReceivedNanos());
+    notFull.signalAll();
+    return batch;
+  }
+
+  /**
+   * Takes the oldest batch, waiting until there is one.
+   *
+   * @return the batch, or null once the queue is closed and empty
+   * @throws InterruptedException if the thread was interrupted while it waited
+   */
+  public IngestBatch take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (batches.isEmpty()) {
+        if (closed) {
+          return null;
+        }
+        notEmpty.await();
+      }
+      return remove(System.nanoTime());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes the oldest batch, waiting at most a given time until there is one.
+   *
+   * @param timeout how long to wait
+   * @param unit the unit of {@code timeout}
+   * @return the batch, or null if there was none in time or the queue is closed and empty
+   * @throws InterruptedException if the thread was interrupted while it waited
+   */
+  public IngestBatch poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (batches.isEmpty()) {
+        if (closed || nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return remove(System.nanoTime());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes the oldest batches whose readings add up to at most {@code maxReadings}, waiting
+   * until there is a batch. The oldest batch is always taken, even if it is larger.
+   *
+   * @param out the list to add the batches to
+   * @param maxReadings the number of readings to take at most
+   * @return the number of readings taken, zero once the queue is closed and empty
+   * @throws InterruptedException if the thread was interrupted while it waited
+   */
+  public int drainTo(List<? super IngestBatch> out, int maxReadings)
+      throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (batches.isEmpty()) {
+        if (closed) {
+          return 0;
+        }
+        notEmpty.await();
+      }
+      long now = System.nanoTime();
+      int taken = 0;
+      do {
+        IngestBatch batch = remove(now);
+        out.add(batch);
+        taken += batch.getReadings().size();
+      } while (!batches.isEmpty() && batches.peek().getReadings().size() <= maxReadings - taken);
+      return taken;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the queue. Batches offered afterwards are refused, producers that wait give up, and
+   * consumers take the batches left before they are told the queue is empty.
+   */
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signalAll();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,251 @@
+package weather.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.NetworkChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import weather.ReadingBatch;
+import weather.io.ReadingStreamDecoder;
+import weather.io.RejectSink;
+
+/**
+ * Receives readings over TCP or UDP and hands them to an {@link IngestQueue}.
+ *
+ * <p>Over TCP each connection is served by its own thread, which reads the socket in blocking
+ * mode into a direct buffer and decodes the whole readings of every read into one batch for
+ * the queue. Under load a read fills the buffer and a batch holds thousands of readings; when
+ * readings trickle in a batch holds what arrived, so nothing waits for a batch to fill. Over
+ * UDP one thread receives the datagrams, each a stream of its own.
+ *
+ * <p>Threads are virtual where the JDK has them (Java 21 and later), so connections are cheap
+ * and a thread blocked in a read or in the queue costs no platform thread; otherwise each
+ * connection gets a platform thread. Backpressure comes from the queue: with
+ * {@link OverflowPolicy#BLOCK} a connection whose batch does not fit stops reading, and TCP
+ * flow control slows its sender down.
+ *
+ * <p>Rows that are not valid readings are counted in the {@link IngestStats} of the queue and
+ * skipped. A connection whose stream is not in the expected format is closed.
+ */
+public final class IngestServer implements Closeable {
+  static final int BUFFER_BYTES = 64 << 10;
+
+  private final NetworkChannel channel;
+  private final InetSocketAddress address;
+  private final IngestFormat format;
+  private final IngestQueue queue;
+  private final RejectSink rejects;
+  private final ExecutorService executor = newThreadPerTaskExecutor();
+  private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+  private volatile boolean closed;
+
+  private IngestServer(NetworkChannel channel, IngestFormat format, IngestQueue queue)
+      throws IOException {
+    this.channel = channel;
+    this.address = (InetSocketAddress) channel.getLocalAddress();
+    this.format = format;
+    this.queue = queue;
+    IngestStats stats = queue.stats();
+    this.rejects = (row, reason) -> stats.rejected();
+  }
+
+  /**
+   * Starts a server that accepts TCP connections.
+   *
+   * @param address the address to listen on; port 0 picks a free port
+   * @param format the format of the streams
+   * @param queue the queue to hand the readings to
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   */
+  public static IngestServer tcp(InetSocketAddress address, IngestFormat format,
+      IngestQueue queue) throws IOException {
+    ServerSocketChannel channel = ServerSocketChannel.open();
+    try {
+      channel.bind(address);
+      IngestServer server = new IngestServer(channel, format, queue);
+      server.executor.execute(() -> server.accept(channel));
+      return server;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Starts a server that receives UDP datagrams, each holding whole readings.
+   *
+   * @param address the address to listen on; port 0 picks a free port
+   * @param format the format of the datagrams
+   * @param queue the queue to hand the readings to
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   */
+  public static IngestServer udp(InetSocketAddress address, IngestFormat format,
+      IngestQueue queue) throws IOException {
+    DatagramChannel channel = DatagramChannel.open();
+    try {
+      channel.bind(address);
+      IngestServer server = new IngestServer(channel, format, queue);
+      server.executor.execute(() -> server.receive(channel));
+      return server;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets an executor that runs each task in a new virtual thread where the JDK has them, and
+   * in a new or idle daemon platform thread otherwise.
+   */
+  static ExecutorService newThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "weather-ingest");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * Gets the address the server listens on.
+   *
+   * @return the address, with the port picked if port 0 was asked for
+   */
+  public InetSocketAddress getAddress() {
+    return address;
+  }
+
+  private void accept(ServerSocketChannel server) {
+    while (!closed) {
+      SocketChannel connection;
+      try {
+        connection = server.accept();
+      } catch (IOException e) {
+        // Closed.
+        return;
+      }
+      connections.add(connection);
+      try {
+        if (closed) {
+          throw new RejectedExecutionException();
+        }
+        executor.execute(() -> serve(connection));
+      } catch (RejectedExecutionException e) {
+        closeQuietly(connection);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Gets a batch large enough for the rows in a buffer, unless they are unusually short.
+   */
+  private ReadingBatch newBatch(ByteBuffer buffer) {
+    return new ReadingBatch(Math.max(16, buffer.remaining() / format.rowBytes));
+  }
+
+  private void serve(SocketChannel connection) {
+    queue.stats().connectionOpened();
+    ReadingStreamDecoder decoder = format.newDecoder(rejects);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    try {
+      while (true) {
+        int read = connection.read(buffer);
+        long now = System.nanoTime();
+        buffer.flip();
+        ReadingBatch batch = newBatch(buffer);
+        if (read < 0) {
+          decoder.finish(buffer, batch);
+          queue.offer(batch, now);
+          return;
+        }
+        decoder.decode(buffer, batch);
+        buffer.compact();
+        queue.offer(batch, now);
+      }
+    } catch (IOException e) {
+      // Closed by either side, or not in the format; the readings so far were queued.
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      connections.remove(connection);
+      closeQuietly(connection);
+    }
+  }
+
+  private void receive(DatagramChannel datagrams) {
+    ReadingStreamDecoder decoder = format.newDecoder(rejects);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    while (!closed) {
+      buffer.clear();
+      try {
+        datagrams.receive(buffer);
+      } catch (IOException e) {
+        // Closed.
+        return;
+      }
+      long now = System.nanoTime();
+      buffer.flip();
+      ReadingBatch batch = newBatch(buffer);
+      try {
+        decoder.finish(buffer, batch);
+      } catch (IOException e) {
+        // Not in the format; nothing was decoded.
+      }
+      try {
+        queue.offer(batch, now);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      // Nothing left to do with it.
+    }
+  }
+
+  /**
+   * Stops the server: stops listening, closes the connections and waits for their threads to
+   * end. Threads waiting in a queue with {@link OverflowPolicy#BLOCK} are interrupted and their
+   * batches dropped. The queue is left open for its consumers.
+   *
+   * @throws IOException if the listening channel cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    try {
+      channel.close();
+    } finally {
+      for (SocketChannel connection : connections) {
+        closeQuietly(connection);
+      }
+      executor.shutdownNow();
+      try {
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package weather.ingest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the readings that pass through an {@link IngestQueue} and the servers that feed it,
+ * and keeps the distribution of ingest latency: the time from the arrival of a reading's bytes
+ * until a consumer takes it from the queue.
+ *
+ * <p>Latencies are counted in log-linear buckets, 16 for each power of two of nanoseconds, so a
+ * percentile is at most 1/16 above the true value and memory is fixed however many readings
+ * are counted. All methods are safe to call from any thread; values read while readings are
+ * counted may or may not include them.
+ */
+public final class IngestStats {
+  private static final int SUB_BITS = 4;
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+  // Values below this have a bucket each.
+  private static final int LINEAR = 2 * SUB_COUNT;
+  static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+  private final LongAdder connections = new LongAdder();
+  private final LongAdder received = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder delivered = new LongAdder();
+  private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+  private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+  IngestStats() {
+  }
+
+  static int bucket(long nanos) {
+    if (nanos < LINEAR) {
+      return (int) nanos;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+    return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+  }
+
+  /**
+   * Gets the largest value that falls in a bucket.
+   */
+  static long bucketMax(int bucket) {
+    if (bucket < LINEAR) {
+      return bucket;
+    }
+    int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+    long lowest = (long) (SUB_COUNT + bucket % SUB_COUNT) << (exponent - SUB_BITS);
+    return lowest + (1L << (exponent - SUB_BITS)) - 1;
+  }
+
+  void connectionOpened() {
+    connections.increment();
+  }
+
+  void received(int readings) {
+    received.add(readings);
+  }
+
+  void rejected() {
+    rejected.increment();
+  }
+
+  void dropped(int readings) {
+    dropped.add(readings);
+  }
+
+  void delivered(int readings, long latencyNanos) {
+    long nanos = Math.max(0, latencyNanos);
+    maxLatency.accumulate(nanos);
+    latencies.addAndGet(bucket(nanos), readings);
+    delivered.add(readings);
+  }
+
+  /**
+   * Gets the number of connections accepted.
+   *
+   * @return the number of connections
+   */
+  public long getConnections() {
+    return connections.sum();
+  }
+
+  /**
+   * Gets the number of valid readings offered to the queue before it was closed.
+   *
+   * @return the number of readings received
+   */
+  public long getReceived() {
+    return received.sum();
+  }
+
+  /**
+   * Gets the number of rows that were not valid readings.
+   *
+   * @return the number of rows rejected
+   */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * Gets the number of readings dropped because the queue was full, or was closed or the
+   * producer was interrupted while it waited.
+   *
+   * @return the number of readings dropped
+   */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * Gets the number of readings taken by consumers.
+   *
+   * @return the number of readings delivered
+   */
+  public long getDelivered() {
+    return delivered.sum();
+  }
+
+  /**
+   * Gets the lowest latency that at least a given share of the delivered readings did not
+   * exceed, rounded up to the end of its bucket.
+   *
+   * @param percentile the share of the readings, from 0 to 100
+   * @return the latency in nanoseconds, zero if no readings were delivered
+   * @throws IllegalArgumentException if the percentile is not from 0 to 100
+   */
+  public long getLatencyPercentile(double percentile) {
+    int bucket = percentileBucket(latencyCounts(), percentile);
+    return bucket < 0 ? 0 : Math.min(bucketMax(bucket), maxLatency.get());
+  }
+
+  /**
+   * Gets a copy of the number of delivered readings in each latency bucket, so that the
+   * latencies of an interval are the difference of two copies.
+   */
+  long[] latencyCounts() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = latencies.get(i);
+    }
+    return counts;
+  }
+
+  /**
+   * Gets the bucket of a percentile of latency counts.
+   *
+   * @return the bucket, or -1 if the counts are all zero
+   * @throws IllegalArgumentException if the percentile is not from 0 to 100
+   */
+  static int percentileBucket(long[] counts, double percentile) {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("Percentile must be from 0 to 100: " + percentile);
+    }
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    if (total == 0) {
+      return -1;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * (percentile / 100)));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return i;
+      }
+    }
+    return counts.length - 1;
+  }
+
+  /**
+   * Gets the highest latency of a delivered reading.
+   *
+   * @return the latency in nanoseconds, zero if no readings were delivered
+   */
+  public long getMaxLatency() {
+    return maxLatency.get();
+  }
+
+  @Override
+  public String toString() {
+    return "Ingest: connections = " + getConnections()
+        + ", received = " + getReceived()
+        + ", rejected = " + getRejected()
+        + ", dropped = " + getDropped()
+        + ", delivered = " + getDelivered()
+        + ", p99 latency = " + getLatencyPercentile(99) + " ns";
+  }
+}
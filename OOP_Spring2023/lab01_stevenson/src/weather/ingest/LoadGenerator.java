@@ -0,0 +1,268 @@
+package weather.ingest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import weather.io.BinaryReadingFormat;
+
+/**
+ * Sends readings to an {@link IngestServer} over TCP from threads of this process, as fast as
+ * the server takes them, to measure the throughput and latency it sustains. Each connection
+ * sends one block of random valid readings over and over; the blocks are encoded once, when the
+ * generator is constructed, so the cost measured by each run is that of the server and the
+ * queue.
+ */
+public final class LoadGenerator {
+  static final int BLOCK_READINGS = 1024;
+
+  private final InetSocketAddress address;
+  private final IngestFormat format;
+  private final int connections;
+  private final long readingsPerConnection;
+  private final List<ByteBuffer> blocks = new ArrayList<>();
+  private final List<int[]> rowEnds = new ArrayList<>();
+
+  /**
+   * Constructs a generator.
+   *
+   * @param address the address of the server
+   * @param format the format the server expects
+   * @param connections the number of connections to send on at once
+   * @param readingsPerConnection the number of readings to send on each connection
+   * @throws IllegalArgumentException if {@code connections} is not positive or
+   *     {@code readingsPerConnection} is negative
+   */
+  public LoadGenerator(InetSocketAddress address, IngestFormat format, int connections,
+      long readingsPerConnection) {
+    if (connections <= 0) {
+      throw new IllegalArgumentException("Connections must be positive: " + connections);
+    }
+    if (readingsPerConnection < 0) {
+      throw new IllegalArgumentException("Negative readings are not supported");
+    }
+    this.address = address;
+    this.format = format;
+    this.connections = connections;
+    this.readingsPerConnection = readingsPerConnection;
+    for (int i = 0; i < connections; i++) {
+      int[] ends = new int[BLOCK_READINGS];
+      blocks.add(encodeBlock(new Random(42 + i), ends));
+      rowEnds.add(ends);
+    }
+  }
+
+  /**
+   * Sends the readings and waits until the queue behind the server has delivered or dropped
+   * them all, or until a timeout. A generator can be run any number of times.
+   *
+   * @param stats the counters of the queue the server feeds; its consumers must keep taking
+   * @param timeout how long to wait at most
+   * @param unit the unit of {@code timeout}
+   * @return what was sent and what became of it
+   * @throws IOException if a connection fails
+   * @throws InterruptedException if the thread was interrupted while it waited
+   */
+  public Report run(IngestStats stats, long timeout, TimeUnit unit)
+      throws IOException, InterruptedException {
+    // The stats count every run on the queue; the report is about this one.
+    long deliveredBefore = stats.getDelivered();
+    long droppedBefore = stats.getDropped();
+    long[] latenciesBefore = stats.latencyCounts();
+    long sent = (long) connections * readingsPerConnection;
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+    long start = System.nanoTime();
+    ExecutorService executor = IngestServer.newThreadPerTaskExecutor();
+    try {
+      List<Future<?>> sends = new ArrayList<>();
+      for (int i = 0; i < connections; i++) {
+        ByteBuffer block = blocks.get(i);
+        int[] ends = rowEnds.get(i);
+        sends.add(executor.submit(() -> {
+          send(block, ends);
+          return null;
+        }));
+      }
+      for (Future<?> send : sends) {
+        send.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    long delivered;
+    long dropped;
+    while (true) {
+      dropped = stats.getDropped() - droppedBefore;
+      delivered = stats.getDelivered() - deliveredBefore;
+      if (delivered + dropped >= sent || System.nanoTime() >= deadline) {
+        break;
+      }
+      TimeUnit.MILLISECONDS.sleep(1);
+    }
+    long elapsed = System.nanoTime() - start;
+    long[] latencies = stats.latencyCounts();
+    for (int i = 0; i < latencies.length; i++) {
+      latencies[i] -= latenciesBefore[i];
+    }
+    int p99 = IngestStats.percentileBucket(latencies, 99);
+    return new Report(sent, delivered, dropped, elapsed,
+        p99 < 0 ? 0 : IngestStats.bucketMax(p99));
+  }
+
+  /**
+   * Encodes a block of readings, recording where each row ends.
+   */
+  private ByteBuffer encodeBlock(Random random, int[] ends) {
+    StringBuilder csv = new StringBuilder();
+    ByteBuffer binary = ByteBuffer.allocate(BLOCK_READINGS * BinaryReadingFormat.RECORD_BYTES)
+        .order(BinaryReadingFormat.ORDER);
+    for (int i = 0; i < BLOCK_READINGS; i++) {
+      int air = random.nextInt(800) - 300;
+      int dew = air - random.nextInt(200);
+      int wind = random.nextInt(600);
+      int rain = random.nextInt(500);
+      if (format == IngestFormat.CSV) {
+        csv.append(String.format(Locale.ROOT, "%.1f,%.1f,%.1f,%.1f\n",
+            air / 10.0, dew / 10.0, wind / 10.0, rain / 10.0));
+        ends[i] = csv.length();
+      } else {
+        binary.putDouble(air / 10.0).putDouble(dew / 10.0).putDouble(wind / 10.0)
+            .putDouble(rain / 10.0);
+        ends[i] = binary.position();
+      }
+    }
+    if (format == IngestFormat.CSV) {
+      return ByteBuffer.wrap(csv.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+    return binary.flip();
+  }
+
+  private void send(ByteBuffer block, int[] ends) throws IOException {
+    try (SocketChannel channel = SocketChannel.open(address)) {
+      if (format == IngestFormat.BINARY) {
+        ByteBuffer header = ByteBuffer.allocate(BinaryReadingFormat.HEADER_BYTES);
+        BinaryReadingFormat.writeHeader(header);
+        write(channel, header.flip());
+      }
+      ByteBuffer view = block.duplicate();
+      for (long left = readingsPerConnection; left > 0; left -= BLOCK_READINGS) {
+        int rows = (int) Math.min(left, BLOCK_READINGS);
+        view.limit(ends[rows - 1]).position(0);
+        write(channel, view);
+      }
+    }
+  }
+
+  private static void write(SocketChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * What a run of the generator sent and what became of it. Readings that other runs or
+   * producers put through the same queue meanwhile are counted too.
+   */
+  public static final class Report {
+    private final long sent;
+    private final long delivered;
+    private final long dropped;
+    private final long elapsedNanos;
+    private final long p99LatencyNanos;
+
+    Report(long sent, long delivered, long dropped, long elapsedNanos, long p99LatencyNanos) {
+      this.sent = sent;
+      this.delivered = delivered;
+      this.dropped = dropped;
+      this.elapsedNanos = elapsedNanos;
+      this.p99LatencyNanos = p99LatencyNanos;
+    }
+
+    /**
+     * Gets the number of readings sent.
+     *
+     * @return the number of readings
+     */
+    public long getSent() {
+      return sent;
+    }
+
+    /**
+     * Gets the number of readings taken by consumers during the run.
+     *
+     * @return the number of readings
+     */
+    public long getDelivered() {
+      return delivered;
+    }
+
+    /**
+     * Gets the number of readings the queue dropped during the run.
+     *
+     * @return the number of readings
+     */
+    public long getDropped() {
+      return dropped;
+    }
+
+    /**
+     * Gets the number of readings delivered or dropped before the run ended. It is less than
+     * the number sent if the run timed out.
+     *
+     * @return the number of readings
+     */
+    public long getSettled() {
+      return delivered + dropped;
+    }
+
+    /**
+     * Gets the time from the first send until the last reading was delivered or dropped.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Gets the sustained rate at which readings were delivered. Dropped readings do not count.
+     *
+     * @return the readings per second
+     */
+    public double getReadingsPerSecond() {
+      return delivered * 1e9 / Math.max(1, elapsedNanos);
+    }
+
+    /**
+     * Gets the 99th percentile of the ingest latency of the readings delivered during the
+     * run, rounded up to the end of its bucket.
+     *
+     * @return the latency in nanoseconds, zero if none were delivered
+     */
+    public long getP99LatencyNanos() {
+      return p99LatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.ROOT, "Load: sent = %d, delivered = %d, dropped = %d,"
+          + " %.0f readings/s, p99 latency = %d us", sent, delivered, dropped,
+          getReadingsPerSecond(), p99LatencyNanos / 1000);
+    }
+  }
+}
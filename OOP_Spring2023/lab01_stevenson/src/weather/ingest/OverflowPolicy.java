@@ -0,0 +1,22 @@
+package weather.ingest;
+
+/**
+ * What an {@link IngestQueue} does with a batch that does not fit.
+ */
+public enum OverflowPolicy {
+  /**
+   * The producer waits until the batch fits. A connection that waits stops reading its socket,
+   * so TCP flow control slows the sender down; datagrams that arrive meanwhile are dropped by
+   * the operating system once its receive buffer is full.
+   */
+  BLOCK,
+  /**
+   * The batch offered is dropped, keeping the readings already queued.
+   */
+  DROP_NEWEST,
+  /**
+   * The oldest queued batches are dropped until the batch offered fits, keeping the freshest
+   * readings.
+   */
+  DROP_OLDEST
+}
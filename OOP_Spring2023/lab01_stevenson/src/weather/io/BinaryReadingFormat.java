@@ -0,0 +1,229 @@
+package weather.io;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+
+/**
+ * The fixed-width binary format of station dumps. A file is an 8 byte header followed by one
+ * 32 byte record per reading:
+ *
+ * <ul>
+ * <li>header: the magic number {@code WXRD}, a 2 byte version and 2 reserved bytes.
+ * <li>record: air temperature, dew point, wind speed and rain as 8 byte doubles.
+ * </ul>
+ *
+ * <p>Every value is little-endian, the native order of the machines that ingest the dumps.
+ * Records hold the exact values of a reading, unlike {@code toString()}, which rounds them.
+ *
+ * <p>The encode and decode methods work on records directly in a caller's {@link ByteBuffer},
+ * whatever its byte order, starting at its position and advancing it. Streams of records that
+ * leave the process should be preceded by the header so that the reader can check the version.
+ */
+public final class BinaryReadingFormat {
+  /** The first four bytes of every file, "WXRD" in ASCII. */
+  public static final int MAGIC = 0x57585244;
+  /** The version written by this class. */
+  public static final short VERSION = 1;
+  /** The length of the header in bytes. */
+  public static final int HEADER_BYTES = 8;
+  /** The length of a record in bytes. */
+  public static final int RECORD_BYTES = 32;
+  /** The byte order of the header and the records. */
+  public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  private BinaryReadingFormat() {
+  }
+
+  /**
+   * Writes the header into {@code out} at its position.
+   *
+   * @param out the destination, with at least {@link #HEADER_BYTES} remaining
+   */
+  public static void writeHeader(ByteBuffer out) {
+    ByteOrder order = out.order();
+    out.order(ORDER).putInt(MAGIC).putShort(VERSION).putShort((short) 0).order(order);
+  }
+
+  /**
+   * Reads and checks the header at the position of {@code in}.
+   *
+   * @param in the source, with at least {@link #HEADER_BYTES} remaining
+   * @throws IOException if the header is not one this class can read
+   */
+  public static void readHeader(ByteBuffer in) throws IOException {
+    if (in.remaining() < HEADER_BYTES) {
+      throw new IOException("Missing header of binary readings");
+    }
+    ByteOrder order = in.order();
+    in.order(ORDER);
+    int magic = in.getInt();
+    short version = in.getShort();
+    in.getShort();
+    in.order(order);
+    if (magic != MAGIC) {
+      throw new IOException("Not a file of binary readings");
+    }
+    if (version != VERSION) {
+      throw new IOException("Unsupported version of binary readings: " + version);
+    }
+  }
+
+  /**
+   * Writes a reading as one record.
+   *
+   * @param reading the reading to write
+   * @param out the destination
+   * @throws BufferOverflowException if fewer than {@link #RECORD_BYTES} bytes remain
+   */
+  public static void encode(StevensonReading reading, ByteBuffer out) {
+    if (out.remaining() < RECORD_BYTES) {
+      throw new BufferOverflowException();
+    }
+    putDouble(out, reading.getAirTempCelcius());
+    putDouble(out, reading.getDewPointCelcius());
+    putDouble(out, reading.getWindSpeedMph());
+    putDouble(out, reading.getTotalRainReceived());
+  }
+
+  /**
+   * Reads one record as a reading.
+   *
+   * @param in the source
+   * @return the reading
+   * @throws BufferUnderflowException if fewer than {@link #RECORD_BYTES} bytes remain
+   * @throws IllegalArgumentException if the record is not a valid reading
+   */
+  public static StevensonReading decode(ByteBuffer in) {
+    if (in.remaining() < RECORD_BYTES) {
+      throw new BufferUnderflowException();
+    }
+    return new StevensonReading(getDouble(in), getDouble(in), getDouble(in), getDouble(in));
+  }
+
+  /**
+   * Writes readings as consecutive records. Nothing is written unless they all fit.
+   *
+   * @param readings the readings to write
+   * @param out the destination
+   * @throws BufferOverflowException if the records do not fit
+   */
+  public static void encode(StevensonReading[] readings, ByteBuffer out) {
+    if (out.remaining() / RECORD_BYTES < readings.length) {
+      throw new BufferOverflowException();
+    }
+    for (StevensonReading reading : readings) {
+      encode(reading, out);
+    }
+  }
+
+  /**
+   * Reads consecutive records as readings.
+   *
+   * @param in the source
+   * @param count the number of records to read
+   * @return the readings
+   * @throws BufferUnderflowException if fewer than {@code count} records remain
+   * @throws IllegalArgumentException if a record is not a valid reading
+   */
+  public static StevensonReading[] decode(ByteBuffer in, int count) {
+    if (in.remaining() / RECORD_BYTES < count) {
+      throw new BufferUnderflowException();
+    }
+    StevensonReading[] readings = new StevensonReading[count];
+    for (int i = 0; i < count; i++) {
+      readings[i] = decode(in);
+    }
+    return readings;
+  }
+
+  /**
+   * Writes the readings of a batch as consecutive records. Nothing is written unless they all
+   * fit.
+   *
+   * @param batch the readings to write
+   * @param out the destination
+   * @throws BufferOverflowException if the records do not fit
+   */
+  public static void encode(ReadingBatch batch, ByteBuffer out) {
+    if (out.remaining() / RECORD_BYTES < batch.size()) {
+      throw new BufferOverflowException();
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      putDouble(out, batch.airTemp(i));
+      putDouble(out, batch.dewPoint(i));
+      putDouble(out, batch.windSpeed(i));
+      putDouble(out, batch.rain(i));
+    }
+  }
+
+  /**
+   * Appends every whole record remaining in {@code in} to a batch. Bytes after the last whole
+   * record are left in the buffer.
+   *
+   * @param in the source
+   * @param batch the batch to append to
+   * @return the number of readings appended
+   * @throws IllegalArgumentException if a record is not a valid reading; the records before it
+   *     have been appended
+   */
+  public static int decodeInto(ByteBuffer in, ReadingBatch batch) {
+    int count = in.remaining() / RECORD_BYTES;
+    for (int i = 0; i < count; i++) {
+      batch.add(getDouble(in), getDouble(in), getDouble(in), getDouble(in));
+    }
+    return count;
+  }
+
+  /**
+   * Writes the readings of a batch to a file, replacing its contents.
+   *
+   * @param file the file to write
+   * @param batch the readings to write
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Path file, ReadingBatch batch) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_BYTES * 1024).order(ORDER);
+      writeHeader(buffer);
+      for (int i = 0; i < batch.size(); i++) {
+        if (buffer.remaining() < RECORD_BYTES) {
+          drain(channel, buffer);
+        }
+        putDouble(buffer, batch.airTemp(i));
+        putDouble(buffer, batch.dewPoint(i));
+        putDouble(buffer, batch.windSpeed(i));
+        putDouble(buffer, batch.rain(i));
+      }
+      drain(channel, buffer);
+    }
+  }
+
+  // The byte order of the caller's buffer is left alone; values are swapped when it differs.
+
+  private static void putDouble(ByteBuffer out, double value) {
+    long bits = Double.doubleToRawLongBits(value);
+    out.putLong(out.order() == ORDER ? bits : Long.reverseBytes(bits));
+  }
+
+  private static double getDouble(ByteBuffer in) {
+    long bits = in.getLong();
+    return Double.longBitsToDouble(in.order() == ORDER ? bits : Long.reverseBytes(bits));
+  }
+
+  private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
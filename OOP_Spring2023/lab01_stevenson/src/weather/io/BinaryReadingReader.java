@@ -0,0 +1,56 @@
+package weather.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads dumps in the format of {@link BinaryReadingFormat}. Windows always hold whole records.
+ */
+final class BinaryReadingReader extends ReadingFileReader {
+  private static final int RECORD = BinaryReadingFormat.RECORD_BYTES;
+
+  private long record = -1;
+
+  BinaryReadingReader(Path file, RejectSink rejects, int windowSize) throws IOException {
+    super(file, rejects, Math.max(RECORD, windowSize / RECORD * RECORD));
+    try {
+      BinaryReadingFormat.readHeader(window);
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+    map(BinaryReadingFormat.HEADER_BYTES);
+  }
+
+  @Override
+  boolean advance() {
+    while (true) {
+      int position = window.position();
+      int remaining = window.limit() - position;
+      if (remaining < RECORD) {
+        if (!atLastWindow()) {
+          map(windowStart + position);
+          continue;
+        }
+        if (remaining > 0) {
+          window.position(window.limit());
+          reject(record + 1, "Truncated record of " + remaining + " bytes");
+        }
+        return false;
+      }
+
+      record++;
+      airTemp = window.getDouble(position);
+      dewPoint = window.getDouble(position + 8);
+      windSpeed = window.getDouble(position + 16);
+      rain = window.getDouble(position + 24);
+      window.position(position + RECORD);
+      return true;
+    }
+  }
+
+  @Override
+  long row() {
+    return record;
+  }
+}
@@ -0,0 +1,143 @@
+package weather.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses one CSV line of a reading, air temperature, dew point, wind speed and rain, straight
+ * from the bytes of a buffer. Only numbers the fast path cannot handle exactly (exponents, more
+ * than 15 digits) are copied into a {@code String} for {@link Double#parseDouble(String)}.
+ *
+ * <p>A parser is not thread-safe; it keeps the fields of the last line it parsed.
+ */
+final class CsvLineParser {
+  static final int FIELDS = 4;
+  private static final int FAST_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+  /** The fields of the last line that parsed. */
+  final double[] fields = new double[FIELDS];
+  // Set by parseField when a field is not a number.
+  private boolean malformed;
+
+  /**
+   * Parses the fields of the line between {@code start} and {@code end} of {@code buffer}
+   * (absolute indexes, without the line terminator) into {@link #fields}.
+   *
+   * @return null if the line parsed, otherwise why it did not
+   */
+  String parse(ByteBuffer buffer, int start, int end) {
+    int field = 0;
+    int from = start;
+    for (int i = start; i <= end; i++) {
+      if (i == end || buffer.get(i) == ',') {
+        if (field == FIELDS) {
+          return "More than " + FIELDS + " fields";
+        }
+        malformed = false;
+        fields[field] = parseField(buffer, from, i);
+        if (malformed) {
+          return "Field " + (field + 1) + " is not a number";
+        }
+        field++;
+        from = i + 1;
+      }
+    }
+    if (field < FIELDS) {
+      return "Expected " + FIELDS + " fields but found " + field;
+    }
+    return null;
+  }
+
+  /**
+   * Parses a decimal number. With at most 15 digits both the digits and the power of ten are
+   * exact doubles, so one division gives the correctly rounded result, the same as
+   * {@link Double#parseDouble(String)}.
+   */
+  private double parseField(ByteBuffer buffer, int from, int to) {
+    while (from < to && isSpace(buffer.get(from))) {
+      from++;
+    }
+    while (to > from && isSpace(buffer.get(to - 1))) {
+      to--;
+    }
+    int i = from;
+    boolean negative = false;
+    if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+      negative = buffer.get(i) == '-';
+      i++;
+    }
+    long digits = 0;
+    int digitCount = 0;
+    int fractionDigits = 0;
+    boolean point = false;
+    for (; i < to; i++) {
+      byte b = buffer.get(i);
+      if (b >= '0' && b <= '9') {
+        if (digitCount == FAST_DIGITS) {
+          return parseSlowly(buffer, from, to);
+        }
+        digits = digits * 10 + (b - '0');
+        digitCount++;
+        if (point) {
+          fractionDigits++;
+        }
+      } else if (b == '.' && !point) {
+        point = true;
+      } else {
+        return parseSlowly(buffer, from, to);
+      }
+    }
+    if (digitCount == 0) {
+      malformed = true;
+      return 0;
+    }
+    double value = digits / POWERS_OF_TEN[fractionDigits];
+    return negative ? -value : value;
+  }
+
+  private double parseSlowly(ByteBuffer buffer, int from, int to) {
+    byte[] bytes = new byte[to - from];
+    for (int i = from; i < to; i++) {
+      bytes[i - from] = buffer.get(i);
+    }
+    try {
+      return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+    } catch (NumberFormatException e) {
+      malformed = true;
+      return 0;
+    }
+  }
+
+  /**
+   * Finds the first newline between {@code from} and {@code to} of {@code buffer}.
+   *
+   * @return its index, or -1 if there is none
+   */
+  static int indexOfNewline(ByteBuffer buffer, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (buffer.get(i) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Tells whether the bytes between {@code from} and {@code to} of {@code buffer} are all
+   * spaces or tabs.
+   */
+  static boolean isBlank(ByteBuffer buffer, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (!isSpace(buffer.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSpace(byte b) {
+    return b == ' ' || b == '\t';
+  }
+}
@@ -0,0 +1,91 @@
+package weather.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads CSV dumps with one reading per line: air temperature, dew point, wind speed and rain.
+ * Lines are parsed straight from the mapped bytes by a {@link CsvLineParser}. Blank lines are
+ * skipped.
+ */
+final class CsvReadingReader extends ReadingFileReader {
+  private final boolean header;
+  private final CsvLineParser parser = new CsvLineParser();
+  private long line;
+  // Set while skipping the rest of a line that did not fit in a window.
+  private boolean skipping;
+
+  CsvReadingReader(Path file, boolean header, RejectSink rejects, int windowSize)
+      throws IOException {
+    super(file, rejects, windowSize);
+    this.header = header;
+  }
+
+  @Override
+  boolean advance() {
+    while (true) {
+      int start = window.position();
+      int limit = window.limit();
+      if (start >= limit) {
+        if (atLastWindow()) {
+          return false;
+        }
+        map(windowStart + start);
+        continue;
+      }
+
+      int end = CsvLineParser.indexOfNewline(window, start, limit);
+      if (end < 0 && !atLastWindow()) {
+        if (start > 0) {
+          // Map again from the start of the line so that it is whole.
+          map(windowStart + start);
+        } else {
+          // The line does not fit in a window at all.
+          if (!skipping) {
+            line++;
+            skipping = true;
+            reject(line, "Line longer than " + windowSize() + " bytes");
+          }
+          map(windowStart + limit);
+        }
+        continue;
+      }
+
+      int next = end < 0 ? limit : end + 1;
+      if (end < 0) {
+        end = limit;
+      }
+      window.position(next);
+      if (skipping) {
+        skipping = false;
+        continue;
+      }
+      line++;
+      if (header && line == 1) {
+        continue;
+      }
+      if (end > start && window.get(end - 1) == '\r') {
+        end--;
+      }
+      if (CsvLineParser.isBlank(window, start, end)) {
+        continue;
+      }
+      String error = parser.parse(window, start, end);
+      if (error != null) {
+        reject(line, error);
+        continue;
+      }
+      double[] fields = parser.fields;
+      airTemp = fields[0];
+      dewPoint = fields[1];
+      windSpeed = fields[2];
+      rain = fields[3];
+      return true;
+    }
+  }
+
+  @Override
+  long row() {
+    return line;
+  }
+}
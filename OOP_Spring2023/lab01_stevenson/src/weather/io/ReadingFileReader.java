@@ -0,0 +1,201 @@
+package weather.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+import weather.WeatherReading;
+
+/**
+ * Reads the readings of a station dump through a memory-mapped view of the file. The file is
+ * mapped one window at a time, so files larger than a single mapping can be read.
+ *
+ * <p>Rows are checked with the rules of the {@link StevensonReading} constructor. A row that
+ * cannot be parsed or is not a valid reading is passed to the {@link RejectSink} and skipped.
+ *
+ * <p>A reader is not thread-safe and reads its file once, front to back.
+ */
+public abstract class ReadingFileReader implements Closeable {
+  static final int DEFAULT_WINDOW = 64 << 20;
+
+  private final FileChannel channel;
+  private final long fileSize;
+  private final int windowSize;
+  private final RejectSink rejects;
+
+  /** The current window of the file. */
+  MappedByteBuffer window;
+  /** The file position of the first byte of the window. */
+  long windowStart;
+
+  // The values of the row found by the last successful call to advance().
+  double airTemp;
+  double dewPoint;
+  double windSpeed;
+  double rain;
+
+  ReadingFileReader(Path file, RejectSink rejects, int windowSize) throws IOException {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("The window size must be positive");
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.fileSize = channel.size();
+    this.windowSize = windowSize;
+    this.rejects = rejects;
+    map(0);
+  }
+
+  /**
+   * Opens a CSV dump with one reading per line in the order air temperature, dew point, wind
+   * speed and rain.
+   *
+   * @param file the file to read
+   * @param header whether the first line is a header to skip
+   * @param rejects receives the rows that are not readings
+   * @return a reader positioned at the first row
+   * @throws IOException if the file cannot be opened
+   */
+  public static ReadingFileReader csv(Path file, boolean header, RejectSink rejects)
+      throws IOException {
+    return new CsvReadingReader(file, header, rejects, DEFAULT_WINDOW);
+  }
+
+  /**
+   * Opens a dump in the fixed-width format of {@link BinaryReadingFormat}.
+   *
+   * @param file the file to read
+   * @param rejects receives the records that are not readings
+   * @return a reader positioned at the first record
+   * @throws IOException if the file cannot be opened or does not start with a valid header
+   */
+  public static ReadingFileReader binary(Path file, RejectSink rejects) throws IOException {
+    return new BinaryReadingReader(file, rejects, DEFAULT_WINDOW);
+  }
+
+  /**
+   * Moves to the next row that parses, storing its values in the row fields. Rows that do not
+   * parse are rejected by the implementation; validation is left to the caller.
+   *
+   * @return false once the end of the file is reached
+   */
+  abstract boolean advance();
+
+  /**
+   * Gets the number of the row found by the last call to {@link #advance()}.
+   */
+  abstract long row();
+
+  /**
+   * Appends up to {@code max} valid readings to {@code batch}.
+   *
+   * @param batch the batch to append to
+   * @param max the largest number of readings to append
+   * @return the number of readings appended, zero at the end of the file
+   */
+  public int readInto(ReadingBatch batch, int max) {
+    int count = 0;
+    while (count < max && advance()) {
+      try {
+        batch.add(airTemp, dewPoint, windSpeed, rain);
+        count++;
+      } catch (IllegalArgumentException e) {
+        reject(row(), e.getMessage());
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Reads every remaining valid reading into a new batch.
+   *
+   * @return the readings
+   */
+  public ReadingBatch readAll() {
+    ReadingBatch batch = new ReadingBatch();
+    readInto(batch, Integer.MAX_VALUE);
+    return batch;
+  }
+
+  /**
+   * Gets the remaining valid readings as a sequential stream. Closing the stream closes this
+   * reader.
+   *
+   * @return the readings
+   */
+  public Stream<WeatherReading> stream() {
+    Spliterator<WeatherReading> readings = new Spliterators.AbstractSpliterator<WeatherReading>(
+        Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+      @Override
+      public boolean tryAdvance(Consumer<? super WeatherReading> action) {
+        while (advance()) {
+          StevensonReading reading;
+          try {
+            reading = new StevensonReading(airTemp, dewPoint, windSpeed, rain);
+          } catch (IllegalArgumentException e) {
+            reject(row(), e.getMessage());
+            continue;
+          }
+          action.accept(reading);
+          return true;
+        }
+        return false;
+      }
+    };
+    return StreamSupport.stream(readings, false).onClose(() -> {
+      try {
+        close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  void reject(long row, String reason) {
+    rejects.reject(row, reason);
+  }
+
+  long fileSize() {
+    return fileSize;
+  }
+
+  int windowSize() {
+    return windowSize;
+  }
+
+  /**
+   * Tells whether the current window reaches the end of the file.
+   */
+  boolean atLastWindow() {
+    return windowStart + window.limit() >= fileSize;
+  }
+
+  /**
+   * Maps the window that starts at {@code position}.
+   */
+  void map(long position) {
+    try {
+      long length = Math.min(windowSize, fileSize - position);
+      window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+      window.order(BinaryReadingFormat.ORDER);
+      windowStart = position;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
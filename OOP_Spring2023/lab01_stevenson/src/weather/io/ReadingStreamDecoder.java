@@ -0,0 +1,227 @@
+package weather.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import weather.ReadingBatch;
+
+/**
+ * Decodes readings from a stream that arrives in pieces, such as a socket, in the CSV format of
+ * {@link ReadingFileReader#csv} or the binary format of {@link BinaryReadingFormat}. Each call
+ * to {@link #decode} appends the whole readings between the position and the limit of a buffer
+ * to a batch and leaves the partial reading at the end, so the caller compacts the buffer, reads
+ * more bytes into it and calls again. {@link #finish} decodes what is left when the stream ends.
+ *
+ * <p>Rows are checked with the rules of the {@link weather.StevensonReading} constructor and
+ * numbered from the start of the stream as by {@link ReadingFileReader}. A row that cannot be
+ * parsed or is not a valid reading is passed to the {@link RejectSink} and skipped.
+ *
+ * <p>A decoder is not thread-safe. After {@link #finish} it decodes a new stream.
+ */
+public abstract class ReadingStreamDecoder {
+  private final RejectSink rejects;
+
+  ReadingStreamDecoder(RejectSink rejects) {
+    this.rejects = rejects;
+  }
+
+  /**
+   * Gets a decoder of CSV streams with one reading per line in the order air temperature, dew
+   * point, wind speed and rain. A line that does not fit in the caller's buffer is rejected.
+   *
+   * @param header whether the first line of a stream is a header to skip
+   * @param rejects receives the rows that are not readings
+   * @return the decoder
+   */
+  public static ReadingStreamDecoder csv(boolean header, RejectSink rejects) {
+    return new Csv(header, rejects);
+  }
+
+  /**
+   * Gets a decoder of streams in the format of {@link BinaryReadingFormat}, header first.
+   *
+   * @param rejects receives the records that are not readings
+   * @return the decoder
+   */
+  public static ReadingStreamDecoder binary(RejectSink rejects) {
+    return new Binary(rejects);
+  }
+
+  /**
+   * Appends the valid readings of every whole row remaining in {@code in} to a batch. The bytes
+   * of a partial row at the end are left in the buffer.
+   *
+   * @param in the bytes received, between its position and its limit
+   * @param batch the batch to append to
+   * @return the number of readings appended
+   * @throws IOException if the stream is not in the format of this decoder
+   */
+  public abstract int decode(ByteBuffer in, ReadingBatch batch) throws IOException;
+
+  /**
+   * Appends the valid readings of every row remaining in {@code in} to a batch, at the end of
+   * the stream, and gets ready for the next stream. The buffer is left empty.
+   *
+   * @param in the last bytes of the stream, between its position and its limit
+   * @param batch the batch to append to
+   * @return the number of readings appended
+   * @throws IOException if the stream is not in the format of this decoder
+   */
+  public abstract int finish(ByteBuffer in, ReadingBatch batch) throws IOException;
+
+  /**
+   * Appends one row to a batch, rejecting it if it is not a valid reading.
+   *
+   * @return the number of readings appended, zero or one
+   */
+  int add(long row, double airTemp, double dewPoint, double windSpeed, double rain,
+      ReadingBatch batch) {
+    try {
+      batch.add(airTemp, dewPoint, windSpeed, rain);
+      return 1;
+    } catch (IllegalArgumentException e) {
+      rejects.reject(row, e.getMessage());
+      return 0;
+    }
+  }
+
+  void reject(long row, String reason) {
+    rejects.reject(row, reason);
+  }
+
+  /**
+   * Decodes CSV lines.
+   */
+  private static final class Csv extends ReadingStreamDecoder {
+    private final boolean header;
+    private final CsvLineParser parser = new CsvLineParser();
+    private long line;
+    // Set while skipping the rest of a line that did not fit in the buffer.
+    private boolean skipping;
+
+    Csv(boolean header, RejectSink rejects) {
+      super(rejects);
+      this.header = header;
+    }
+
+    @Override
+    public int decode(ByteBuffer in, ReadingBatch batch) {
+      int count = 0;
+      while (true) {
+        int start = in.position();
+        int limit = in.limit();
+        int end = CsvLineParser.indexOfNewline(in, start, limit);
+        if (end < 0) {
+          if (start == 0 && limit == in.capacity()) {
+            // The line does not fit in the buffer at all.
+            if (!skipping) {
+              line++;
+              skipping = true;
+              reject(line, "Line longer than " + in.capacity() + " bytes");
+            }
+            in.position(limit);
+          }
+          return count;
+        }
+        in.position(end + 1);
+        count += decodeLine(in, start, end, batch);
+      }
+    }
+
+    @Override
+    public int finish(ByteBuffer in, ReadingBatch batch) {
+      try {
+        int count = decode(in, batch);
+        if (in.hasRemaining()) {
+          int start = in.position();
+          in.position(in.limit());
+          count += decodeLine(in, start, in.limit(), batch);
+        }
+        return count;
+      } finally {
+        line = 0;
+        skipping = false;
+      }
+    }
+
+    private int decodeLine(ByteBuffer in, int start, int end, ReadingBatch batch) {
+      if (skipping) {
+        skipping = false;
+        return 0;
+      }
+      line++;
+      if (header && line == 1) {
+        return 0;
+      }
+      if (end > start && in.get(end - 1) == '\r') {
+        end--;
+      }
+      if (CsvLineParser.isBlank(in, start, end)) {
+        return 0;
+      }
+      String error = parser.parse(in, start, end);
+      if (error != null) {
+        reject(line, error);
+        return 0;
+      }
+      double[] fields = parser.fields;
+      return add(line, fields[0], fields[1], fields[2], fields[3], batch);
+    }
+  }
+
+  /**
+   * Decodes the header and fixed-width records of {@link BinaryReadingFormat}.
+   */
+  private static final class Binary extends ReadingStreamDecoder {
+    private static final int RECORD = BinaryReadingFormat.RECORD_BYTES;
+
+    private boolean started;
+    private long record;
+
+    Binary(RejectSink rejects) {
+      super(rejects);
+    }
+
+    @Override
+    public int decode(ByteBuffer in, ReadingBatch batch) throws IOException {
+      if (!started) {
+        if (in.remaining() < BinaryReadingFormat.HEADER_BYTES) {
+          return 0;
+        }
+        BinaryReadingFormat.readHeader(in);
+        started = true;
+      }
+      ByteOrder order = in.order();
+      in.order(BinaryReadingFormat.ORDER);
+      try {
+        int count = 0;
+        while (in.remaining() >= RECORD) {
+          count += add(record++, in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble(),
+              batch);
+        }
+        return count;
+      } finally {
+        in.order(order);
+      }
+    }
+
+    @Override
+    public int finish(ByteBuffer in, ReadingBatch batch) throws IOException {
+      try {
+        int count = decode(in, batch);
+        if (!started && in.hasRemaining()) {
+          // Throws, as fewer bytes than a header remain.
+          BinaryReadingFormat.readHeader(in);
+        }
+        if (in.hasRemaining()) {
+          reject(record, "Truncated record of " + in.remaining() + " bytes");
+          in.position(in.limit());
+        }
+        return count;
+      } finally {
+        started = false;
+        record = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package weather.io;
+
+/**
+ * Receives the rows of a station dump that could not be turned into readings, so that one bad
+ * row does not stop the rest of the file from being read.
+ */
+public interface RejectSink {
+
+  /**
+   * A sink that drops every rejected row.
+   */
+  RejectSink IGNORE = (row, reason) -> { };
+
+  /**
+   * Called once for every rejected row.
+   *
+   * @param row the line number (from 1) of a CSV row, or the index (from 0) of a binary record
+   * @param reason why the row was rejected
+   */
+  void reject(long row, String reason);
+}
@@ -0,0 +1,50 @@
+package weather.registry;
+
+import weather.WeatherReading;
+
+/**
+ * The latest reading of a station, with the time it was taken. Immutable.
+ */
+public final class LatestReading {
+  private final int station;
+  private final long timeMillis;
+  private final WeatherReading reading;
+
+  LatestReading(int station, long timeMillis, WeatherReading reading) {
+    this.station = station;
+    this.timeMillis = timeMillis;
+    this.reading = reading;
+  }
+
+  /**
+   * Gets the id of the station.
+   *
+   * @return the station id
+   */
+  public int getStation() {
+    return station;
+  }
+
+  /**
+   * Gets the time the reading was taken.
+   *
+   * @return the time in milliseconds
+   */
+  public long getTimeMillis() {
+    return timeMillis;
+  }
+
+  /**
+   * Gets the reading.
+   *
+   * @return the reading
+   */
+  public WeatherReading getReading() {
+    return reading;
+  }
+
+  @Override
+  public String toString() {
+    return "Station " + station + " at " + timeMillis + ": " + reading;
+  }
+}
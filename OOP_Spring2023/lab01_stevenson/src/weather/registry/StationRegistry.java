@@ -0,0 +1,289 @@
+package weather.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import weather.WeatherReading;
+
+/**
+ * The latest reading of every station, for many threads that push readings and many that read
+ * them. Stations are identified by an {@code int} id.
+ *
+ * <p>Stations live in an open-addressing table of slots. Finding a station, reading its latest
+ * reading and replacing it take no lock: a reading is replaced by swapping one reference with
+ * a compare-and-set, so writers never block readers or each other. Only adding a station that
+ * was never seen before takes a lock.
+ *
+ * <p>{@link #snapshot()} gives the latest readings of all stations as they were at one point in
+ * time, even while readings are pushed. Every write is tagged with the current epoch; a
+ * snapshot moves to the next epoch, waits for the few writes still in flight in its epoch,
+ * and then takes from each station the newest reading of its epoch or earlier. Each station
+ * keeps at most one older reading for this. Snapshots wait for writes, never the reverse.
+ */
+public final class StationRegistry {
+  private static final int MIN_CAPACITY = 16;
+  // Counters of writes in flight are this many longs apart, so they do not share cache lines.
+  private static final int PADDING = 16;
+  // Checks of a write in flight before a snapshot yields its processor.
+  private static final int SPINS = 100;
+
+  private static final AtomicReferenceFieldUpdater<Slot, Node> HEAD =
+      AtomicReferenceFieldUpdater.newUpdater(Slot.class, Node.class, "head");
+
+  private volatile AtomicReferenceArray<Slot> table;
+  private int stations;
+  private final Object insertLock = new Object();
+
+  private volatile long epoch;
+  // Writes in flight, counted by the parity of their epoch and by thread stripe. A write
+  // counts itself in and out on the same counter, so no counter is ever negative, and a
+  // snapshot can wait for each counter of its epoch to be zero.
+  private final AtomicLongArray inFlight;
+  private final int stripeMask;
+  private final Object snapshotLock = new Object();
+
+  /**
+   * Constructs an empty registry.
+   */
+  public StationRegistry() {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty registry with room for the given number of stations before it grows.
+   *
+   * @param expectedStations the number of stations expected
+   * @throws IllegalArgumentException if the number is negative
+   */
+  public StationRegistry(int expectedStations) {
+    if (expectedStations < 0) {
+      throw new IllegalArgumentException("Negative capacity is not supported");
+    }
+    int capacity = MIN_CAPACITY;
+    while (capacity < 2L * expectedStations) {
+      capacity <<= 1;
+    }
+    table = new AtomicReferenceArray<>(capacity);
+    int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    stripeMask = stripes - 1;
+    inFlight = new AtomicLongArray(2 * stripes * PADDING);
+  }
+
+  /**
+   * Records a reading of a station, unless the station already has a later reading. Readings
+   * taken at the same time replace each other.
+   *
+   * @param station the id of the station
+   * @param timeMillis the time the reading was taken
+   * @param reading the reading; it must be immutable
+   * @return true if the reading is now the latest of the station
+   */
+  public boolean update(int station, long timeMillis, WeatherReading reading) {
+    Slot slot = find(table, station);
+    if (slot == null) {
+      slot = insert(station);
+    }
+    LatestReading latest = new LatestReading(station, timeMillis, reading);
+    int stripe = (int) Thread.currentThread().getId() & stripeMask;
+    while (true) {
+      long writeEpoch = epoch;
+      int counter = counter(writeEpoch, stripe);
+      inFlight.getAndIncrement(counter);
+      try {
+        if (epoch != writeEpoch) {
+          continue;
+        }
+        while (true) {
+          Node current = slot.head;
+          if (current != null && current.epoch > writeEpoch) {
+            // A snapshot began since; this write belongs after it.
+            break;
+          }
+          if (current != null && current.latest.getTimeMillis() > timeMillis) {
+            return false;
+          }
+          Node replacement = new Node(latest, writeEpoch, older(current, writeEpoch));
+          if (HEAD.compareAndSet(slot, current, replacement)) {
+            return true;
+          }
+        }
+      } finally {
+        inFlight.getAndDecrement(counter);
+      }
+    }
+  }
+
+  private int counter(long epoch, int stripe) {
+    return ((int) (epoch & 1) * (stripeMask + 1) + stripe) * PADDING;
+  }
+
+  /**
+   * Gets the node that a new head of the given epoch keeps: the newest node of an earlier
+   * epoch, which the snapshot of that epoch may still need, without its own older nodes.
+   */
+  private static Node older(Node current, long epoch) {
+    if (current == null) {
+      return null;
+    }
+    if (current.epoch == epoch) {
+      return current.previous;
+    }
+    return current.previous == null ? current : new Node(current.latest, current.epoch, null);
+  }
+
+  /**
+   * Gets the latest reading of a station.
+   *
+   * @param station the id of the station
+   * @return the latest reading, or null if the station has none
+   */
+  public LatestReading latest(int station) {
+    Slot slot = find(table, station);
+    if (slot == null) {
+      return null;
+    }
+    Node head = slot.head;
+    return head == null ? null : head.latest;
+  }
+
+  /**
+   * Gets the latest reading of every station as they all were at one point during the call.
+   *
+   * @return the readings, in no particular order
+   */
+  public List<LatestReading> snapshot() {
+    synchronized (snapshotLock) {
+      long snapshotEpoch = epoch;
+      epoch = snapshotEpoch + 1;
+      for (int stripe = 0; stripe <= stripeMask; stripe++) {
+        int counter = counter(snapshotEpoch, stripe);
+        // A write is short, but its thread may have been descheduled; then only yielding
+        // lets it finish.
+        for (int spins = 0; inFlight.get(counter) != 0; spins++) {
+          if (spins < SPINS) {
+            Thread.onSpinWait();
+          } else {
+            Thread.yield();
+          }
+        }
+      }
+      AtomicReferenceArray<Slot> slots = table;
+      List<LatestReading> result = new ArrayList<>();
+      for (int i = 0; i < slots.length(); i++) {
+        Slot slot = slots.get(i);
+        if (slot == null) {
+          continue;
+        }
+        Node node = slot.head;
+        while (node != null && node.epoch > snapshotEpoch) {
+          node = node.previous;
+        }
+        if (node != null) {
+          result.add(node.latest);
+        }
+      }
+      return Collections.unmodifiableList(result);
+    }
+  }
+
+  /**
+   * Gets the number of stations that have been updated.
+   *
+   * @return the number of stations
+   */
+  public int size() {
+    synchronized (insertLock) {
+      return stations;
+    }
+  }
+
+  private static int hash(int station) {
+    // The finalizer of MurmurHash3, so that consecutive ids spread over the table.
+    int h = station;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    return h ^ (h >>> 16);
+  }
+
+  private static Slot find(AtomicReferenceArray<Slot> slots, int station) {
+    int mask = slots.length() - 1;
+    for (int i = hash(station) & mask; ; i = (i + 1) & mask) {
+      Slot slot = slots.get(i);
+      if (slot == null || slot.station == station) {
+        return slot;
+      }
+    }
+  }
+
+  /**
+   * Adds the slot of a station, unless another thread just did, doubling the table first if it
+   * would be more than half full. A new table holds the same slots, so writes through either
+   * table land in the same place.
+   */
+  private Slot insert(int station) {
+    synchronized (insertLock) {
+      AtomicReferenceArray<Slot> slots = table;
+      Slot slot = find(slots, station);
+      if (slot != null) {
+        return slot;
+      }
+      if (2 * (stations + 1) > slots.length()) {
+        AtomicReferenceArray<Slot> grown = new AtomicReferenceArray<>(slots.length() * 2);
+        for (int i = 0; i < slots.length(); i++) {
+          Slot moved = slots.get(i);
+          if (moved != null) {
+            place(grown, moved);
+          }
+        }
+        slots = grown;
+      }
+      slot = new Slot(station);
+      place(slots, slot);
+      stations++;
+      table = slots;
+      return slot;
+    }
+  }
+
+  private static void place(AtomicReferenceArray<Slot> slots, Slot slot) {
+    int mask = slots.length() - 1;
+    int i = hash(slot.station) & mask;
+    while (slots.get(i) != null) {
+      i = (i + 1) & mask;
+    }
+    slots.set(i, slot);
+  }
+
+  /**
+   * The place of a station in the table.
+   */
+  private static final class Slot {
+    final int station;
+    volatile Node head;
+
+    Slot(int station) {
+      this.station = station;
+    }
+  }
+
+  /**
+   * A latest reading and the epoch it was written in, with the newest reading of an earlier
+   * epoch.
+   */
+  private static final class Node {
+    final LatestReading latest;
+    final long epoch;
+    final Node previous;
+
+    Node(LatestReading latest, long epoch, Node previous) {
+      this.latest = latest;
+      this.epoch = epoch;
+      this.previous = previous;
+    }
+  }
+}
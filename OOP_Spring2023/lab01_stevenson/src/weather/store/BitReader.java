@@ -0,0 +1,35 @@
+package weather.store;
+
+/**
+ * Reads values written by a {@link BitWriter}, in the order they were written.
+ */
+final class BitReader {
+  private final long[] words;
+  private long position;
+
+  BitReader(long[] words) {
+    this.words = words;
+  }
+
+  /**
+   * Reads an unsigned value of {@code bits} bits, from 1 to 64.
+   */
+  long read(int bits) {
+    int word = (int) (position >>> 6);
+    int used = (int) (position & 63);
+    int free = 64 - used;
+    position += bits;
+    long value;
+    if (bits <= free) {
+      value = words[word] >>> (free - bits);
+    } else {
+      long low = word + 1 < words.length ? words[word + 1] : 0;
+      value = (words[word] << (bits - free)) | (low >>> (64 - (bits - free)));
+    }
+    return bits == 64 ? value : value & ((1L << bits) - 1);
+  }
+
+  boolean readBit() {
+    return read(1) != 0;
+  }
+}
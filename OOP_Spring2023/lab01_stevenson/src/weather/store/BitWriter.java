@@ -0,0 +1,62 @@
+package weather.store;
+
+import java.util.Arrays;
+
+/**
+ * Appends values of 1 to 64 bits to a growing {@code long[]}, most significant bit first.
+ */
+final class BitWriter {
+  private long[] words;
+  private long length;
+
+  BitWriter(int initialWords) {
+    words = new long[Math.max(1, initialWords)];
+  }
+
+  /**
+   * Appends the low {@code bits} bits of a value.
+   */
+  void write(long value, int bits) {
+    int word = (int) (length >>> 6);
+    int used = (int) (length & 63);
+    if (word + 1 >= words.length) {
+      words = Arrays.copyOf(words, words.length * 2);
+    }
+    if (bits < 64) {
+      value &= (1L << bits) - 1;
+    }
+    int free = 64 - used;
+    if (bits <= free) {
+      words[word] |= value << (free - bits);
+    } else {
+      words[word] |= value >>> (bits - free);
+      words[word + 1] |= value << (64 - (bits - free));
+    }
+    length += bits;
+  }
+
+  /**
+   * Appends a single bit.
+   */
+  void writeBit(boolean bit) {
+    write(bit ? 1 : 0, 1);
+  }
+
+  long length() {
+    return length;
+  }
+
+  /**
+   * Gets the words written so far. They are live while more is written.
+   */
+  long[] words() {
+    return words;
+  }
+
+  /**
+   * Gets a copy of the words that hold the bits written, without spare capacity.
+   */
+  long[] toWords() {
+    return Arrays.copyOf(words, (int) ((length + 63) >>> 6));
+  }
+}
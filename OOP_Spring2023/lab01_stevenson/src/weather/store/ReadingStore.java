@@ -0,0 +1,119 @@
+package weather.store;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+
+/**
+ * Keeps the readings of many stations in memory, compressed, with one {@link StationSeries}
+ * per station. Readings of smoothly changing sensors, recorded at a fixed interval and with a
+ * resolution of a hundredth or coarser, take a few bytes each instead of an object each.
+ *
+ * <p>A {@code ReadingStore} is not thread-safe; a feed is expected to be consumed by one
+ * thread, or by one thread per group of stations.
+ */
+public final class ReadingStore {
+  private final Map<String, StationSeries> stations = new HashMap<>();
+  private long size;
+
+  /**
+   * Appends a reading of a station.
+   *
+   * @param station the id of the station
+   * @param timeMillis the time of the reading, not before the last reading of the station
+   * @param reading the reading
+   * @throws IllegalArgumentException if the reading is older than the last one of the station
+   */
+  public void append(String station, long timeMillis, StevensonReading reading) {
+    stations.computeIfAbsent(station, s -> new StationSeries()).append(timeMillis, reading);
+    size++;
+  }
+
+  /**
+   * Appends a reading of a station given by its values.
+   *
+   * @param station the id of the station
+   * @param timeMillis the time of the reading, not before the last reading of the station
+   * @param airTempCelcius the air temperature in Celsius
+   * @param dewPointCelcius the dew point temperature in Celsius
+   * @param windSpeedMph the non-negative wind speed in miles per hour
+   * @param totalRainReceived the non-negative total rain received in the last 24 hours
+   * @throws IllegalArgumentException if the reading is not valid or older than the last one of
+   *     the station
+   */
+  public void append(String station, long timeMillis, double airTempCelcius,
+      double dewPointCelcius, double windSpeedMph, double totalRainReceived) {
+    append(station, timeMillis,
+        new StevensonReading(airTempCelcius, dewPointCelcius, windSpeedMph, totalRainReceived));
+  }
+
+  /**
+   * Decodes the readings of a station from {@code fromMillis} to {@code toMillis}, both
+   * included, and appends them to a batch.
+   *
+   * @param station the id of the station
+   * @param fromMillis the time of the first reading to include
+   * @param toMillis the time of the last reading to include
+   * @param batch the batch that the readings are appended to
+   * @return the times of the readings, in the order they were appended; empty for an unknown
+   *     station
+   */
+  public long[] scan(String station, long fromMillis, long toMillis, ReadingBatch batch) {
+    StationSeries series = stations.get(station);
+    return series == null ? new long[0] : series.scan(fromMillis, toMillis, batch);
+  }
+
+  /**
+   * Gets the series of a station.
+   *
+   * @param station the id of the station
+   * @return the series, or null if the station has no readings
+   */
+  public StationSeries series(String station) {
+    return stations.get(station);
+  }
+
+  /**
+   * Gets the stations that have readings.
+   *
+   * @return the station ids, as an unmodifiable view
+   */
+  public Set<String> stations() {
+    return Collections.unmodifiableSet(stations.keySet());
+  }
+
+  /**
+   * Gets the number of readings of all stations.
+   *
+   * @return the number of readings
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Gets the memory taken by the compressed readings of all stations.
+   *
+   * @return the number of bytes
+   */
+  public long compressedBytes() {
+    long bytes = 0;
+    for (StationSeries series : stations.values()) {
+      bytes += series.compressedBytes();
+    }
+    return bytes;
+  }
+
+  /**
+   * Gets the compressed bytes per reading over all stations, for all four channels and the time
+   * together.
+   *
+   * @return the bytes per reading, NaN if there are no readings
+   */
+  public double bytesPerSample() {
+    return size == 0 ? Double.NaN : (double) compressedBytes() / size;
+  }
+}
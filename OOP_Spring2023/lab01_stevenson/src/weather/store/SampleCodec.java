@@ -0,0 +1,168 @@
+package weather.store;
+
+import java.util.Arrays;
+
+/**
+ * Encodes the samples of a block: a timestamp and four channels each. The first sample of a
+ * block is coded against its first time and against zero values, so blocks decode on their own.
+ *
+ * <p>Timestamps are coded as the difference of successive deltas, as in Gorilla: a fixed
+ * interval costs one bit per sample.
+ *
+ * <p>Each channel value starts with a flag bit. Values that are exact decimals with at most
+ * {@link #DECIMALS} places, such as most sensor readings, are coded as the change of the scaled
+ * integer from the last such value, in one of a few lengths. Other values are coded as the XOR
+ * with the previous value, as in Gorilla: the same value costs one bit, and a value that
+ * differs in the same bits as the last one costs its meaningful bits only.
+ */
+final class SampleCodec {
+  static final int CHANNELS = 4;
+  static final int DECIMALS = 2;
+  private static final double SCALE = 100;
+  // Scaled values must be exact in a double.
+  private static final double MAX_SCALED = 1L << 52;
+
+  private long previousTime;
+  private long previousDelta;
+  private final long[] previousBits = new long[CHANNELS];
+  private final long[] previousScaled = new long[CHANNELS];
+  private final int[] previousLeading = new int[CHANNELS];
+  private final int[] previousTrailing = new int[CHANNELS];
+
+  SampleCodec(long firstTime) {
+    previousTime = firstTime;
+    Arrays.fill(previousLeading, -1);
+  }
+
+  /**
+   * Writes one sample.
+   */
+  void encode(BitWriter out, long time, double[] values) {
+    long delta = time - previousTime;
+    writeBucketed(out, zigZag(delta - previousDelta), 7, 9, 12);
+    previousTime = time;
+    previousDelta = delta;
+    for (int channel = 0; channel < CHANNELS; channel++) {
+      encode(out, channel, values[channel]);
+    }
+  }
+
+  /**
+   * Reads one sample, storing its values, and returns its time.
+   */
+  long decode(BitReader in, double[] values) {
+    long delta = previousDelta + unZigZag(readBucketed(in, 7, 9, 12));
+    previousTime += delta;
+    previousDelta = delta;
+    for (int channel = 0; channel < CHANNELS; channel++) {
+      values[channel] = decode(in, channel);
+    }
+    return previousTime;
+  }
+
+  private void encode(BitWriter out, int channel, double value) {
+    long bits = Double.doubleToRawLongBits(value);
+    double scaledValue = value * SCALE;
+    if (Math.abs(scaledValue) < MAX_SCALED) {
+      long scaled = Math.round(scaledValue);
+      if (Double.doubleToRawLongBits(scaled / SCALE) == bits) {
+        out.writeBit(false);
+        writeBucketed(out, zigZag(scaled - previousScaled[channel]), 6, 13, 20);
+        previousScaled[channel] = scaled;
+        previousBits[channel] = bits;
+        return;
+      }
+    }
+    out.writeBit(true);
+    long xor = bits ^ previousBits[channel];
+    previousBits[channel] = bits;
+    if (xor == 0) {
+      out.writeBit(false);
+      return;
+    }
+    out.writeBit(true);
+    int leading = Long.numberOfLeadingZeros(xor);
+    int trailing = Long.numberOfTrailingZeros(xor);
+    if (previousLeading[channel] >= 0 && leading >= previousLeading[channel]
+        && trailing >= previousTrailing[channel]) {
+      out.writeBit(false);
+      int meaningful = 64 - previousLeading[channel] - previousTrailing[channel];
+      out.write(xor >>> previousTrailing[channel], meaningful);
+    } else {
+      out.writeBit(true);
+      int meaningful = 64 - leading - trailing;
+      out.write(leading, 6);
+      out.write(meaningful - 1, 6);
+      out.write(xor >>> trailing, meaningful);
+      previousLeading[channel] = leading;
+      previousTrailing[channel] = trailing;
+    }
+  }
+
+  private double decode(BitReader in, int channel) {
+    if (!in.readBit()) {
+      long scaled = previousScaled[channel] + unZigZag(readBucketed(in, 6, 13, 20));
+      previousScaled[channel] = scaled;
+      double value = scaled / SCALE;
+      previousBits[channel] = Double.doubleToRawLongBits(value);
+      return value;
+    }
+    if (in.readBit()) {
+      if (in.readBit()) {
+        previousLeading[channel] = (int) in.read(6);
+        int meaningful = (int) in.read(6) + 1;
+        previousTrailing[channel] = 64 - previousLeading[channel] - meaningful;
+      }
+      int meaningful = 64 - previousLeading[channel] - previousTrailing[channel];
+      previousBits[channel] ^= in.read(meaningful) << previousTrailing[channel];
+    }
+    return Double.longBitsToDouble(previousBits[channel]);
+  }
+
+  /**
+   * Writes an unsigned value as '0' for zero, or as '10', '110' or '1110' followed by the
+   * value in the first length it fits, or as '1111' followed by all 64 bits.
+   */
+  private static void writeBucketed(BitWriter out, long value, int small, int medium,
+      int large) {
+    if (value == 0) {
+      out.write(0, 1);
+    } else if (value >>> small == 0) {
+      out.write(0b10, 2);
+      out.write(value, small);
+    } else if (value >>> medium == 0) {
+      out.write(0b110, 3);
+      out.write(value, medium);
+    } else if (value >>> large == 0) {
+      out.write(0b1110, 4);
+      out.write(value, large);
+    } else {
+      out.write(0b1111, 4);
+      out.write(value, 64);
+    }
+  }
+
+  private static long readBucketed(BitReader in, int small, int medium, int large) {
+    if (!in.readBit()) {
+      return 0;
+    }
+    if (!in.readBit()) {
+      return in.read(small);
+    }
+    if (!in.readBit()) {
+      return in.read(medium);
+    }
+    if (!in.readBit()) {
+      return in.read(large);
+    }
+    return in.read(64);
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
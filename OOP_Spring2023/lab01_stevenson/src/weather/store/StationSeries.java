@@ -0,0 +1,205 @@
+package weather.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+
+/**
+ * The readings of one station over time, compressed in memory. Readings are appended in time
+ * order and grouped in blocks of {@link #BLOCK_SAMPLES}; each block is coded on its own by
+ * {@link SampleCodec} into a {@code long[]}, so a scan only decodes the blocks that overlap its
+ * range.
+ *
+ * <p>A series is not thread-safe.
+ */
+public final class StationSeries {
+  /** The number of readings in a block. */
+  public static final int BLOCK_SAMPLES = 1024;
+
+  private final List<Block> blocks = new ArrayList<>();
+  private final double[] values = new double[SampleCodec.CHANNELS];
+  private Block open;
+  private SampleCodec encoder;
+  private BitWriter writer;
+  private int size;
+  private long sealedBytes;
+
+  /**
+   * Appends a reading.
+   *
+   * @param timeMillis the time of the reading, not before the time of the last reading
+   * @param reading the reading
+   * @throws IllegalArgumentException if the reading is older than the last one
+   */
+  public void append(long timeMillis, StevensonReading reading) {
+    if (size > 0 && timeMillis < open.lastTime) {
+      throw new IllegalArgumentException("Reading at " + timeMillis
+          + " is older than the last reading at " + open.lastTime);
+    }
+    if (open == null || open.count == BLOCK_SAMPLES) {
+      seal();
+      open = new Block(timeMillis);
+      encoder = new SampleCodec(timeMillis);
+      writer = new BitWriter(BLOCK_SAMPLES);
+      blocks.add(open);
+    }
+    values[0] = reading.getAirTempCelcius();
+    values[1] = reading.getDewPointCelcius();
+    values[2] = reading.getWindSpeedMph();
+    values[3] = reading.getTotalRainReceived();
+    encoder.encode(writer, timeMillis, values);
+    open.words = writer.words();
+    open.lastTime = timeMillis;
+    open.count++;
+    size++;
+  }
+
+  /**
+   * Appends a reading given by its values.
+   *
+   * @param timeMillis the time of the reading, not before the time of the last reading
+   * @param airTempCelcius the air temperature in Celsius
+   * @param dewPointCelcius the dew point temperature in Celsius
+   * @param windSpeedMph the non-negative wind speed in miles per hour
+   * @param totalRainReceived the non-negative total rain received in the last 24 hours
+   * @throws IllegalArgumentException if the reading is not valid or older than the last one
+   */
+  public void append(long timeMillis, double airTempCelcius, double dewPointCelcius,
+      double windSpeedMph, double totalRainReceived) {
+    append(timeMillis,
+        new StevensonReading(airTempCelcius, dewPointCelcius, windSpeedMph, totalRainReceived));
+  }
+
+  /**
+   * Trims the words of the open block, which takes no more readings.
+   */
+  private void seal() {
+    if (open != null) {
+      open.words = writer.toWords();
+      sealedBytes += open.words.length * 8L;
+    }
+  }
+
+  /**
+   * Gets the number of readings.
+   *
+   * @return the number of readings
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the time of the first reading.
+   *
+   * @return the time in milliseconds
+   * @throws IllegalStateException if there are no readings
+   */
+  public long firstTime() {
+    if (size == 0) {
+      throw new IllegalStateException("No readings");
+    }
+    return blocks.get(0).firstTime;
+  }
+
+  /**
+   * Gets the time of the last reading.
+   *
+   * @return the time in milliseconds
+   * @throws IllegalStateException if there are no readings
+   */
+  public long lastTime() {
+    if (size == 0) {
+      throw new IllegalStateException("No readings");
+    }
+    return open.lastTime;
+  }
+
+  /**
+   * Decodes the readings from {@code fromMillis} to {@code toMillis}, both included, and
+   * appends them to a batch.
+   *
+   * @param fromMillis the time of the first reading to include
+   * @param toMillis the time of the last reading to include
+   * @param batch the batch that the readings are appended to
+   * @return the times of the readings, in the order they were appended
+   */
+  public long[] scan(long fromMillis, long toMillis, ReadingBatch batch) {
+    // Blocks are in time order; skip those that end before the range or start after it.
+    int first = firstBlockEndingAtOrAfter(fromMillis);
+    int end = first;
+    int capacity = 0;
+    while (end < blocks.size() && blocks.get(end).firstTime <= toMillis) {
+      capacity += blocks.get(end++).count;
+    }
+    long[] times = new long[capacity];
+    int count = 0;
+    double[] decoded = new double[SampleCodec.CHANNELS];
+    for (int b = first; b < end; b++) {
+      Block block = blocks.get(b);
+      SampleCodec decoder = new SampleCodec(block.firstTime);
+      BitReader reader = new BitReader(block.words);
+      for (int i = 0; i < block.count; i++) {
+        long time = decoder.decode(reader, decoded);
+        if (time > toMillis) {
+          break;
+        }
+        if (time >= fromMillis) {
+          times[count++] = time;
+          batch.add(decoded[0], decoded[1], decoded[2], decoded[3]);
+        }
+      }
+    }
+    return count == times.length ? times : Arrays.copyOf(times, count);
+  }
+
+  private int firstBlockEndingAtOrAfter(long time) {
+    int from = 0;
+    int to = blocks.size();
+    while (from < to) {
+      int middle = (from + to) >>> 1;
+      if (blocks.get(middle).lastTime < time) {
+        from = middle + 1;
+      } else {
+        to = middle;
+      }
+    }
+    return from;
+  }
+
+  /**
+   * Gets the memory taken by the compressed readings: the words of the full blocks, and the
+   * bytes written so far to the open block.
+   *
+   * @return the number of bytes
+   */
+  public long compressedBytes() {
+    return sealedBytes + (writer == null ? 0 : (writer.length() + 7) / 8);
+  }
+
+  /**
+   * Gets the compressed bytes per reading, for all four channels and the time together.
+   *
+   * @return the bytes per reading, NaN if there are no readings
+   */
+  public double bytesPerSample() {
+    return size == 0 ? Double.NaN : (double) compressedBytes() / size;
+  }
+
+  /**
+   * A block of readings.
+   */
+  private static final class Block {
+    final long firstTime;
+    long lastTime;
+    int count;
+    long[] words;
+
+    Block(long firstTime) {
+      this.firstTime = firstTime;
+      this.lastTime = firstTime;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package weather;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks the tables against the formulas of {@link StevensonReading} over every grid point, and
+ * the fallback off the grid.
+ */
+public class MetricTablesTest {
+
+  /**
+   * Every temperature and humidity of the table gives the heat index of the formula.
+   */
+  @Test
+  public void testHeatIndexExhaustive() {
+    for (int tenths = -600; tenths <= 600; tenths++) {
+      double airTemp = tenths / 10.0;
+      for (int rh = 0; rh <= 100; rh++) {
+        assertEquals(airTemp + ", " + rh + "%",
+            (int) StevensonReading.heatIndex(airTemp, rh), MetricTables.heatIndex(airTemp, rh));
+      }
+    }
+  }
+
+  /**
+   * Every temperature and wind speed of the table gives the wind chill of the formula.
+   */
+  @Test
+  public void testWindChillExhaustive() {
+    for (int tenths = -600; tenths <= 600; tenths++) {
+      double airTemp = tenths / 10.0;
+      for (int v = 0; v <= MetricTables.MAX_WIND_SPEED; v++) {
+        assertEquals(airTemp + ", " + v + " mph",
+            (int) Math.round(StevensonReading.windChill(airTemp, v)),
+            MetricTables.windChill(airTemp, v));
+      }
+    }
+  }
+
+  /**
+   * Readings parsed from one-decimal text, as stations report them, agree with the tables.
+   */
+  @Test
+  public void testParsedReadings() {
+    Random random = new Random(2023);
+    for (int i = 0; i < 100_000; i++) {
+      double air = Double.parseDouble(
+          String.format(Locale.ROOT, "%.1f", -50 + random.nextDouble() * 100));
+      double dew = air - random.nextInt(300) / 10.0;
+      int wind = random.nextInt(MetricTables.MAX_WIND_SPEED + 1);
+      StevensonReading reading = new StevensonReading(air, dew, wind, 0);
+      assertEquals(reading.toString(), reading.getHeatIndex(),
+          MetricTables.heatIndex(air, reading.getRelativeHumidity()));
+      assertEquals(reading.toString(), reading.getWindChill(), MetricTables.windChill(air, wind));
+    }
+  }
+
+  /**
+   * Inputs off the grid or outside the tables fall back to the formulas.
+   */
+  @Test
+  public void testFallback() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      double air = -100 + random.nextDouble() * 200;
+      double wind = random.nextDouble() * 200;
+      int rh = random.nextInt(300) - 100;
+      assertEquals((int) StevensonReading.heatIndex(air, rh), MetricTables.heatIndex(air, rh));
+      assertEquals((int) Math.round(StevensonReading.windChill(air, wind)),
+          MetricTables.windChill(air, wind));
+    }
+    assertEquals((int) StevensonReading.heatIndex(75, 50), MetricTables.heatIndex(75, 50));
+    assertEquals((int) Math.round(StevensonReading.windChill(20, 150)),
+        MetricTables.windChill(20, 150));
+    assertEquals((int) StevensonReading.heatIndex(-0.0, 40), MetricTables.heatIndex(-0.0, 40));
+  }
+}
@@ -0,0 +1,34 @@
+package weather;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Runs the reading tests against readings whose derived metrics are computed up front.
+ */
+public class PrecomputedReadingTest extends WeatherReadingTest {
+
+  @Override
+  protected WeatherReading createReading(
+      double airTempCelcius,
+      double dewPointCelcius,
+      double windSpeedMph,
+      double totalRainReceived) {
+    return StevensonReading.precomputed(
+        airTempCelcius, dewPointCelcius, windSpeedMph, totalRainReceived);
+  }
+
+  /**
+   * A precomputed reading is equal to, and reports the same metrics as, a lazy one.
+   */
+  @Test
+  public void testSameAsLazy() {
+    WeatherReading lazy = new StevensonReading(25.4, 18.2, 12.7, 3);
+    WeatherReading eager = createReading(25.4, 18.2, 12.7, 3);
+    assertEquals(lazy, eager);
+    assertEquals(lazy.getRelativeHumidity(), eager.getRelativeHumidity());
+    assertEquals(lazy.getHeatIndex(), eager.getHeatIndex());
+    assertEquals(lazy.getWindChill(), eager.getWindChill());
+  }
+}
@@ -0,0 +1,158 @@
+package weather;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Runs the reading tests against batch views and checks the bulk methods of a batch.
+ */
+public class ReadingBatchTest extends WeatherReadingTest {
+
+  @Override
+  protected WeatherReading createReading(
+      double airTempCelcius,
+      double dewPointCelcius,
+      double windSpeedMph,
+      double totalRainReceived) {
+    ReadingBatch batch = new ReadingBatch(1);
+    batch.add(airTempCelcius, dewPointCelcius, windSpeedMph, totalRainReceived);
+    return batch.get(0);
+  }
+
+  /**
+   * Builds a batch of random readings along with the same readings as objects.
+   */
+  private static ReadingBatch randomBatch(int count, StevensonReading[] readings) {
+    Random random = new Random(42);
+    ReadingBatch batch = new ReadingBatch();
+    for (int i = 0; i < count; i++) {
+      double air = -40 + random.nextDouble() * 90;
+      double dew = air - random.nextDouble() * 30;
+      double wind = random.nextDouble() * 60;
+      double rain = random.nextDouble() * 100;
+      batch.add(air, dew, wind, rain);
+      readings[i] = new StevensonReading(air, dew, wind, rain);
+    }
+    return batch;
+  }
+
+  /**
+   * The bulk methods must agree with the methods of a single reading.
+   */
+  @Test
+  public void testBulkMatchesReadings() {
+    int count = 10_000;
+    StevensonReading[] readings = new StevensonReading[count];
+    ReadingBatch batch = randomBatch(count, readings);
+
+    int[] humidity = new int[count];
+    int[] heatIndex = new int[count];
+    int[] windChill = new int[count];
+    batch.relativeHumidity(humidity);
+    batch.heatIndex(heatIndex);
+    batch.windChill(windChill);
+
+    for (int i = 0; i < count; i++) {
+      assertEquals(readings[i].getRelativeHumidity(), humidity[i]);
+      assertEquals(readings[i].getHeatIndex(), heatIndex[i]);
+      assertEquals(readings[i].getWindChill(), windChill[i]);
+      assertEquals(readings[i], batch.toReading(i));
+    }
+  }
+
+  /**
+   * The range forms of the bulk methods agree with the methods of a single reading.
+   */
+  @Test
+  public void testBulkRange() {
+    int count = 1000;
+    StevensonReading[] readings = new StevensonReading[count];
+    ReadingBatch batch = randomBatch(count, readings);
+
+    int[] out = new int[100];
+    batch.heatIndex(450, 550, out);
+    for (int i = 0; i < out.length; i++) {
+      assertEquals(readings[450 + i].getHeatIndex(), out[i]);
+    }
+    batch.windChill(900, 1000, out);
+    for (int i = 0; i < out.length; i++) {
+      assertEquals(readings[900 + i].getWindChill(), out[i]);
+    }
+    batch.relativeHumidity(0, 100, out);
+    for (int i = 0; i < out.length; i++) {
+      assertEquals(readings[i].getRelativeHumidity(), out[i]);
+    }
+  }
+
+  /**
+   * A range past the readings of the batch is rejected even if the columns are longer.
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testRangePastSize() {
+    ReadingBatch batch = new ReadingBatch(100);
+    batch.add(30, 20, 15, 1);
+    batch.heatIndex(0, 2, new int[2]);
+  }
+
+  /**
+   * A batch built from columns holds the same readings as one built row by row.
+   */
+  @Test
+  public void testColumnConstructor() {
+    ReadingBatch batch = new ReadingBatch(
+        new double[] {30, 20}, new double[] {20, 10}, new double[] {15, 15}, new double[] {1, 25});
+    assertEquals(2, batch.size());
+    assertEquals("Reading: T = 20, D = 10, v = 15, rain = 25", batch.get(1).toString());
+
+    int[] heatIndex = new int[2];
+    batch.heatIndex(heatIndex);
+    assertArrayEquals(
+        new int[] {batch.toReading(0).getHeatIndex(), batch.toReading(1).getHeatIndex()},
+        heatIndex);
+  }
+
+  /**
+   * Clearing a batch empties it.
+   */
+  @Test
+  public void testClear() {
+    ReadingBatch batch = randomBatch(100, new StevensonReading[100]);
+    batch.clear();
+    assertEquals(0, batch.size());
+  }
+
+  /**
+   * Columns of different lengths are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMismatchedColumns() {
+    new ReadingBatch(new double[] {30}, new double[] {20}, new double[] {15}, new double[0]);
+  }
+
+  /**
+   * A column that holds an invalid reading is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidColumn() {
+    new ReadingBatch(new double[] {10}, new double[] {20}, new double[] {15}, new double[] {1});
+  }
+
+  /**
+   * An output array that is too short is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testShortOutput() {
+    randomBatch(10, new StevensonReading[10]).windChill(new int[9]);
+  }
+
+  /**
+   * Views only exist for readings in the batch.
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testViewOutOfBounds() {
+    new ReadingBatch().get(0);
+  }
+}
@@ -0,0 +1,126 @@
+package weather;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Compares the bulk derived metrics against the formulas of {@link StevensonReading}, for the
+ * scalar loop and for whichever implementation was selected at runtime.
+ */
+public class ReadingKernelsTest {
+
+  // Odd so that every vector length leaves a tail for the scalar loop.
+  private static final int COUNT = 100_003;
+
+  private final double[] airTemp = new double[COUNT];
+  private final double[] dewPoint = new double[COUNT];
+  private final double[] windSpeed = new double[COUNT];
+  private final StevensonReading[] readings = new StevensonReading[COUNT];
+
+  /**
+   * Fills the columns with random readings over a wide range, including calm air and
+   * readings where the dew point equals the air temperature.
+   */
+  public ReadingKernelsTest() {
+    Random random = new Random(2023);
+    for (int i = 0; i < COUNT; i++) {
+      airTemp[i] = -60 + random.nextDouble() * 120;
+      dewPoint[i] = i % 10 == 0 ? airTemp[i] : airTemp[i] - random.nextDouble() * 40;
+      windSpeed[i] = i % 7 == 0 ? 0 : random.nextDouble() * 120;
+      readings[i] = new StevensonReading(airTemp[i], dewPoint[i], windSpeed[i], 0);
+    }
+  }
+
+  /**
+   * Checks every metric of an implementation against the readings.
+   */
+  private void assertMatchesReadings(ReadingKernels.Implementation kernels) {
+    int[] humidity = new int[COUNT];
+    int[] heatIndex = new int[COUNT];
+    int[] windChill = new int[COUNT];
+    kernels.relativeHumidity(airTemp, dewPoint, 0, humidity, COUNT);
+    kernels.heatIndex(airTemp, dewPoint, 0, heatIndex, COUNT);
+    kernels.windChill(airTemp, windSpeed, 0, windChill, COUNT);
+
+    for (int i = 0; i < COUNT; i++) {
+      assertEquals("humidity of " + readings[i], readings[i].getRelativeHumidity(), humidity[i]);
+      assertEquals("heat index of " + readings[i], readings[i].getHeatIndex(), heatIndex[i]);
+      assertEquals("wind chill of " + readings[i], readings[i].getWindChill(), windChill[i]);
+    }
+  }
+
+  /**
+   * The scalar loop matches the readings.
+   */
+  @Test
+  public void testScalarMatchesReadings() {
+    assertMatchesReadings(ReadingKernels.SCALAR);
+  }
+
+  /**
+   * The selected implementation, vectorized when the incubator module is present, matches the
+   * readings.
+   */
+  @Test
+  public void testSelectedMatchesReadings() {
+    assertMatchesReadings(ReadingKernels.selected());
+  }
+
+  /**
+   * Only the first {@code length} values are written.
+   */
+  @Test
+  public void testPartialLength() {
+    int[] out = new int[COUNT];
+    out[5] = Integer.MIN_VALUE;
+    ReadingKernels.windChill(airTemp, windSpeed, out, 5);
+    assertEquals(readings[4].getWindChill(), out[4]);
+    assertEquals(Integer.MIN_VALUE, out[5]);
+  }
+
+  /**
+   * A range in the middle of the columns is read from its start and written from zero.
+   */
+  @Test
+  public void testRange() {
+    int from = 1001;
+    int length = 333;
+    int[] humidity = new int[length];
+    int[] heatIndex = new int[length];
+    int[] windChill = new int[length];
+    ReadingKernels.relativeHumidity(airTemp, dewPoint, from, humidity, length);
+    ReadingKernels.heatIndex(airTemp, dewPoint, from, heatIndex, length);
+    ReadingKernels.windChill(airTemp, windSpeed, from, windChill, length);
+    for (int i = 0; i < length; i++) {
+      assertEquals(readings[from + i].getRelativeHumidity(), humidity[i]);
+      assertEquals(readings[from + i].getHeatIndex(), heatIndex[i]);
+      assertEquals(readings[from + i].getWindChill(), windChill[i]);
+    }
+  }
+
+  /**
+   * A range that runs past the end of the columns is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testRangePastEnd() {
+    ReadingKernels.windChill(airTemp, windSpeed, COUNT - 2, new int[3], 3);
+  }
+
+  /**
+   * A column shorter than the length is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testShortColumn() {
+    ReadingKernels.heatIndex(airTemp, new double[3], new int[COUNT], 4);
+  }
+
+  /**
+   * A negative length is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeLength() {
+    ReadingKernels.relativeHumidity(airTemp, dewPoint, new int[COUNT], -1);
+  }
+}
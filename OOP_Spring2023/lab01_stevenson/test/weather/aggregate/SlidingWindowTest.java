@@ -0,0 +1,149 @@
+package weather.aggregate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+import weather.StevensonReading;
+
+/**
+ * Checks sliding windows against recomputing each window from scratch.
+ */
+public class SlidingWindowTest {
+
+  private static final int COUNT = 20_000;
+
+  private final long[] times = new long[COUNT];
+  private final double[] temperature = new double[COUNT];
+  private final double[] humidity = new double[COUNT];
+  private final double[] rain = new double[COUNT];
+
+  /**
+   * Creates a feed of random readings at irregular intervals, with bursts of readings taken at
+   * the same time.
+   */
+  public SlidingWindowTest() {
+    Random random = new Random(2023);
+    long time = 0;
+    for (int i = 0; i < COUNT; i++) {
+      time += i % 11 == 0 ? 0 : random.nextInt(60_000);
+      times[i] = time;
+      temperature[i] = -30 + random.nextDouble() * 70;
+      humidity[i] = random.nextInt(101);
+      rain[i] = random.nextDouble() * 50;
+    }
+  }
+
+  private static void assertStatistics(double[] values, int from, int to, WindowStatistics s) {
+    double sum = 0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    for (int i = from; i < to; i++) {
+      sum += values[i];
+      min = Math.min(min, values[i]);
+      max = Math.max(max, values[i]);
+    }
+    assertEquals(to - from, s.getCount());
+    assertEquals(sum / (to - from), s.getMean(), 1e-9);
+    assertEquals(min, s.getMin(), 0);
+    assertEquals(max, s.getMax(), 0);
+  }
+
+  /**
+   * After each reading the window holds exactly the readings of its length.
+   */
+  @Test
+  public void testMatchesRecomputed() {
+    SlidingWindow window = new SlidingWindow(SlidingWindow.ONE_HOUR, COUNT);
+    int from = 0;
+    for (int i = 0; i < COUNT; i++) {
+      window.add(times[i], temperature[i], humidity[i], rain[i]);
+      while (times[from] <= times[i] - SlidingWindow.ONE_HOUR) {
+        from++;
+      }
+      assertEquals(i + 1 - from, window.size());
+      assertStatistics(temperature, from, i + 1, window.getTemperature());
+      assertStatistics(humidity, from, i + 1, window.getRelativeHumidity());
+      assertStatistics(rain, from, i + 1, window.getRain());
+    }
+    assertEquals(0, window.getDropped());
+  }
+
+  /**
+   * A full window drops its oldest reading and keeps the most recent ones.
+   */
+  @Test
+  public void testCapacity() {
+    int capacity = 16;
+    SlidingWindow window = new SlidingWindow(SlidingWindow.ONE_DAY, capacity);
+    for (int i = 0; i < 1000; i++) {
+      window.add(times[i], temperature[i], humidity[i], rain[i]);
+      assertTrue(window.size() <= capacity);
+    }
+    int from = 1000 - window.size();
+    assertStatistics(temperature, from, 1000, window.getTemperature());
+    assertTrue(window.getDropped() > 0);
+  }
+
+  /**
+   * Advancing a quiet window empties it; it then starts again from nothing.
+   */
+  @Test
+  public void testAdvanceEmpties() {
+    SlidingWindow window = new SlidingWindow(SlidingWindow.FIVE_MINUTES, 8);
+    window.add(0, 0.1, 50, 0.2);
+    window.add(1000, 0.7, 60, 0.3);
+    window.advanceTo(1000 + SlidingWindow.FIVE_MINUTES);
+    assertEquals(0, window.size());
+    assertTrue(Double.isNaN(window.getTemperature().getMean()));
+
+    window.add(2 * SlidingWindow.FIVE_MINUTES, 0.3, 40, 0);
+    assertEquals(0.3, window.getTemperature().getMean(), 0);
+  }
+
+  /**
+   * Readings may not go back in time.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testOutOfOrder() {
+    SlidingWindow window = new SlidingWindow(SlidingWindow.ONE_HOUR, 8);
+    window.add(1000, 20, 50, 0);
+    window.add(999, 20, 50, 0);
+  }
+
+  /**
+   * A window must have a length.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroLength() {
+    new SlidingWindow(0, 8);
+  }
+
+  /**
+   * Each station has its own windows of each length.
+   */
+  @Test
+  public void testStations() {
+    StationWindows windows = new StationWindows(1024);
+    windows.add("north", 0, new StevensonReading(10, 5, 3, 1));
+    windows.add("north", SlidingWindow.ONE_HOUR, new StevensonReading(20, 5, 3, 2));
+    windows.add("south", 0, new StevensonReading(30, 5, 3, 0));
+
+    assertEquals(1, windows.window("north", SlidingWindow.FIVE_MINUTES).size());
+    assertEquals(1, windows.window("north", SlidingWindow.ONE_HOUR).size());
+    assertEquals(15, windows.window("north", SlidingWindow.ONE_DAY).getTemperature().getMean(), 0);
+    assertEquals(30, windows.window("south", SlidingWindow.ONE_DAY).getTemperature().getMax(), 0);
+    assertNull(windows.window("east", SlidingWindow.ONE_HOUR));
+    assertEquals(2, windows.stations().size());
+  }
+
+  /**
+   * Only the lengths given at construction have windows.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownLength() {
+    new StationWindows(8).window("north", 1000);
+  }
+}
@@ -0,0 +1,272 @@
+package weather.alert;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+import weather.WeatherReading;
+
+/**
+ * Checks that rules fire once per crossing, that only the watched metrics are computed, that
+ * rules can be replaced while readings are evaluated, and that the index agrees with checking
+ * every rule.
+ */
+public class AlertEngineTest {
+
+  private final List<Alert> alerts = new ArrayList<>();
+  private final AlertSink sink = alerts::add;
+
+  /**
+   * A reading with a given rain that counts the derived metrics asked of it.
+   */
+  private static final class RainReading implements WeatherReading {
+    final int rain;
+    int derived;
+
+    RainReading(int rain) {
+      this.rain = rain;
+    }
+
+    @Override
+    public int getTemperature() {
+      return 20;
+    }
+
+    @Override
+    public int getDewPoint() {
+      return 10;
+    }
+
+    @Override
+    public int getWindSpeed() {
+      return 5;
+    }
+
+    @Override
+    public int getTotalRain() {
+      return rain;
+    }
+
+    @Override
+    public int getRelativeHumidity() {
+      derived++;
+      return 50;
+    }
+
+    @Override
+    public int getHeatIndex() {
+      derived++;
+      return 20;
+    }
+
+    @Override
+    public int getWindChill() {
+      derived++;
+      return 20;
+    }
+  }
+
+  private List<String> names() {
+    List<String> names = new ArrayList<>();
+    for (Alert alert : alerts) {
+      names.add(alert.getRule().getName());
+    }
+    alerts.clear();
+    return names;
+  }
+
+  /**
+   * Upper limits fire when the value rises past them and again only after it has come back.
+   */
+  @Test
+  public void testAbove() {
+    AlertEngine engine = new AlertEngine(List.of(
+        AlertRule.above("wet", Metric.TOTAL_RAIN, 10),
+        AlertRule.above("flood", Metric.TOTAL_RAIN, 50),
+        AlertRule.above("also wet", Metric.TOTAL_RAIN, 10)));
+    assertEquals(0, engine.evaluate(1, 100, new RainReading(5), sink));
+    assertEquals(0, engine.evaluate(1, 200, new RainReading(10), sink));
+    assertEquals(2, engine.evaluate(1, 300, new RainReading(11), sink));
+    assertEquals(List.of("wet", "also wet"), names());
+    assertEquals(0, engine.evaluate(1, 400, new RainReading(30), sink));
+    assertEquals(1, engine.evaluate(1, 500, new RainReading(80), sink));
+    Alert flood = alerts.get(0);
+    assertEquals("flood", flood.getRule().getName());
+    assertEquals(1, flood.getStation());
+    assertEquals(500, flood.getTimeMillis());
+    assertEquals(80, flood.getValue());
+    alerts.clear();
+    assertEquals(0, engine.evaluate(1, 600, new RainReading(0), sink));
+    assertEquals(3, engine.evaluate(1, 700, new RainReading(60), sink));
+
+    // Another station has its own state; its first reading fires what it is beyond.
+    assertEquals(2, engine.evaluate(2, 100, new RainReading(20), sink));
+  }
+
+  /**
+   * Lower limits fire when the value drops past them.
+   */
+  @Test
+  public void testBelow() {
+    AlertEngine engine = new AlertEngine(List.of(
+        AlertRule.below("cold", Metric.WIND_CHILL, 0),
+        AlertRule.below("frostbite", Metric.WIND_CHILL, -25)));
+    assertEquals(0, engine.evaluate(1, 0, new StevensonReading(5, 0, 10, 0), sink));
+    assertEquals(1, engine.evaluate(1, 0, new StevensonReading(-5, -10, 10, 0), sink));
+    assertEquals(List.of("cold"), names());
+    assertEquals(1, engine.evaluate(1, 0, new StevensonReading(-25, -30, 40, 0), sink));
+    assertEquals(List.of("frostbite"), names());
+    assertEquals(0, engine.evaluate(1, 0, new StevensonReading(-30, -30, 40, 0), sink));
+  }
+
+  /**
+   * Derived metrics are only computed when a rule watches them.
+   */
+  @Test
+  public void testOnlyWatchedMetricsComputed() {
+    AlertEngine engine = new AlertEngine(List.of(AlertRule.above("wet", Metric.TOTAL_RAIN, 10)));
+    RainReading reading = new RainReading(20);
+    engine.evaluate(1, 0, reading, sink);
+    assertEquals(0, reading.derived);
+    assertArrayEquals(new Metric[] {Metric.TOTAL_RAIN}, engine.getWatchedMetrics());
+
+    engine.setRules(List.of(AlertRule.above("hot", Metric.HEAT_INDEX, 40)));
+    reading = new RainReading(20);
+    engine.evaluate(1, 0, reading, sink);
+    assertTrue(reading.derived > 0);
+  }
+
+  /**
+   * Rules kept across a change keep their state; new rules fire for stations already beyond
+   * them; dropped rules stop firing.
+   */
+  @Test
+  public void testSetRules() {
+    AlertRule wet = AlertRule.above("wet", Metric.TOTAL_RAIN, 10);
+    AlertEngine engine = new AlertEngine(List.of(wet));
+    engine.evaluate(1, 0, new RainReading(20), sink);
+    assertEquals(List.of("wet"), names());
+
+    engine.setRules(List.of(AlertRule.above("wet", Metric.TOTAL_RAIN, 10),
+        AlertRule.above("damp", Metric.TOTAL_RAIN, 5),
+        AlertRule.above("soaked", Metric.TOTAL_RAIN, 25),
+        AlertRule.below("dry", Metric.TOTAL_RAIN, 1)));
+    assertEquals(4, engine.getRules().size());
+    assertEquals(2, engine.evaluate(1, 0, new RainReading(30), sink));
+    assertEquals(List.of("soaked", "damp"), names());
+    assertEquals(0, engine.evaluate(1, 0, new RainReading(30), sink));
+
+    engine.setRules(List.of(AlertRule.below("dry", Metric.TOTAL_RAIN, 1)));
+    assertEquals(1, engine.evaluate(1, 0, new RainReading(0), sink));
+    assertEquals(List.of("dry"), names());
+  }
+
+  /**
+   * The index raises the same alerts as checking every rule against the last and the new
+   * value, for single readings and for batches.
+   */
+  @Test
+  public void testAgreesWithEveryRule() {
+    Random random = new Random(42);
+    List<AlertRule> rules = new ArrayList<>();
+    Metric[] metrics = {Metric.HEAT_INDEX, Metric.WIND_CHILL, Metric.TOTAL_RAIN};
+    for (int i = 0; i < 300; i++) {
+      Metric metric = metrics[random.nextInt(metrics.length)];
+      int threshold = random.nextInt(80) - 30;
+      rules.add(random.nextBoolean()
+          ? AlertRule.above("rule " + i, metric, threshold)
+          : AlertRule.below("rule " + i, metric, threshold));
+    }
+    AlertEngine single = new AlertEngine(rules);
+    AlertEngine batched = new AlertEngine(rules);
+    List<Alert> batchAlerts = new ArrayList<>();
+
+    for (int station = 0; station < 20; station++) {
+      ReadingBatch batch = new ReadingBatch();
+      long[] times = new long[50];
+      WeatherReading last = null;
+      int expected = 0;
+      for (int i = 0; i < times.length; i++) {
+        double air = random.nextDouble() * 70 - 30;
+        StevensonReading reading = new StevensonReading(air, air - random.nextDouble() * 20,
+            random.nextDouble() * 40, random.nextDouble() * 40);
+        batch.add(reading.getAirTempCelcius(), reading.getDewPointCelcius(),
+            reading.getWindSpeedMph(), reading.getTotalRainReceived());
+        times[i] = i;
+        for (AlertRule rule : rules) {
+          int value = rule.getMetric().of(reading);
+          if (rule.matches(value)
+              && (last == null || !rule.matches(rule.getMetric().of(last)))) {
+            expected++;
+          }
+        }
+        int before = alerts.size();
+        assertEquals(expected - before, single.evaluate(station, i, reading, sink));
+        assertEquals(expected, alerts.size());
+        last = reading;
+      }
+      assertEquals(expected, batched.evaluate(station, times, batch, batchAlerts::add));
+      assertEquals(alerts.size(), batchAlerts.size());
+      for (int i = 0; i < alerts.size(); i++) {
+        assertEquals(alerts.get(i).getRule(), batchAlerts.get(i).getRule());
+        assertEquals(alerts.get(i).getValue(), batchAlerts.get(i).getValue());
+      }
+      alerts.clear();
+      batchAlerts.clear();
+    }
+  }
+
+  /**
+   * Readings evaluated while rules are replaced over and over are never held up and raise
+   * alerts for the rules of either set.
+   */
+  @Test
+  public void testSetRulesWhileEvaluating() throws InterruptedException {
+    AlertRule low = AlertRule.above("low", Metric.TOTAL_RAIN, 10);
+    AlertRule high = AlertRule.above("high", Metric.TOTAL_RAIN, 20);
+    AlertEngine engine = new AlertEngine(List.of(low));
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicLong fired = new AtomicLong();
+    AtomicInteger unexpected = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int station = t;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 20_000; i++) {
+          engine.evaluate(station, i, new RainReading(i % 2 == 0 ? 0 : 30), alert -> {
+            fired.incrementAndGet();
+            if (alert.getRule() != low && alert.getRule() != high) {
+              unexpected.incrementAndGet();
+            }
+          });
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    Thread swapper = new Thread(() -> {
+      boolean both = false;
+      while (!done.get()) {
+        engine.setRules(both ? List.of(low, high) : List.of(low));
+        both = !both;
+      }
+    });
+    swapper.start();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    done.set(true);
+    swapper.join();
+    assertEquals(0, unexpected.get());
+    // Every rise fires "low", which is in both sets.
+    assertTrue(fired.get() >= 4 * 10_000);
+  }
+}
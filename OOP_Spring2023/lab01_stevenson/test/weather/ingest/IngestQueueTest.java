@@ -0,0 +1,165 @@
+package weather.ingest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import weather.ReadingBatch;
+
+/**
+ * Checks the bound, the overflow policies and the latency counts of the ingest queue.
+ */
+public class IngestQueueTest {
+
+  private static ReadingBatch batch(int size) {
+    ReadingBatch batch = new ReadingBatch(size);
+    for (int i = 0; i < size; i++) {
+      batch.add(20, 10, 5, i);
+    }
+    return batch;
+  }
+
+  /**
+   * The newest batch is dropped when it does not fit, and a batch larger than the queue is
+   * let in when the queue is empty.
+   */
+  @Test
+  public void testDropNewest() throws InterruptedException {
+    IngestQueue queue = new IngestQueue(10, OverflowPolicy.DROP_NEWEST);
+    ReadingBatch first = batch(6);
+    assertTrue(queue.offer(first, 0));
+    assertTrue(queue.offer(batch(4), 0));
+    assertFalse(queue.offer(batch(1), 0));
+    assertEquals(10, queue.size());
+    assertSame(first, queue.take().getReadings());
+    assertEquals(4, queue.take().getReadings().size());
+    assertTrue(queue.offer(batch(25), 0));
+    assertEquals(25, queue.size());
+
+    IngestStats stats = queue.stats();
+    assertEquals(36, stats.getReceived());
+    assertEquals(1, stats.getDropped());
+    assertEquals(10, stats.getDelivered());
+  }
+
+  /**
+   * The oldest batches are dropped until the new one fits.
+   */
+  @Test
+  public void testDropOldest() throws InterruptedException {
+    IngestQueue queue = new IngestQueue(10, OverflowPolicy.DROP_OLDEST);
+    queue.offer(batch(3), 0);
+    queue.offer(batch(3), 0);
+    ReadingBatch kept = batch(3);
+    queue.offer(kept, 0);
+    ReadingBatch last = batch(6);
+    assertTrue(queue.offer(last, 0));
+    assertEquals(9, queue.size());
+    assertEquals(6, queue.stats().getDropped());
+    assertSame(kept, queue.take().getReadings());
+    assertSame(last, queue.take().getReadings());
+  }
+
+  /**
+   * A producer waits while the batch does not fit and goes on once a consumer takes, and a
+   * closed queue lets waiting producers go and consumers finish what is left.
+   */
+  @Test
+  public void testBlock() throws InterruptedException {
+    IngestQueue queue = new IngestQueue(10, OverflowPolicy.BLOCK);
+    queue.offer(batch(8), 0);
+    AtomicBoolean offered = new AtomicBoolean();
+    Thread producer = new Thread(() -> {
+      try {
+        offered.set(queue.offer(batch(5), 0));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    producer.start();
+    producer.join(100);
+    assertTrue(producer.isAlive());
+    assertEquals(8, queue.take().getReadings().size());
+    producer.join();
+    assertTrue(offered.get());
+    assertEquals(5, queue.size());
+
+    queue.offer(batch(5), 0);
+    Thread blocked = new Thread(() -> {
+      try {
+        offered.set(queue.offer(batch(5), 0));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    blocked.start();
+    blocked.join(100);
+    assertTrue(blocked.isAlive());
+    queue.close();
+    blocked.join();
+    assertFalse(offered.get());
+    assertFalse(queue.offer(batch(1), 0));
+    assertEquals(5, queue.take().getReadings().size());
+    assertEquals(5, queue.take().getReadings().size());
+    assertNull(queue.take());
+    assertNull(queue.poll(1, TimeUnit.SECONDS));
+    assertEquals(5, queue.stats().getDropped());
+  }
+
+  /**
+   * Draining takes whole batches up to a number of readings, and always the oldest batch.
+   */
+  @Test
+  public void testDrainTo() throws InterruptedException {
+    IngestQueue queue = new IngestQueue(100, OverflowPolicy.BLOCK);
+    queue.offer(batch(20), 0);
+    queue.offer(batch(20), 0);
+    queue.offer(batch(20), 0);
+    List<IngestBatch> out = new ArrayList<>();
+    assertEquals(40, queue.drainTo(out, 50));
+    assertEquals(2, out.size());
+    assertEquals(20, queue.drainTo(out, 10));
+    assertEquals(3, out.size());
+    assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    queue.close();
+    assertEquals(0, queue.drainTo(out, 10));
+  }
+
+  /**
+   * Latencies are counted per reading from the time the batch was received.
+   */
+  @Test
+  public void testLatency() throws InterruptedException {
+    IngestQueue queue = new IngestQueue(1000, OverflowPolicy.BLOCK);
+    long now = System.nanoTime();
+    queue.offer(batch(99), now);
+    queue.offer(batch(1), now - TimeUnit.SECONDS.toNanos(10));
+    queue.take();
+    queue.take();
+    IngestStats stats = queue.stats();
+    assertTrue(stats.getLatencyPercentile(99) < TimeUnit.SECONDS.toNanos(1));
+    assertTrue(stats.getLatencyPercentile(100) >= TimeUnit.SECONDS.toNanos(10));
+    assertEquals(stats.getMaxLatency(), stats.getLatencyPercentile(100));
+  }
+
+  /**
+   * Every bucket ends just before the next one starts, and percentiles are at most 1/16 high.
+   */
+  @Test
+  public void testBuckets() {
+    for (int bucket = 1; bucket < IngestStats.BUCKETS; bucket++) {
+      long start = IngestStats.bucketMax(bucket - 1) + 1;
+      assertEquals(bucket, IngestStats.bucket(start));
+      assertEquals(bucket, IngestStats.bucket(IngestStats.bucketMax(bucket)));
+      assertTrue(IngestStats.bucketMax(bucket) - start <= start / 16);
+    }
+    assertEquals(IngestStats.BUCKETS - 1, IngestStats.bucket(Long.MAX_VALUE));
+  }
+}
@@ -0,0 +1,166 @@
+package weather.ingest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+import weather.io.BinaryReadingFormat;
+
+/**
+ * Sends readings to a server on the loopback interface and checks what reaches the queue.
+ */
+public class IngestServerTest {
+
+  private static final InetSocketAddress ANY_PORT =
+      new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+  private IngestServer server;
+  private Thread consumer;
+
+  @After
+  public void tearDown() throws IOException, InterruptedException {
+    if (server != null) {
+      server.close();
+    }
+    if (consumer != null) {
+      consumer.interrupt();
+      consumer.join();
+    }
+  }
+
+  /**
+   * Starts a thread that takes batches from the queue until it is interrupted, pausing after
+   * each drain.
+   */
+  private void consume(IngestQueue queue, long pauseMillis) {
+    consumer = new Thread(() -> {
+      List<IngestBatch> batches = new ArrayList<>();
+      try {
+        while (true) {
+          batches.clear();
+          queue.drainTo(batches, 1 << 16);
+          Thread.sleep(pauseMillis);
+        }
+      } catch (InterruptedException e) {
+        // Done.
+      }
+    });
+    consumer.start();
+  }
+
+  /**
+   * Every reading sent on many connections at once reaches a small blocking queue, in both
+   * formats, because the connections wait for the consumer instead of dropping.
+   */
+  @Test
+  public void testLoadWithBackpressure() throws IOException, InterruptedException {
+    for (IngestFormat format : IngestFormat.values()) {
+      IngestQueue queue = new IngestQueue(4096, OverflowPolicy.BLOCK);
+      server = IngestServer.tcp(ANY_PORT, format, queue);
+      consume(queue, 0);
+
+      LoadGenerator generator = new LoadGenerator(server.getAddress(), format, 8, 50_000);
+      LoadGenerator.Report report = generator.run(queue.stats(), 60, TimeUnit.SECONDS);
+      assertEquals(400_000, report.getSent());
+      assertEquals(400_000, report.getSettled());
+      assertEquals(0, report.getDropped());
+      assertTrue(report.getReadingsPerSecond() > 0);
+      assertTrue(report.getP99LatencyNanos() > 0);
+      assertEquals(400_000, queue.stats().getDelivered());
+      assertEquals(8, queue.stats().getConnections());
+      assertEquals(0, queue.stats().getRejected());
+
+      server.close();
+      consumer.interrupt();
+      consumer.join();
+    }
+  }
+
+  /**
+   * A queue that drops keeps the connections reading at full speed while the consumer lags,
+   * and counts what it drops. Each report covers its own run only, and its rate counts only
+   * the readings delivered.
+   */
+  @Test
+  public void testLoadWithDrops() throws IOException, InterruptedException {
+    IngestQueue queue = new IngestQueue(4096, OverflowPolicy.DROP_OLDEST);
+    server = IngestServer.tcp(ANY_PORT, IngestFormat.BINARY, queue);
+    consume(queue, 5);
+    LoadGenerator generator =
+        new LoadGenerator(server.getAddress(), IngestFormat.BINARY, 4, 50_000);
+    long dropped = 0;
+    for (int run = 0; run < 2; run++) {
+      LoadGenerator.Report report = generator.run(queue.stats(), 60, TimeUnit.SECONDS);
+      assertEquals(200_000, report.getSettled());
+      assertEquals(200_000, report.getDelivered() + report.getDropped());
+      assertTrue(report.getDropped() > 0);
+      assertEquals(report.getDelivered() * 1e9 / report.getElapsedNanos(),
+          report.getReadingsPerSecond(), 1e-6);
+      dropped += report.getDropped();
+    }
+    assertEquals(dropped, queue.stats().getDropped());
+    assertEquals(400_000, queue.stats().getDelivered() + queue.stats().getDropped());
+  }
+
+  /**
+   * Invalid rows are counted and skipped, and the rest of the connection is read.
+   */
+  @Test
+  public void testRejects() throws IOException, InterruptedException {
+    IngestQueue queue = new IngestQueue(100, OverflowPolicy.BLOCK);
+    server = IngestServer.tcp(ANY_PORT, IngestFormat.CSV, queue);
+    try (SocketChannel channel = SocketChannel.open(server.getAddress())) {
+      channel.write(StandardCharsets.US_ASCII.encode("30,20,15,1\n10,20,15,1\nx\n3,2,1,0"));
+    }
+    List<IngestBatch> batches = new ArrayList<>();
+    int readings = 0;
+    while (readings < 2) {
+      readings += queue.drainTo(batches, 100);
+    }
+    assertEquals(new StevensonReading(30, 20, 15, 1), batches.get(0).getReadings().toReading(0));
+    while (queue.stats().getRejected() < 2) {
+      Thread.sleep(1);
+    }
+    assertEquals(2, queue.stats().getRejected());
+  }
+
+  /**
+   * Each datagram is a stream of its own, with its own header.
+   */
+  @Test
+  public void testUdp() throws IOException, InterruptedException {
+    IngestQueue queue = new IngestQueue(100, OverflowPolicy.BLOCK);
+    server = IngestServer.udp(ANY_PORT, IngestFormat.BINARY, queue);
+    try (DatagramChannel channel = DatagramChannel.open()) {
+      for (int i = 0; i < 3; i++) {
+        ByteBuffer datagram = ByteBuffer.allocate(
+            BinaryReadingFormat.HEADER_BYTES + 2 * BinaryReadingFormat.RECORD_BYTES);
+        BinaryReadingFormat.writeHeader(datagram);
+        BinaryReadingFormat.encode(new StevensonReading(30, 20, 15, i), datagram);
+        BinaryReadingFormat.encode(new StevensonReading(3, 2, 1, i), datagram);
+        channel.send(datagram.flip(), server.getAddress());
+      }
+    }
+    for (int i = 0; i < 3; i++) {
+      IngestBatch batch = queue.poll(10, TimeUnit.SECONDS);
+      // Loopback datagrams are not lost in practice, but may be reordered.
+      ReadingBatch readings = batch.getReadings();
+      assertEquals(2, readings.size());
+      assertEquals(readings.rain(0), readings.rain(1), 0);
+    }
+    assertEquals(6, queue.stats().getDelivered());
+  }
+}
@@ -0,0 +1,115 @@
+package weather.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Test;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+
+/**
+ * Tests encoding and decoding readings as binary records.
+ */
+public class BinaryReadingFormatTest {
+
+  private final StevensonReading[] readings = {
+      new StevensonReading(30.123456789, 20.987654321, 15.5, 1.25),
+      new StevensonReading(-12.75, -40.0625, 0, 0),
+      new StevensonReading(99.596363, 98.579070, 7.347576, 59)};
+
+  /**
+   * Tests that readings keep their exact values through a buffer in either byte order.
+   */
+  @Test
+  public void testRoundTrip() {
+    for (ByteOrder order : new ByteOrder[] {ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+      ByteBuffer buffer = ByteBuffer.allocate(readings.length * BinaryReadingFormat.RECORD_BYTES)
+          .order(order);
+      BinaryReadingFormat.encode(readings, buffer);
+      assertEquals(0, buffer.remaining());
+      buffer.flip();
+      assertArrayEquals(readings, BinaryReadingFormat.decode(buffer, readings.length));
+      assertEquals(order, buffer.order());
+    }
+  }
+
+  /**
+   * Tests that both byte orders produce the same bytes.
+   */
+  @Test
+  public void testSameBytesInEitherOrder() {
+    ByteBuffer little = ByteBuffer.allocate(BinaryReadingFormat.RECORD_BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    ByteBuffer big = ByteBuffer.allocate(BinaryReadingFormat.RECORD_BYTES)
+        .order(ByteOrder.BIG_ENDIAN);
+    BinaryReadingFormat.encode(readings[0], little);
+    BinaryReadingFormat.encode(readings[0], big);
+    assertArrayEquals(little.array(), big.array());
+  }
+
+  /**
+   * Tests the bulk methods for batches, with a header in front of the records.
+   */
+  @Test
+  public void testBatchRoundTrip() throws IOException {
+    ReadingBatch batch = new ReadingBatch();
+    for (StevensonReading reading : readings) {
+      batch.add(reading.getAirTempCelcius(), reading.getDewPointCelcius(),
+          reading.getWindSpeedMph(), reading.getTotalRainReceived());
+    }
+    ByteBuffer buffer = ByteBuffer.allocateDirect(
+        BinaryReadingFormat.HEADER_BYTES + batch.size() * BinaryReadingFormat.RECORD_BYTES + 3);
+    BinaryReadingFormat.writeHeader(buffer);
+    BinaryReadingFormat.encode(batch, buffer);
+    buffer.put((byte) 1).put((byte) 2).put((byte) 3).flip();
+
+    BinaryReadingFormat.readHeader(buffer);
+    ReadingBatch decoded = new ReadingBatch();
+    assertEquals(3, BinaryReadingFormat.decodeInto(buffer, decoded));
+    assertEquals("partial record left", 3, buffer.remaining());
+    for (int i = 0; i < readings.length; i++) {
+      assertEquals(readings[i], decoded.toReading(i));
+    }
+  }
+
+  /**
+   * Tests that nothing is written when the records do not fit.
+   */
+  @Test
+  public void testDoesNotFit() {
+    ByteBuffer buffer = ByteBuffer.allocate(2 * BinaryReadingFormat.RECORD_BYTES);
+    try {
+      BinaryReadingFormat.encode(readings, buffer);
+    } catch (BufferOverflowException e) {
+      assertEquals(0, buffer.position());
+      return;
+    }
+    throw new AssertionError("expected BufferOverflowException");
+  }
+
+  /**
+   * Tests that a record that is not a valid reading is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRecord() {
+    ByteBuffer buffer = ByteBuffer.allocate(BinaryReadingFormat.RECORD_BYTES)
+        .order(BinaryReadingFormat.ORDER);
+    buffer.putDouble(10).putDouble(20).putDouble(5).putDouble(1).flip();
+    BinaryReadingFormat.decode(buffer);
+  }
+
+  /**
+   * Tests that a header with another version is refused.
+   */
+  @Test(expected = IOException.class)
+  public void testUnknownVersion() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(BinaryReadingFormat.HEADER_BYTES)
+        .order(BinaryReadingFormat.ORDER);
+    buffer.putInt(BinaryReadingFormat.MAGIC).putShort((short) 2).putShort((short) 0).flip();
+    BinaryReadingFormat.readHeader(buffer);
+  }
+}
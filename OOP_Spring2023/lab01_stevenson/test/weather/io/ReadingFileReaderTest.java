@@ -0,0 +1,198 @@
+package weather.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+import weather.WeatherReading;
+
+/**
+ * Tests reading CSV and binary station dumps.
+ */
+public class ReadingFileReaderTest {
+
+  private Path file;
+  private List<Long> rejected;
+  private RejectSink rejects;
+
+  /**
+   * Create a scratch file and a sink that remembers the rejected rows.
+   */
+  @Before
+  public void setUp() throws IOException {
+    file = Files.createTempFile("readings", ".dat");
+    rejected = new ArrayList<>();
+    rejects = (row, reason) -> rejected.add(row);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  private void writeCsv(String text) throws IOException {
+    Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Tests a small CSV file with a header, a blank line and Windows line endings.
+   */
+  @Test
+  public void testCsv() throws IOException {
+    writeCsv("air,dew,wind,rain\r\n30,20,15,1\r\n\r\n 20.5 , -10.25,+15,25.0\n");
+    try (ReadingFileReader reader = ReadingFileReader.csv(file, true, rejects)) {
+      ReadingBatch batch = reader.readAll();
+      assertEquals(2, batch.size());
+      assertEquals(new StevensonReading(30, 20, 15, 1), batch.toReading(0));
+      assertEquals(new StevensonReading(20.5, -10.25, 15, 25), batch.toReading(1));
+    }
+    assertTrue(rejected.isEmpty());
+  }
+
+  /**
+   * Tests that bad rows are rejected with their line numbers and the rest is still read.
+   */
+  @Test
+  public void testCsvRejects() throws IOException {
+    writeCsv("30,20,15,1\n30,20,15\n30,x,15,1\n10,20,15,1\n30,20,15,1,2\n30,20,-1,1\n"
+        + "1e1,5,3,2");
+    try (ReadingFileReader reader = ReadingFileReader.csv(file, false, rejects)) {
+      ReadingBatch batch = reader.readAll();
+      assertEquals(2, batch.size());
+      assertEquals(new StevensonReading(10, 5, 3, 2), batch.toReading(1));
+    }
+    assertEquals(List.of(2L, 3L, 4L, 5L, 6L), rejected);
+  }
+
+  /**
+   * Tests that lines split across small windows are read whole, and that a line longer than a
+   * window is rejected without losing the lines after it.
+   */
+  @Test
+  public void testCsvWindows() throws IOException {
+    writeCsv("30,20,15,1\n31.5,20.25,15.125,1\n3,2,1,0000000000000000000000000000000\n"
+        + "30,20,15,1\n");
+    try (ReadingFileReader reader = new CsvReadingReader(file, false, rejects, 24)) {
+      ReadingBatch batch = reader.readAll();
+      assertEquals(3, batch.size());
+      assertEquals(new StevensonReading(31.5, 20.25, 15.125, 1), batch.toReading(1));
+      assertEquals(new StevensonReading(30, 20, 15, 1), batch.toReading(2));
+    }
+    assertEquals(List.of(3L), rejected);
+  }
+
+  /**
+   * Tests that numbers parsed from bytes equal those of Double.parseDouble.
+   */
+  @Test
+  public void testCsvNumbers() throws IOException {
+    Random random = new Random(7);
+    StringBuilder text = new StringBuilder();
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      String air = String.format(Locale.ROOT, "%." + (i % 12) + "f",
+          random.nextDouble() * 100 - 50);
+      String line = String.format(Locale.ROOT, "%s,%s,%s,%s", air,
+          Double.parseDouble(air) - random.nextDouble() * 10, random.nextDouble() * 30,
+          random.nextDouble());
+      lines.add(line);
+      text.append(line).append('\n');
+    }
+    writeCsv(text.toString());
+    try (ReadingFileReader reader = ReadingFileReader.csv(file, false, rejects)) {
+      ReadingBatch batch = reader.readAll();
+      assertEquals(lines.size(), batch.size());
+      for (int i = 0; i < lines.size(); i++) {
+        String[] fields = lines.get(i).split(",");
+        assertEquals(lines.get(i), Double.parseDouble(fields[0]), batch.airTemp(i), 0);
+        assertEquals(lines.get(i), Double.parseDouble(fields[1]), batch.dewPoint(i), 0);
+        assertEquals(lines.get(i), Double.parseDouble(fields[2]), batch.windSpeed(i), 0);
+        assertEquals(lines.get(i), Double.parseDouble(fields[3]), batch.rain(i), 0);
+      }
+    }
+  }
+
+  /**
+   * Tests reading a CSV file as a stream.
+   */
+  @Test
+  public void testCsvStream() throws IOException {
+    writeCsv("30,20,15,1\n10,20,15,1\n20,10,15,25\n");
+    List<WeatherReading> readings;
+    try (Stream<WeatherReading> stream =
+        ReadingFileReader.csv(file, false, rejects).stream()) {
+      readings = stream.collect(Collectors.toList());
+    }
+    assertEquals(
+        List.of(new StevensonReading(30, 20, 15, 1), new StevensonReading(20, 10, 15, 25)),
+        readings);
+    assertEquals(List.of(2L), rejected);
+  }
+
+  /**
+   * Tests writing and reading back a binary file across several windows.
+   */
+  @Test
+  public void testBinary() throws IOException {
+    ReadingBatch written = new ReadingBatch();
+    Random random = new Random(11);
+    for (int i = 0; i < 1000; i++) {
+      double air = random.nextDouble() * 100 - 50;
+      written.add(air, air - random.nextDouble() * 10, random.nextDouble() * 30, i);
+    }
+    BinaryReadingFormat.write(file, written);
+
+    try (ReadingFileReader reader = new BinaryReadingReader(file, rejects, 100)) {
+      ReadingBatch read = reader.readAll();
+      assertEquals(written.size(), read.size());
+      for (int i = 0; i < read.size(); i++) {
+        assertEquals(written.toReading(i), read.toReading(i));
+      }
+    }
+    assertTrue(rejected.isEmpty());
+  }
+
+  /**
+   * Tests that invalid and truncated binary records are rejected.
+   */
+  @Test
+  public void testBinaryRejects() throws IOException {
+    BinaryReadingFormat.write(file, new ReadingBatch(
+        new double[] {30, 20}, new double[] {20, 10}, new double[] {15, 15}, new double[] {1, 2}));
+    byte[] bytes = Files.readAllBytes(file);
+    // Make the dew point of the first record larger than the air temperature.
+    bytes[BinaryReadingFormat.HEADER_BYTES + 15] = (byte) 0x47;
+    byte[] truncated = new byte[bytes.length + 5];
+    System.arraycopy(bytes, 0, truncated, 0, bytes.length);
+    Files.write(file, truncated);
+
+    try (Stream<WeatherReading> stream = ReadingFileReader.binary(file, rejects).stream()) {
+      assertEquals(List.of(new StevensonReading(20, 10, 15, 2)),
+          stream.collect(Collectors.toList()));
+    }
+    assertEquals(List.of(0L, 2L), rejected);
+  }
+
+  /**
+   * Tests that a file without the binary header is refused.
+   */
+  @Test(expected = IOException.class)
+  public void testBinaryBadHeader() throws IOException {
+    writeCsv("30,20,15,1\n");
+    ReadingFileReader.binary(file, rejects);
+  }
+}
@@ -0,0 +1,148 @@
+package weather.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import weather.ReadingBatch;
+import weather.StevensonReading;
+
+/**
+ * Tests decoding readings from streams that arrive in pieces of every size.
+ */
+public class ReadingStreamDecoderTest {
+
+  private List<Long> rejected;
+  private RejectSink rejects;
+
+  /**
+   * Create a sink that remembers the rejected rows.
+   */
+  @Before
+  public void setUp() {
+    rejected = new ArrayList<>();
+    rejects = (row, reason) -> rejected.add(row);
+  }
+
+  /**
+   * Feeds a stream to a decoder in pieces of {@code piece} bytes through a buffer of
+   * {@code capacity} bytes, as a socket would.
+   */
+  private static ReadingBatch feed(ReadingStreamDecoder decoder, byte[] stream, int piece,
+      int capacity) throws IOException {
+    ReadingBatch batch = new ReadingBatch();
+    ByteBuffer buffer = ByteBuffer.allocate(capacity);
+    int sent = 0;
+    while (sent < stream.length) {
+      int length = Math.min(Math.min(piece, buffer.remaining()), stream.length - sent);
+      buffer.put(stream, sent, length);
+      sent += length;
+      buffer.flip();
+      decoder.decode(buffer, batch);
+      buffer.compact();
+    }
+    buffer.flip();
+    decoder.finish(buffer, batch);
+    assertEquals(0, buffer.remaining());
+    return batch;
+  }
+
+  /**
+   * Tests CSV lines split anywhere, with a header, a blank line, Windows line endings and a
+   * last line without a newline.
+   */
+  @Test
+  public void testCsvPieces() throws IOException {
+    byte[] stream = "air,dew,wind,rain\r\n30,20,15,1\r\n\r\n 20.5 , -10.25,+15,25.0\n3,2,1,0"
+        .getBytes(StandardCharsets.US_ASCII);
+    for (int piece = 1; piece <= stream.length; piece++) {
+      ReadingBatch batch = feed(ReadingStreamDecoder.csv(true, rejects), stream, piece, 64);
+      assertEquals(3, batch.size());
+      assertEquals(new StevensonReading(30, 20, 15, 1), batch.toReading(0));
+      assertEquals(new StevensonReading(20.5, -10.25, 15, 25), batch.toReading(1));
+      assertEquals(new StevensonReading(3, 2, 1, 0), batch.toReading(2));
+    }
+    assertTrue(rejected.isEmpty());
+  }
+
+  /**
+   * Tests that bad lines are rejected with their line numbers, that a line longer than the
+   * buffer is rejected without losing the lines after it, and that a decoder starts over after
+   * a stream ends.
+   */
+  @Test
+  public void testCsvRejects() throws IOException {
+    byte[] stream = ("30,20,15,1\n30,20,15\n30,x,15,1\n10,20,15,1\n"
+        + "3,2,1,0000000000000000000000000000000\n1e1,5,3,2")
+        .getBytes(StandardCharsets.US_ASCII);
+    ReadingStreamDecoder decoder = ReadingStreamDecoder.csv(false, rejects);
+    ReadingBatch batch = feed(decoder, stream, 7, 24);
+    assertEquals(2, batch.size());
+    assertEquals(new StevensonReading(10, 5, 3, 2), batch.toReading(1));
+    assertEquals(List.of(2L, 3L, 4L, 5L), rejected);
+
+    rejected.clear();
+    batch = feed(decoder, stream, 7, 24);
+    assertEquals(2, batch.size());
+    assertEquals(List.of(2L, 3L, 4L, 5L), rejected);
+  }
+
+  /**
+   * Tests binary records split anywhere, including inside the header, and a truncated last
+   * record.
+   */
+  @Test
+  public void testBinaryPieces() throws IOException {
+    ReadingBatch written = new ReadingBatch();
+    written.add(30, 20, 15, 1);
+    written.add(-5.5, -7.25, 0, 0);
+    written.add(12, 12, 3, 100);
+    ByteBuffer out = ByteBuffer.allocate(BinaryReadingFormat.HEADER_BYTES
+        + 3 * BinaryReadingFormat.RECORD_BYTES + 5);
+    BinaryReadingFormat.writeHeader(out);
+    BinaryReadingFormat.encode(written, out);
+    out.put(new byte[5]);
+    byte[] stream = out.array();
+    for (int piece = 1; piece <= stream.length; piece++) {
+      rejected.clear();
+      ReadingBatch batch = feed(ReadingStreamDecoder.binary(rejects), stream, piece, 40);
+      assertEquals(3, batch.size());
+      for (int i = 0; i < 3; i++) {
+        assertEquals(written.toReading(i), batch.toReading(i));
+      }
+      assertEquals(List.of(3L), rejected);
+    }
+  }
+
+  /**
+   * Tests that invalid records are rejected with their indexes and that a stream with a bad
+   * header fails.
+   */
+  @Test
+  public void testBinaryRejects() throws IOException {
+    ByteBuffer out = ByteBuffer.allocate(BinaryReadingFormat.HEADER_BYTES
+        + 3 * BinaryReadingFormat.RECORD_BYTES).order(BinaryReadingFormat.ORDER);
+    BinaryReadingFormat.writeHeader(out);
+    BinaryReadingFormat.encode(new StevensonReading(30, 20, 15, 1), out);
+    out.putDouble(10).putDouble(20).putDouble(15).putDouble(1);
+    BinaryReadingFormat.encode(new StevensonReading(3, 2, 1, 0), out);
+    ReadingBatch batch = feed(ReadingStreamDecoder.binary(rejects), out.array(), 50, 64);
+    assertEquals(2, batch.size());
+    assertEquals(List.of(1L), rejected);
+
+    try {
+      feed(ReadingStreamDecoder.binary(rejects), "30,20,15,1\n".getBytes(
+          StandardCharsets.US_ASCII), 50, 64);
+      fail("A CSV stream is not binary");
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+}
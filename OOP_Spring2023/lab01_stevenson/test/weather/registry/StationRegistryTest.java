@@ -0,0 +1,174 @@
+package weather.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import weather.StevensonReading;
+import weather.WeatherReading;
+
+/**
+ * Checks the latest reading of stations, alone and with many threads, and that snapshots are
+ * consistent across stations while readings are pushed.
+ */
+public class StationRegistryTest {
+
+  private static final WeatherReading READING = new StevensonReading(20, 10, 5, 0);
+
+  private final StationRegistry registry = new StationRegistry();
+
+  /**
+   * The latest reading is the one with the latest time.
+   */
+  @Test
+  public void testLatest() {
+    assertNull(registry.latest(1));
+    WeatherReading first = new StevensonReading(1, 0, 0, 0);
+    WeatherReading second = new StevensonReading(2, 0, 0, 0);
+    WeatherReading third = new StevensonReading(3, 0, 0, 0);
+    assertTrue(registry.update(1, 100, first));
+    assertTrue(registry.update(1, 200, second));
+    assertFalse(registry.update(1, 150, first));
+    assertSame(second, registry.latest(1).getReading());
+    assertTrue(registry.update(1, 200, third));
+    assertSame(third, registry.latest(1).getReading());
+    assertEquals(200, registry.latest(1).getTimeMillis());
+    assertEquals(1, registry.latest(1).getStation());
+    assertNull(registry.latest(2));
+    assertEquals(1, registry.size());
+  }
+
+  /**
+   * The table grows to hold many stations, including negative and colliding ids.
+   */
+  @Test
+  public void testManyStations() {
+    for (int i = 0; i < 10_000; i++) {
+      registry.update(i * 1024 - 5_000_000, i, READING);
+    }
+    assertEquals(10_000, registry.size());
+    for (int i = 0; i < 10_000; i++) {
+      assertEquals(i, registry.latest(i * 1024 - 5_000_000).getTimeMillis());
+    }
+    assertEquals(10_000, registry.snapshot().size());
+  }
+
+  /**
+   * A snapshot holds the latest reading of each station.
+   */
+  @Test
+  public void testSnapshot() {
+    assertTrue(registry.snapshot().isEmpty());
+    registry.update(7, 1, READING);
+    registry.update(8, 2, READING);
+    registry.update(7, 3, READING);
+    Map<Integer, Long> times = new HashMap<>();
+    for (LatestReading latest : registry.snapshot()) {
+      times.put(latest.getStation(), latest.getTimeMillis());
+    }
+    assertEquals(Map.of(7, 3L, 8, 2L), times);
+  }
+
+  /**
+   * Each writer updates its own group of stations in turn with a rising count as the time, so
+   * at any moment the stations of a group hold one count, or the next count up to some
+   * station. A snapshot that mixed two moments could break that.
+   */
+  @Test(timeout = 60_000)
+  public void testSnapshotsAreConsistent() throws Exception {
+    int writers = 4;
+    int group = 256;
+    int rounds = 2_000;
+    AtomicBoolean done = new AtomicBoolean();
+    List<Thread> threads = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      int first = group * w;
+      Thread thread = new Thread(() -> {
+        for (long k = 1; k <= rounds; k++) {
+          for (int station = first; station < first + group; station++) {
+            registry.update(station, k, READING);
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    Thread waiter = new Thread(() -> {
+      for (Thread thread : threads) {
+        try {
+          thread.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      done.set(true);
+    });
+    waiter.start();
+
+    int snapshots = 0;
+    do {
+      long[] times = new long[writers * group];
+      for (LatestReading latest : registry.snapshot()) {
+        times[latest.getStation()] = latest.getTimeMillis();
+      }
+      for (int w = 0; w < writers; w++) {
+        int first = group * w;
+        int last = first + group - 1;
+        assertTrue("group " + w + " spans " + times[last] + " to " + times[first],
+            times[first] - times[last] <= 1);
+        for (int station = first + 1; station <= last; station++) {
+          assertTrue("station " + station + " is ahead of the one before",
+              times[station] <= times[station - 1]);
+        }
+      }
+      snapshots++;
+    } while (!done.get());
+    waiter.join();
+    assertTrue(snapshots > 0);
+    for (int station = 0; station < writers * group; station++) {
+      assertEquals(rounds, registry.latest(station).getTimeMillis());
+    }
+  }
+
+  /**
+   * Concurrent writers of the same stations keep the latest time.
+   */
+  @Test(timeout = 60_000)
+  public void testConcurrentWritersKeepLatest() throws Exception {
+    List<Thread> threads = new ArrayList<>();
+    for (int w = 0; w < 4; w++) {
+      int offset = w;
+      Thread thread = new Thread(() -> {
+        for (int k = offset; k < 100_000; k += 4) {
+          registry.update(k % 64, k, READING);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(64, registry.size());
+    for (int station = 0; station < 64; station++) {
+      long expected = (99_999 - station) / 64 * 64 + station;
+      assertEquals(expected, registry.latest(station).getTimeMillis());
+    }
+  }
+
+  /**
+   * A negative capacity is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeCapacity() {
+    new StationRegistry(-1);
+  }
+}
@@ -0,0 +1,210 @@
+package weather.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+import weather.ReadingBatch;
+
+/**
+ * Checks that stored readings decode to exactly the values appended, that scans return exactly
+ * the readings in their range, and that realistic readings compress to the target size.
+ */
+public class ReadingStoreTest {
+
+  private static final int COUNT = 50_000;
+
+  private final Random random = new Random(2023);
+  private final long[] times = new long[COUNT];
+  private final double[][] channels = new double[4][COUNT];
+
+  /**
+   * Creates a feed of one reading a minute, with occasional late or repeated readings, whose
+   * values drift in steps of the sensor resolution.
+   */
+  private void createRealisticFeed() {
+    long time = 1_672_531_200_000L;
+    double temperature = 15;
+    double dewPoint = 8;
+    double wind = 5;
+    double rain = 0;
+    for (int i = 0; i < COUNT; i++) {
+      time += i % 97 == 0 ? random.nextInt(3) * 1000 : 60_000;
+      temperature = Math.round((temperature + (random.nextInt(5) - 2) * 0.1) * 10) / 10.0;
+      dewPoint = Math.min(temperature,
+          Math.round((dewPoint + (random.nextInt(3) - 1) * 0.1) * 10) / 10.0);
+      wind = Math.max(0, Math.round((wind + (random.nextInt(9) - 4) * 0.1) * 10) / 10.0);
+      if (random.nextInt(200) == 0) {
+        rain = Math.round((rain + random.nextInt(50) * 0.01) * 100) / 100.0;
+      }
+      set(i, time, temperature, dewPoint, wind, rain);
+    }
+  }
+
+  private void set(int i, long time, double temperature, double dewPoint, double wind,
+      double rain) {
+    times[i] = time;
+    channels[0][i] = temperature;
+    channels[1][i] = dewPoint;
+    channels[2][i] = wind;
+    channels[3][i] = rain;
+  }
+
+  private StationSeries append(int count) {
+    StationSeries series = new StationSeries();
+    for (int i = 0; i < count; i++) {
+      series.append(times[i], channels[0][i], channels[1][i], channels[2][i], channels[3][i]);
+    }
+    return series;
+  }
+
+  /**
+   * Checks that a scan returned readings {@code from} to {@code to} bit for bit.
+   */
+  private void assertScan(int from, int to, long[] scanned, ReadingBatch batch) {
+    assertEquals(to - from, scanned.length);
+    assertEquals(to - from, batch.size());
+    for (int i = from; i < to; i++) {
+      assertEquals(times[i], scanned[i - from]);
+      assertEquals(Double.doubleToRawLongBits(channels[0][i]),
+          Double.doubleToRawLongBits(batch.airTemp(i - from)));
+      assertEquals(Double.doubleToRawLongBits(channels[1][i]),
+          Double.doubleToRawLongBits(batch.dewPoint(i - from)));
+      assertEquals(Double.doubleToRawLongBits(channels[2][i]),
+          Double.doubleToRawLongBits(batch.windSpeed(i - from)));
+      assertEquals(Double.doubleToRawLongBits(channels[3][i]),
+          Double.doubleToRawLongBits(batch.rain(i - from)));
+    }
+  }
+
+  /**
+   * Realistic readings decode exactly and take less than four bytes per channel, including
+   * the time.
+   */
+  @Test
+  public void testRealisticFeed() {
+    createRealisticFeed();
+    StationSeries series = append(COUNT);
+    ReadingBatch batch = new ReadingBatch();
+    assertScan(0, COUNT, series.scan(Long.MIN_VALUE, Long.MAX_VALUE, batch), batch);
+    assertTrue("bytes per sample " + series.bytesPerSample(), series.bytesPerSample() < 16);
+  }
+
+  /**
+   * Values that are not short decimals, including extremes, decode bit for bit.
+   */
+  @Test
+  public void testArbitraryValues() {
+    double[] special = {0.0, -0.0, Double.MIN_VALUE, Double.MAX_VALUE, 1e300, 1e-300,
+        Double.POSITIVE_INFINITY, 123456789.123, 0.1 + 0.2};
+    long time = 0;
+    for (int i = 0; i < COUNT; i++) {
+      time += random.nextInt(4) == 0 ? random.nextLong() >>> 40 : 0;
+      double value = i % 50 == 0
+          ? special[random.nextInt(special.length)]
+          : random.nextDouble() * 100;
+      double dewPoint = i % 3 == 0 ? value : -random.nextDouble() * 1e6;
+      set(i, time, value, Math.min(value, dewPoint), value, i % 5 == 0 ? value : 0.3);
+    }
+    StationSeries series = append(COUNT);
+    ReadingBatch batch = new ReadingBatch();
+    assertScan(0, COUNT, series.scan(Long.MIN_VALUE, Long.MAX_VALUE, batch), batch);
+  }
+
+  /**
+   * Scans return exactly the readings in their range, across blocks and from the block still
+   * being filled.
+   */
+  @Test
+  public void testRangeScans() {
+    createRealisticFeed();
+    int count = 10 * StationSeries.BLOCK_SAMPLES + 17;
+    StationSeries series = append(count);
+    for (int q = 0; q < 200; q++) {
+      int from = random.nextInt(count);
+      int to = from + random.nextInt(Math.min(count - from, 3000));
+      // Include readings that share the first or last time.
+      while (from > 0 && times[from - 1] == times[from]) {
+        from--;
+      }
+      while (to < count && times[to] == times[to - 1]) {
+        to++;
+      }
+      ReadingBatch batch = new ReadingBatch();
+      assertScan(from, to, series.scan(times[from], times[to - 1], batch), batch);
+    }
+  }
+
+  /**
+   * Scans outside the readings, or with an empty range, return nothing.
+   */
+  @Test
+  public void testEmptyScans() {
+    createRealisticFeed();
+    StationSeries series = append(5000);
+    ReadingBatch batch = new ReadingBatch();
+    assertEquals(0, series.scan(Long.MIN_VALUE, times[0] - 1, batch).length);
+    assertEquals(0, series.scan(times[4999] + 1, Long.MAX_VALUE, batch).length);
+    assertEquals(0, series.scan(times[100], times[99], batch).length);
+    assertEquals(0, batch.size());
+    assertEquals(0, new StationSeries().scan(Long.MIN_VALUE, Long.MAX_VALUE, batch).length);
+  }
+
+  /**
+   * The store keeps each station apart.
+   */
+  @Test
+  public void testStations() {
+    createRealisticFeed();
+    ReadingStore store = new ReadingStore();
+    for (int i = 0; i < 2000; i++) {
+      store.append(i % 2 == 0 ? "even" : "odd", times[i], channels[0][i], channels[1][i],
+          channels[2][i], channels[3][i]);
+    }
+    assertEquals(2000, store.size());
+    assertEquals(2, store.stations().size());
+    ReadingBatch batch = new ReadingBatch();
+    long[] scanned = store.scan("odd", Long.MIN_VALUE, Long.MAX_VALUE, batch);
+    assertEquals(1000, scanned.length);
+    assertEquals(times[1], scanned[0]);
+    assertEquals(channels[0][1999], batch.airTemp(999), 0);
+    assertEquals(0, store.scan("none", Long.MIN_VALUE, Long.MAX_VALUE, batch).length);
+    assertEquals(store.series("odd").compressedBytes() + store.series("even").compressedBytes(),
+        store.compressedBytes());
+  }
+
+  /**
+   * A reading older than the last one is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testOlderReading() {
+    StationSeries series = new StationSeries();
+    series.append(1000, 20, 10, 5, 0);
+    series.append(999, 20, 10, 5, 0);
+  }
+
+  /**
+   * An invalid reading is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidReading() {
+    new StationSeries().append(1000, 10, 20, 5, 0);
+  }
+
+  /**
+   * The times and channels of readings are not mixed up.
+   */
+  @Test
+  public void testChannelsInOrder() {
+    StationSeries series = new StationSeries();
+    series.append(7, 4, 3, 2, 1);
+    ReadingBatch batch = new ReadingBatch();
+    assertArrayEquals(new long[] {7}, series.scan(7, 7, batch));
+    assertEquals(4, batch.airTemp(0), 0);
+    assertEquals(3, batch.dewPoint(0), 0);
+    assertEquals(2, batch.windSpeed(0), 0);
+    assertEquals(1, batch.rain(0), 0);
+  }
+}